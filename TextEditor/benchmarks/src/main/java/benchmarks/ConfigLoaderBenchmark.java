@@ -0,0 +1,62 @@
+package benchmarks;
+
+// Import necessary packages/classes
+import java.io.PrintStream; // to restore the output of the editor
+import java.lang.invoke.MethodHandle; // to call the configuration loader
+import java.util.concurrent.TimeUnit; // to report the time per operation in microseconds
+// Import JMH classes for the benchmark harness
+import org.openjdk.jmh.annotations.Benchmark; // to mark the benchmarked method
+import org.openjdk.jmh.annotations.BenchmarkMode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.Fork; // to run the benchmark in a new virtual machine
+import org.openjdk.jmh.annotations.Level; // to silence the editor once per run
+import org.openjdk.jmh.annotations.Measurement; // to set the number of measured iterations
+import org.openjdk.jmh.annotations.Mode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.OutputTimeUnit; // to report the time per operation in microseconds
+import org.openjdk.jmh.annotations.Scope; // to share the state between the threads of a run
+import org.openjdk.jmh.annotations.Setup; // to silence the editor
+import org.openjdk.jmh.annotations.State; // to hold the output of the editor
+import org.openjdk.jmh.annotations.TearDown; // to restore the output of the editor
+import org.openjdk.jmh.annotations.Warmup; // to set the number of warm-up iterations
+
+/**
+ * The ConfigLoaderBenchmark class measures how long the ConfigLoader takes to read and parse config.yaml, as the editor does at startup.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-23
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ConfigLoaderBenchmark {
+
+    // === CONSTANTS ===
+    private static final MethodHandle NEW_CONFIG_LOADER = Editor.constructor("ConfigLoader", String.class);
+
+    // === ATTRIBUTES ===
+    private PrintStream out; // the output of the editor, restored after the run
+
+    // === METHODS ===
+
+    // A method to silence the configuration loader, which reports every file it loads
+    @Setup(Level.Trial)
+    public void setUp() {
+        out = Editor.silence();
+    }
+
+    // A method to restore the output of the editor
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    // A benchmark of loading and parsing the configuration file
+    @Benchmark
+    public Object parseConfig() throws Throwable {
+        return NEW_CONFIG_LOADER.invoke("config.yaml");
+    }
+}
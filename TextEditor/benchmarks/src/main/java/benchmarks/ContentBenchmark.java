@@ -0,0 +1,113 @@
+package benchmarks;
+
+// Import necessary packages/classes
+import java.lang.invoke.MethodHandle; // to create a document backed by the piece table of the editor
+import java.util.SplittableRandom; // to choose the offsets of the random edits
+import java.util.concurrent.TimeUnit; // to report the time per operation in microseconds
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.GapContent; // to create a document backed by the default gap buffer
+import javax.swing.text.PlainDocument; // to create the benchmarked documents
+// Import JMH classes for the benchmark harness
+import org.openjdk.jmh.annotations.Benchmark; // to mark the benchmarked methods
+import org.openjdk.jmh.annotations.BenchmarkMode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.Fork; // to run the benchmarks in a new virtual machine with a large heap
+import org.openjdk.jmh.annotations.Level; // to create the text once per run and the document once per iteration
+import org.openjdk.jmh.annotations.Measurement; // to set the number of measured iterations
+import org.openjdk.jmh.annotations.Mode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.OutputTimeUnit; // to report the time per operation in microseconds
+import org.openjdk.jmh.annotations.Param; // to run the benchmarks over both contents and several sizes
+import org.openjdk.jmh.annotations.Scope; // to hold the document of a thread
+import org.openjdk.jmh.annotations.Setup; // to create the text and the document
+import org.openjdk.jmh.annotations.State; // to hold the text and the document
+import org.openjdk.jmh.annotations.Warmup; // to set the number of warm-up iterations
+
+/**
+ * The ContentBenchmark class compares the PieceTableContent of the editor with the default GapContent of Swing, on plain documents
+ * of 16 MB and 64 MB of text. It measures loading the text, inserting at offset 0 (as the 'Time/Date' action does), editing the start
+ * and the end of the document in turn (which moves the gap across the whole text every time), and editing at random offsets.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-23
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class ContentBenchmark {
+
+    // === CONSTANTS ===
+    private static final MethodHandle CREATE_PIECE_TABLE_DOCUMENT =
+            Editor.staticMethod("PieceTableContent", "createDocument", PlainDocument.class, char[].class, int.class);
+
+    // === ATTRIBUTES ===
+    @Param({"gap", "pieceTable"})
+    public String content; // the content of the benchmarked document
+
+    @Param({"16", "64"})
+    public int sizeMb; // the size of the text of the document, in megabytes
+
+    private char[] text; // the characters of the generated text
+    private PlainDocument document; // the document edited by the benchmarks
+    private SplittableRandom random; // the source of the offsets of the random edits
+    private boolean atEnd = false; // whether the next alternating edit is at the end of the document
+
+    // === METHODS ===
+
+    // A method to generate the text once per run
+    @Setup(Level.Trial)
+    public void setUpText() {
+        text = Inputs.text(sizeMb * Inputs.MB, 0).toCharArray();
+    }
+
+    // A method to load the text into a new document before each iteration, so that the edits of an iteration do not pile up
+    @Setup(Level.Iteration)
+    public void setUpDocument() throws Throwable {
+        document = load();
+        random = new SplittableRandom(42);
+    }
+
+    // A benchmark of loading the text into a document (the gap buffer copies it, the piece table shares the array)
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PlainDocument loadText() throws Throwable {
+        return load();
+    }
+
+    // A benchmark of inserting a time stamp at offset 0
+    @Benchmark
+    public int insertAtStart() throws BadLocationException {
+        document.insertString(0, "12:00 01/01/2024\n", null);
+        return document.getLength();
+    }
+
+    // A benchmark of inserting a character at the start and at the end of the document in turn
+    @Benchmark
+    public int alternateEnds() throws BadLocationException {
+        atEnd = !atEnd;
+        document.insertString(atEnd ? document.getLength() : 0, "x", null);
+        return document.getLength();
+    }
+
+    // A benchmark of inserting a word at a random offset and removing one at another, keeping the length of the document
+    @Benchmark
+    public int randomEdit() throws BadLocationException {
+        document.insertString(random.nextInt(document.getLength()), "abc", null);
+        document.remove(random.nextInt(document.getLength() - 3), 3);
+        return document.getLength();
+    }
+
+    // A helper method to create a document holding the text with the benchmarked content
+    private PlainDocument load() throws Throwable {
+        if (content.equals("pieceTable")) {
+            return (PlainDocument) CREATE_PIECE_TABLE_DOCUMENT.invoke(text, text.length);
+        }
+        PlainDocument gapDocument = new PlainDocument(new GapContent());
+        gapDocument.insertString(0, new String(text), null);
+        return gapDocument;
+    }
+}
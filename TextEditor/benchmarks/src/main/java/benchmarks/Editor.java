@@ -0,0 +1,68 @@
+package benchmarks;
+
+// Import necessary packages/classes
+import java.io.OutputStream; // to discard the messages of the editor
+import java.io.PrintStream; // to discard the messages of the editor
+import java.lang.invoke.MethodHandle; // to call the methods of the editor
+import java.lang.invoke.MethodHandles; // to look up the methods of the editor
+import java.lang.invoke.MethodType; // to describe the methods of the editor
+
+/**
+ * The Editor class gives the benchmarks access to the classes of the text editor, which are in the default package.
+ * JMH does not run benchmarks in the default package, and a class in a named package cannot name a class in the default package,
+ * so the methods of the editor are looked up once as method handles, which the JIT compiles like direct calls.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-23
+ */
+
+final class Editor {
+
+    // === CONSTRUCTORS ===
+
+    // A private constructor, as the class only has static methods
+    private Editor() {
+    }
+
+    // === METHODS ===
+
+    // A static method to find a constructor (public or package-private) of a class of the editor
+    static MethodHandle constructor(String className, Class<?>... parameterTypes) {
+        try {
+            return lookup(className).findConstructor(Class.forName(className), MethodType.methodType(void.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The editor has no constructor " + className + MethodType.methodType(void.class, parameterTypes), e);
+        }
+    }
+
+    // A static method to find an instance method (public or package-private) of a class of the editor
+    static MethodHandle method(String className, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return lookup(className).findVirtual(Class.forName(className), name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The editor has no method " + className + "." + name, e);
+        }
+    }
+
+    // A static method to find a static method (public or package-private) of a class of the editor
+    static MethodHandle staticMethod(String className, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return lookup(className).findStatic(Class.forName(className), name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The editor has no static method " + className + "." + name, e);
+        }
+    }
+
+    // A static method to discard what the editor prints (e.g. a message for every file it reads), returning the stream to restore afterwards
+    static PrintStream silence() {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return out;
+    }
+
+    // A helper method to get a lookup with access to the package-private members of a class (the editor and the benchmarks share the unnamed module)
+    private static MethodHandles.Lookup lookup(String className) throws ReflectiveOperationException {
+        return MethodHandles.privateLookupIn(Class.forName(className), MethodHandles.lookup());
+    }
+}
@@ -0,0 +1,118 @@
+package benchmarks;
+
+// Import necessary packages/classes
+import java.io.File; // to pass the files to the file handler
+import java.io.IOException; // to handle input/output exceptions
+import java.io.PrintStream; // to restore the output of the editor
+import java.lang.invoke.MethodHandle; // to call the methods of the file handler
+import java.nio.file.Files; // to delete the saved file
+import java.util.concurrent.TimeUnit; // to report the time per operation in milliseconds
+import javax.swing.text.Document; // to return the document that was read
+// Import JMH classes for the benchmark harness
+import org.openjdk.jmh.annotations.Benchmark; // to mark the benchmarked methods
+import org.openjdk.jmh.annotations.BenchmarkMode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.Fork; // to run the benchmarks in a new virtual machine with a large heap
+import org.openjdk.jmh.annotations.Level; // to generate the input files once per run
+import org.openjdk.jmh.annotations.Measurement; // to set the number of measured iterations
+import org.openjdk.jmh.annotations.Mode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.OutputTimeUnit; // to report the time per operation in milliseconds
+import org.openjdk.jmh.annotations.Param; // to run the benchmarks over several input sizes
+import org.openjdk.jmh.annotations.Scope; // to share the input files between the threads of a run
+import org.openjdk.jmh.annotations.Setup; // to generate the input files
+import org.openjdk.jmh.annotations.State; // to hold the input files and the file handler
+import org.openjdk.jmh.annotations.TearDown; // to restore the output of the editor
+import org.openjdk.jmh.annotations.Warmup; // to set the number of warm-up iterations
+import org.openjdk.jmh.infra.BenchmarkParams; // to find which benchmark is run
+// Import RSyntaxTextArea classes for syntax highlighting
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to create the text area of the file handler
+
+/**
+ * The FileHandlerBenchmark class measures how long the FileHandler takes to read text, ODT, and RTF files and to save a text file,
+ * over generated inputs of 1 MB to 1 GB of text. The largest inputs need a heap of about 10 GB; on a smaller machine, run a subset
+ * of the sizes (e.g. -p sizeMb=1,16,256).
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-23
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx12g"})
+public class FileHandlerBenchmark {
+
+    // === CONSTANTS ===
+    private static final MethodHandle NEW_FILE_HANDLER = Editor.constructor("FileHandler", RSyntaxTextArea.class);
+    private static final MethodHandle READ_TXT_FILE = Editor.method("FileHandler", "readTxtFile", void.class, File.class);
+    private static final MethodHandle READ_ODT_FILE = Editor.method("FileHandler", "readOdtFile", void.class, File.class);
+    private static final MethodHandle READ_RTF_FILE = Editor.method("FileHandler", "readRtfFile", void.class, File.class);
+    private static final MethodHandle SAVE_TXT_FILE = Editor.method("FileHandler", "saveTxtFile", void.class, File.class);
+
+    // === ATTRIBUTES ===
+    @Param({"1", "16", "256", "1024"})
+    public int sizeMb; // the size of the text of the input files, in megabytes
+
+    private File txtFile; // the generated text file
+    private File odtFile; // the generated ODT file
+    private File rtfFile; // the generated RTF file
+    private File savedFile; // the file the text is saved to
+    private RSyntaxTextArea textArea; // the text area the files are read into
+    private Object fileHandler; // the file handler of the text area
+    private PrintStream out; // the output of the editor, restored after the run
+
+    // === METHODS ===
+
+    // A method to generate (or find in the cache) the input files, and to create the file handler (holding the text to save, if saving is measured)
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws Throwable {
+        long size = sizeMb * Inputs.MB;
+        txtFile = Inputs.textFile(size).toFile();
+        odtFile = Inputs.odtFile(size).toFile();
+        rtfFile = Inputs.rtfFile(size).toFile();
+        savedFile = Files.createTempFile("benchmark", ".txt").toFile();
+        out = Editor.silence(); // The file handler reports every file it reads and saves
+        textArea = new RSyntaxTextArea();
+        fileHandler = NEW_FILE_HANDLER.invoke(textArea);
+        if (params.getBenchmark().endsWith(".saveTxtFile")) {
+            READ_TXT_FILE.invoke(fileHandler, txtFile);
+        }
+    }
+
+    // A method to restore the output of the editor and delete the saved file
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(out);
+        Files.deleteIfExists(savedFile.toPath());
+    }
+
+    // A benchmark of reading a text file into the text area
+    @Benchmark
+    public Document readTxtFile() throws Throwable {
+        READ_TXT_FILE.invoke(fileHandler, txtFile);
+        return textArea.getDocument();
+    }
+
+    // A benchmark of reading an ODT file into the text area
+    @Benchmark
+    public Document readOdtFile() throws Throwable {
+        READ_ODT_FILE.invoke(fileHandler, odtFile);
+        return textArea.getDocument();
+    }
+
+    // A benchmark of reading an RTF file into the text area
+    @Benchmark
+    public Document readRtfFile() throws Throwable {
+        READ_RTF_FILE.invoke(fileHandler, rtfFile);
+        return textArea.getDocument();
+    }
+
+    // A benchmark of saving the text of the text area (read from the text file during the setup) to a text file
+    @Benchmark
+    public long saveTxtFile() throws Throwable {
+        SAVE_TXT_FILE.invoke(fileHandler, savedFile);
+        return savedFile.length();
+    }
+}
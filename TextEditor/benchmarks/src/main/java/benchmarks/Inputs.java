@@ -0,0 +1,162 @@
+package benchmarks;
+
+// Import necessary packages/classes
+import java.io.BufferedWriter; // to write the generated files
+import java.io.IOException; // to handle input/output exceptions
+import java.io.OutputStreamWriter; // to write the content of the generated ODT files
+import java.io.Writer; // to write the lines of the generated files
+import java.nio.charset.StandardCharsets; // to encode the generated files
+import java.nio.file.Files; // to create the generated files
+import java.nio.file.Path; // to work with the generated files
+import java.nio.file.StandardCopyOption; // to move a finished file into place
+import java.util.Random; // to choose the words of the generated text
+import java.util.zip.CRC32; // to store the mimetype entry of the ODT files uncompressed
+import java.util.zip.ZipEntry; // to create the entries of the ODT files
+import java.util.zip.ZipOutputStream; // to write the ODT files as zip archives
+
+/**
+ * The Inputs class generates the text, ODT, and RTF files read by the benchmarks, holding about the given number of characters of text.
+ * The text is made of lines of words chosen by a seeded random generator, so the same size always gives the same text, with the word
+ * "needle" every given number of words. The files are cached in the directory of the 'benchmark.inputs' system property
+ * (the temporary directory by default), as generating the largest ones takes longer than a benchmark iteration.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-23
+ */
+
+final class Inputs {
+
+    // === CONSTANTS ===
+    static final long MB = 1024 * 1024; // the number of bytes in a megabyte
+    static final String NEEDLE = "needle"; // the word searched for by the benchmarks
+    private static final String[] WORDS = {"the", "editor", "reads", "and", "writes", "plain", "text", "files", "with", "syntax",
+            "highlighting", "search", "export", "document", "line", "word", "needles", "haystack", "character", "page"};
+    private static final int WORDS_PER_LINE = 10; // the number of words on a generated line
+    private static final long SEED = 42; // the seed of the generated text
+
+    // === CONSTRUCTORS ===
+
+    // A private constructor, as the class only has static methods
+    private Inputs() {
+    }
+
+    // === METHODS ===
+
+    // A static method to generate a text of about the given number of characters, with the needle every given number of words (or never if 0)
+    static String text(long size, int needleInterval) {
+        StringBuilder builder = new StringBuilder((int) Math.min(size + 256, Integer.MAX_VALUE - 8));
+        try {
+            writeLines(size, needleInterval, line -> builder.append(line).append('\n'));
+        } catch (IOException e) {
+            throw new AssertionError("A string builder does not throw", e);
+        }
+        return builder.toString();
+    }
+
+    // A static method to get (generating it if needed) a text file of about the given number of characters
+    static Path textFile(long size) throws IOException {
+        return cached("input-" + size + ".txt", file -> {
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writeLines(size, 0, line -> writer.append(line).append('\n'));
+            }
+        });
+    }
+
+    // A static method to get (generating it if needed) an RTF file holding about the given number of characters of text
+    static Path rtfFile(long size) throws IOException {
+        return cached("input-" + size + ".rtf", file -> {
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+                writer.write("{\\rtf1\\ansi\\ansicpg1252\\deff0{\\fonttbl{\\f0\\fmodern Courier New;}}\n\\f0\\fs20 ");
+                writeLines(size, 0, line -> writer.append("{\\b ").append(line, 0, 3).append('}').append(line, 3, line.length()).append("\\par\n"));
+                writer.write("}\n");
+            }
+        });
+    }
+
+    // A static method to get (generating it if needed) an ODT file holding about the given number of characters of text
+    static Path odtFile(long size) throws IOException {
+        return cached("input-" + size + ".odt", file -> {
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+                // The mimetype is the first entry, stored uncompressed, so the format can be recognised by its first bytes
+                byte[] mimetype = "application/vnd.oasis.opendocument.text".getBytes(StandardCharsets.US_ASCII);
+                ZipEntry mimetypeEntry = new ZipEntry("mimetype");
+                CRC32 crc = new CRC32();
+                crc.update(mimetype);
+                mimetypeEntry.setMethod(ZipEntry.STORED);
+                mimetypeEntry.setSize(mimetype.length);
+                mimetypeEntry.setCrc(crc.getValue());
+                zip.putNextEntry(mimetypeEntry);
+                zip.write(mimetype);
+                zip.closeEntry();
+                zip.putNextEntry(new ZipEntry("content.xml"));
+                Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<office:document-content"
+                        + " xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\""
+                        + " xmlns:text=\"urn:oasis:names:tc:opendocument:xmlns:text:1.0\"><office:body><office:text>\n");
+                writeLines(size, 0, line -> writer.append("<text:p>").append(line).append("</text:p>\n"));
+                writer.write("</office:text></office:body></office:document-content>\n");
+                writer.flush(); // The writer is not closed, as that would close the zip archive before its entry is finished
+                zip.closeEntry();
+            }
+        });
+    }
+
+    // A helper method to write lines of words until about the given number of characters has been written
+    private static void writeLines(long size, int needleInterval, LineWriter writer) throws IOException {
+        Random random = new Random(SEED);
+        StringBuilder line = new StringBuilder(128);
+        long written = 0;
+        long words = 0;
+        while (written < size) {
+            line.setLength(0);
+            for (int i = 0; i < WORDS_PER_LINE; i++) {
+                if (i > 0) {
+                    line.append(' ');
+                }
+                words++;
+                line.append((needleInterval > 0 && words % needleInterval == 0) ? NEEDLE : WORDS[random.nextInt(WORDS.length)]);
+            }
+            writer.write(line);
+            written += line.length() + 1;
+        }
+    }
+
+    // A helper method to get a generated file from the cache, generating it into a temporary file first if it is missing
+    private static Path cached(String name, FileWriter writer) throws IOException {
+        Path directory = Path.of(System.getProperty("benchmark.inputs", Path.of(System.getProperty("java.io.tmpdir"), "texteditor-benchmark-inputs").toString()));
+        Path file = directory.resolve(name);
+        if (!Files.exists(file)) {
+            Files.createDirectories(directory);
+            // Generate the file under another name, so that an interrupted run does not leave a truncated file in the cache
+            Path partial = Files.createTempFile(directory, name, ".partial");
+            try {
+                writer.write(partial);
+                Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * The LineWriter interface writes a generated line of words (without its line separator).
+     */
+    @FunctionalInterface
+    private interface LineWriter {
+
+        // A method to write a generated line
+        void write(CharSequence line) throws IOException;
+    }
+
+    /**
+     * The FileWriter interface writes a generated file.
+     */
+    @FunctionalInterface
+    private interface FileWriter {
+
+        // A method to write the generated file
+        void write(Path file) throws IOException;
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+// Import necessary packages/classes
+import java.io.File; // to pass the exported file to the exporter
+import java.io.IOException; // to handle input/output exceptions
+import java.lang.invoke.MethodHandle; // to call the exporter
+import java.nio.file.Files; // to create and delete the exported file
+import java.util.concurrent.TimeUnit; // to report the time per operation in milliseconds
+import javax.swing.text.Document; // to pass the exported document to the exporter
+import javax.swing.text.PlainDocument; // to hold the exported text
+// Import JMH classes for the benchmark harness
+import org.openjdk.jmh.annotations.Benchmark; // to mark the benchmarked method
+import org.openjdk.jmh.annotations.BenchmarkMode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.Fork; // to run the benchmarks in a new virtual machine
+import org.openjdk.jmh.annotations.Level; // to create the document once per run
+import org.openjdk.jmh.annotations.Measurement; // to set the number of measured iterations
+import org.openjdk.jmh.annotations.Mode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.OutputTimeUnit; // to report the time per operation in milliseconds
+import org.openjdk.jmh.annotations.Param; // to run the benchmark over several sizes
+import org.openjdk.jmh.annotations.Scope; // to share the document between the threads of a run
+import org.openjdk.jmh.annotations.Setup; // to create the document
+import org.openjdk.jmh.annotations.State; // to hold the document and the exported file
+import org.openjdk.jmh.annotations.TearDown; // to delete the exported file
+import org.openjdk.jmh.annotations.Warmup; // to set the number of warm-up iterations
+
+/**
+ * The PdfExportBenchmark class measures how long the PDFExporter takes to write a document to a PDF file, as the 'Export as PDF' action does
+ * (without its progress dialog, which only reports the progress of the same export).
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-23
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class PdfExportBenchmark {
+
+    // === CONSTANTS ===
+    private static final MethodHandle WRITE_PDF = Editor.staticMethod("PDFExporter", "writePdf", int.class, File.class, Document.class);
+
+    // === ATTRIBUTES ===
+    @Param({"1", "16"})
+    public int sizeMb; // the size of the text of the document, in megabytes
+
+    private PlainDocument document; // the exported document
+    private File pdfFile; // the file the document is exported to (deleted after each export, so it is never overwritten)
+
+    // === METHODS ===
+
+    // A method to create a document holding the generated text, and the file it is exported to
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        document = new PlainDocument();
+        document.insertString(0, Inputs.text(sizeMb * Inputs.MB, 0), null);
+        pdfFile = Files.createTempFile("benchmark", ".pdf").toFile();
+        Files.delete(pdfFile.toPath());
+    }
+
+    // A method to delete the exported file after each export (which takes long enough for the deletion not to skew the measurement)
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pdfFile.toPath());
+    }
+
+    // A benchmark of exporting the document to a PDF file, returning the number of pages written
+    @Benchmark
+    public int exportToPdf() throws Throwable {
+        return (int) WRITE_PDF.invoke(pdfFile, (Document) document);
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+// Import necessary packages/classes
+import java.lang.invoke.MethodHandle; // to call the methods of the search handler
+import java.util.concurrent.TimeUnit; // to report the time per operation in milliseconds
+import javax.swing.JTextArea; // to create the search handler of the text area
+// Import JMH classes for the benchmark harness
+import org.openjdk.jmh.annotations.Benchmark; // to mark the benchmarked methods
+import org.openjdk.jmh.annotations.BenchmarkMode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.Fork; // to run the benchmarks in a new virtual machine
+import org.openjdk.jmh.annotations.Level; // to create the document once per run
+import org.openjdk.jmh.annotations.Measurement; // to set the number of measured iterations
+import org.openjdk.jmh.annotations.Mode; // to measure the average time per operation
+import org.openjdk.jmh.annotations.OutputTimeUnit; // to report the time per operation in milliseconds
+import org.openjdk.jmh.annotations.Param; // to run the benchmarks over several sizes and match densities
+import org.openjdk.jmh.annotations.Scope; // to share the text area between the threads of a run
+import org.openjdk.jmh.annotations.Setup; // to create the document
+import org.openjdk.jmh.annotations.State; // to hold the text area and the search handler
+import org.openjdk.jmh.annotations.Warmup; // to set the number of warm-up iterations
+// Import RSyntaxTextArea classes for syntax highlighting
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to create the text area that is searched
+
+/**
+ * The SearchBenchmark class measures how long the SearchHandler takes to find and highlight every match of a word, as a substring
+ * ('search') and as a full word ('searchFullWord'). The word is found once every 10,000 words at a low match density, and once every
+ * 10 words at a high one, where highlighting the matches costs more than finding them.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-23
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class SearchBenchmark {
+
+    // === CONSTANTS ===
+    private static final MethodHandle NEW_SEARCH_HANDLER = Editor.constructor("SearchHandler", JTextArea.class);
+    private static final MethodHandle SEARCH = Editor.method("SearchHandler", "search", int.class, String.class);
+    private static final MethodHandle SEARCH_FULL_WORD = Editor.method("SearchHandler", "searchFullWord", int.class, String.class);
+
+    // === ATTRIBUTES ===
+    @Param({"1", "16"})
+    public int sizeMb; // the size of the text of the document, in megabytes
+
+    @Param({"low", "high"})
+    public String density; // the density of the matches in the document
+
+    private Object searchHandler; // the search handler of the text area
+
+    // === METHODS ===
+
+    // A method to create a text area holding the generated text, and its search handler
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        RSyntaxTextArea textArea = new RSyntaxTextArea();
+        textArea.setText(Inputs.text(sizeMb * Inputs.MB, density.equals("high") ? 10 : 10_000));
+        searchHandler = NEW_SEARCH_HANDLER.invoke(textArea);
+    }
+
+    // A benchmark of finding and highlighting the word as a substring (which also matches "needles")
+    @Benchmark
+    public int search() throws Throwable {
+        return (int) SEARCH.invoke(searchHandler, Inputs.NEEDLE);
+    }
+
+    // A benchmark of finding and highlighting the word as a full word
+    @Benchmark
+    public int searchFullWord() throws Throwable {
+        return (int) SEARCH_FULL_WORD.invoke(searchHandler, Inputs.NEEDLE);
+    }
+}
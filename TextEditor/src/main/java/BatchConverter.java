@@ -0,0 +1,276 @@
+// Import Java Swing classes for the document model (no Swing components are created)
+import javax.swing.text.Document; // to hold the text of a converted file
+// Import other necessary packages/classes
+import java.io.BufferedInputStream; // to buffer the reads of the input files
+import java.io.File; // to get the name separator of the platform
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read the input files
+import java.io.PrintStream; // to report the progress and the statistics
+import java.nio.file.FileSystems; // to match the input files against a glob
+import java.nio.file.Files; // to find, read, and write the files
+import java.nio.file.Path; // to work with the file paths
+import java.nio.file.PathMatcher; // to match the input files against a glob
+import java.util.ArrayList; // to store the input files
+import java.util.HashSet; // to detect output files with the same name
+import java.util.LinkedHashMap; // to keep the input files in order without duplicates
+import java.util.List; // to work with lists
+import java.util.Locale; // to format the statistics
+import java.util.Map; // to map the input files to their output paths
+import java.util.Set; // to detect output files with the same name
+import java.util.concurrent.CompletionService; // to report the results in the order the files are finished
+import java.util.concurrent.ExecutionException; // to handle an unexpected failure of a worker
+import java.util.concurrent.ExecutorCompletionService; // to collect the results of the worker pool
+import java.util.concurrent.ExecutorService; // to run the conversions on a worker pool
+import java.util.concurrent.Executors; // to create the worker pool
+import java.util.stream.Stream; // to walk the directories of a glob
+
+/**
+ * The BatchConverter class converts many .txt, .odt, .rtf and source code files to PDF or plain text without a display.
+ * The files are read and written by the codecs of the CodecRegistry, so any format a codec can write is also a valid output.
+ * It is run by Main when the first argument is '--convert', and never creates any Swing components, so it works on build servers.
+ * The input globs are expanded up front, and the files are converted on a pool of worker threads sized to the available cores.
+ * Each failed file is reported with its error, and the throughput is printed once every file has been converted.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-20
+ */
+
+public class BatchConverter {
+
+    // === CONSTANTS ===
+    public static final String COMMAND = "--convert"; // the first argument that starts the batch mode
+    static final String USAGE = "Usage: java -jar TextEditor.jar --convert --to pdf|txt --out <directory> [--threads <n>] <glob>...\n"
+            + "  e.g. --convert --to pdf --out build/pdf 'docs/**/*.odt' 'notes/*.{txt,rtf}'";
+    private static final int EXIT_FAILED_FILES = 1; // the exit code when some files could not be converted
+    private static final int EXIT_USAGE = 2; // the exit code when the arguments are invalid
+
+    // === ATTRIBUTES ===
+    private final String format; // the extension of the output format (e.g. 'pdf' or 'txt')
+    private final FormatCodec writer; // the codec writing the output format
+    private final Path outputDirectory; // the directory the converted files are written to
+    private final int threads; // the number of worker threads
+    private final String fontFamily; // the font family of the PDF files (the 'textFormat' of config.yaml)
+    private final boolean sync; // whether each converted file is forced to disk (the 'syncOnSave' of config.yaml)
+    private final PrintStream out; // the stream the progress and statistics are printed to
+    private final PrintStream err; // the stream the failed files are reported to
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new converter writing one format to an output directory
+    public BatchConverter(String format, Path outputDirectory, int threads, String fontFamily, boolean sync,
+                          PrintStream out, PrintStream err) {
+        this.format = format;
+        this.writer = CodecRegistry.getDefault().forExtension(format);
+        this.outputDirectory = outputDirectory;
+        this.threads = threads;
+        this.fontFamily = fontFamily;
+        this.sync = sync;
+        this.out = out;
+        this.err = err;
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A static method to run the batch mode from the command line arguments, returning the exit code of the process
+    public static int run(String[] args, ConfigLoader config, PrintStream out, PrintStream err) {
+        String format = null;
+        Path outputDirectory = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> globs = new ArrayList<>();
+        // Parse the options after the '--convert' command, treating the other arguments as input globs
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--to":
+                        format = args[++i].toLowerCase(Locale.ROOT);
+                        break;
+                    case "--out":
+                        outputDirectory = Path.of(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        globs.add(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            err.println("Invalid arguments: " + e.getMessage() + "\n" + USAGE);
+            return EXIT_USAGE;
+        }
+        FormatCodec writer = (format == null) ? null : CodecRegistry.getDefault().forExtension(format);
+        if (writer == null || !writer.canWrite() || outputDirectory == null || globs.isEmpty() || threads < 1) {
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        // Expand the globs and convert the files they match
+        try {
+            Map<Path, Path> files = expandGlobs(globs);
+            if (files.isEmpty()) {
+                err.println("No supported files match " + String.join(" ", globs));
+                return EXIT_FAILED_FILES;
+            }
+            BatchConverter converter = new BatchConverter(format, outputDirectory, threads, config.getTextFormat(),
+                    config.getSyncOnSave(), out, err);
+            return (converter.convertAll(files) == 0) ? 0 : EXIT_FAILED_FILES;
+        } catch (IOException e) {
+            err.println("Error finding the input files: " + e.getMessage());
+            return EXIT_FAILED_FILES;
+        }
+    }
+
+    // A static method to expand the input globs into the supported files they match, mapped to their paths relative to the glob
+    static Map<Path, Path> expandGlobs(List<String> globs) throws IOException {
+        Map<Path, Path> files = new LinkedHashMap<>();
+        for (String glob : globs) {
+            int wildcard = indexOfWildcard(glob);
+            // A path without wildcards is a single file, which is written under its own name (its format may be recognised by its content,
+            // and a missing or unsupported file is reported when it is converted)
+            if (wildcard < 0) {
+                Path file = Path.of(glob);
+                if (!Files.isDirectory(file)) {
+                    files.putIfAbsent(file.toAbsolutePath().normalize(), file.getFileName());
+                }
+                continue;
+            }
+            // Otherwise walk the directory before the first wildcard, matching the rest of the glob against the relative paths
+            int separator = Math.max(glob.lastIndexOf('/', wildcard), glob.lastIndexOf(File.separatorChar, wildcard));
+            Path base = Path.of((separator < 0) ? "." : glob.substring(0, separator + 1));
+            String pattern = glob.substring(separator + 1);
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            // Only descend as deep as the glob can match, unless it contains '**'
+            int depth = pattern.contains("**") ? Integer.MAX_VALUE : (int) pattern.chars().filter(c -> c == '/').count() + 1;
+            if (!Files.isDirectory(base)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(base, depth)) {
+                paths.filter(path -> Files.isRegularFile(path) && isSupported(path) && matcher.matches(base.relativize(path)))
+                        .sorted()
+                        .forEach(path -> files.putIfAbsent(path.toAbsolutePath().normalize(), base.relativize(path)));
+            }
+        }
+        return files;
+    }
+
+    // A method to convert the files on the worker pool, reporting each failed file, and returning the number of failures
+    public int convertAll(Map<Path, Path> files) {
+        long start = System.nanoTime();
+        long totalBytes = 0;
+        int failures = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-converter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Submit every file, then report the results in the order they finish
+            CompletionService<Result> results = new ExecutorCompletionService<>(pool);
+            Set<Path> outputs = new HashSet<>();
+            for (Map.Entry<Path, Path> file : files.entrySet()) {
+                Path output = getOutputPath(file.getValue(), outputs);
+                results.submit(() -> convert(file.getKey(), output));
+            }
+            for (int i = 0; i < files.size(); i++) {
+                Result result = results.take().get();
+                if (result.error == null) {
+                    totalBytes += result.bytes;
+                    out.println("Converted " + result.input + " -> " + result.output);
+                } else {
+                    failures++;
+                    err.println("Failed " + result.input + ": " + result.error);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures = files.size();
+        } catch (ExecutionException e) {
+            // Not reached, as convert reports the failure of each file in its result
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        // Print the throughput of the whole batch
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        int converted = files.size() - failures;
+        out.printf(Locale.ROOT, "%d of %d file(s) converted, %d failed, in %.2f s (%.1f files/s, %.2f MB/s, %d thread(s))%n",
+                converted, files.size(), failures, seconds, converted / seconds, totalBytes / seconds / (1024 * 1024), threads);
+        return failures;
+    }
+
+    // A helper method to get the output path of a file, keeping its extension if another file already has the same output path
+    private Path getOutputPath(Path relativePath, Set<Path> outputs) {
+        String name = relativePath.getFileName().toString();
+        String baseName = (name.lastIndexOf('.') > 0) ? name.substring(0, name.lastIndexOf('.')) : name;
+        Path output = outputDirectory.resolve(relativePath).resolveSibling(baseName + "." + format);
+        if (!outputs.add(output)) {
+            output = output.resolveSibling(name + "." + format); // e.g. 'notes.rtf.pdf' next to 'notes.pdf'
+            outputs.add(output);
+        }
+        return output;
+    }
+
+    // A helper method to convert a single file on a worker thread, returning its result instead of throwing
+    private Result convert(Path input, Path output) {
+        try {
+            long bytes = Files.size(input);
+            Document document = load(input, bytes);
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            // A text file keeps the charset, byte order mark, and line separator it was read with (ODT and RTF files use the default charset)
+            WriteOptions options = new WriteOptions();
+            options.setTextFormatOf(document);
+            options.setFontFamily(fontFamily);
+            options.setSync(sync);
+            writer.getWriter().write(new DocumentCharSequence(document), output, options);
+            return new Result(input, output, bytes, null);
+        } catch (Exception | OutOfMemoryError e) {
+            return new Result(input, output, 0, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    // A helper method to load a file into a new plain document with its codec (the characters of a large text file are shared with a piece table)
+    private static Document load(Path input, long length) throws Exception {
+        FormatCodec codec = CodecRegistry.getDefault().forFile(input);
+        if (codec == null || !codec.canRead()) {
+            throw new IOException("Unsupported file type");
+        }
+        TextSink.PlainDocumentBuilder builder = new TextSink.PlainDocumentBuilder(length);
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(input))) {
+            codec.getReader().read(inputStream, length, builder);
+        }
+        return builder.createDocument();
+    }
+
+    // A helper method to check whether a file has one of the extensions the editor opens
+    private static boolean isSupported(Path file) {
+        return CodecRegistry.getDefault().getReadableExtensions().contains(CodecRegistry.getExtension(file));
+    }
+
+    // A helper method to find the first wildcard character of a glob (or -1 if it has none)
+    private static int indexOfWildcard(String glob) {
+        for (int i = 0; i < glob.length(); i++) {
+            if ("*?[{".indexOf(glob.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The Result class stores the outcome of converting a single file.
+     */
+    private static final class Result {
+        private final Path input; // the file that was converted
+        private final Path output; // the file that was written
+        private final long bytes; // the size of the input file in bytes
+        private final String error; // the error that stopped the conversion (or null if it succeeded)
+
+        // A parameterized constructor to initialize a new result
+        Result(Path input, Path output, long bytes, String error) {
+            this.input = input;
+            this.output = output;
+            this.bytes = bytes;
+            this.error = error;
+        }
+    }
+}
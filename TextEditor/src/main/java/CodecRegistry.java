@@ -0,0 +1,320 @@
+// Import necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read the files
+import java.nio.charset.StandardCharsets; // to compare the signatures of the formats
+import java.nio.file.Files; // to read the first bytes of a file
+import java.nio.file.Path; // to work with the files
+import java.util.Arrays; // to compare the signatures of the formats
+import java.util.LinkedHashSet; // to keep the extensions in order
+import java.util.List; // to work with the list of codecs
+import java.util.Locale; // to lower the case of the extensions
+import java.util.ServiceLoader; // to load the codecs of other formats
+import java.util.Set; // to list the extensions
+import java.util.concurrent.CopyOnWriteArrayList; // to look up the codecs from several threads
+// Import RSyntaxTextArea classes for syntax highlighting
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to set the syntax style of the source code formats
+
+/**
+ * The CodecRegistry class finds the FormatCodec of a file, by its extension or, if the extension is unknown, by its first bytes.
+ * The default registry holds the codecs of plain text, source code, ODT, RTF, and PDF files, and the codecs of other formats
+ * found as services. A codec registered later takes precedence over the codecs registered before it.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-21
+ */
+
+public class CodecRegistry {
+
+    // === CONSTANTS ===
+    public static final int SNIFF_LENGTH = 512; // the number of bytes read from the start of a file to recognise its format
+    private static final CodecRegistry DEFAULT = createDefault(); // the registry used by the editor and the batch converter
+
+    // === ATTRIBUTES ===
+    private final List<FormatCodec> codecs = new CopyOnWriteArrayList<>(); // the registered codecs, the most recent first
+
+    // === METHODS ===
+
+    // A static method to get the default registry
+    public static CodecRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // A method to register a codec, which takes precedence over the codecs registered before it
+    public void register(FormatCodec codec) {
+        codecs.add(0, codec);
+    }
+
+    // A method to find the codec of an extension (or null if there is none)
+    public FormatCodec forExtension(String extension) {
+        String key = extension.toLowerCase(Locale.ROOT);
+        for (FormatCodec codec : codecs) {
+            if (codec.getExtensions().contains(key)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    // A method to find the codec of the first bytes of a file (or null if no format recognises them)
+    public FormatCodec sniff(byte[] header, int length) {
+        for (FormatCodec codec : codecs) {
+            if (codec.sniff(header, length)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    // A method to find the codec of a file by its extension, or by its first bytes if the extension is unknown (or null if there is none)
+    public FormatCodec forFile(Path file) throws IOException {
+        FormatCodec codec = forExtension(getExtension(file));
+        if (codec != null) {
+            return codec;
+        }
+        byte[] header = new byte[SNIFF_LENGTH];
+        int length = 0;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int count;
+            while (length < header.length && (count = inputStream.read(header, length, header.length - length)) > 0) {
+                length += count;
+            }
+        }
+        return sniff(header, length);
+    }
+
+    // A method to get the extensions of the formats that can be read
+    public Set<String> getReadableExtensions() {
+        Set<String> extensions = new LinkedHashSet<>();
+        for (FormatCodec codec : codecs) {
+            if (codec.canRead()) {
+                extensions.addAll(codec.getExtensions());
+            }
+        }
+        return extensions;
+    }
+
+    // A static method to get the lower case extension of a file (or an empty string if it has none)
+    public static String getExtension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return (dot < 0) ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    // A helper method to create the default registry with the built-in codecs and the codecs found as services
+    private static CodecRegistry createDefault() {
+        CodecRegistry registry = new CodecRegistry();
+        // Plain text is registered first, so that it is only recognised by content if no other format is
+        registry.register(new TextCodec("Text", SyntaxConstants.SYNTAX_STYLE_NONE, true, "txt"));
+        registry.register(new TextCodec("Source code", SyntaxConstants.SYNTAX_STYLE_JAVA, false, "java"));
+        registry.register(new TextCodec("Source code", SyntaxConstants.SYNTAX_STYLE_PYTHON, false, "py"));
+        registry.register(new TextCodec("Source code", SyntaxConstants.SYNTAX_STYLE_CPLUSPLUS, false, "cpp"));
+        registry.register(new TextCodec("Source code", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT, false, "js"));
+        registry.register(new OdtCodec());
+        registry.register(new RtfCodec());
+        registry.register(new PdfCodec());
+        for (FormatCodec codec : ServiceLoader.load(FormatCodec.class)) {
+            registry.register(codec);
+        }
+        return registry;
+    }
+
+    // A helper method to check whether the first bytes of a file start with a signature
+    private static boolean startsWith(byte[] header, int length, byte[] signature) {
+        return length >= signature.length && Arrays.equals(header, 0, signature.length, signature, 0, signature.length);
+    }
+
+    /**
+     * The TextCodec class reads and writes plain text and source code files through the TextFileDecoder and the DocumentSaver.
+     * The charset, byte order mark, and line separator of a file are recorded when it is read, and used again when it is written.
+     */
+    private static final class TextCodec implements FormatCodec {
+
+        // === ATTRIBUTES ===
+        private final String name; // the name of the format
+        private final String syntaxStyle; // the syntax highlighting style of the files
+        private final boolean sniffed; // whether the files are recognised by their content
+        private final Set<String> extensions; // the extensions of the files
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new codec of text files with a syntax style
+        TextCodec(String name, String syntaxStyle, boolean sniffed, String... extensions) {
+            this.name = name;
+            this.syntaxStyle = syntaxStyle;
+            this.sniffed = sniffed;
+            this.extensions = Set.of(extensions);
+        }
+
+        // === METHODS ===
+
+        // A method to get the name of the format
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        // A method to get the extensions of the format
+        @Override
+        public Set<String> getExtensions() {
+            return extensions;
+        }
+
+        // A method to get the syntax highlighting style of the files
+        @Override
+        public String getSyntaxStyle() {
+            return syntaxStyle;
+        }
+
+        // A method to check whether the files are plain text (which they are)
+        @Override
+        public boolean isPlainText() {
+            return true;
+        }
+
+        // A method to recognise text by a UTF-16 byte order mark, or by the absence of zero bytes
+        @Override
+        public boolean sniff(byte[] header, int length) {
+            if (!sniffed) {
+                return false;
+            }
+            if (length >= 2 && ((header[0] == (byte) 0xFE && header[1] == (byte) 0xFF) || (header[0] == (byte) 0xFF && header[1] == (byte) 0xFE))) {
+                return true;
+            }
+            for (int i = 0; i < length; i++) {
+                if (header[i] == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // A method to get the reader, which decodes the file in a single pass and hands its characters to the sink
+        @Override
+        public TextReader getReader() {
+            return (inputStream, length, sink) -> TextFileDecoder.decode(inputStream, length).writeTo(sink);
+        }
+
+        // A method to get the writer, which saves the text in the charset, byte order mark, and line separator of the options
+        @Override
+        public TextWriter getWriter() {
+            return (text, target, options) -> DocumentSaver.save(text, target, options.getCharset(), options.hasByteOrderMark(),
+                    options.getLineSeparator(), options.isSync());
+        }
+    }
+
+    /**
+     * The OdtCodec class reads the text of ODT files through the OdtTextReader.
+     */
+    private static final class OdtCodec implements FormatCodec {
+
+        // === CONSTANTS ===
+        private static final byte[] ZIP_SIGNATURE = {'P', 'K', 3, 4}; // the signature of a zip archive
+        private static final byte[] MIMETYPE = "mimetypeapplication/vnd.oasis.opendocument.text".getBytes(StandardCharsets.US_ASCII); // the first entry of an ODT file
+        private static final int MIMETYPE_OFFSET = 30; // the offset of the name of the first entry in a zip archive
+
+        // === METHODS ===
+
+        // A method to get the name of the format
+        @Override
+        public String getName() {
+            return "ODT";
+        }
+
+        // A method to get the extensions of the format
+        @Override
+        public Set<String> getExtensions() {
+            return Set.of("odt");
+        }
+
+        // A method to recognise a zip archive whose first entry is the mimetype of an ODT file
+        @Override
+        public boolean sniff(byte[] header, int length) {
+            return startsWith(header, length, ZIP_SIGNATURE) && length >= MIMETYPE_OFFSET + MIMETYPE.length
+                    && Arrays.equals(header, MIMETYPE_OFFSET, MIMETYPE_OFFSET + MIMETYPE.length, MIMETYPE, 0, MIMETYPE.length);
+        }
+
+        // A method to get the reader, which streams the text of the file into the sink
+        @Override
+        public TextReader getReader() {
+            return OdtTextReader::read;
+        }
+    }
+
+    /**
+     * The RtfCodec class reads the text of RTF files through the RtfTextReader.
+     */
+    private static final class RtfCodec implements FormatCodec {
+
+        // === CONSTANTS ===
+        private static final byte[] SIGNATURE = "{\\rtf".getBytes(StandardCharsets.US_ASCII); // the start of an RTF file
+
+        // === METHODS ===
+
+        // A method to get the name of the format
+        @Override
+        public String getName() {
+            return "RTF";
+        }
+
+        // A method to get the extensions of the format
+        @Override
+        public Set<String> getExtensions() {
+            return Set.of("rtf");
+        }
+
+        // A method to recognise the start of an RTF file
+        @Override
+        public boolean sniff(byte[] header, int length) {
+            return startsWith(header, length, SIGNATURE);
+        }
+
+        // A method to get the reader, which streams the text of the file into the sink
+        @Override
+        public TextReader getReader() {
+            return (inputStream, length, sink) -> RtfTextReader.read(inputStream, sink);
+        }
+    }
+
+    /**
+     * The PdfCodec class writes PDF files through the PDFExporter. PDF files are recognised, but cannot be read.
+     */
+    private static final class PdfCodec implements FormatCodec {
+
+        // === CONSTANTS ===
+        private static final byte[] SIGNATURE = "%PDF-".getBytes(StandardCharsets.US_ASCII); // the start of a PDF file
+
+        // === METHODS ===
+
+        // A method to get the name of the format
+        @Override
+        public String getName() {
+            return "PDF";
+        }
+
+        // A method to get the extensions of the format
+        @Override
+        public Set<String> getExtensions() {
+            return Set.of("pdf");
+        }
+
+        // A method to recognise the start of a PDF file
+        @Override
+        public boolean sniff(byte[] header, int length) {
+            return startsWith(header, length, SIGNATURE);
+        }
+
+        // A method to get the reader, of which there is none, as PDF files cannot be read
+        @Override
+        public TextReader getReader() {
+            return null;
+        }
+
+        // A method to get the writer, which exports the text to a PDF file in the font family (and syntax colours) of the options
+        @Override
+        public TextWriter getWriter() {
+            return (text, target, options) -> PDFExporter.writePdf(target.toFile(), text, options.getFontFamily(), options.getColorizer(),
+                    options.getCancelled(), options.getProgress());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+// Import Java Swing classes for the GUI
+import javax.swing.JFileChooser; // to load the classes of the file chooser while the class-data sharing archive is trained
+import javax.swing.text.PlainDocument; // to read the sample file of the training run
+// Import other necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read the sample file of the training run
+import java.io.PrintStream; // to print the time to the first paint and the result of the training run
+import java.lang.management.ManagementFactory; // to get the time the Java virtual machine started
+import java.nio.file.Files; // to write the sample files of the training run
+import java.nio.file.Path; // to work with the sample files of the training run
+import java.util.Comparator; // to delete the sample files deepest first
+import java.util.List; // to list the classes that are warmed up
+import java.util.concurrent.atomic.AtomicBoolean; // to report the first paint only once
+import java.util.stream.Stream; // to walk the sample files of the training run
+// Import RSyntaxTextArea and FlatLaf classes for the components created by the training run
+import com.formdev.flatlaf.intellijthemes.FlatCyanLightIJTheme; // to set up the theme as the editor does
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to create a text area with syntax highlighting
+import org.fife.ui.rtextarea.RTextScrollPane; // to create a scrollable text area
+
+/**
+ * The ColdStart class measures and shortens the time it takes the editor to show an editable window.
+ * It prints the time from the start of the Java virtual machine to the first paint of the window, and then loads the classes
+ * of the file chooser and of the ODT, RTF, and PDF formats on a background thread, so the first 'Open' or 'Export' is not slowed down.
+ * The headless training run (--cds-training) exercises the same classes, so that the build can dump them into a class-data sharing archive.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-22
+ */
+
+public class ColdStart {
+
+    // === CONSTANTS ===
+    public static final String TRAINING_COMMAND = "--cds-training"; // the first argument that starts the training run of the build
+    public static final long FIRST_PAINT_TARGET_MS = 400; // the time to an editable window the editor aims for
+    private static final long WARM_UP_DELAY_MS = 1000; // the time the window is left to settle before the classes are warmed up
+    static final List<String> WARM_UP_CLASSES = List.of( // the classes only needed once a file is opened, searched, or exported
+            "javax.swing.JFileChooser",
+            "com.formdev.flatlaf.ui.FlatFileChooserUI",
+            "FileOpenWorker",
+            "OdtTextReader",
+            "javax.xml.stream.XMLInputFactory",
+            "RtfTextReader",
+            "FindInFilesDialog",
+            "FileSearchEngine",
+            "PdfExportWorker",
+            "PDFExporter",
+            "org.apache.pdfbox.pdmodel.PDDocument",
+            "org.apache.pdfbox.pdmodel.font.PDType0Font",
+            "org.apache.pdfbox.pdmodel.font.FontMappers",
+            "org.apache.fontbox.ttf.TrueTypeFont");
+
+    // === ATTRIBUTES ===
+    private static final AtomicBoolean painted = new AtomicBoolean(false); // whether the first paint has been reported
+    private static long mainStartMillis = 0; // the time the main method started (or 0 if it has not been marked)
+
+    // === METHODS ===
+
+    // A static method to mark the start of the main method
+    public static void markStart() {
+        mainStartMillis = System.currentTimeMillis();
+    }
+
+    // A static method to report the first paint of a window, and then warm up the classes needed later (only the first call has an effect)
+    public static void firstPaint(PrintStream out) {
+        if (!painted.compareAndSet(false, true)) {
+            return;
+        }
+        long paintedAt = System.currentTimeMillis();
+        // The start time of the virtual machine and the remaining classes are loaded off the Event Dispatch Thread, once the window has settled
+        Thread thread = new Thread(() -> {
+            long vmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+            out.printf("Time to first paint: %d ms (%d ms in main, target %d ms)%n", paintedAt - vmStart,
+                    (mainStartMillis == 0) ? 0 : paintedAt - mainStartMillis, FIRST_PAINT_TARGET_MS);
+            try {
+                Thread.sleep(WARM_UP_DELAY_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            warmUp();
+        }, "Class warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    // A static method to load (without initializing) the classes only needed once a file is opened, searched, or exported, returning how many were found
+    public static int warmUp() {
+        int loaded = 0;
+        for (String name : WARM_UP_CLASSES) {
+            try {
+                Class.forName(name, false, ColdStart.class.getClassLoader());
+                loaded++;
+            } catch (ClassNotFoundException | LinkageError e) {
+                // A missing class is only loaded later, when (and if) it is needed
+            }
+        }
+        return loaded;
+    }
+
+    // A static method to run the headless workload whose classes the build dumps into a class-data sharing archive, returning the exit code
+    public static int train(ConfigLoader config, PrintStream out, PrintStream err) {
+        Path directory = null;
+        try {
+            // Create the components of a window as the editor does (the window itself cannot be created without a display)
+            FlatCyanLightIJTheme.setup();
+            RSyntaxTextArea textArea = new RSyntaxTextArea();
+            new RTextScrollPane(textArea);
+            new SearchHandler(textArea);
+            new JFileChooser();
+            ConfigApplier configApplier = new ConfigApplier(config);
+            configApplier.applyConfig(textArea);
+            FileHandler fileHandler = new FileHandler(textArea);
+            configApplier.applyConfig(fileHandler);
+            // Read a sample source file with its codec, highlight it, and convert it to text and PDF as the batch mode does
+            directory = Files.createTempDirectory("cds-training");
+            Path source = Files.writeString(directory.resolve("Sample.java"),
+                    "/** A sample class. */\npublic class Sample {\n    // A comment\n    int value = 42; String text = \"text\";\n}\n");
+            FormatCodec codec = CodecRegistry.getDefault().forFile(source);
+            TextSink.PlainDocumentBuilder builder = new TextSink.PlainDocumentBuilder(Files.size(source));
+            try (InputStream inputStream = Files.newInputStream(source)) {
+                codec.getReader().read(inputStream, Files.size(source), builder);
+            }
+            PlainDocument document = builder.createDocument();
+            textArea.setDocument(fileHandler.createSyntaxDocument(codec.getSyntaxStyle(), Files.size(source)));
+            textArea.setText(document.getText(0, document.getLength()));
+            WriteOptions textOptions = new WriteOptions();
+            textOptions.setTextFormatOf(document);
+            CodecRegistry.getDefault().forExtension("txt").getWriter().write(new DocumentCharSequence(document), directory.resolve("Sample.txt"), textOptions);
+            WriteOptions pdfOptions = new WriteOptions();
+            pdfOptions.setFontFamily(config.getTextFormat());
+            CodecRegistry.getDefault().forExtension("pdf").getWriter().write(new DocumentCharSequence(document), directory.resolve("Sample.pdf"), pdfOptions);
+            // Load the classes of the other formats, which the sample does not use
+            out.println("Trained the class-data sharing archive (" + warmUp() + " of " + WARM_UP_CLASSES.size() + " warm-up classes found)");
+            return 0;
+        } catch (Exception e) {
+            err.println("Error running the class-data sharing training: " + e);
+            return 1;
+        } finally {
+            deleteTree(directory);
+        }
+    }
+
+    // A helper method to delete the sample files of the training run
+    private static void deleteTree(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            // The sample files are left in the temporary directory
+        }
+    }
+}
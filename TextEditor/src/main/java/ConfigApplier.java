@@ -40,6 +40,14 @@ public class ConfigApplier {
         textArea.setForeground(color); // Set the text area color to the font color
     }
 
+    // A method to apply the configuration settings to the file handler
+    public void applyConfig(FileHandler fileHandler) {
+        // Get whether saved files are forced to disk before they replace the original (slower, but safe against a power loss)
+        fileHandler.setSyncOnSave(config.getSyncOnSave());
+        // Get the size past which files are opened as plain text, as highlighting them would make the editor sluggish
+        fileHandler.setSyntaxHighlightLimit(config.getSyntaxHighlightLimit() * 1024L * 1024);
+    }
+
     // A private method to convert a color string to a Color object
     private Color getColorFromString(String colorString) {
         //  Create a local variable to store the color object
@@ -58,6 +58,26 @@ public class ConfigLoader {
         return getValue("fontColor", String.class);
     }
 
+    // A getter method to retrieve whether saved files are forced to disk from the configuration file (optional, defaults to true)
+    public boolean getSyncOnSave() {
+        return getValue("syncOnSave", Boolean.class, true);
+    }
+
+    // A getter method to retrieve the size in MB past which files are opened without syntax highlighting (optional, defaults to 16)
+    public int getSyntaxHighlightLimit() {
+        return getValue("syntaxHighlightLimit", Integer.class, (int) (FileHandler.DEFAULT_SYNTAX_HIGHLIGHT_LIMIT / (1024 * 1024)));
+    }
+
+    // A getter method to retrieve the duration in ms past which a dispatch of the Event Dispatch Thread is logged as a stall (optional, defaults to 500, 0 turns it off)
+    public int getStallThreshold() {
+        return getValue("stallThreshold", Integer.class, EdtWatchdog.DEFAULT_THRESHOLD_MS);
+    }
+
+    // A generic method to retrieve an optional value from the configuration map, or the default value if the key is missing
+    private <T> T getValue(String key, Class<T> type, T defaultValue) {
+        return config.containsKey(key) ? getValue(key, type) : defaultValue;
+    }
+
     // A generic method to retrieve a value from the configuration map
     private <T> T getValue(String key, Class<T> type) {
         // Get the value associated with the specified key from the configuration map
@@ -0,0 +1,165 @@
+// Import Java Swing classes for the document model
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Document; // to read the characters of a document
+import javax.swing.text.Segment; // to read the document without copying it into strings
+// Import other necessary packages/classes
+import java.util.Arrays; // to copy the text of a snapshot
+
+/**
+ * The DocumentCharSequence class presents a range of a Document as a CharSequence, so that a regular expression can be
+ * matched against the document directly instead of against a copy of its whole text.
+ * Characters are read through a Segment a chunk at a time, which for the gap buffer of the document does not copy them.
+ * An optional deadline stops a match that takes too long (e.g. a pattern with catastrophic backtracking) by throwing a
+ * TimeBudgetExceededException from charAt, which the Matcher calls on every step. A match that must not hold the read lock of the
+ * document (e.g. a slow pattern on a small document, or on a window of a large one) reads a snapshot of a range instead, copied under the lock.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-12
+ */
+
+public class DocumentCharSequence implements CharSequence {
+
+    // === CONSTANTS ===
+    private static final int CHUNK_SIZE = 8192; // the number of characters read from the document at a time
+    private static final int DEADLINE_CHECK_INTERVAL = 4096; // the number of characters read between checks of the deadline
+
+    // === ATTRIBUTES ===
+    private final Document document; // the document being read (or null for a snapshot)
+    private final int start; // the offset of the first character of the sequence in the document
+    private final int length; // the number of characters in the sequence
+    private final long deadline; // the System.nanoTime() value after which reading fails (or Long.MAX_VALUE for no deadline)
+    private final Segment segment = new Segment(); // the chunk of the document read last
+    private int segmentStart = 0; // the document offset of the first character of the chunk
+    private int segmentEnd = 0; // the document offset after the last character of the chunk
+    private int readsUntilCheck = DEADLINE_CHECK_INTERVAL; // the number of characters left to read before checking the deadline
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new sequence over the whole document, without a deadline
+    public DocumentCharSequence(Document document) {
+        this(document, 0, document.getLength(), Long.MAX_VALUE);
+    }
+
+    // A parameterized constructor to initialize a new sequence over a range of the document, failing after a deadline
+    public DocumentCharSequence(Document document, int start, int length, long deadline) {
+        this.document = document;
+        this.start = start;
+        this.length = length;
+        this.deadline = deadline;
+        segment.setPartialReturn(true); // Allow the document to return the characters in place, up to its gap
+    }
+
+    // A private constructor to initialize a new sequence over a range of a snapshot of a document, failing after a deadline
+    private DocumentCharSequence(char[] snapshot, int start, int length, long deadline) {
+        this.document = null;
+        this.start = start;
+        this.length = length;
+        this.deadline = deadline;
+        // Hold the whole snapshot as the chunk read last, so that no chunk is ever read from a document
+        segment.array = snapshot;
+        segment.count = snapshot.length;
+        segmentEnd = snapshot.length;
+    }
+
+    // === METHODS ===
+
+    // A static method to copy the text of a document under its read lock into a sequence that fails after a deadline
+    public static DocumentCharSequence snapshot(Document document, long deadline) {
+        return snapshot(document, 0, Integer.MAX_VALUE, deadline);
+    }
+
+    // A static method to copy the range [start, end) of a document (cut at its length) under its read lock into a sequence that fails after a deadline
+    public static DocumentCharSequence snapshot(Document document, int start, int end, long deadline) {
+        Segment text = new Segment();
+        char[][] snapshot = new char[1][];
+        // Copy the text while no edit can be made (a copy of memory, which is much faster than matching it)
+        document.render(() -> {
+            int from = Math.min(start, document.getLength());
+            try {
+                document.getText(from, Math.min(end, document.getLength()) - from, text);
+            } catch (BadLocationException e) {
+                // Not reached, as the range is cut at the length of the document while no edit can be made
+            }
+            snapshot[0] = Arrays.copyOfRange(text.array, text.offset, text.offset + text.count);
+        });
+        return new DocumentCharSequence(snapshot[0], 0, snapshot[0].length, deadline);
+    }
+
+    // A method to get the number of characters in the sequence
+    @Override
+    public int length() {
+        return length;
+    }
+
+    // A method to get the character at an index of the sequence
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for length " + length);
+        }
+        // Check the deadline regularly, as a backtracking pattern reads the same characters over and over
+        if (--readsUntilCheck == 0) {
+            readsUntilCheck = DEADLINE_CHECK_INTERVAL;
+            if (System.nanoTime() > deadline) {
+                throw new TimeBudgetExceededException();
+            }
+        }
+        int offset = start + index;
+        if (offset < segmentStart || offset >= segmentEnd) {
+            // Read the chunk around the offset, as a matcher may step back a little (e.g. for word boundaries)
+            readChunk(Math.max(start, offset - CHUNK_SIZE / 4));
+            if (offset >= segmentEnd) {
+                readChunk(offset); // The chunk stopped at the gap of the document before reaching the offset
+            }
+        }
+        return segment.array[segment.offset + offset - segmentStart];
+    }
+
+    // A helper method to read a chunk of the document starting at an offset
+    private void readChunk(int offset) {
+        try {
+            document.getText(offset, Math.min(CHUNK_SIZE, start + length - offset), segment);
+        } catch (BadLocationException e) {
+            throw new IllegalStateException("The document changed while it was being read", e);
+        }
+        segmentStart = offset;
+        segmentEnd = offset + segment.count;
+    }
+
+    // A method to get a view of a range of the sequence, sharing the document and the deadline
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bounds for length " + length);
+        }
+        if (document == null) {
+            return new DocumentCharSequence(segment.array, start + from, to - from, deadline);
+        }
+        return new DocumentCharSequence(document, start + from, to - from, deadline);
+    }
+
+    // A method to copy the characters of the sequence into a string
+    @Override
+    public String toString() {
+        if (document == null) {
+            return new String(segment.array, start, length);
+        }
+        try {
+            return document.getText(start, length);
+        } catch (BadLocationException e) {
+            throw new IllegalStateException("The document changed while it was being read", e);
+        }
+    }
+
+    /**
+     * The TimeBudgetExceededException class signals that a search was stopped because it ran past its deadline.
+     */
+    public static class TimeBudgetExceededException extends RuntimeException {
+
+        // A non-parameterized constructor to initialize a new exception with a default message
+        public TimeBudgetExceededException() {
+            super("The search took too long and was stopped");
+        }
+    }
+}
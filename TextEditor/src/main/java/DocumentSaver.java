@@ -0,0 +1,237 @@
+// Import Java NIO classes for channels and encoding
+import java.nio.ByteBuffer; // to hold the encoded bytes before they are written
+import java.nio.CharBuffer; // to wrap the segments of the document without copying them
+import java.nio.channels.FileChannel; // to write the encoded bytes to the temporary file
+import java.nio.charset.CharacterCodingException; // to handle characters that cannot be encoded
+import java.nio.charset.Charset; // to work with the charset of the file
+import java.nio.charset.CharsetEncoder; // to encode the segments of the document
+import java.nio.charset.CoderResult; // to check the result of an encoding step
+import java.nio.charset.CodingErrorAction; // to replace characters the charset cannot encode
+import java.nio.file.*; // to create, move, and delete files
+import java.nio.file.attribute.PosixFilePermission; // to keep the permissions of the original file
+// Import Java Swing classes for the document model
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Document; // to read the text to save
+import javax.swing.text.Segment; // to read the document without copying it
+// Import other necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.util.Set; // to store the permissions of the original file
+
+/**
+ * The DocumentSaver class saves a document to a file atomically, without copying its text into a String.
+ * The document is read in Segments straight from its content, encoded with a CharsetEncoder into a buffer, and written through a
+ * FileChannel to a temporary file next to the target. The temporary file is optionally forced to disk and then renamed over the
+ * target in one step, so a crash or a full disk during the save leaves the original file intact.
+ * Any other text (e.g. the copy written by a FormatCodec) is encoded a chunk at a time in the same way.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-16
+ */
+
+public class DocumentSaver {
+
+    // === CONSTANTS ===
+    private static final int BUFFER_SIZE = 64 * 1024; // the number of bytes encoded before they are written to the channel
+    private static final int CHUNK_SIZE = 8192; // the number of characters of a text copied at a time before they are encoded
+
+    // === ATTRIBUTES ===
+    private final CharsetEncoder encoder; // the encoder of the charset of the file
+    private final FileChannel channel; // the channel of the temporary file
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE); // the encoded bytes not yet written
+    private final CharBuffer carry = CharBuffer.allocate(2); // a character left over at the end of a segment (e.g. half of a surrogate pair)
+
+    // === CONSTRUCTORS ===
+
+    // A private constructor to initialize a new saver that encodes into a channel
+    private DocumentSaver(Charset charset, FileChannel channel) {
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.channel = channel;
+        carry.flip(); // Start with no character left over
+    }
+
+    // === METHODS ===
+
+    // A static method to save a document to a file, with an optional byte order mark and the given line separator
+    public static void save(Document document, Path target, Charset charset, boolean byteOrderMark, String lineSeparator,
+                            boolean sync) throws IOException {
+        save(target, charset, sync, saver -> saver.write(document, byteOrderMark, lineSeparator));
+    }
+
+    // A static method to save a text to a file, with an optional byte order mark and the given line separator
+    public static void save(CharSequence text, Path target, Charset charset, boolean byteOrderMark, String lineSeparator,
+                            boolean sync) throws IOException {
+        save(target, charset, sync, saver -> saver.write(text, byteOrderMark, lineSeparator));
+    }
+
+    // A helper method to write a file through a temporary file that replaces it once it is complete
+    private static void save(Path target, Charset charset, boolean sync, Content content) throws IOException {
+        // Save through a symbolic link to the file it points to, rather than replacing the link
+        if (Files.isSymbolicLink(target)) {
+            target = target.toRealPath();
+        }
+        // Create the temporary file in the same directory, as a rename is only atomic within a file system
+        Path directory = target.toAbsolutePath().getParent();
+        Path temporary = directory.resolve("." + target.getFileName() + "." + System.nanoTime() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                copyPermissions(target, temporary);
+                content.writeTo(new DocumentSaver(charset, channel));
+                // Force the content to disk before the rename, so that the file cannot be replaced by a partly written one
+                if (sync) {
+                    channel.force(true);
+                }
+            }
+            // Replace the target in one step, falling back to a plain replace where the file system cannot move atomically
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary); // Remove the temporary file if the save failed before the rename
+        }
+    }
+
+    // A helper method to encode the whole document into the channel while holding its read lock
+    private void write(Document document, boolean byteOrderMark, String lineSeparator) throws IOException {
+        IOException[] error = new IOException[1];
+        document.render(() -> {
+            try {
+                if (byteOrderMark) {
+                    encode(CharBuffer.wrap("\uFEFF"));
+                }
+                CharBuffer separator = lineSeparator.equals("\n") ? null : CharBuffer.wrap(lineSeparator);
+                Segment segment = new Segment();
+                segment.setPartialReturn(true); // Return the text in place, in as many pieces as the content is stored in
+                int offset = 0;
+                int length = document.getLength();
+                while (offset < length) {
+                    document.getText(offset, length - offset, segment);
+                    encodeLines(segment.array, segment.offset, segment.offset + segment.count, separator);
+                    offset += segment.count;
+                }
+                finish();
+            } catch (IOException e) {
+                error[0] = e;
+            } catch (BadLocationException e) {
+                error[0] = new IOException("The document changed while it was saved", e);
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+    }
+
+    // A helper method to encode a whole text into the channel, copying a chunk of its characters at a time
+    private void write(CharSequence text, boolean byteOrderMark, String lineSeparator) throws IOException {
+        if (byteOrderMark) {
+            encode(CharBuffer.wrap("\uFEFF"));
+        }
+        CharBuffer separator = lineSeparator.equals("\n") ? null : CharBuffer.wrap(lineSeparator);
+        char[] chunk = new char[CHUNK_SIZE];
+        int length = text.length();
+        for (int offset = 0; offset < length; offset += CHUNK_SIZE) {
+            int count = Math.min(CHUNK_SIZE, length - offset);
+            if (text instanceof String) {
+                ((String) text).getChars(offset, offset + count, chunk, 0);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    chunk[i] = text.charAt(offset + i);
+                }
+            }
+            encodeLines(chunk, 0, count, separator);
+        }
+        finish();
+    }
+
+    // A helper method to encode the characters in [start, end) of an array, writing the line separator for each line break (unless it is null)
+    private void encodeLines(char[] array, int start, int end, CharBuffer separator) throws IOException {
+        // Encode the text between line breaks as it is, writing the original line separator for each break
+        if (separator != null) {
+            for (int i = start; i < end; i++) {
+                if (array[i] == '\n') {
+                    encode(CharBuffer.wrap(array, start, i - start));
+                    encode(separator.rewind());
+                    start = i + 1;
+                }
+            }
+        }
+        encode(CharBuffer.wrap(array, start, end - start));
+    }
+
+    // A helper method to encode characters into the buffer, writing the buffer to the channel whenever it is full
+    private void encode(CharBuffer chars) throws IOException {
+        // Complete a character left over from the previous characters first
+        if (carry.hasRemaining() && chars.hasRemaining()) {
+            carry.compact().put(chars.get()).flip();
+            encodeBuffer(carry, false);
+        }
+        if (!carry.hasRemaining()) {
+            encodeBuffer(chars, false);
+            // Keep a character the encoder could not finish (e.g. a high surrogate at the end of a segment) for the next call
+            if (chars.hasRemaining()) {
+                carry.clear();
+                carry.put(chars).flip();
+            }
+        }
+    }
+
+    // A helper method to encode a buffer of characters, writing the bytes to the channel as the byte buffer fills up
+    private void encodeBuffer(CharBuffer chars, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                return;
+            } else {
+                try {
+                    result.throwException(); // Not reached, as the encoder replaces characters it cannot encode
+                } catch (CharacterCodingException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+    }
+
+    // A helper method to encode the last characters and write every remaining byte to the channel
+    private void finish() throws IOException {
+        encodeBuffer(carry, true);
+        while (encoder.flush(bytes).isOverflow()) {
+            drain();
+        }
+        drain();
+    }
+
+    // A helper method to write the encoded bytes to the channel and empty the buffer
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * The Content interface writes the content of a file through a saver.
+     */
+    @FunctionalInterface
+    private interface Content {
+
+        // A method to encode the content into the channel of the saver
+        void writeTo(DocumentSaver saver) throws IOException;
+    }
+
+    // A helper method to give the temporary file the permissions of the original file (where the file system supports them)
+    private static void copyPermissions(Path target, Path temporary) throws IOException {
+        try {
+            if (Files.exists(target)) {
+                Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(target);
+                Files.setPosixFilePermissions(temporary, permissions);
+            }
+        } catch (UnsupportedOperationException e) {
+            // The file system has no POSIX permissions (e.g. on Windows)
+        }
+    }
+}
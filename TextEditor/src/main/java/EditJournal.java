@@ -0,0 +1,601 @@
+// Import Java Swing classes for the document model
+import javax.swing.event.DocumentEvent; // to read the edits made to the document
+import javax.swing.event.DocumentListener; // to listen for the edits made to the document
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Document; // to work with the document of the text area
+// Import Java NIO classes for the journal file
+import java.nio.ByteBuffer; // to hold the encoded records before they are written
+import java.nio.CharBuffer; // to encode the text of the records
+import java.nio.channels.FileChannel; // to append the records to the journal file
+import java.nio.channels.FileLock; // to mark the journal as belonging to a running editor
+import java.nio.channels.OverlappingFileLockException; // to handle a journal locked by this editor
+import java.nio.file.*; // to create, list, move, and delete the journal files
+// Import other necessary packages/classes
+import java.beans.PropertyChangeEvent; // to detect a new document in the text area
+import java.beans.PropertyChangeListener; // to listen for a new document in the text area
+import java.io.*; // to read the journal file and handle input/output exceptions
+import java.util.ArrayList; // to collect a group of records
+import java.util.List; // to work with lists
+import java.util.Set; // to keep track of the open journals
+import java.util.UUID; // to name the journal of each window
+import java.util.concurrent.*; // to queue the records for the writer thread
+import java.util.zip.CRC32; // to detect a record that was only partly written
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to work with the text area whose edits are recorded
+
+/**
+ * The EditJournal class records every edit made to the document of a text area in an append-only binary journal.
+ * Each insert and remove is queued on the Event Dispatch Thread and written by a background thread, which commits all the
+ * records queued since its last write in one write and one sync, so typing never waits on the disk. Once the journal has grown
+ * well beyond the document, it is compacted into a single snapshot of the document. When the document is saved to (or read from)
+ * a file, the journal is compacted into a snapshot followed by a record of that file, so that a journal ending with such a record
+ * holds nothing to recover. If the editor stops unexpectedly, the journal is left behind and can be replayed into a new document
+ * to recover the unsaved changes, along with the name of the file they were made to.
+ * The time spent recording each edit on the Event Dispatch Thread is shown in the 'Performance Metrics' dialog.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-17
+ */
+
+public class EditJournal implements DocumentListener, PropertyChangeListener {
+
+    // === CONSTANTS ===
+    public static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".texteditor", "journal"); // the directory of the journals
+    private static final String JOURNAL_EXTENSION = ".journal"; // the extension of a journal file
+    private static final String LOCK_EXTENSION = ".lock"; // the extension of the file locked while the journal is in use
+    private static final int MAGIC = 0x54454A31; // the first four bytes of a journal file ("TEJ1")
+    private static final byte INSERT = 1; // a record of inserted text
+    private static final byte REMOVE = 2; // a record of removed text
+    private static final byte SNAPSHOT = 3; // a record of the whole document (or, when queued, a request to write one)
+    private static final byte SAVED = 4; // a record of the file the document was last saved to or read from
+    private static final byte FLUSH = 5; // a request to signal once every earlier record is on disk
+    private static final byte CLOSE = 6; // a request to stop the writer and delete the journal
+    private static final int HEADER_SIZE = 9; // the size of the type, offset, and length of a record
+    private static final int BUFFER_SIZE = 64 * 1024; // the number of bytes encoded before they are written to the file
+    private static final long MIN_COMPACT_SIZE = 1024 * 1024; // the journal size below which the journal is never compacted
+    private static final long COMMIT_DELAY_MS = 20; // the time the writer collects records for before it commits them as a group
+    private static final long TIMEOUT_SECONDS = 10; // the maximum time to wait for the writer to flush or close the journal
+    private static final Set<EditJournal> OPEN_JOURNALS = ConcurrentHashMap.newKeySet(); // the journals of the open windows
+    private static final LatencyHistogram RECORD_LATENCY = EditorMetrics.getHistogram(EditorMetrics.Operation.JOURNAL); // the latency of recording an edit
+
+    // === ATTRIBUTES ===
+    private final RSyntaxTextArea textArea; // the text area whose edits are recorded
+    private final Path journalFile; // the journal file
+    private final FileChannel lockChannel; // the channel holding the lock
+    private final BlockingQueue<Edit> queue = new LinkedBlockingQueue<>(); // the records not yet written
+    private final Thread writer; // the thread writing the records to the journal file
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE); // the encoded bytes not yet written (writer thread only)
+    private final CRC32 checksum = new CRC32(); // the checksum of the record being encoded (writer thread only)
+    private FileChannel channel; // the channel of the journal file (writer thread only)
+    private long compactedSize; // the size of the journal after it was last compacted (writer thread only)
+    private String savedFile; // the path of the file the document was last saved to or read from, or null (writer thread only)
+    private boolean clean; // whether the document holds the text of that file, with no edit since (writer thread only)
+    private volatile Document document; // the document currently shown in the text area
+    private volatile boolean failed; // whether the journal stopped recording after an error
+    private volatile long recordCount; // the number of edits recorded
+    private volatile long recordNanos; // the time spent recording the edits on the Event Dispatch Thread, in nanoseconds
+
+    // === CONSTRUCTORS ===
+
+    // A private constructor to initialize a new journal of a text area in the given files
+    private EditJournal(RSyntaxTextArea textArea, Path journalFile, FileChannel lockChannel, FileChannel channel) {
+        this.textArea = textArea;
+        this.journalFile = journalFile;
+        this.lockChannel = lockChannel;
+        this.channel = channel;
+        this.document = textArea.getDocument();
+        this.writer = new Thread(this::writeRecords, "edit-journal");
+        writer.setDaemon(true); // A daemon thread, so that the journal does not keep the application alive
+    }
+
+    // === METHODS ===
+
+    // A static method to start recording the edits of a text area in a new journal in the given directory
+    public static EditJournal open(RSyntaxTextArea textArea, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String name = "journal-" + UUID.randomUUID();
+        Path journalFile = directory.resolve(name + JOURNAL_EXTENSION);
+        Path lockFile = directory.resolve(name + LOCK_EXTENSION);
+        // Lock the lock file for as long as the editor runs, so that the journal is not mistaken for one left by a crash
+        FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileChannel channel = null;
+        try {
+            lockChannel.lock();
+            channel = FileChannel.open(journalFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            channel.write(ByteBuffer.allocate(4).putInt(0, MAGIC));
+        } catch (IOException e) {
+            lockChannel.close();
+            if (channel != null) {
+                channel.close();
+            }
+            Files.deleteIfExists(journalFile);
+            Files.deleteIfExists(lockFile);
+            throw e;
+        }
+        EditJournal journal = new EditJournal(textArea, journalFile, lockChannel, channel);
+        // Start with a snapshot of the current document, then record its edits and those of any document that replaces it
+        journal.queue.add(new Edit(SNAPSHOT, 0, 0, null, null));
+        journal.document.addDocumentListener(journal);
+        textArea.addPropertyChangeListener("document", journal);
+        OPEN_JOURNALS.add(journal);
+        journal.writer.start();
+        return journal;
+    }
+
+    // A static method to find the journals in a directory left behind by editors that stopped unexpectedly, with changes to recover
+    public static List<Path> findOrphanedJournals(Path directory) {
+        List<Path> journals = new ArrayList<>();
+        List<Path> savedJournals = new ArrayList<>();
+        // Use a try-with-resources block to list the journal files in the directory
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + JOURNAL_EXTENSION)) {
+            for (Path journalFile : files) {
+                // A journal is orphaned if no running editor holds the lock on its lock file
+                try (FileChannel lockChannel = FileChannel.open(getLockFile(journalFile), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock lock = lockChannel.tryLock()) {
+                    if (lock != null) {
+                        // A journal whose document was saved (or left empty) after its last edit holds nothing to recover
+                        (hasUnsavedEdits(journalFile) ? journals : savedJournals).add(journalFile);
+                    }
+                } catch (OverlappingFileLockException e) {
+                    // The journal belongs to a window of this editor
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // No journal has been written yet
+        } catch (IOException e) {
+            System.err.println("Error listing edit journals in " + directory + ": " + e.getMessage());
+        }
+        for (Path journalFile : savedJournals) {
+            try {
+                delete(journalFile);
+            } catch (IOException e) {
+                System.err.println("Error deleting edit journal " + journalFile + ": " + e.getMessage());
+            }
+        }
+        return journals;
+    }
+
+    // A static method to replay the edits recorded in a journal into a document, up to the first record that was only partly written,
+    // returning the file the document was last saved to or read from (or null if there is none)
+    public static Path replay(Path journalFile, Document document) throws IOException {
+        Path[] file = new Path[1];
+        readRecords(journalFile, (type, offset, length, text) -> {
+            if (type == SAVED) {
+                file[0] = Paths.get(text.toString());
+            } else {
+                applyRecord(document, type, offset, length, text);
+            }
+        });
+        return file[0];
+    }
+
+    // A static method to check whether a journal holds changes that were not saved (e.g. any record after the last saved file)
+    static boolean hasUnsavedEdits(Path journalFile) {
+        boolean[] unsaved = new boolean[1];
+        try {
+            readRecords(journalFile, (type, offset, length, text) -> unsaved[0] = (type != SAVED));
+        } catch (IOException e) {
+            return true; // Offer the journal anyway, so that the error is reported when it is replayed
+        }
+        return unsaved[0];
+    }
+
+    // A helper method to read the complete records of a journal in order, up to the first record that was only partly written
+    private static void readRecords(Path journalFile, RecordVisitor visitor) throws IOException {
+        // Use a try-with-resources block to read the journal file through a buffered stream
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile), BUFFER_SIZE))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not an edit journal: " + journalFile);
+            }
+            CRC32 checksum = new CRC32();
+            byte[] header = new byte[HEADER_SIZE];
+            byte[] bytes = new byte[BUFFER_SIZE];
+            while (input.readNBytes(header, 0, HEADER_SIZE) == HEADER_SIZE) {
+                ByteBuffer fields = ByteBuffer.wrap(header);
+                byte type = fields.get();
+                int offset = fields.getInt();
+                int length = fields.getInt();
+                if (type < INSERT || type > SAVED || offset < 0 || length < 0) {
+                    break;
+                }
+                checksum.reset();
+                checksum.update(header);
+                // Read the text of an insert or a snapshot in chunks, as a snapshot may hold a very large document
+                StringBuilder text = new StringBuilder((type == REMOVE) ? 0 : length);
+                int remaining = (type == REMOVE) ? 0 : length * 2;
+                while (remaining > 0) {
+                    int read = input.readNBytes(bytes, 0, Math.min(remaining, bytes.length));
+                    if (read < Math.min(remaining, bytes.length)) {
+                        return; // The journal ends part way through the record
+                    }
+                    checksum.update(bytes, 0, read);
+                    for (int i = 0; i < read; i += 2) {
+                        text.append((char) (((bytes[i] & 0xFF) << 8) | (bytes[i + 1] & 0xFF)));
+                    }
+                    remaining -= read;
+                }
+                // Stop at a record whose checksum is missing or wrong, as the editor stopped while it was being written
+                byte[] stored = input.readNBytes(4);
+                if (stored.length < 4 || ByteBuffer.wrap(stored).getInt() != (int) checksum.getValue()) {
+                    return;
+                }
+                visitor.visit(type, offset, length, text);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Not an edit journal: " + journalFile, e);
+        }
+    }
+
+    // A static method to delete a journal that has been replayed or discarded
+    public static void delete(Path journalFile) throws IOException {
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(getTemporaryFile(journalFile)); // A snapshot the editor stopped writing
+        Files.deleteIfExists(getLockFile(journalFile));
+    }
+
+    // A static method to stop every open journal and delete its files (e.g. when the editor is quit on purpose)
+    public static void closeAll() {
+        for (EditJournal journal : OPEN_JOURNALS) {
+            journal.close();
+        }
+    }
+
+    // A method to block until every edit recorded so far has been written to the journal file and synced to disk
+    public void flush() {
+        CountDownLatch written = new CountDownLatch(1);
+        queue.add(new Edit(FLUSH, 0, 0, null, written));
+        try {
+            written.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // A method to stop recording the edits of the text area and delete the journal (e.g. when the window is closed)
+    public void close() {
+        if (!OPEN_JOURNALS.remove(this)) {
+            return;
+        }
+        document.removeDocumentListener(this);
+        textArea.removePropertyChangeListener("document", this);
+        queue.add(new Edit(CLOSE, 0, 0, null, null));
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // A getter method to retrieve the journal file
+    public Path getJournalFile() {
+        return journalFile;
+    }
+
+    // A getter method to retrieve the number of edits recorded
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    // A getter method to retrieve the average time spent recording an edit on the Event Dispatch Thread, in nanoseconds
+    public long getAverageRecordNanos() {
+        long count = recordCount;
+        return (count == 0) ? 0 : recordNanos / count;
+    }
+
+    // A method to record that the document holds the text of a file, as it has just been saved to it or read from it
+    public void markSaved(Path file) {
+        String path = file.toAbsolutePath().toString();
+        queue.add(new Edit(SAVED, 0, path.length(), path, null));
+    }
+
+    // A method to queue a record of text inserted into the document
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        if (failed) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            String text = e.getDocument().getText(e.getOffset(), e.getLength());
+            queue.add(new Edit(INSERT, e.getOffset(), e.getLength(), text, null));
+        } catch (BadLocationException ex) {
+            // Not reached, as the inserted text is part of the document while it is being notified
+        }
+        recordLatency(System.nanoTime() - start);
+    }
+
+    // A method to queue a record of text removed from the document
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        if (failed) {
+            return;
+        }
+        long start = System.nanoTime();
+        queue.add(new Edit(REMOVE, e.getOffset(), e.getLength(), null, null));
+        recordLatency(System.nanoTime() - start);
+    }
+
+    // A helper method to add the time spent recording an edit to the average of this journal and to the metrics of the editor
+    private void recordLatency(long nanos) {
+        recordNanos += nanos;
+        recordCount++;
+        RECORD_LATENCY.record(nanos);
+    }
+
+    // A method to ignore changes of attributes, as they are not part of the text
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    // A method to record the edits of a new document set in the text area (e.g. when a file is opened), starting with a snapshot
+    @Override
+    public void propertyChange(PropertyChangeEvent e) {
+        ((Document) e.getOldValue()).removeDocumentListener(this);
+        document = (Document) e.getNewValue();
+        document.addDocumentListener(this);
+        queue.add(new Edit(SNAPSHOT, 0, 0, null, null));
+    }
+
+    // A helper method to write the queued records on the writer thread, committing every record queued since the last write at once
+    private void writeRecords() {
+        boolean closed = false;
+        try {
+            while (!closed) {
+                // Wait for a record, then give the editor a moment to queue more, and take them all as one group
+                List<Edit> group = new ArrayList<>();
+                group.add(queue.take());
+                if (group.get(0).type < FLUSH) {
+                    Thread.sleep(COMMIT_DELAY_MS);
+                }
+                queue.drainTo(group);
+                boolean compact = false;
+                List<CountDownLatch> flushed = new ArrayList<>();
+                for (Edit edit : group) {
+                    switch (edit.type) {
+                        case INSERT, REMOVE, SNAPSHOT, SAVED -> compact |= apply(edit);
+                        case FLUSH -> flushed.add(edit.written);
+                        default -> closed = true;
+                    }
+                }
+                if (closed) {
+                    break;
+                }
+                // Write the group in one step and sync it, then compact the journal once it has grown well beyond the document
+                drain(channel);
+                channel.force(false);
+                if (compact || channel.size() > Math.max(MIN_COMPACT_SIZE, 2 * compactedSize)) {
+                    compact();
+                }
+                flushed.forEach(CountDownLatch::countDown);
+            }
+        } catch (IOException e) {
+            failed = true;
+            System.err.println("Error writing edit journal " + journalFile + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            failed = true;
+        } finally {
+            closeFiles(closed);
+        }
+    }
+
+    // A helper method to write a queued record (or note a saved file or a new document), returning whether the journal must be compacted
+    private boolean apply(Edit edit) throws IOException {
+        switch (edit.type) {
+            case INSERT -> writeRecord(edit.type, edit.offset, edit.length, CharBuffer.wrap(edit.text));
+            case REMOVE -> writeRecord(edit.type, edit.offset, edit.length, null);
+            case SAVED -> savedFile = edit.text;
+            default -> savedFile = null; // A new document, which has not been saved yet
+        }
+        clean = (edit.type == SAVED);
+        return edit.type == SNAPSHOT || edit.type == SAVED;
+    }
+
+    // A helper method to replace the journal with a snapshot of the current document and a record of its file (after the snapshot if
+    // the document holds the text of the file, or before it if it has been edited since), dropping the records they make redundant
+    private void compact() throws IOException {
+        Path temporary = getTemporaryFile(journalFile);
+        Document snapshotDocument;
+        do {
+            snapshotDocument = document;
+            Document current = snapshotDocument;
+            String[] text = new String[1];
+            // Hold the read lock only to copy the text, so that every edit queued so far is part of the snapshot,
+            // while the edits made during the (much slower) write below are queued after it instead of waiting for the disk
+            current.render(() -> {
+                queue.removeIf(edit -> {
+                    if (edit.type == INSERT || edit.type == REMOVE) {
+                        clean = false;
+                    } else if (edit.type == SNAPSHOT || edit.type == SAVED) {
+                        savedFile = (edit.type == SAVED) ? edit.text : null;
+                        clean = (edit.type == SAVED);
+                    } else {
+                        return false;
+                    }
+                    return true;
+                });
+                // Copy the text unless the document is new and empty, as there would be nothing to recover
+                if (savedFile != null || current.getLength() > 0) {
+                    try {
+                        text[0] = current.getText(0, current.getLength());
+                    } catch (BadLocationException e) {
+                        // Not reached, as the whole document is read while no edit can be made
+                    }
+                }
+            });
+            // Use a try-with-resources block to write the records to a temporary file next to the journal
+            try (FileChannel output = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                buffer.putInt(MAGIC);
+                if (savedFile != null && !clean) {
+                    writeSavedFile(output);
+                }
+                if (text[0] != null) {
+                    writeSnapshot(text[0], output);
+                }
+                if (savedFile != null && clean) {
+                    writeSavedFile(output);
+                }
+                drain(output);
+                output.force(false);
+            }
+            // Write the snapshot again if the text area was given another document in the meantime
+        } while (snapshotDocument != document);
+        // Replace the journal with the snapshot in one step, then append the next records to it
+        channel.close();
+        try {
+            Files.move(temporary, journalFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, journalFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(journalFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        compactedSize = channel.size();
+    }
+
+    // A helper method to write a snapshot record of the text of a document
+    private void writeSnapshot(String text, FileChannel output) throws IOException {
+        beginRecord(SNAPSHOT, 0, text.length(), output);
+        putChars(CharBuffer.wrap(text), output);
+        endRecord(output);
+    }
+
+    // A helper method to write a record of the file the document was last saved to or read from
+    private void writeSavedFile(FileChannel output) throws IOException {
+        beginRecord(SAVED, 0, savedFile.length(), output);
+        putChars(CharBuffer.wrap(savedFile), output);
+        endRecord(output);
+    }
+
+    // A helper method to encode a record of an insert or a remove into the buffer of the journal file
+    private void writeRecord(byte type, int offset, int length, CharBuffer text) throws IOException {
+        beginRecord(type, offset, length, channel);
+        if (text != null) {
+            putChars(text, channel);
+        }
+        endRecord(channel);
+    }
+
+    // A helper method to encode the type, offset, and length of a record, starting its checksum
+    private void beginRecord(byte type, int offset, int length, FileChannel output) throws IOException {
+        reserve(HEADER_SIZE, output);
+        int start = buffer.position();
+        buffer.put(type).putInt(offset).putInt(length);
+        checksum.reset();
+        checksum.update(buffer.array(), start, HEADER_SIZE);
+    }
+
+    // A helper method to encode the text of a record as UTF-16, writing the buffer to the file whenever it is full
+    private void putChars(CharBuffer text, FileChannel output) throws IOException {
+        while (text.hasRemaining()) {
+            reserve(2, output);
+            int start = buffer.position();
+            int count = Math.min(text.remaining(), buffer.remaining() / 2);
+            int limit = text.limit();
+            text.limit(text.position() + count);
+            buffer.asCharBuffer().put(text);
+            text.limit(limit);
+            buffer.position(start + count * 2);
+            checksum.update(buffer.array(), start, count * 2);
+        }
+    }
+
+    // A helper method to encode the checksum that ends a record
+    private void endRecord(FileChannel output) throws IOException {
+        reserve(4, output);
+        buffer.putInt((int) checksum.getValue());
+    }
+
+    // A helper method to make room for the given number of bytes in the buffer
+    private void reserve(int size, FileChannel output) throws IOException {
+        if (buffer.remaining() < size) {
+            drain(output);
+        }
+    }
+
+    // A helper method to write the encoded bytes to a file and empty the buffer
+    private void drain(FileChannel output) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // A helper method to close the journal files, deleting them if the journal was closed rather than stopped by an error
+    private void closeFiles(boolean delete) {
+        try {
+            channel.close();
+            if (delete) {
+                delete(journalFile);
+            }
+            lockChannel.close(); // Closing the channel releases the lock
+        } catch (IOException e) {
+            System.err.println("Error closing edit journal " + journalFile + ": " + e.getMessage());
+        }
+        // Signal any waiting flush, as no more records will be written
+        for (Edit edit : queue) {
+            if (edit.written != null) {
+                edit.written.countDown();
+            }
+        }
+    }
+
+    // A helper method to apply a record read from a journal to a document
+    private static void applyRecord(Document document, byte type, int offset, int length, CharSequence text) throws IOException {
+        try {
+            switch (type) {
+                case INSERT -> document.insertString(offset, text.toString(), null);
+                case REMOVE -> document.remove(offset, length);
+                default -> {
+                    document.remove(0, document.getLength());
+                    document.insertString(0, text.toString(), null);
+                }
+            }
+        } catch (BadLocationException e) {
+            throw new IOException("The edit journal does not match the document", e);
+        }
+    }
+
+    // A helper method to get the file a snapshot of a journal is written to before it replaces the journal
+    private static Path getTemporaryFile(Path journalFile) {
+        return journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+    }
+
+    // A helper method to get the lock file of a journal file
+    private static Path getLockFile(Path journalFile) {
+        String name = journalFile.getFileName().toString();
+        return journalFile.resolveSibling(name.substring(0, name.length() - JOURNAL_EXTENSION.length()) + LOCK_EXTENSION);
+    }
+
+    /**
+     * The RecordVisitor interface receives the records read from a journal.
+     */
+    private interface RecordVisitor {
+
+        // A method to receive a record (the text is empty for a remove)
+        void visit(byte type, int offset, int length, CharSequence text) throws IOException;
+    }
+
+    /**
+     * The Edit class holds a record queued for the writer thread, or a request to the writer thread (e.g. to flush the journal).
+     */
+    private static final class Edit {
+
+        // === ATTRIBUTES ===
+        private final byte type; // the type of the record or request
+        private final int offset; // the offset of the edit in the document
+        private final int length; // the number of characters inserted or removed
+        private final String text; // the text inserted (or null)
+        private final CountDownLatch written; // the latch signalled once the records before a flush are written (or null)
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new record or request
+        private Edit(byte type, int offset, int length, String text, CountDownLatch written) {
+            this.type = type;
+            this.offset = offset;
+            this.length = length;
+            this.text = text;
+            this.written = written;
+        }
+    }
+}
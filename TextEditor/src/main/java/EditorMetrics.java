@@ -0,0 +1,335 @@
+// Import Java Swing classes for the metrics dialog
+import javax.swing.JOptionPane; // to show the metrics in a dialog
+import javax.swing.JScrollPane; // to scroll the metrics
+import javax.swing.JTextArea; // to show the metrics as a table
+// Import Java Flight Recorder classes for the events of the editor
+import jdk.jfr.Category; // to group the events of the editor in a recording
+import jdk.jfr.DataAmount; // to show the sizes of the events in bytes
+import jdk.jfr.Description; // to describe the events of the editor
+import jdk.jfr.Event; // to create the events of the editor
+import jdk.jfr.Label; // to name the fields of the events
+import jdk.jfr.Name; // to name the events in a recording (e.g. for 'jfr print --events texteditor.Open')
+import jdk.jfr.StackTrace; // to leave the stack trace out of the events, which keeps them cheap
+import jdk.jfr.Timespan; // to show the durations of the events
+// Import other necessary packages/classes
+import java.awt.Component; // to own the metrics dialog
+import java.awt.Dimension; // to size the metrics dialog
+import java.awt.Font; // to align the columns of the metrics
+import java.io.File; // to record the files of the events
+import java.util.EnumMap; // to keep a histogram per operation
+import java.util.Map; // to keep a histogram per operation
+
+/**
+ * The EditorMetrics class records the latency of the open, save, search, highlight, PDF export, and print operations of the editor,
+ * and of recording each edit in the edit journal.
+ * Each operation is a Java Flight Recorder event carrying its file size, format, and match count, which a recording started with
+ * -XX:StartFlightRecording keeps for 'jfr print --events texteditor.*' to read offline. Its latency is also counted in a histogram,
+ * which the 'Performance Metrics' dialog shows while the editor runs. Both stay on, as an event that is not recorded costs a check.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-24
+ */
+
+public class EditorMetrics {
+
+    // === CONSTANTS ===
+    private static final Map<Operation, LatencyHistogram> HISTOGRAMS = createHistograms(); // the latency histogram of each operation
+
+    // === METHODS ===
+
+    // A static method to get the latency histogram of an operation
+    public static LatencyHistogram getHistogram(Operation operation) {
+        return HISTOGRAMS.get(operation);
+    }
+
+    // A static method to format the latencies of the operations as a table, followed by the histogram of each operation that has been recorded
+    public static String format() {
+        StringBuilder text = new StringBuilder(String.format("%-12s %7s %10s %10s %10s %10s %10s%n", "Operation", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = HISTOGRAMS.get(operation);
+            text.append(String.format("%-12s %7d %10s %10s %10s %10s %10s%n", operation.label, histogram.getCount(),
+                    formatNanos(histogram.getMeanNanos()), formatNanos(histogram.getPercentileNanos(0.5)), formatNanos(histogram.getPercentileNanos(0.9)),
+                    formatNanos(histogram.getPercentileNanos(0.99)), formatNanos(histogram.getMaxNanos())));
+        }
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = HISTOGRAMS.get(operation);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            text.append(String.format("%n%s%n", operation.label));
+            for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+                long bucketCount = histogram.getBucketCount(i);
+                if (bucketCount > 0) {
+                    // Draw a bar of up to 40 characters in proportion to the share of the latencies in the bucket
+                    String bound = (i == LatencyHistogram.BUCKET_COUNT - 1) ? "longer" : "< " + formatNanos(LatencyHistogram.getUpperBoundNanos(i));
+                    text.append(String.format("  %-10s %7d %s%n", bound, bucketCount, "#".repeat((int) Math.max(1, bucketCount * 40 / histogram.getCount()))));
+                }
+            }
+        }
+        // List the stalls of the Event Dispatch Thread by the action that triggered them, if the watchdog is watching it
+        EdtWatchdog watchdog = EdtWatchdog.getInstalled();
+        if (watchdog != null) {
+            text.append(String.format("%nEvent Dispatch Thread stalls over %d ms (see %s)%n", watchdog.getThresholdMs(), watchdog.getLogFile()));
+            watchdog.getStallCounts().forEach((action, count) -> text.append(String.format("  %-40s %7d%n", action, count)));
+        }
+        return text.toString();
+    }
+
+    // A static method to show the latencies of the operations in a dialog
+    public static void showMetrics(Component parent) {
+        JTextArea textArea = new JTextArea(format());
+        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        textArea.setEditable(false);
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(640, 360));
+        JOptionPane.showMessageDialog(parent, scrollPane, "Performance Metrics", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    // A static method to format a latency in nanoseconds with a unit that keeps it short
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000_000) {
+            return String.format("%.1f µs", nanos / 1000.0);
+        } else if (nanos < 10_000_000_000L) {
+            return String.format("%.1f ms", nanos / 1_000_000.0);
+        }
+        return String.format("%.1f s", nanos / 1_000_000_000.0);
+    }
+
+    // A helper method to create an empty histogram for each operation
+    private static Map<Operation, LatencyHistogram> createHistograms() {
+        Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new LatencyHistogram());
+        }
+        return histograms;
+    }
+
+    /**
+     * The Operation enum lists the operations whose latencies are recorded.
+     */
+    public enum Operation {
+        OPEN("Open"), SAVE("Save"), SEARCH("Search"), HIGHLIGHT("Highlight"), PDF_EXPORT("PDF export"), PRINT("Print"),
+        JOURNAL("Journal edit"); // the time an edit waits for the edit journal to queue it (not a flight recorder event, as there is one per keystroke)
+
+        // === ATTRIBUTES ===
+        private final String label; // the name of the operation shown in the metrics
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize an operation with its name
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * The OperationEvent class is the base of the events of the editor. It times an operation from start to finish, records the latency
+     * in the histogram of the operation, and commits the event to the flight recorder if a recording is running.
+     */
+    @Category("Text Editor")
+    @StackTrace(false)
+    abstract static class OperationEvent extends Event {
+
+        // === ATTRIBUTES ===
+        private transient long startNanos; // the time the operation started (transient fields are not recorded)
+
+        // === METHODS ===
+
+        // A method to start timing the operation
+        final void start() {
+            startNanos = System.nanoTime();
+            begin();
+        }
+
+        // A method to stop timing the operation, record its latency, and commit the event
+        final void finish() {
+            end();
+            HISTOGRAMS.get(getOperation()).record(System.nanoTime() - startNanos);
+            commit();
+        }
+
+        // A method to get the operation of the event
+        abstract Operation getOperation();
+    }
+
+    /**
+     * The OpenEvent class records a file read into the editor, from its first byte to a finished document.
+     */
+    @Name("texteditor.Open")
+    @Label("Open File")
+    @Description("A file read into a document of the editor")
+    static final class OpenEvent extends OperationEvent {
+        @Label("Path") String path; // the path of the file
+        @Label("Format") String format; // the name of the format of the file
+        @Label("File Size") @DataAmount long fileSize; // the size of the file
+        @Label("Characters") long characters; // the number of characters of the document
+
+        // A static method to start an event for a file read with a codec
+        static OpenEvent start(File file, FormatCodec codec) {
+            OpenEvent event = new OpenEvent();
+            event.path = file.getPath();
+            event.format = codec.getName();
+            event.fileSize = file.length();
+            event.start();
+            return event;
+        }
+
+        // A method to get the operation of the event
+        @Override
+        Operation getOperation() {
+            return Operation.OPEN;
+        }
+    }
+
+    /**
+     * The SaveEvent class records a document saved to a text file.
+     */
+    @Name("texteditor.Save")
+    @Label("Save File")
+    @Description("A document of the editor saved to a text file")
+    static final class SaveEvent extends OperationEvent {
+        @Label("Path") String path; // the path of the file
+        @Label("Format") String format; // the charset of the file
+        @Label("File Size") @DataAmount long fileSize; // the size of the saved file
+        @Label("Characters") long characters; // the number of characters of the document
+
+        // A static method to start an event for a document saved to a file in a charset
+        static SaveEvent start(File file, String charset, long characters) {
+            SaveEvent event = new SaveEvent();
+            event.path = file.getPath();
+            event.format = charset;
+            event.characters = characters;
+            event.start();
+            return event;
+        }
+
+        // A method to get the operation of the event
+        @Override
+        Operation getOperation() {
+            return Operation.SAVE;
+        }
+    }
+
+    /**
+     * The SearchEvent class records a search of a document for every match of a query (the query itself is not recorded).
+     */
+    @Name("texteditor.Search")
+    @Label("Search")
+    @Description("A search of a document of the editor for every match of a query")
+    static final class SearchEvent extends OperationEvent {
+        @Label("Mode") String mode; // whether the query is matched as a substring, a whole word, or a regular expression
+        @Label("Document Length") long documentLength; // the number of characters searched
+        @Label("Query Length") int queryLength; // the number of characters of the query
+        @Label("Match Count") int matchCount; // the number of matches found
+
+        // A static method to start an event for a search of a document
+        static SearchEvent start(String mode, int documentLength, int queryLength) {
+            SearchEvent event = new SearchEvent();
+            event.mode = mode;
+            event.documentLength = documentLength;
+            event.queryLength = queryLength;
+            event.start();
+            return event;
+        }
+
+        // A method to stop timing the search with the number of matches found, returning that number
+        int finish(int matchCount) {
+            this.matchCount = matchCount;
+            finish();
+            return matchCount;
+        }
+
+        // A method to get the operation of the event
+        @Override
+        Operation getOperation() {
+            return Operation.SEARCH;
+        }
+    }
+
+    /**
+     * The HighlightEvent class records the tokenizing of a large document in idle slices, until every line is highlighted.
+     */
+    @Name("texteditor.Highlight")
+    @Label("Highlight Document")
+    @Description("A large document of the editor tokenized in idle slices, from the first slice to the last line")
+    static final class HighlightEvent extends OperationEvent {
+        @Label("Syntax Style") String syntaxStyle; // the syntax style of the document
+        @Label("Document Length") long documentLength; // the number of characters of the document
+        @Label("Lines") int lines; // the number of lines tokenized
+        @Label("Slices") int slices; // the number of idle slices the lines were tokenized in
+        @Label("Tokenizing Time") @Timespan long tokenizingNanos; // the time spent tokenizing, without the idle time between the slices
+
+        // A static method to start an event for a document tokenized in a syntax style
+        static HighlightEvent start(String syntaxStyle, int documentLength) {
+            HighlightEvent event = new HighlightEvent();
+            event.syntaxStyle = syntaxStyle;
+            event.documentLength = documentLength;
+            event.start();
+            return event;
+        }
+
+        // A method to get the operation of the event
+        @Override
+        Operation getOperation() {
+            return Operation.HIGHLIGHT;
+        }
+    }
+
+    /**
+     * The PdfExportEvent class records a document exported to a PDF file.
+     */
+    @Name("texteditor.PdfExport")
+    @Label("Export PDF")
+    @Description("A document of the editor exported to a PDF file")
+    static final class PdfExportEvent extends OperationEvent {
+        @Label("Path") String path; // the path of the PDF file
+        @Label("Format") String format; // the font family of the PDF file
+        @Label("File Size") @DataAmount long fileSize; // the size of the PDF file
+        @Label("Characters") long characters; // the number of characters of the document
+        @Label("Pages") int pages; // the number of pages written
+        @Label("Syntax Colours") boolean syntaxColors; // whether the text was written in syntax colours
+
+        // A static method to start an event for a document exported to a PDF file in a font family
+        static PdfExportEvent start(File file, String fontFamily, long characters, boolean syntaxColors) {
+            PdfExportEvent event = new PdfExportEvent();
+            event.path = file.getPath();
+            event.format = fontFamily;
+            event.characters = characters;
+            event.syntaxColors = syntaxColors;
+            event.start();
+            return event;
+        }
+
+        // A method to get the operation of the event
+        @Override
+        Operation getOperation() {
+            return Operation.PDF_EXPORT;
+        }
+    }
+
+    /**
+     * The PrintEvent class records a document printed, including the time the print dialog was open.
+     */
+    @Name("texteditor.Print")
+    @Label("Print")
+    @Description("A document of the editor printed, including the time the print dialog was open")
+    static final class PrintEvent extends OperationEvent {
+        @Label("Characters") long characters; // the number of characters of the document
+        @Label("Completed") boolean completed; // whether the printing completed (or was cancelled or failed)
+
+        // A static method to start an event for a document printed
+        static PrintEvent start(long characters) {
+            PrintEvent event = new PrintEvent();
+            event.characters = characters;
+            event.start();
+            return event;
+        }
+
+        // A method to get the operation of the event
+        @Override
+        Operation getOperation() {
+            return Operation.PRINT;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+// Import Java AWT classes for the event queue
+import java.awt.AWTEvent; // to time the dispatch of each event
+import java.awt.EventQueue; // to extend the event queue of the Event Dispatch Thread
+import java.awt.Toolkit; // to push the watched event queue
+// Import Java Swing classes for the menu actions
+import javax.swing.JMenu; // to walk the menus of a menu bar
+import javax.swing.JMenuBar; // to walk the menus of a window
+import javax.swing.JMenuItem; // to name the menu action behind a stall
+// Import other necessary packages/classes
+import java.io.IOException; // to handle a log that cannot be written
+import java.nio.charset.StandardCharsets; // to write the log in UTF-8
+import java.nio.file.Files; // to append the reports to the log
+import java.nio.file.Path; // to work with the log file
+import java.nio.file.Paths; // to locate the default log file
+import java.nio.file.StandardOpenOption; // to append the reports to the log
+import java.time.LocalDateTime; // to stamp the reports with the time of the stall
+import java.util.ArrayDeque; // to keep the dispatches nested in a modal dialog
+import java.util.ArrayList; // to collect the stack samples of a stall
+import java.util.Arrays; // to group the stack samples of a stall
+import java.util.Deque; // to keep the dispatches nested in a modal dialog
+import java.util.LinkedHashMap; // to group the stack samples of a stall
+import java.util.List; // to collect the stack samples of a stall
+import java.util.Map; // to keep the number of stalls of each action
+import java.util.TreeMap; // to list the number of stalls of each action by name
+import java.util.concurrent.ConcurrentHashMap; // to count the stalls on the watchdog thread and read them on the Event Dispatch Thread
+import java.util.concurrent.TimeUnit; // to convert the durations of the stalls
+
+/**
+ * The EdtWatchdog class finds the moments the Event Dispatch Thread stops responding, because an event or menu action ran longer than a threshold.
+ * It pushes an event queue that only times each dispatch, and a daemon thread checks that time a few times per threshold, so an idle editor costs
+ * a volatile read per check. While a dispatch is stalled, the thread samples the stack of the Event Dispatch Thread, and once it ends,
+ * it appends a report with the menu action that triggered it and its most frequent stacks to a local log, and counts the stall for the action.
+ * A modal dialog (e.g. a message or a print dialog) waits for events, so the time it is open is not counted as a stall.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-25
+ */
+
+public class EdtWatchdog {
+
+    // === CONSTANTS ===
+    public static final int DEFAULT_THRESHOLD_MS = 500; // the default duration past which a dispatch is reported as a stall
+    public static final Path DEFAULT_LOG_FILE = Paths.get(System.getProperty("user.home"), ".texteditor", "stalls.log"); // the default log of the stalls
+    private static final long SAMPLE_INTERVAL_MS = 50; // the longest interval between two checks (and two stack samples) of the watchdog thread
+    private static final int STACK_DEPTH = 12; // the number of frames kept from each stack sample
+    private static final int REPORTED_STACKS = 3; // the number of distinct stacks reported for each stall
+
+    // === ATTRIBUTES ===
+    private static volatile EdtWatchdog installed; // the watchdog watching the Event Dispatch Thread (or null if none is installed)
+
+    private final long thresholdNanos; // the duration past which a dispatch is reported as a stall
+    private final Path logFile; // the log the reports are appended to
+    private final WatchedEventQueue queue = new WatchedEventQueue(); // the event queue timing each dispatch
+    private final Map<String, Integer> stallCounts = new ConcurrentHashMap<>(); // the number of stalls of each action
+    private final Thread thread; // the watchdog thread
+    private volatile Dispatch current; // the dispatch the Event Dispatch Thread is running (or null while it waits for an event)
+    private volatile boolean running = true; // whether the watchdog thread keeps checking
+
+    // === CONSTRUCTORS ===
+
+    // A private constructor to initialize a new watchdog with a threshold and a log, which is started by the install method
+    private EdtWatchdog(long thresholdMs, Path logFile) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.logFile = logFile;
+        this.thread = new Thread(this::watch, "edt-watchdog");
+        this.thread.setDaemon(true);
+    }
+
+    // === METHODS ===
+
+    // A static method to start watching the Event Dispatch Thread for dispatches longer than a threshold, replacing the watchdog installed before (if any)
+    public static synchronized EdtWatchdog install(long thresholdMs, Path logFile) {
+        if (installed != null) {
+            installed.uninstall();
+        }
+        EdtWatchdog watchdog = new EdtWatchdog(thresholdMs, logFile);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog.queue);
+        watchdog.thread.start();
+        installed = watchdog;
+        return watchdog;
+    }
+
+    // A static method to get the watchdog watching the Event Dispatch Thread (or null if none is installed)
+    public static EdtWatchdog getInstalled() {
+        return installed;
+    }
+
+    // A static method to name every menu action of a menu bar, so that a stall is reported with the action that triggered it
+    public static void watchMenuActions(JMenuBar menuBar) {
+        for (int i = 0; i < menuBar.getMenuCount(); i++) {
+            JMenu menu = menuBar.getMenu(i);
+            if (menu != null) {
+                watchMenuActions(menu, menu.getText());
+            }
+        }
+    }
+
+    // A static method to name the dispatch the Event Dispatch Thread is running after an action (e.g. 'File > Open'), if a watchdog is installed
+    public static void setAction(String action) {
+        EdtWatchdog watchdog = installed;
+        Dispatch dispatch = (watchdog == null) ? null : watchdog.current;
+        if (dispatch != null) {
+            dispatch.action = action;
+        }
+    }
+
+    // A method to stop watching the Event Dispatch Thread and restore the event queue it was using
+    public synchronized void uninstall() {
+        running = false;
+        thread.interrupt();
+        queue.unwatch();
+        if (installed == this) {
+            installed = null;
+        }
+    }
+
+    // A getter method to retrieve the number of stalls of each action so far, by the name of the action
+    public Map<String, Integer> getStallCounts() {
+        return new TreeMap<>(stallCounts);
+    }
+
+    // A getter method to retrieve the duration in milliseconds past which a dispatch is reported as a stall
+    public long getThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    // A getter method to retrieve the log the reports of the stalls are appended to
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    // A helper method to check the dispatch being run until the watchdog is uninstalled, sampling the stack of a stalled dispatch
+    private void watch() {
+        long interval = Math.max(1, Math.min(SAMPLE_INTERVAL_MS, getThresholdMs() / 2));
+        Dispatch stalled = null; // the stalled dispatch being sampled (or null if there is none)
+        List<StackTraceElement[]> samples = new ArrayList<>();
+        while (running) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                break; // The watchdog was uninstalled
+            }
+            Dispatch dispatch = current;
+            // Report a stall once the Event Dispatch Thread has moved on from it
+            if (stalled != null && stalled.endNanos != 0) {
+                report(stalled, samples);
+                stalled = null;
+                samples = new ArrayList<>();
+            }
+            if (stalled == null && dispatch != null && dispatch.endNanos == 0 && System.nanoTime() - dispatch.startNanos >= thresholdNanos) {
+                stalled = dispatch;
+            }
+            if (stalled != null) {
+                StackTraceElement[] stack = stalled.thread.getStackTrace();
+                samples.add(Arrays.copyOf(stack, Math.min(stack.length, STACK_DEPTH)));
+            }
+        }
+    }
+
+    // A helper method to append a report of a stall with its most frequent stacks to the log, and then count it for its action
+    private void report(Dispatch stall, List<StackTraceElement[]> samples) {
+        String action = stall.describe();
+        int count = stallCounts.getOrDefault(action, 0) + 1; // Only the watchdog thread counts the stalls
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(stall.endNanos - stall.startNanos);
+        StringBuilder report = new StringBuilder(String.format("%s Event Dispatch Thread stalled for %d ms on '%s' (stall %d of this action, %d stack samples)%n",
+                LocalDateTime.now().withNano(0), durationMs, action, count, samples.size()));
+        // Group the samples by their stack, so that the code the stall spent the most time in comes first
+        Map<List<StackTraceElement>, Integer> stacks = new LinkedHashMap<>();
+        for (StackTraceElement[] sample : samples) {
+            stacks.merge(Arrays.asList(sample), 1, Integer::sum);
+        }
+        stacks.entrySet().stream().sorted(Map.Entry.<List<StackTraceElement>, Integer>comparingByValue().reversed()).limit(REPORTED_STACKS)
+                .forEach(entry -> {
+                    report.append(String.format("  %d of %d samples:%n", entry.getValue(), samples.size()));
+                    entry.getKey().forEach(frame -> report.append("    at ").append(frame).append(System.lineSeparator()));
+                });
+        // Append the report to the log, which is left to the console if it cannot be written (the editor must not stop because of it)
+        try {
+            Files.createDirectories(logFile.toAbsolutePath().getParent());
+            Files.writeString(logFile, report, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.print("Error writing the stall log " + logFile + ": " + e.getMessage() + System.lineSeparator() + report);
+        }
+        // Publish the count once the report is in the log, so that a count read elsewhere always has its report
+        stallCounts.put(action, count);
+    }
+
+    // A helper method to name the items of a menu and its submenus with their path in the menu bar
+    private static void watchMenuActions(JMenu menu, String path) {
+        for (int i = 0; i < menu.getItemCount(); i++) {
+            JMenuItem item = menu.getItem(i);
+            if (item instanceof JMenu) {
+                watchMenuActions((JMenu) item, path + " > " + item.getText());
+            } else if (item != null) {
+                // The listeners of an item are notified from the last one added, so the dispatch is named before the action runs
+                String action = path + " > " + item.getText();
+                item.addActionListener(e -> setAction(action));
+            }
+        }
+    }
+
+    /**
+     * The Dispatch class holds the event the Event Dispatch Thread is dispatching, when it started, and the action it triggered.
+     */
+    private static final class Dispatch {
+        private final AWTEvent event; // the event being dispatched
+        private final Thread thread; // the Event Dispatch Thread dispatching it
+        private final long startNanos; // the time the dispatch started (or resumed after a modal dialog)
+        private volatile String action; // the menu action triggered by the event (or null if it triggered none)
+        private volatile long endNanos; // the time the dispatch ended (or paused for a modal dialog), or 0 while it runs
+
+        // A parameterized constructor to initialize a new dispatch of an event, resuming the action of an earlier one (if any)
+        Dispatch(AWTEvent event, String action) {
+            this.event = event;
+            this.thread = Thread.currentThread();
+            this.startNanos = System.nanoTime();
+            this.action = action;
+        }
+
+        // A method to end the dispatch, if it has not ended already
+        void end() {
+            if (endNanos == 0) {
+                endNanos = System.nanoTime();
+            }
+        }
+
+        // A method to describe the dispatch by its menu action, or by its event and the component it was sent to (on the watchdog thread, so dispatching stays cheap)
+        String describe() {
+            if (action != null) {
+                return action;
+            }
+            Object source = event.getSource();
+            return event.getClass().getSimpleName() + ((source == null) ? "" : " on " + source.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * The WatchedEventQueue class is an event queue that times each dispatch of the Event Dispatch Thread for the watchdog.
+     */
+    private final class WatchedEventQueue extends EventQueue {
+        private final Deque<Dispatch> dispatches = new ArrayDeque<>(); // the dispatches in progress, the innermost first (only used on the Event Dispatch Thread)
+
+        // A method to stop timing the dispatches and restore the event queue the Event Dispatch Thread was using
+        void unwatch() {
+            pop();
+        }
+
+        // A method to wait for the next event, during which the dispatch in progress (e.g. the one that opened a modal dialog) is paused
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            Dispatch dispatch = current;
+            if (dispatch != null) {
+                dispatch.end();
+                current = null;
+            }
+            return super.getNextEvent();
+        }
+
+        // A method to dispatch an event, timing it from start to finish
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            Dispatch dispatch = new Dispatch(event, null);
+            dispatches.push(dispatch);
+            current = dispatch;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                dispatch.end();
+                dispatches.pop();
+                // Resume timing the dispatch this one was nested in (e.g. by a modal dialog), from now
+                Dispatch outer = dispatches.poll();
+                if (outer != null) {
+                    outer = new Dispatch(outer.event, outer.action);
+                    dispatches.push(outer);
+                }
+                current = outer;
+            }
+        }
+    }
+}
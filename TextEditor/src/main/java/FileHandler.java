@@ -1,18 +1,15 @@
-// Import ODF TOOLKIT classes for ODT file handling
-import org.odftoolkit.odfdom.doc.OdfTextDocument; // to work with ODT files
-import org.w3c.dom.NodeList; // to use NodeList class for working with the content of the document
-import org.w3c.dom.Node; // to use Node class to represent a node in the document
 //  Import Java Swing classes for the GUI
-import javax.swing.JFileChooser; // to create a file chooser
 import javax.swing.JOptionPane; // to display dialog messages
-import javax.swing.JTextPane; // to work with a text pane
-import javax.swing.text.BadLocationException; // to handle bad location exceptions
-import javax.swing.text.rtf.RTFEditorKit; // to handle RTF files
+import javax.swing.SwingUtilities; // to find the window that owns the text area
+import javax.swing.text.Document; // to save the document model of the text area
 // Import Java input/output classes for file handling (wildcard import due to number of required classes)
 import java.awt.*;
 import java.io.*; // to work with input/output files
+import java.util.function.Consumer; // to run an action on the text area once a file has been opened
 // Import RSyntaxTextArea classes for syntax highlighting
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument; // to build the document of a source code file
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to create a text area with syntax highlighting
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to open files past the highlighting limit as plain text
 
 
 /**
@@ -27,17 +24,22 @@ import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to create a text area wit
 // A class to encapsulate the attributes and methods of the file handler
 public class FileHandler {
 
+    // === CONSTANTS ===
+    public static final long DEFAULT_SYNTAX_HIGHLIGHT_LIMIT = 16L * 1024 * 1024; // files over 16 MB are opened as plain text by default
+
     // === ATTRIBUTES ===
     private final RSyntaxTextArea textArea; // Use RSyntaxTextArea for syntax highlighting
-    private final JFileChooser fileChooser; // to work with the file chooser
     private boolean isTestEnvironment = false;
+    private FileOpenWorker openWorker; // the background worker of the 'Open' action currently running (if any)
+    private boolean syncOnSave = true; // whether a saved file is forced to disk before it replaces the original
+    private long syntaxHighlightLimit = DEFAULT_SYNTAX_HIGHLIGHT_LIMIT; // the size in bytes past which files are opened as plain text
+    private EditJournal editJournal; // the journal recording the edits of the text area (or null if there is none)
 
     // === CONSTRUCTORS ===
 
-    // A parameterized constructor to initialize a new file handler object with a text area and file chooser
-    public FileHandler(RSyntaxTextArea textArea, JFileChooser fileChooser) {
+    // A parameterized constructor to initialize a new file handler object with a text area
+    public FileHandler(RSyntaxTextArea textArea) {
         this.textArea = textArea;
-        this.fileChooser = fileChooser;
         this.isTestEnvironment = GraphicsEnvironment.isHeadless();
     }
 
@@ -45,16 +47,10 @@ public class FileHandler {
 
     // A method to handle the 'Open' action for .txt files
     public void readTxtFile(File file) {
-        // Use a try-with-resources block to read the file using a buffered reader object
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder(); // Create a string builder to store the content
-            String line; // Create a string to store each line of the file
-            // Read the file line by line and append the content to the string builder to store it
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
-            // Set the content from the string builder in the text area of the GUI to display it
-            textArea.setText(content.toString());
+        // Use a try block to read the file with the codec of plain text files
+        try {
+            // Decode the file in a single pass (recording its charset and line separator) and display it in the text area of the GUI
+            showDocument(readDocument(file, CodecRegistry.getDefault().forExtension("txt"), SyntaxConstants.SYNTAX_STYLE_NONE), file);
             // Show a success message
             handleMessage("File read successfully", "Success",  JOptionPane.INFORMATION_MESSAGE, null);
         }
@@ -66,18 +62,9 @@ public class FileHandler {
 
     // A method to handle the 'Open' action for .ODT files
     public void readOdtFile(File file) {
-        // Use a try-with-resources block to load the ODT file using the OdfTextDocument class
-        try (OdfTextDocument document = OdfTextDocument.loadDocument(file)) {
-            StringBuilder content = new StringBuilder();
-            // Get the content root of the document and retrieve the paragraphs using the tag name
-            NodeList paragraphs = document.getContentRoot().getElementsByTagName("text:p");
-            // Iterate over the paragraphs and append the text content to the string builder to store it
-            for (int i = 0; i < paragraphs.getLength(); i++) {
-                Node paragraph = paragraphs.item(i);
-                content.append(paragraph.getTextContent()).append("\n");
-            }
-            // Set the content from the string builder in the text area of the GUI to display it
-            textArea.setText(content.toString());
+        // Use a try block to stream the paragraphs of the ODT file into a document and display it in the text area of the GUI
+        try {
+            showDocument(readDocument(file, CodecRegistry.getDefault().forExtension("odt"), SyntaxConstants.SYNTAX_STYLE_NONE), file);
             // Show a success message
             handleMessage("ODT file read successfully", "Success", JOptionPane.INFORMATION_MESSAGE, null);
             // If an exception occurs, show an appropriate error message
@@ -92,26 +79,19 @@ public class FileHandler {
     public void readRtfFile(File file) {
         // Check if the file exists and is readable
         if (file.exists() && file.canRead()) {
-            // Create the required components for reading the RTF file
-            JTextPane textPane = new JTextPane();
-            RTFEditorKit rtfKit = new RTFEditorKit();
-            textPane.setEditorKit(rtfKit);
-            // Use a try-with-resources block to read the file using a file input stream
-            try (FileInputStream inputStream = new FileInputStream(file)) {
-                rtfKit.read(inputStream, textPane.getDocument(), 0);
-                String extractedText = textPane.getDocument().getText(0, textPane.getDocument().getLength());
-                // If the extracted text is not null or empty (e.g. the file contains content)
-                if (extractedText != null && !extractedText.isEmpty()) {
-                    // Create a string builder to store the content and then set it in the text area of the GUI
-                    StringBuilder content = new StringBuilder(extractedText);
-                    textArea.setText(content.toString());
+            // Use a try block to stream the extracted text into a document and display it in the text area of the GUI
+            try {
+                RSyntaxDocument document = readDocument(file, CodecRegistry.getDefault().forExtension("rtf"), SyntaxConstants.SYNTAX_STYLE_NONE);
+                showDocument(document, file);
+                // If the extracted text is not empty (e.g. the file contains content)
+                if (document.getLength() > 0) {
                     // If the file is read successfully, show a success message
                     handleMessage("RTF file read successfully", "Success", JOptionPane.INFORMATION_MESSAGE, null);
                 } else {
                     // If the file does not contain any content, show a warning message
                     handleMessage("No content found in the RTF file", "Warning", JOptionPane.WARNING_MESSAGE, null);
                 }
-            } catch (IOException | BadLocationException ex) {
+            } catch (IOException ex) {
                 // If an exception occurs, show an error message
                 handleMessage("Error reading RTF file: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE, ex);
             }
@@ -123,19 +103,12 @@ public class FileHandler {
 
     // A method to read source code files with syntax highlighting
     public void readSourceCodeFile(File file, String syntaxStyle) {
-        // Use a try-with-resources block to read the file using a buffered reader
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            // Create a string builder to store the content and a string to store each line of the file
-            StringBuilder content = new StringBuilder();
-            String line;
-            // Read the file line by line and append the content to the string builder to store it
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
-            // Set the syntax highlighting style for the text area
-            textArea.setSyntaxEditingStyle(syntaxStyle);
-            // Set the content from the string builder in the text area of the GUI to display it
-            textArea.setText(content.toString());
+        // Use a try block to read the file with the codec of plain text files, but highlighted in the given syntax style
+        try {
+            // Build a document with the syntax highlighting style (or plain text past the limit) and the content of the file
+            RSyntaxDocument document = readDocument(file, CodecRegistry.getDefault().forExtension("txt"), syntaxStyle);
+            // Display the document in the text area of the GUI
+            showDocument(document, file);
             // Show a success message if the file is read successfully
             handleMessage("Source code file read successfully", "Success", JOptionPane.INFORMATION_MESSAGE, null);
         } catch (IOException ex) {
@@ -144,11 +117,84 @@ public class FileHandler {
         }
     }
 
+    // A helper method to read a file with a codec into a new document with a syntax style
+    private RSyntaxDocument readDocument(File file, FormatCodec codec, String syntaxStyle) throws IOException {
+        RSyntaxDocument document = createSyntaxDocument(syntaxStyle, file.length());
+        // Use a try-with-resources block to stream the text of the file into the document
+        EditorMetrics.OpenEvent event = EditorMetrics.OpenEvent.start(file, codec);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            codec.getReader().read(inputStream, file.length(), TextSink.toDocument(document));
+        } finally {
+            event.characters = document.getLength();
+            event.finish();
+        }
+        return document;
+    }
+
+    // A method to open a file on a background thread, so the GUI stays responsive while it is read and parsed
+    public void openFileAsync(File file, FormatCodec codec, String successMessage) {
+        openFileAsync(file, codec, successMessage, null);
+    }
+
+    // A method to open a file on a background thread, running an action on the text area once it has been opened
+    public void openFileAsync(File file, FormatCodec codec, String successMessage, Consumer<RSyntaxTextArea> onOpened) {
+        // Cancel an 'Open' action that is still running, as only the latest one is of interest
+        if (openWorker != null && !openWorker.isDone()) {
+            openWorker.cancel(true);
+        }
+        openWorker = new FileOpenWorker(this, file, codec, successMessage, onOpened,
+                SwingUtilities.getWindowAncestor(textArea));
+        openWorker.execute();
+    }
+
+    // A method to create the document of a file with a syntax style, highlighting it lazily if it is large
+    public RSyntaxDocument createSyntaxDocument(String syntaxStyle, long length) {
+        // Past the limit, the file is opened as plain text, as highlighting it would cost more than it is worth
+        if (length > syntaxHighlightLimit) {
+            syntaxStyle = SyntaxConstants.SYNTAX_STYLE_NONE;
+        }
+        return (length >= LazySyntaxDocument.SIZE_THRESHOLD) ? new LazySyntaxDocument(syntaxStyle) : new RSyntaxDocument(syntaxStyle);
+    }
+
+    // A method to show a finished document in the text area (on the Event Dispatch Thread), starting its lazy highlighting if needed
+    public void showDocument(RSyntaxDocument document) {
+        // Stop highlighting the document being replaced, whose viewport listener would otherwise keep it in memory
+        if (textArea.getDocument() instanceof LazySyntaxDocument) {
+            ((LazySyntaxDocument) textArea.getDocument()).stopHighlighting();
+        }
+        textArea.setDocument(document);
+        textArea.setCaretPosition(0);
+        if (document instanceof LazySyntaxDocument) {
+            ((LazySyntaxDocument) document).startHighlighting(textArea);
+        }
+    }
+
+    // A method to show a document read from a file in the text area (on the Event Dispatch Thread), noting the file in the edit journal
+    public void showDocument(RSyntaxDocument document, File file) {
+        showDocument(document);
+        markSaved(file);
+    }
+
+    // A helper method to note in the edit journal that the text area holds the text of a file, so a crash has nothing to recover until it is edited
+    private void markSaved(File file) {
+        if (editJournal != null) {
+            editJournal.markSaved(file.toPath());
+        }
+    }
+
     // A method to handle the 'Save' action
     public void saveTxtFile(File file) {
-        // Use a try-with-resources block to write the content of the text area to the file using a buffered writer
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write(textArea.getText());
+        // Get the charset, byte order mark, and line separator the file was opened with (if any)
+        Document document = textArea.getDocument();
+        // Use a try block to stream the document to a temporary file that replaces the file once it is complete
+        EditorMetrics.SaveEvent event = EditorMetrics.SaveEvent.start(file, TextFileDecoder.getCharset(document).name(), document.getLength());
+        try {
+            // Write the content with its original byte order mark and line separator (the text area only uses '\n' internally)
+            DocumentSaver.save(document, file.toPath(), TextFileDecoder.getCharset(document), TextFileDecoder.hasBom(document),
+                    TextFileDecoder.getLineSeparator(document), syncOnSave);
+            event.fileSize = file.length();
+            event.finish();
+            markSaved(file); // The journal is reset to the saved file, as its records are now part of the file
             // Show a success message if the file is saved successfully
             handleMessage("File saved successfully", "Success", JOptionPane.INFORMATION_MESSAGE, null);
         } catch (IOException ex) {
@@ -159,8 +205,33 @@ public class FileHandler {
 
     // A method to export the text content as a PDF file
     public void exportToPdf(File file) {
-        // Call the PDF exporter class method to export the text content as a PDF file
-        PDFExporter.exportToPdf(file, textArea.getText());
+        exportToPdf(file, false);
+    }
+
+    // A method to export the text content as a PDF file, optionally in the syntax colours of the text area
+    public void exportToPdf(File file, boolean syntaxColors) {
+        // Export the text content as a PDF file on a background thread, so the editor stays responsive
+        new PdfExportWorker(this, file, syntaxColors, SwingUtilities.getWindowAncestor(textArea)).execute();
+    }
+
+    // A setter method to set the journal recording the edits of the text area, which is told when the text area is saved or read from a file
+    public void setEditJournal(EditJournal editJournal) {
+        this.editJournal = editJournal;
+    }
+
+    // A setter method to set whether a saved file is forced to disk before it replaces the original (the 'syncOnSave' setting)
+    public void setSyncOnSave(boolean syncOnSave) {
+        this.syncOnSave = syncOnSave;
+    }
+
+    // A setter method to set the size in bytes past which files are opened without syntax highlighting (the 'syntaxHighlightLimit' setting)
+    public void setSyntaxHighlightLimit(long syntaxHighlightLimit) {
+        this.syntaxHighlightLimit = syntaxHighlightLimit;
+    }
+
+    // A getter method to retrieve the size in bytes past which files are opened without syntax highlighting
+    public long getSyntaxHighlightLimit() {
+        return syntaxHighlightLimit;
     }
 
     // A getter method to retrieve the text area associated with the file handler for external access
@@ -4,6 +4,10 @@ import javax.swing.JMenuItem; // to create a menu item
 import javax.swing.JOptionPane; // to show dialog boxes
 import javax.swing.JFileChooser; // to create a file chooser
 import java.io.File; // to work with files
+import java.io.IOException; // to handle input/output exceptions
+import java.util.function.Consumer; // to run an action on the text area once a file has been opened
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to move the caret of the text area to a match
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to set syntax highlighting
 
 /**
@@ -43,6 +47,11 @@ public class FileMenuHandler {
         fileMenu.add(openMenuItem);
         openMenuItem.addActionListener(e -> handleOpenAction());
 
+        // Create a 'Find in Files' menu item, add it to the file menu, and add an action listener to it
+        JMenuItem findInFilesMenuItem = new JMenuItem("Find in Files");
+        fileMenu.add(findInFilesMenuItem);
+        findInFilesMenuItem.addActionListener(e -> handleFindInFilesAction());
+
         // Create a 'Save' menu item, add it to the file menu, and add an action listener to it
         JMenuItem saveMenuItem = new JMenuItem("Save");
         fileMenu.add(saveMenuItem);
@@ -51,7 +60,12 @@ public class FileMenuHandler {
         // Create an 'Export as PDF' menu item, add it to the file menu, and add an action listener to it
         JMenuItem exportPdfMenuItem = new JMenuItem("Export as PDF");
         fileMenu.add(exportPdfMenuItem);
-        exportPdfMenuItem.addActionListener(e -> handleExportPdfAction());
+        exportPdfMenuItem.addActionListener(e -> handleExportPdfAction(false));
+
+        // Create an 'Export as PDF with Syntax Colours' menu item, add it to the file menu, and add an action listener to it
+        JMenuItem exportColoredPdfMenuItem = new JMenuItem("Export as PDF with Syntax Colours");
+        fileMenu.add(exportColoredPdfMenuItem);
+        exportColoredPdfMenuItem.addActionListener(e -> handleExportPdfAction(true));
 
         // Create a 'Print' menu item, add it to the file menu, and add an action listener to it
         JMenuItem printMenuItem = new JMenuItem("Print");
@@ -82,7 +96,7 @@ public class FileMenuHandler {
                 // If the file is valid
                 if (isFileValid(selectedFile)) {
                     // Handle the file based on its extension
-                    handleFile(selectedFile);
+                    handleFile(selectedFile, null);
                 } else {
                     // Show an error message if the file is not valid
                     fileHandler.handleMessage("File does not exist or is not readable", "Error", JOptionPane.ERROR_MESSAGE, null);
@@ -98,36 +112,61 @@ public class FileMenuHandler {
         return file.exists() && file.canRead();
     }
 
-    // A method to handle the file based on its extension
-    private void handleFile(File file) {
-        // Get the file path
-        String filePath = file.getAbsolutePath();
-        // Use a switch statement to handle the file based on its extension type
-        switch (getFileExtension(filePath)) {
-            case "txt":
-                fileHandler.readTxtFile(file);
-                break;
-            case "odt":
-                fileHandler.readOdtFile(file);
-                break;
-            case "rtf":
-                fileHandler.readRtfFile(file);
-                break;
-            case "java":
-                fileHandler.readSourceCodeFile(file, SyntaxConstants.SYNTAX_STYLE_JAVA);
-                break;
-            case "py":
-                fileHandler.readSourceCodeFile(file, SyntaxConstants.SYNTAX_STYLE_PYTHON);
-                break;
-            case "cpp":
-                fileHandler.readSourceCodeFile(file, SyntaxConstants.SYNTAX_STYLE_CPLUSPLUS);
-                break;
-            case "js":
-                fileHandler.readSourceCodeFile(file, SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
-                break;
-            default:
-                fileHandler.handleMessage("Unsupported file type", "Error", JOptionPane.ERROR_MESSAGE, null);
+    // A method to handle the file based on its format (the file is read on a background thread)
+    private void handleFile(File file, Consumer<RSyntaxTextArea> onOpened) {
+        // Find the codec of the file by its extension, or by its content if the extension is unknown
+        FormatCodec codec;
+        try {
+            codec = CodecRegistry.getDefault().forFile(file.toPath());
+        } catch (IOException ex) {
+            fileHandler.handleMessage("Error reading file: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE, ex);
+            return;
+        }
+        if (codec == null || !codec.canRead()) {
+            fileHandler.handleMessage("Unsupported file type", "Error", JOptionPane.ERROR_MESSAGE, null);
+        } else if (codec.isPlainText() && LargeFileViewer.isLargeFile(file)) {
+            // If a plain text file is too large to load into the editor, open it in a read-only viewer instead
+            try {
+                new LargeFileViewer(file, codec.getSyntaxStyle());
+            } catch (IOException ex) {
+                fileHandler.handleMessage("Error opening large file: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE, ex);
+            }
+        } else {
+            // Otherwise open the file on a background thread (the success message is only shown for the 'Open' action)
+            fileHandler.openFileAsync(file, codec, (onOpened == null) ? codec.getName() + " file read successfully" : null, onOpened);
+        }
+    }
+
+    // A method to handle the 'Find in Files' action (e.g. search all supported files in a directory tree)
+    private void handleFindInFilesAction() {
+        File directory = textEditor.getFileChooser().getCurrentDirectory();
+        new FindInFilesDialog(directory, CodecRegistry.getDefault().getReadableExtensions(), this::openFileAt);
+    }
+
+    // A method to open the file of a 'Find in Files' result and select the match
+    private void openFileAt(FileSearchEngine.Match match) {
+        File file = match.getFile().toFile();
+        // A very large file is opened in the memory-mapped viewer, which locates the match by its byte offset
+        if (match.isMapped() && LargeFileViewer.isLargeFile(file)) {
+            try {
+                new LargeFileViewer(file, SyntaxConstants.SYNTAX_STYLE_NONE).showMatch(match.getOffset(), match.getLength());
+            } catch (IOException ex) {
+                fileHandler.handleMessage("Error opening large file: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE, ex);
+            }
+            return;
         }
+        // Otherwise open the file in the editor and select the match by its line and column once the file is loaded
+        handleFile(file, textArea -> {
+            try {
+                int start = Math.min(textArea.getLineStartOffset(match.getLine() - 1) + match.getColumn(),
+                        textArea.getDocument().getLength());
+                textArea.select(start, Math.min(start + match.getLength(), textArea.getDocument().getLength()));
+                textArea.getCaret().setSelectionVisible(true);
+            } catch (BadLocationException e) {
+                e.printStackTrace(); // The file changed since it was searched, so the caret stays at the start
+            }
+            textEditor.toFront();
+        });
     }
 
     // A method to handle the 'Save' action (e.g. save a file)
@@ -148,8 +187,8 @@ public class FileMenuHandler {
         }
     }
 
-    // A method to handle the 'Export as PDF' action (e.g. export a file as a PDF)
-    private void handleExportPdfAction() {
+    // A method to handle the 'Export as PDF' actions (e.g. export a file as a PDF, optionally in syntax colours)
+    private void handleExportPdfAction(boolean syntaxColors) {
         // Show a file chooser dialog to select the file to export as a PDF
         int returnValue = textEditor.getFileChooser().showSaveDialog(textEditor);
         // If the user selects a file
@@ -157,7 +196,7 @@ public class FileMenuHandler {
             // Store the file path selected by the user
             File selectedFile = textEditor.getFileChooser().getSelectedFile();
             // Export the text editor content as a PDF file to the selected file path
-            fileHandler.exportToPdf(selectedFile);
+            fileHandler.exportToPdf(selectedFile, syntaxColors);
         }
     }
 
@@ -168,12 +207,7 @@ public class FileMenuHandler {
 
     // A method to handle the 'Quit' action (e.g. exit the application)
     private void handleQuitAction() {
+        EditJournal.closeAll(); // The editor is quit on purpose, so the unsaved changes are discarded
         System.exit(0);
     }
-
-    // A method to get the file extension from a file path
-    private String getFileExtension(String filePath) {
-        int dotIndex = filePath.lastIndexOf('.');
-        return (dotIndex == -1) ? "" : filePath.substring(dotIndex + 1).toLowerCase();
-    }
 }
\ No newline at end of file
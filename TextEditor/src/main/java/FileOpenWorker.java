@@ -0,0 +1,142 @@
+// Import Java Swing classes for background work
+import javax.swing.JOptionPane; // to display dialog messages
+import javax.swing.SwingWorker; // to read the file on a background thread
+// Import other necessary packages/classes
+import java.awt.Window; // to own the progress dialog
+import java.io.*; // to work with input/output streams
+import java.util.concurrent.CancellationException; // to handle a cancelled worker
+import java.util.concurrent.ExecutionException; // to handle an exception thrown by the worker
+import java.util.function.Consumer; // to run an action on the text area once the file has been opened
+// Import RSyntaxTextArea classes for syntax highlighting
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument; // to build the document off the Event Dispatch Thread
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to pass the text area to the action run once the file has been opened
+
+/**
+ * The FileOpenWorker class reads and parses a file on a background thread and hands the finished document to the text area.
+ * The document is built completely off the Event Dispatch Thread and swapped into the text area in a single step once it is ready.
+ * A progress dialog with a Cancel button is shown while the file is read.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-03
+ */
+
+public class FileOpenWorker extends SwingWorker<RSyntaxDocument, Void> {
+
+    // === CONSTANTS ===
+    private static final int READ_CHUNK_SIZE = 1024 * 1024; // the maximum number of bytes read between progress updates
+
+    // === ATTRIBUTES ===
+    private final FileHandler fileHandler; // the file handler of the text area the file is opened in
+    private final File file; // the file to open
+    private final FormatCodec codec; // the codec used to read the file format into a document
+    private final String successMessage; // the message shown once the file has been opened (or null to show none)
+    private final Consumer<RSyntaxTextArea> onOpened; // an action run once the file has been opened (or null)
+    private final ProgressDialog progressDialog; // the dialog showing the progress of the worker
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new worker that opens a file in the text area of a file handler
+    public FileOpenWorker(FileHandler fileHandler, File file, FormatCodec codec, String successMessage,
+                          Consumer<RSyntaxTextArea> onOpened, Window owner) {
+        this.fileHandler = fileHandler;
+        this.file = file;
+        this.codec = codec;
+        this.successMessage = successMessage;
+        this.onOpened = onOpened;
+        this.progressDialog = new ProgressDialog(owner, "Open", "Opening " + file.getName() + "...", () -> cancel(true));
+        // Update the progress bar whenever the progress of the worker changes
+        addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressDialog.setProgress((Integer) e.getNewValue());
+            }
+        });
+        progressDialog.start();
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A method to read the file and build its document on a background thread
+    @Override
+    protected RSyntaxDocument doInBackground() throws Exception {
+        // Build the document off the Event Dispatch Thread (a large file is highlighted lazily once it is shown)
+        RSyntaxDocument document = fileHandler.createSyntaxDocument(codec.getSyntaxStyle(), file.length());
+        // Use a try-with-resources block to read the file through a stream that reports its progress
+        EditorMetrics.OpenEvent event = EditorMetrics.OpenEvent.start(file, codec);
+        try (InputStream inputStream = new ProgressInputStream(new BufferedInputStream(new FileInputStream(file)), file.length())) {
+            codec.getReader().read(inputStream, file.length(), TextSink.toDocument(document));
+        } finally {
+            event.characters = document.getLength();
+            event.finish();
+        }
+        return document;
+    }
+
+    // A method to swap the finished document into the text area on the Event Dispatch Thread
+    @Override
+    protected void done() {
+        progressDialog.finish();
+        try {
+            RSyntaxDocument document = get();
+            fileHandler.showDocument(document, file);
+            if (onOpened != null) {
+                onOpened.accept(fileHandler.getTextArea()); // e.g. move the caret to a match found by 'Find in Files'
+            }
+            if (successMessage != null) {
+                // Tell the user why a file past the highlighting limit is shown as plain text
+                String message = codec.getSyntaxStyle().equals(document.getSyntaxStyle()) ? successMessage
+                        : successMessage + " (syntax highlighting is off for files over "
+                        + fileHandler.getSyntaxHighlightLimit() / (1024 * 1024) + " MB)";
+                fileHandler.handleMessage(message, "Success", JOptionPane.INFORMATION_MESSAGE, null);
+            }
+        } catch (CancellationException e) {
+            // The 'Open' action was cancelled by the user or by a newer 'Open' action, so there is nothing to show
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            fileHandler.handleMessage("Error reading file: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE,
+                    (cause instanceof Exception) ? (Exception) cause : e);
+        }
+    }
+
+    /**
+     * The ProgressInputStream class counts the bytes read from a stream to report the progress of the worker.
+     * It also stops the read with an InterruptedIOException as soon as the worker is cancelled.
+     */
+    private class ProgressInputStream extends FilterInputStream {
+        private final long length; // the total number of bytes in the stream
+        private long bytesRead = 0; // the number of bytes read so far
+
+        // A parameterized constructor to wrap an input stream of a known length
+        ProgressInputStream(InputStream inputStream, long length) {
+            super(inputStream);
+            this.length = Math.max(1, length);
+        }
+
+        // A method to read a single byte and report the progress
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            update(b < 0 ? 0 : 1);
+            return b;
+        }
+
+        // A method to read an array of bytes and report the progress (large reads are split so the progress stays smooth)
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, Math.min(length, READ_CHUNK_SIZE));
+            update(Math.max(count, 0));
+            return count;
+        }
+
+        // A helper method to update the progress, stopping the read if the worker has been cancelled
+        private void update(int count) throws IOException {
+            if (isCancelled()) {
+                throw new InterruptedIOException("Opening " + file.getName() + " was cancelled");
+            }
+            bytesRead += count;
+            setProgress((int) Math.min(100, bytesRead * 100 / length));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+// Import Java NIO classes to walk the directory tree
+import java.nio.file.*; // to work with paths and walk directories
+import java.nio.file.attribute.BasicFileAttributes; // to read the size and type of a file while walking
+// Import other necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read ODT and RTF files through their codecs
+import java.util.ArrayList; // to collect the matches of a file
+import java.util.List; // to work with lists
+import java.util.Set; // to store the supported file extensions
+import java.util.concurrent.ExecutorService; // to scan files on a pool of threads
+import java.util.concurrent.Executors; // to create the thread pool
+import java.util.concurrent.TimeUnit; // to wait for the thread pool to finish
+import java.util.concurrent.atomic.AtomicInteger; // to count the files scanned by several threads
+import java.util.function.BooleanSupplier; // to check whether the search has been cancelled
+import java.util.function.Consumer; // to stream the matches of each file as they are found
+
+/**
+ * The FileSearchEngine class searches every supported file of a directory tree for a term (e.g. for 'Find in Files').
+ * The tree is walked with NIO while the files are scanned in parallel on a pool with one thread per core.
+ * Files of at least 1 MB are searched through memory-mapping, smaller ones are read and decoded in one go, and ODT and RTF
+ * files are searched in their extracted text. Both kinds of plain text files are decoded in the charset detected by TextFileDecoder
+ * and compared with the same case folding, so a file finds the same matches whatever its size. The matches of each file are handed to a callback as soon as the file is done.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-13
+ */
+
+public class FileSearchEngine {
+
+    // === CONSTANTS ===
+    static final long MAP_THRESHOLD = 1L << 20; // files of at least this many bytes are searched through memory-mapping
+    private static final int MAX_MATCHES_PER_FILE = 1000; // the maximum number of matches reported for a single file
+    private static final int MAX_LINE_TEXT = 200; // the maximum number of characters of a line shown with a match
+
+    // === ATTRIBUTES ===
+    private final Path root; // the directory to search
+    private final String searchTerm; // the term to search for
+    private final boolean matchCase; // whether the search is case-sensitive
+    private final Set<String> extensions; // the extensions of the files to search (in lowercase)
+    private final AtomicInteger filesFound = new AtomicInteger(); // the number of files found with a supported extension
+    private final AtomicInteger filesScanned = new AtomicInteger(); // the number of files scanned so far
+    private final AtomicInteger filesFailed = new AtomicInteger(); // the number of files that could not be read
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new search of a directory tree for a term
+    public FileSearchEngine(Path root, String searchTerm, boolean matchCase, Set<String> extensions) {
+        this.root = root;
+        this.searchTerm = searchTerm;
+        this.matchCase = matchCase;
+        this.extensions = extensions;
+    }
+
+    // === METHODS ===
+
+    // A method to run the search, passing the matches of each file to the callback (from any thread) until done or cancelled
+    public void search(Consumer<List<Match>> results, BooleanSupplier cancelled) throws IOException, InterruptedException {
+        // Create a pool with one (daemon) thread per core, so that an abandoned search does not keep the application alive
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "find-in-files");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Walk the tree on the calling thread, handing each supported file to the pool
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                    return cancelled.getAsBoolean() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (cancelled.getAsBoolean()) {
+                        return FileVisitResult.TERMINATE;
+                    }
+                    if (attributes.isRegularFile() && extensions.contains(CodecRegistry.getExtension(file))) {
+                        filesFound.incrementAndGet();
+                        pool.execute(() -> scanFile(file, attributes.size(), results, cancelled));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE; // Skip files and directories that cannot be read
+                }
+            });
+            // Wait for the queued files to be scanned, stopping the pool as soon as the search is cancelled
+            pool.shutdown();
+            while (!pool.awaitTermination(50, TimeUnit.MILLISECONDS)) {
+                if (cancelled.getAsBoolean()) {
+                    pool.shutdownNow();
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // A helper method to scan a single file, reporting its matches if there are any
+    private void scanFile(Path file, long size, Consumer<List<Match>> results, BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            return;
+        }
+        try {
+            List<Match> matches;
+            FormatCodec codec = CodecRegistry.getDefault().forExtension(CodecRegistry.getExtension(file));
+            if (codec != null && !codec.isPlainText()) {
+                if (!codec.canRead()) {
+                    throw new IOException("Unsupported file type: " + codec.getName());
+                }
+                // Search the text the editor would show (e.g. of an ODT or RTF file), so that the match positions are the same when the file is opened
+                try (InputStream inputStream = Files.newInputStream(file)) {
+                    StringBuilder text = new StringBuilder();
+                    codec.getReader().read(inputStream, size, TextSink.toBuilder(text));
+                    matches = searchText(file, text.toString());
+                }
+            } else if (size >= MAP_THRESHOLD) {
+                matches = searchMapped(file, cancelled);
+            } else {
+                byte[] bytes = Files.readAllBytes(file);
+                matches = searchText(file, TextFileDecoder.decode(bytes, bytes.length).getText());
+            }
+            if (!matches.isEmpty() && !cancelled.getAsBoolean()) {
+                results.accept(matches);
+            }
+        } catch (Exception e) {
+            filesFailed.incrementAndGet(); // Skip files that cannot be read or parsed
+        } finally {
+            filesScanned.incrementAndGet();
+        }
+    }
+
+    // A helper method to search the decoded text of a file (the offsets are character offsets, as in the editor)
+    private List<Match> searchText(Path file, String text) {
+        List<Match> matches = new ArrayList<>();
+        String content = matchCase ? text : MappedTextFile.toLowerCase(text);
+        String term = matchCase ? searchTerm : MappedTextFile.toLowerCase(searchTerm);
+        int line = 1;
+        int lineStart = 0;
+        int lineCountedTo = 0;
+        int index = 0;
+        while (matches.size() < MAX_MATCHES_PER_FILE && (index = content.indexOf(term, index)) != -1) {
+            // Count the lines up to the match, continuing from the previous match
+            for (int i = lineCountedTo; i < index; i++) {
+                if (text.charAt(i) == '\n') {
+                    line++;
+                    lineStart = i + 1;
+                }
+            }
+            lineCountedTo = index;
+            int lineEnd = text.indexOf('\n', index);
+            String lineText = text.substring(lineStart, (lineEnd == -1) ? text.length() : lineEnd);
+            matches.add(new Match(file, index, line, index - lineStart, searchTerm.length(), lineText, false));
+            index += term.length();
+        }
+        return matches;
+    }
+
+    // A helper method to search a large file through memory-mapping (the offsets are byte offsets into the file)
+    private List<Match> searchMapped(Path file, BooleanSupplier cancelled) throws IOException {
+        List<Match> matches = new ArrayList<>();
+        try (MappedTextFile mappedFile = new MappedTextFile(file.toFile())) {
+            long line = 1;
+            long lineCountedTo = 0;
+            long position = 0;
+            while (matches.size() < MAX_MATCHES_PER_FILE
+                    && (position = mappedFile.find(searchTerm, position, mappedFile.size(), matchCase, cancelled)) >= 0) {
+                // Count the lines up to the match, continuing from the previous match
+                line += mappedFile.countLineBreaks(lineCountedTo, position);
+                lineCountedTo = position;
+                long lineStart = mappedFile.lineStart(position);
+                String lineText = mappedFile.decode(lineStart, mappedFile.nextLineStart(position));
+                int column = mappedFile.decode(lineStart, position).length();
+                matches.add(new Match(file, position, (int) line, column, searchTerm.length(), lineText.strip(), true));
+                position = mappedFile.skipChars(position, searchTerm.length());
+            }
+        }
+        return matches;
+    }
+
+    // A getter method to retrieve the number of files found with a supported extension so far
+    public int getFilesFound() {
+        return filesFound.get();
+    }
+
+    // A getter method to retrieve the number of files scanned so far
+    public int getFilesScanned() {
+        return filesScanned.get();
+    }
+
+    // A getter method to retrieve the number of files that could not be read
+    public int getFilesFailed() {
+        return filesFailed.get();
+    }
+
+    /**
+     * The Match class stores a match of the search term in a file, with its line to show in the list of results.
+     */
+    public static final class Match {
+        private final Path file; // the file containing the match
+        private final long offset; // the offset of the match (a byte offset if the file was mapped, otherwise a character offset)
+        private final int line; // the line number of the match, starting at 1
+        private final int column; // the character offset of the match within its line
+        private final int length; // the length of the match in characters
+        private final String lineText; // the text of the line containing the match
+        private final boolean mapped; // whether the file was searched through memory-mapping
+
+        // A parameterized constructor to initialize a new match
+        Match(Path file, long offset, int line, int column, int length, String lineText, boolean mapped) {
+            this.file = file;
+            this.offset = offset;
+            this.line = line;
+            this.column = column;
+            this.length = length;
+            this.lineText = (lineText.length() > MAX_LINE_TEXT) ? lineText.substring(0, MAX_LINE_TEXT) : lineText;
+            this.mapped = mapped;
+        }
+
+        // A getter method to retrieve the file containing the match
+        public Path getFile() {
+            return file;
+        }
+
+        // A getter method to retrieve the offset of the match
+        public long getOffset() {
+            return offset;
+        }
+
+        // A getter method to retrieve the line number of the match
+        public int getLine() {
+            return line;
+        }
+
+        // A getter method to retrieve the character offset of the match within its line
+        public int getColumn() {
+            return column;
+        }
+
+        // A getter method to retrieve the length of the match
+        public int getLength() {
+            return length;
+        }
+
+        // A method to check whether the offset of the match is a byte offset of a memory-mapped file
+        public boolean isMapped() {
+            return mapped;
+        }
+
+        // A method to describe the match in the list of results
+        @Override
+        public String toString() {
+            return file + ":" + line + ":  " + lineText.strip();
+        }
+    }
+}
@@ -0,0 +1,463 @@
+// Import Java Swing classes to create the GUI
+import javax.swing.*; // to work with Swing components
+import javax.swing.event.DocumentEvent; // to receive changes of the query and of the edited document
+import javax.swing.event.DocumentListener; // to search as the user types
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Document; // to read the edited document
+import javax.swing.text.Segment; // to read the document without copying it into strings
+// Import other necessary packages/classes
+import java.awt.*; // to work with layouts
+import java.awt.event.KeyEvent; // to bind the Enter and Escape keys
+import java.beans.PropertyChangeListener; // to follow the document of the text area
+import java.util.List; // to receive the first match published by the worker
+import java.util.concurrent.CancellationException; // to stop a search that has been cancelled
+import java.util.concurrent.ExecutionException; // to handle an exception thrown by the worker
+import java.util.function.BooleanSupplier; // to check whether a search has been cancelled
+import java.util.function.IntConsumer; // to report the first match as soon as it is found
+import java.util.regex.Pattern; // to check word boundaries of whole word matches
+import java.util.regex.PatternSyntaxException; // to report an invalid regular expression
+
+/**
+ * The FindBar class is an inline find bar shown below the text area, which searches as the user types.
+ * Keystrokes are debounced, and each search runs on a background thread that is cancelled as soon as the query changes.
+ * The search starts at the caret, so the first match is selected before the rest of the document has been scanned.
+ * When the new query extends the previous one, only the positions where the previous query matched are checked again.
+ * In regular expression mode, the pattern is matched against the document a window at a time (releasing its read lock between
+ * matches) and stopped if it exceeds its time budget.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-11
+ */
+
+public class FindBar extends JPanel {
+
+    // === CONSTANTS ===
+    private static final int DEBOUNCE_MS = 75; // the delay after the last keystroke before a search starts, in milliseconds
+    private static final int CHUNK_SIZE = 1 << 16; // the number of characters scanned between checks for cancellation
+
+    // === ATTRIBUTES ===
+    private final JTextArea textArea; // the text area being searched
+    private final MatchHighlightLayer matchLayer; // the highlight layer showing the matches
+    private final JTextField queryField = new JTextField(24); // a text field for the search term
+    private final JCheckBox wholeWordBox = new JCheckBox("Whole word"); // a check box to only match whole words
+    private final JCheckBox regexBox = new JCheckBox("Regex"); // a check box to search for a regular expression
+    private final JLabel statusLabel = new JLabel(" "); // a label showing the number of matches
+    private final Timer debounceTimer; // a timer that starts the search once the user stops typing
+    private final DocumentListener editListener; // a listener that invalidates the previous result when the text is edited
+    private final PropertyChangeListener documentChangeListener; // a listener that follows the document of the text area
+    private SearchWorker worker; // the background worker of the running search (or null)
+    private SearchResult lastResult; // the result of the last completed search (or null if it no longer applies)
+    private int documentGeneration = 0; // a counter incremented on every edit of the document
+    private int searchOrigin = 0; // the position the incremental search starts from
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new find bar for a text area and its highlight layer
+    public FindBar(JTextArea textArea, MatchHighlightLayer matchLayer) {
+        super(new FlowLayout(FlowLayout.LEFT, 6, 2));
+        this.textArea = textArea;
+        this.matchLayer = matchLayer;
+        setVisible(false);
+
+        // Create the components of the find bar
+        JButton previousButton = new JButton("Previous");
+        JButton nextButton = new JButton("Next");
+        JButton closeButton = new JButton("Close");
+        add(new JLabel("Find:"));
+        add(queryField);
+        add(previousButton);
+        add(nextButton);
+        add(wholeWordBox);
+        add(regexBox);
+        add(statusLabel);
+        add(closeButton);
+
+        // Start a search a short time after the last keystroke, so that fast typing only runs one search
+        debounceTimer = new Timer(DEBOUNCE_MS, e -> startSearch());
+        debounceTimer.setRepeats(false);
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        wholeWordBox.addActionListener(e -> startSearch());
+        regexBox.addActionListener(e -> startSearch());
+
+        // Move between the matches with the buttons, Enter and Shift+Enter, and close the bar with Escape
+        previousButton.addActionListener(e -> selectMatch(false));
+        nextButton.addActionListener(e -> selectMatch(true));
+        closeButton.addActionListener(e -> close());
+        queryField.addActionListener(e -> selectMatch(true));
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, KeyEvent.SHIFT_DOWN_MASK), "previousMatch", () -> selectMatch(false));
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "closeFindBar", this::close);
+
+        // Invalidate the previous result whenever the text is edited, as its positions may no longer match
+        editListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                documentEdited();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                documentEdited();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        };
+        textArea.getDocument().addDocumentListener(editListener);
+        documentChangeListener = e -> {
+            ((Document) e.getOldValue()).removeDocumentListener(editListener);
+            ((Document) e.getNewValue()).addDocumentListener(editListener);
+            documentEdited();
+        };
+        textArea.addPropertyChangeListener("document", documentChangeListener);
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A method to show the find bar and focus its text field, in plain or regular expression mode
+    public void open(boolean wholeWord, boolean regex) {
+        wholeWordBox.setSelected(wholeWord);
+        regexBox.setSelected(regex);
+        searchOrigin = textArea.getSelectionStart();
+        setVisible(true);
+        revalidate();
+        queryField.selectAll();
+        queryField.requestFocusInWindow();
+        startSearch();
+    }
+
+    // A method to show the find bar with a query, searching for it at once
+    public void open(String query, boolean wholeWord, boolean regex) {
+        queryField.setText(query);
+        open(wholeWord, regex);
+    }
+
+    // A method to hide the find bar, stopping the running search and clearing the highlights
+    public void close() {
+        debounceTimer.stop();
+        cancelSearch();
+        matchLayer.clear();
+        statusLabel.setText(" ");
+        setVisible(false);
+        revalidate();
+        textArea.requestFocusInWindow();
+    }
+
+    // A helper method to bind a key stroke of the find bar to an action
+    private void bindKey(KeyStroke keyStroke, String name, Runnable action) {
+        getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(keyStroke, name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+
+    // A helper method to record an edit of the document
+    private void documentEdited() {
+        documentGeneration++;
+        lastResult = null;
+    }
+
+    // A helper method to cancel the running search, if any
+    private void cancelSearch() {
+        if (worker != null) {
+            worker.cancel(true);
+            worker = null;
+        }
+    }
+
+    // A method to start a search for the current query, cancelling the previous search
+    private void startSearch() {
+        debounceTimer.stop();
+        cancelSearch();
+        String query = queryField.getText();
+        if (query.isEmpty()) {
+            matchLayer.clear();
+            statusLabel.setText(" ");
+            return;
+        }
+        statusLabel.setText("Searching...");
+        worker = new SearchWorker(query, wholeWordBox.isSelected(), regexBox.isSelected(), lastResult);
+        worker.execute();
+    }
+
+    // A method to select the next or previous match, relative to the current selection
+    private void selectMatch(boolean forward) {
+        int count = matchLayer.getMatchCount();
+        if (count == 0) {
+            return;
+        }
+        int index = forward ? matchLayer.indexOfMatchAtOrAfter(textArea.getSelectionStart() + 1)
+                : matchLayer.indexOfMatchAtOrAfter(textArea.getSelectionStart()) - 1;
+        index = Math.floorMod(index, count); // Wrap around at either end of the document
+        searchOrigin = matchLayer.getMatchStart(index);
+        showMatch(index);
+    }
+
+    // A helper method to select a match in the text area and show its number
+    private void showMatch(int index) {
+        textArea.select(matchLayer.getMatchStart(index), matchLayer.getMatchEnd(index));
+        textArea.getCaret().setSelectionVisible(true);
+        statusLabel.setText("Match " + (index + 1) + " of " + matchLayer.getMatchCount());
+    }
+
+    // A static method to find the matches of a query, narrowing the previous result if the query extends its query
+    static SearchResult findMatches(Document document, String query, boolean wholeWord, int origin, SearchResult previous,
+                                    BooleanSupplier cancelled, IntConsumer firstMatch) throws BadLocationException {
+        String searchLower = query.toLowerCase();
+        Pattern wordPattern = wholeWord ? SearchHandler.wholeWordPattern(searchLower) : null;
+        SearchHandler.MatchList candidates = new SearchHandler.MatchList();
+        SearchHandler.MatchList matches = new SearchHandler.MatchList();
+        if (previous != null && previous.candidates != null && searchLower.startsWith(previous.query)) {
+            // Every occurrence of the new query starts where the previous query occurred, so only those positions are checked
+            checkCandidates(document, previous.candidates, searchLower, wordPattern, cancelled, candidates, matches);
+            int first = matches.firstFrom(origin);
+            if (first >= 0) {
+                firstMatch.accept(first);
+            }
+        } else {
+            // Scan the document in chunks from the origin to the end, then from the start to the origin
+            int length = document.getLength();
+            origin = Math.min(origin, length);
+            SearchHandler.MatchList wrappedCandidates = new SearchHandler.MatchList();
+            SearchHandler.MatchList wrappedMatches = new SearchHandler.MatchList();
+            boolean found = scanRange(document, origin, length, searchLower, wordPattern, cancelled, firstMatch, false,
+                    candidates, matches);
+            scanRange(document, 0, origin, searchLower, wordPattern, cancelled, firstMatch, found, wrappedCandidates, wrappedMatches);
+            wrappedCandidates.addAll(candidates);
+            wrappedMatches.addAll(matches);
+            candidates = wrappedCandidates;
+            matches = wrappedMatches;
+        }
+        return new SearchResult(searchLower, candidates.toArray(), matches.selectNonOverlapping(searchLower.length()), null);
+    }
+
+    // A static method to find the matches of a regular expression in the document, which is edited freely while it runs
+    static SearchResult findRegexMatches(Document document, String regex, boolean wholeWord, BooleanSupplier cancelled) {
+        Pattern pattern = SearchHandler.PATTERN_CACHE.get(wholeWord ? "\\b(?:" + regex + ")\\b" : regex, SearchHandler.REGEX_FLAGS);
+        long deadline = System.nanoTime() + SearchHandler.REGEX_TIME_BUDGET_MS * 1_000_000L;
+        SearchHandler.MatchList starts = new SearchHandler.MatchList();
+        SearchHandler.MatchList ends = new SearchHandler.MatchList();
+        // A search of a large document stops if it is edited (that of a small one matches a snapshot), and the worker then searches again
+        SearchHandler.findRegexMatches(document, pattern, deadline, cancelled, starts, ends);
+        // A regular expression result has no candidates, as a longer expression does not narrow its matches
+        return new SearchResult(regex, null, starts.toArray(), ends.toArray());
+    }
+
+    // A helper method to scan [from, to) of the document in chunks, returning whether a first match has been reported
+    private static boolean scanRange(Document document, int from, int to, String searchLower, Pattern wordPattern,
+                                     BooleanSupplier cancelled, IntConsumer firstMatch, boolean found,
+                                     SearchHandler.MatchList candidates, SearchHandler.MatchList matches) throws BadLocationException {
+        for (int chunkStart = from; chunkStart < to; chunkStart += CHUNK_SIZE) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            int chunkEnd = Math.min(to, chunkStart + CHUNK_SIZE);
+            // Read one character before the chunk and the query length after it, so word boundaries and crossing matches are seen
+            int readStart = Math.max(0, chunkStart - 1);
+            String text = readLowerCase(document, readStart, chunkEnd + searchLower.length());
+            SearchHandler.MatchList chunkCandidates = new SearchHandler.MatchList();
+            SearchHandler.collectMatchStarts(text, searchLower, null, chunkStart - readStart, chunkEnd - readStart, readStart,
+                    chunkCandidates);
+            for (int start : chunkCandidates.toArray()) {
+                candidates.add(start);
+                if (wordPattern == null || isWholeWord(text, start - readStart, searchLower.length(), wordPattern)) {
+                    matches.add(start);
+                    if (!found) {
+                        firstMatch.accept(start); // Report the first match straight away, before the rest is scanned
+                        found = true;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // A helper method to check the positions where the previous query occurred against the new query
+    private static void checkCandidates(Document document, int[] previousCandidates, String searchLower, Pattern wordPattern,
+                                        BooleanSupplier cancelled, SearchHandler.MatchList candidates,
+                                        SearchHandler.MatchList matches) throws BadLocationException {
+        int length = document.getLength();
+        for (int i = 0; i < previousCandidates.length; i++) {
+            if ((i & 1023) == 0 && cancelled.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            int start = previousCandidates[i];
+            if (start + searchLower.length() > length) {
+                break; // The candidates are in ascending order, so none of the remaining ones fits the query
+            }
+            // Read the candidate with one character of context on either side
+            int readStart = Math.max(0, start - 1);
+            String text = readLowerCase(document, readStart, start + searchLower.length() + 1);
+            if (text.startsWith(searchLower, start - readStart)) {
+                candidates.add(start);
+                if (wordPattern == null || isWholeWord(text, start - readStart, searchLower.length(), wordPattern)) {
+                    matches.add(start);
+                }
+            }
+        }
+    }
+
+    // A helper method to check that an occurrence in a text is a whole word, with the same word boundaries as searchFullWord
+    private static boolean isWholeWord(String text, int start, int length, Pattern wordPattern) {
+        return wordPattern.matcher(text).useTransparentBounds(true).useAnchoringBounds(false)
+                .region(start, start + length).matches();
+    }
+
+    // A helper method to read [start, end) of the document as lowercase text, holding the read lock of the document
+    private static String readLowerCase(Document document, int start, int end) throws BadLocationException {
+        BadLocationException[] error = new BadLocationException[1];
+        char[][] chars = new char[1][];
+        document.render(() -> {
+            // The end is clamped inside the lock, as the document may have been edited on the Event Dispatch Thread
+            int clampedEnd = Math.min(end, document.getLength());
+            Segment segment = new Segment();
+            try {
+                document.getText(start, Math.max(0, clampedEnd - start), segment);
+                chars[0] = new char[segment.count];
+                for (int i = 0; i < segment.count; i++) {
+                    chars[0][i] = Character.toLowerCase(segment.array[segment.offset + i]);
+                }
+            } catch (BadLocationException e) {
+                error[0] = e;
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+        return new String(chars[0]);
+    }
+
+    /**
+     * The SearchResult class stores the result of a search: every (possibly overlapping) occurrence of the query, which the
+     * next search narrows when its query extends this one, and the matches that are highlighted.
+     */
+    static final class SearchResult {
+        private final String query; // the lowercase query that was searched
+        private final int[] candidates; // the start of every occurrence of the query, in ascending order (or null for a regex)
+        private final int[] matches; // the start of every highlighted match, in ascending order
+        private final int[] ends; // the end of every highlighted match of a regular expression (or null for a plain query)
+
+        // A parameterized constructor to initialize a new search result
+        SearchResult(String query, int[] candidates, int[] matches, int[] ends) {
+            this.query = query;
+            this.candidates = candidates;
+            this.matches = matches;
+            this.ends = ends;
+        }
+
+        // A getter method to retrieve the start of every highlighted match
+        int[] getMatches() {
+            return matches;
+        }
+
+        // A getter method to retrieve the end of every highlighted match of a regular expression (or null for a plain query)
+        int[] getEnds() {
+            return ends;
+        }
+    }
+
+    /**
+     * The SearchWorker class runs a search on a background thread, publishing the first match as soon as it is found.
+     */
+    private class SearchWorker extends SwingWorker<SearchResult, Integer> {
+        private final String query; // the query to search for
+        private final boolean wholeWord; // whether only whole words are matched
+        private final boolean regex; // whether the query is a regular expression
+        private final SearchResult previous; // the previous result to narrow (or null)
+        private final int origin = searchOrigin; // the position the search starts from
+        private final int generation = documentGeneration; // the edit counter of the document when the search started
+
+        // A parameterized constructor to initialize a new search worker
+        SearchWorker(String query, boolean wholeWord, boolean regex, SearchResult previous) {
+            this.query = query;
+            this.wholeWord = wholeWord;
+            this.regex = regex;
+            this.previous = previous;
+        }
+
+        // A method to search the document on a background thread
+        @Override
+        protected SearchResult doInBackground() throws Exception {
+            Document document = textArea.getDocument();
+            String mode = regex ? "Regular expression" : wholeWord ? "Whole word" : "Substring";
+            EditorMetrics.SearchEvent event = EditorMetrics.SearchEvent.start(mode, document.getLength(), query.length());
+            SearchResult result = regex ? findRegexMatches(document, query, wholeWord, this::isCancelled)
+                    : findMatches(document, query, wholeWord, origin, previous, this::isCancelled, this::publish);
+            event.finish(result.getMatches().length); // A cancelled search (e.g. by the next keystroke) is not recorded
+            return result;
+        }
+
+        // A method to select and highlight the first match on the Event Dispatch Thread while the search continues
+        @Override
+        protected void process(List<Integer> firstMatches) {
+            // Ignore the first match of a search that has been cancelled or has already finished
+            if (worker != this || generation != documentGeneration) {
+                return;
+            }
+            int start = firstMatches.get(0);
+            matchLayer.setMatches(new int[]{start}, query.length());
+            textArea.select(start, start + query.length());
+            textArea.getCaret().setSelectionVisible(true);
+        }
+
+        // A method to highlight all the matches once the search has finished
+        @Override
+        protected void done() {
+            if (isCancelled() || worker != this) {
+                return;
+            }
+            worker = null;
+            // If the document was edited during the search, the positions are stale, so search again
+            if (generation != documentGeneration) {
+                startSearch();
+                return;
+            }
+            try {
+                lastResult = get();
+                int[] matches = lastResult.getMatches();
+                if (lastResult.getEnds() != null) {
+                    matchLayer.setMatches(matches, lastResult.getEnds());
+                } else {
+                    matchLayer.setMatches(matches, query.length());
+                }
+                if (matches.length == 0) {
+                    statusLabel.setText("No matches");
+                } else {
+                    showMatch(matchLayer.indexOfMatchAtOrAfter(origin) % matches.length);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                matchLayer.clear();
+                // Report an invalid or too slow regular expression in the status label instead of a dialog, as the user is typing
+                Throwable cause = e.getCause();
+                if (cause instanceof PatternSyntaxException) {
+                    statusLabel.setText("Invalid regular expression");
+                } else if (cause instanceof DocumentCharSequence.TimeBudgetExceededException) {
+                    statusLabel.setText("Search stopped after " + SearchHandler.REGEX_TIME_BUDGET_MS + " ms");
+                } else {
+                    statusLabel.setText("Search failed");
+                    cause.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+// Import Java Swing classes to create the GUI
+import javax.swing.*; // to work with Swing components
+// Import other necessary packages/classes
+import java.awt.*; // to work with layouts and windows
+import java.awt.event.KeyEvent; // to open a result with the Enter key
+import java.awt.event.MouseAdapter; // to open a result when it is clicked
+import java.awt.event.MouseEvent; // to handle mouse clicks
+import java.io.File; // to work with the selected directory
+import java.util.List; // to receive the matches published by the worker
+import java.util.Set; // to store the supported file extensions
+import java.util.function.Consumer; // to open the file of a result
+
+/**
+ * The FindInFilesDialog class provides the 'Find in Files' window, which searches every supported file in a directory tree.
+ * The search runs on a background worker using a FileSearchEngine, and the matches stream into the list of results as each
+ * file is scanned. Clicking a result opens its file at the match, and the search can be cancelled at any time.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-13
+ */
+
+public class FindInFilesDialog extends JFrame {
+
+    // === CONSTANTS ===
+    private static final int STATUS_INTERVAL_MS = 200; // the interval between updates of the status while searching
+
+    // === ATTRIBUTES ===
+    private final Set<String> extensions; // the extensions of the files to search
+    private final Consumer<FileSearchEngine.Match> opener; // the action that opens the file of a result at its match
+    private final JTextField directoryField = new JTextField(28); // a text field for the directory to search
+    private final JTextField searchField = new JTextField(20); // a text field for the search term
+    private final JCheckBox matchCaseBox = new JCheckBox("Match case"); // a check box to enable case-sensitive search
+    private final JButton searchButton = new JButton("Search"); // a button to start or cancel the search
+    private final JLabel statusLabel = new JLabel(" "); // a label showing the progress of the search
+    private final DefaultListModel<FileSearchEngine.Match> resultModel = new DefaultListModel<>(); // the matches found so far
+    private final JList<FileSearchEngine.Match> resultList = new JList<>(resultModel); // a list showing the matches
+    private final Timer statusTimer; // a timer that updates the status while searching
+    private SearchWorker worker; // the background worker of the running search (or null)
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new 'Find in Files' window starting in a directory
+    public FindInFilesDialog(File directory, Set<String> extensions, Consumer<FileSearchEngine.Match> opener) {
+        this.extensions = extensions;
+        this.opener = opener;
+        setTitle("Find in Files");
+        setSize(800, 500);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        // Create the panel with the directory, the search term, and the Search button
+        directoryField.setText(directory.getAbsolutePath());
+        JButton browseButton = new JButton("Browse...");
+        browseButton.addActionListener(e -> chooseDirectory());
+        searchButton.addActionListener(e -> toggleSearch());
+        searchField.addActionListener(e -> toggleSearch());
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JLabel("Directory:"));
+        topPanel.add(directoryField);
+        topPanel.add(browseButton);
+        topPanel.add(new JLabel("Find:"));
+        topPanel.add(searchField);
+        topPanel.add(matchCaseBox);
+        topPanel.add(searchButton);
+        add(topPanel, BorderLayout.NORTH);
+
+        // Create the list of results, which opens the file of a result when it is clicked or Enter is pressed
+        resultList.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = resultList.locationToIndex(e.getPoint());
+                if (index >= 0 && resultList.getCellBounds(index, index).contains(e.getPoint())) {
+                    opener.accept(resultModel.get(index));
+                }
+            }
+        });
+        resultList.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "openResult");
+        resultList.getActionMap().put("openResult", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                if (resultList.getSelectedValue() != null) {
+                    opener.accept(resultList.getSelectedValue());
+                }
+            }
+        });
+        add(new JScrollPane(resultList), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+
+        // Update the number of files scanned regularly while a search is running
+        statusTimer = new Timer(STATUS_INTERVAL_MS, e -> updateStatus());
+
+        // Cancel the running search when the window is closed
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                cancelSearch();
+            }
+        });
+        setLocationRelativeTo(null);
+        setVisible(true);
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A method to choose the directory to search with a file chooser
+    private void chooseDirectory() {
+        JFileChooser chooser = new JFileChooser(directoryField.getText());
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            directoryField.setText(chooser.getSelectedFile().getAbsolutePath());
+        }
+    }
+
+    // A method to start a new search, or to cancel the search that is running
+    private void toggleSearch() {
+        if (worker != null) {
+            cancelSearch();
+            return;
+        }
+        File directory = new File(directoryField.getText().trim());
+        String searchTerm = searchField.getText();
+        if (!directory.isDirectory()) {
+            JOptionPane.showMessageDialog(this, "Please select a valid directory", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (searchTerm.isEmpty()) {
+            return;
+        }
+        resultModel.clear();
+        worker = new SearchWorker(new FileSearchEngine(directory.toPath(), searchTerm, matchCaseBox.isSelected(), extensions));
+        searchButton.setText("Cancel");
+        statusTimer.start();
+        worker.execute();
+    }
+
+    // A helper method to cancel the running search, if any
+    private void cancelSearch() {
+        if (worker != null) {
+            worker.cancel(true);
+        }
+    }
+
+    // A helper method to show the progress of the running search
+    private void updateStatus() {
+        if (worker != null) {
+            FileSearchEngine engine = worker.engine;
+            statusLabel.setText(" Scanned " + engine.getFilesScanned() + " of " + engine.getFilesFound() + " files, "
+                    + resultModel.size() + " matches");
+        }
+    }
+
+    /**
+     * The SearchWorker class runs a FileSearchEngine on a background thread and adds the matches to the list as they are found.
+     */
+    private class SearchWorker extends SwingWorker<Void, List<FileSearchEngine.Match>> {
+        private final FileSearchEngine engine; // the engine running the search
+        private final long startTime = System.nanoTime(); // the time the search started
+
+        // A parameterized constructor to initialize a new worker for a search engine
+        SearchWorker(FileSearchEngine engine) {
+            this.engine = engine;
+        }
+
+        // A method to search the files on a background thread, publishing the matches of each file
+        @Override
+        protected Void doInBackground() throws Exception {
+            engine.search(this::publish, this::isCancelled);
+            return null;
+        }
+
+        // A method to add the matches found to the list on the Event Dispatch Thread
+        @Override
+        protected void process(List<List<FileSearchEngine.Match>> fileMatches) {
+            for (List<FileSearchEngine.Match> matches : fileMatches) {
+                resultModel.addAll(matches);
+            }
+        }
+
+        // A method to show the outcome of the search once it has finished or been cancelled
+        @Override
+        protected void done() {
+            statusTimer.stop();
+            worker = null;
+            searchButton.setText("Search");
+            long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+            String summary = resultModel.size() + " matches in " + engine.getFilesScanned() + " files (" + elapsedMs + " ms)";
+            if (isCancelled()) {
+                statusLabel.setText(" Cancelled after " + summary);
+                return;
+            }
+            try {
+                get();
+                String failed = (engine.getFilesFailed() > 0) ? ", " + engine.getFilesFailed() + " files could not be read" : "";
+                statusLabel.setText(" Found " + summary + failed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                statusLabel.setText(" Error searching files: " + e.getCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// Import necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read the files
+import java.nio.file.Path; // to write the files
+import java.util.Set; // to list the extensions of the format
+// Import RSyntaxTextArea classes for syntax highlighting
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to use no syntax highlighting by default
+
+/**
+ * The FormatCodec interface reads and writes the text of a file format, without any Swing components or dialogs.
+ * A codec that reads the format has a TextReader, which streams the text into a TextSink, and a codec that writes the format has a
+ * TextWriter, which writes a text to a file with the WriteOptions of the format (e.g. its charset, or its font and progress).
+ * A format that cannot be read or written has no reader or writer, which canRead and canWrite report.
+ * The codecs are found by extension or by the first bytes of a file through the CodecRegistry, which also loads the codecs
+ * of other formats as services (listed in META-INF/services/FormatCodec).
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-21
+ */
+
+public interface FormatCodec {
+
+    // A method to get the name of the format shown to the user (e.g. "ODT")
+    String getName();
+
+    // A method to get the lower case extensions of the format (e.g. "odt")
+    Set<String> getExtensions();
+
+    // A method to get the syntax highlighting style of the files of the format
+    default String getSyntaxStyle() {
+        return SyntaxConstants.SYNTAX_STYLE_NONE;
+    }
+
+    // A method to check whether the files are plain text, which can be viewed through a MappedTextFile when they are too large to load
+    default boolean isPlainText() {
+        return false;
+    }
+
+    // A method to check whether the first bytes of a file (at most CodecRegistry.SNIFF_LENGTH of them) belong to the format
+    boolean sniff(byte[] header, int length);
+
+    // A method to get the reader of the files of the format (or null if they cannot be read)
+    TextReader getReader();
+
+    // A method to check whether the files of the format can be read
+    default boolean canRead() {
+        return getReader() != null;
+    }
+
+    // A method to get the writer of the files of the format (or null if they cannot be written)
+    default TextWriter getWriter() {
+        return null;
+    }
+
+    // A method to check whether the files of the format can be written
+    default boolean canWrite() {
+        return getWriter() != null;
+    }
+
+    /**
+     * The TextReader interface reads the text of a file of the format.
+     */
+    @FunctionalInterface
+    interface TextReader {
+
+        // A method to read the text of a file from a stream of the given length (or -1 if unknown) into a sink
+        void read(InputStream inputStream, long length, TextSink sink) throws IOException;
+    }
+
+    /**
+     * The TextWriter interface writes a text to a file of the format. The text must not change while it is written (e.g. a copy).
+     */
+    @FunctionalInterface
+    interface TextWriter {
+
+        // A method to write a text to a file with the options of the format
+        void write(CharSequence text, Path target, WriteOptions options) throws IOException;
+    }
+}
@@ -0,0 +1,192 @@
+// Import Java Swing classes to create the GUI
+import javax.swing.*; // to work with Swing components
+import javax.swing.event.DocumentEvent; // to receive edit events
+import javax.swing.event.DocumentListener; // to mark the file as modified when it is edited
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.PlainDocument; // to hold the text of the file in a piece table
+import javax.swing.undo.UndoManager; // to undo and redo the edits
+// Import Java AWT classes for layouts and events
+import java.awt.*; // to work with layouts and fonts
+import java.awt.event.KeyEvent; // to bind the save, undo, and redo keys
+import java.awt.event.WindowAdapter; // to ask about unsaved edits when the editor is closed
+import java.awt.event.WindowEvent; // to receive window events
+// Import other necessary packages/classes
+import java.io.BufferedInputStream; // to read the file efficiently
+import java.io.File; // to work with files
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read the bytes of the file
+import java.nio.file.Files; // to open the file
+
+/**
+ * The LargeFileEditor class edits a plain text file that is too large for the editor's syntax highlighted text area.
+ * The file is decoded once and its characters are shared with a PieceTableContent (instead of being copied into a gap buffer),
+ * so inserts and removes stay O(log n) anywhere in the file. The document is a plain document shown in a plain text area,
+ * as the syntax highlighted text area only accepts its own gap buffer documents.
+ * The file is saved back with the charset, byte order mark, and line separator it was read with.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-18
+ */
+
+public class LargeFileEditor extends JFrame {
+
+    // === ATTRIBUTES ===
+    private final File file; // the file being edited
+    private final PlainDocument document; // the document holding the text of the file
+    private final JTextArea textArea; // the text area displaying the document
+    private final UndoManager undoManager = new UndoManager(); // the manager of the edits to undo and redo
+    private boolean modified = false; // whether the document has been edited since it was read or saved
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new editor for a file whose text has been read into a document
+    public LargeFileEditor(File file, PlainDocument document) {
+        this.file = file;
+        this.document = document;
+        this.textArea = new JTextArea(document);
+        setSize(800, 600);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+
+        // Specify the properties of the text area
+        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        add(new JScrollPane(textArea), BorderLayout.CENTER);
+        JButton saveButton = new JButton("Save");
+        saveButton.addActionListener(e -> save());
+        JPanel toolBar = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolBar.add(saveButton);
+        add(toolBar, BorderLayout.NORTH);
+
+        // Record the edits for undo, and mark the file as modified when it is edited
+        document.addUndoableEditListener(e -> undoManager.addEdit(e.getEdit()));
+        document.addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                setModified(true);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                setModified(true);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_S, KeyEvent.CTRL_DOWN_MASK), "save", this::save);
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Z, KeyEvent.CTRL_DOWN_MASK), "undo", () -> {
+            if (undoManager.canUndo()) {
+                undoManager.undo();
+            }
+        });
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Y, KeyEvent.CTRL_DOWN_MASK), "redo", () -> {
+            if (undoManager.canRedo()) {
+                undoManager.redo();
+            }
+        });
+        // Ask whether to save the unsaved edits before the editor is closed
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                close();
+            }
+        });
+        setModified(false);
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A static method to read a file into a document on a background thread, then show it in a new editor (from the Event Dispatch Thread)
+    public static void open(File file, Component parent) {
+        new SwingWorker<PlainDocument, Void>() {
+            @Override
+            protected PlainDocument doInBackground() throws Exception {
+                return readDocument(file);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    new LargeFileEditor(file, get()).setVisible(true);
+                } catch (Exception e) {
+                    Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(parent, "Error reading file: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    // A static method to read a file into a plain document, sharing its decoded characters with a piece table once they are large enough
+    public static PlainDocument readDocument(File file) throws IOException {
+        TextSink.PlainDocumentBuilder builder = new TextSink.PlainDocumentBuilder(file.length());
+        // Use a try-with-resources block to decode the file in one pass, recording its charset, BOM, and line separator
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            TextFileDecoder.decode(inputStream, file.length()).writeTo(builder);
+            return builder.createDocument();
+        } catch (BadLocationException e) {
+            throw new IOException(e); // Not reached, as the text is inserted at the start of an empty document
+        }
+    }
+
+    // A static method to save a document read by 'readDocument' back to a file, with the charset, BOM, and line separator it was read with
+    public static void saveDocument(PlainDocument document, File file) throws IOException {
+        DocumentSaver.save(document, file.toPath(), TextFileDecoder.getCharset(document), TextFileDecoder.hasBom(document),
+                TextFileDecoder.getLineSeparator(document), true);
+    }
+
+    // A method to handle the 'Save' action (e.g. save the document back to the file)
+    public void save() {
+        try {
+            saveDocument(document, file);
+            setModified(false);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error saving file: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // A method to close the editor, first offering to save the unsaved edits
+    private void close() {
+        if (modified) {
+            int choice = JOptionPane.showConfirmDialog(this, "Save the changes to " + file.getName() + "?", "Unsaved Changes",
+                    JOptionPane.YES_NO_CANCEL_OPTION);
+            if (choice == JOptionPane.CANCEL_OPTION || choice == JOptionPane.CLOSED_OPTION) {
+                return;
+            }
+            if (choice == JOptionPane.YES_OPTION) {
+                save();
+                if (modified) {
+                    return; // The save failed, so the edits are kept
+                }
+            }
+        }
+        dispose();
+    }
+
+    // A helper method to record whether the document has unsaved edits, showing it in the title
+    private void setModified(boolean modified) {
+        this.modified = modified;
+        setTitle("Text Editor - " + file.getName() + (modified ? " *" : "") + " (large file)");
+    }
+
+    // A helper method to bind a key stroke of the text area to an action
+    private void bindKey(KeyStroke keyStroke, String name, Runnable action) {
+        textArea.getInputMap(JComponent.WHEN_FOCUSED).put(keyStroke, name);
+        textArea.getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+
+    // A getter method to check whether the document has unsaved edits
+    public boolean isModified() {
+        return modified;
+    }
+
+    // A getter method to retrieve the document holding the text of the file
+    public PlainDocument getDocument() {
+        return document;
+    }
+}
@@ -0,0 +1,303 @@
+// Import Java Swing classes to create the GUI
+import javax.swing.*; // to work with Swing components
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.DefaultHighlighter; // to highlight search matches in the page
+// Import Java AWT classes for layouts and events
+import java.awt.*; // to work with layouts, fonts, and colors
+import java.awt.event.ComponentAdapter; // to react when the viewer is resized
+import java.awt.event.ComponentEvent; // to receive resize events
+import java.awt.event.KeyEvent; // to bind the page navigation keys
+import java.awt.event.WindowAdapter; // to react when the viewer is closed
+import java.awt.event.WindowEvent; // to receive window events
+// Import other necessary packages/classes
+import java.io.File; // to work with files
+import java.io.IOException; // to handle input/output exceptions
+// Import RSyntaxTextArea classes for syntax highlighting
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to display the visible page with syntax highlighting
+
+/**
+ * The LargeFileViewer class provides a read-only window for text files that are too large to load into the editor.
+ * The file is accessed through a MappedTextFile, and only the lines that fit in the visible window are decoded into the text area.
+ * It supports scrolling, going to a byte offset, and searching across the whole mapped file in the charset detected for it.
+ * The 'Edit' action opens the file in a LargeFileEditor, which holds it in memory in a piece table.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-02
+ */
+
+public class LargeFileViewer extends JFrame {
+
+    // === CONSTANTS ===
+    public static final long SIZE_THRESHOLD = 64L * 1024 * 1024; // files of at least 64 MB are opened in the viewer
+    private static final int WHEEL_LINES = 3; // the number of lines scrolled per mouse wheel notch
+
+    // === ATTRIBUTES ===
+    private final MappedTextFile mappedFile; // the mapped file being viewed
+    private final RSyntaxTextArea pageArea = new RSyntaxTextArea(); // a text area displaying the visible page
+    private final JScrollBar scrollBar = new JScrollBar(JScrollBar.VERTICAL); // a scroll bar representing the position in the file
+    private final JTextField offsetField = new JTextField(12); // a text field to enter the offset to go to
+    private final JTextField searchField = new JTextField(16); // a text field to enter the search term
+    private final JCheckBox matchCaseBox = new JCheckBox("Match case"); // a check box to enable case-sensitive search
+    private final JLabel statusLabel = new JLabel(); // a label to show the current position in the file
+    private final int scrollShift; // the number of bits the byte offsets are shifted by to fit in the scroll bar range
+    private MappedTextFile.Page page; // the page currently displayed
+    private long matchPosition = -1; // the position of the last search match (or -1 if there is none)
+    private int matchLength = 0; // the length of the last search match in characters
+    private SwingWorker<Long, Void> searchWorker; // the background worker of the running search
+    private boolean updatingScrollBar = false; // to ignore scroll bar events caused by the viewer itself
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new viewer for a file, using the given syntax highlighting style
+    public LargeFileViewer(File file, String syntaxStyle) throws IOException {
+        this.mappedFile = new MappedTextFile(file);
+        setTitle("Text Editor - " + file.getName() + " (read-only view)");
+        setSize(800, 600);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        // Specify the properties of the text area used to display the page
+        pageArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        pageArea.setEditable(false);
+        pageArea.setHighlightCurrentLine(false);
+        pageArea.setSyntaxEditingStyle(syntaxStyle);
+        JScrollPane pageScrollPane = new JScrollPane(pageArea,
+                JScrollPane.VERTICAL_SCROLLBAR_NEVER, JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        pageScrollPane.setWheelScrollingEnabled(false);
+        add(pageScrollPane, BorderLayout.CENTER);
+
+        // Scale the byte offsets down so the scroll bar range fits in an int
+        int shift = 0;
+        while ((mappedFile.size() >>> shift) > Integer.MAX_VALUE / 2) {
+            shift++;
+        }
+        this.scrollShift = shift;
+        scrollBar.setMaximum((int) (mappedFile.size() >>> scrollShift) + 1);
+        scrollBar.addAdjustmentListener(e -> {
+            if (!updatingScrollBar) {
+                showPosition(mappedFile.lineStart((long) e.getValue() << scrollShift));
+            }
+        });
+        add(scrollBar, BorderLayout.EAST);
+        add(createToolBar(), BorderLayout.NORTH);
+        add(statusLabel, BorderLayout.SOUTH);
+        addNavigation();
+
+        // Close the mapped file once the viewer is closed
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                closeMappedFile();
+            }
+        });
+        // Re-read the page when the viewer is resized, as the number of visible lines changes
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                showPosition(page == null ? 0 : page.getStart());
+            }
+        });
+        setVisible(true);
+        showPosition(0);
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A method to check whether a file is large enough to be opened in the viewer
+    public static boolean isLargeFile(File file) {
+        return file.length() >= SIZE_THRESHOLD;
+    }
+
+    // A method to create the tool bar with the 'Go to offset' and 'Find' controls
+    private JPanel createToolBar() {
+        JPanel toolBar = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        // Add the 'Go to offset' controls
+        JButton goButton = new JButton("Go");
+        goButton.addActionListener(e -> goToOffset());
+        offsetField.addActionListener(e -> goToOffset());
+        toolBar.add(new JLabel("Offset:"));
+        toolBar.add(offsetField);
+        toolBar.add(goButton);
+        // Add the 'Find' controls
+        JButton findButton = new JButton("Find Next");
+        findButton.addActionListener(e -> findNext());
+        searchField.addActionListener(e -> findNext());
+        toolBar.add(new JLabel("Find:"));
+        toolBar.add(searchField);
+        toolBar.add(matchCaseBox);
+        toolBar.add(findButton);
+        // Add the 'Edit' control, which loads the whole file into a piece table to edit it
+        JButton editButton = new JButton("Edit");
+        editButton.addActionListener(e -> editFile());
+        toolBar.add(editButton);
+        return toolBar;
+    }
+
+    // A method to add mouse wheel and keyboard navigation to the page
+    private void addNavigation() {
+        // Scroll a few lines per mouse wheel notch
+        pageArea.addMouseWheelListener(e -> scrollLines(e.getWheelRotation() * WHEEL_LINES));
+        // Bind the page up/down and ctrl+home/end keys to page navigation
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_DOWN, 0), "pageDown", () -> scrollLines(getVisibleLines() - 1));
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_PAGE_UP, 0), "pageUp", () -> scrollLines(1 - getVisibleLines()));
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_HOME, KeyEvent.CTRL_DOWN_MASK), "fileStart", () -> showPosition(0));
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_END, KeyEvent.CTRL_DOWN_MASK), "fileEnd",
+                () -> showPosition(mappedFile.lineStart(mappedFile.size() - 1)));
+    }
+
+    // A helper method to bind a key stroke of the page area to an action
+    private void bindKey(KeyStroke keyStroke, String name, Runnable action) {
+        pageArea.getInputMap(JComponent.WHEN_FOCUSED).put(keyStroke, name);
+        pageArea.getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+
+    // A method to scroll the page by a number of lines (negative values scroll up)
+    private void scrollLines(int lines) {
+        long position = page.getStart();
+        for (int i = 0; i < Math.abs(lines); i++) {
+            position = (lines > 0) ? mappedFile.nextLineStart(position) : mappedFile.previousLineStart(position);
+        }
+        // Do not scroll past the start of the last line
+        if (position >= mappedFile.size()) {
+            position = mappedFile.lineStart(mappedFile.size() - 1);
+        }
+        showPosition(position);
+    }
+
+    // A method to get the number of lines that fit in the visible page area
+    private int getVisibleLines() {
+        int height = (pageArea.getParent() != null) ? pageArea.getParent().getHeight() : 0;
+        return Math.max(1, height / Math.max(1, pageArea.getLineHeight()));
+    }
+
+    // A method to display the page of lines starting at the given position
+    private void showPosition(long lineStart) {
+        page = mappedFile.readPage(lineStart, getVisibleLines());
+        pageArea.setText(page.getText());
+        pageArea.setCaretPosition(0);
+        highlightMatch();
+        // Move the scroll bar to the new position without triggering another page read
+        updatingScrollBar = true;
+        scrollBar.setValue((int) (page.getStart() >>> scrollShift));
+        scrollBar.setVisibleAmount((int) Math.max(1, (page.getEnd() - page.getStart()) >>> scrollShift));
+        updatingScrollBar = false;
+        statusLabel.setText(" Offset " + page.getStart() + " of " + mappedFile.size() + " bytes (" + mappedFile.getCharset().name() + ")");
+    }
+
+    // A method to highlight the last search match if it starts within the displayed page
+    private void highlightMatch() {
+        pageArea.getHighlighter().removeAllHighlights();
+        if (matchPosition < page.getStart() || matchPosition >= page.getEnd()) {
+            return;
+        }
+        // Convert the byte offset of the match to a character offset by decoding the bytes before it on its line
+        long matchLineStart = mappedFile.lineStart(matchPosition);
+        int lineIndex = 0;
+        for (long position = page.getStart(); position < matchLineStart; position = mappedFile.nextLineStart(position)) {
+            lineIndex++;
+        }
+        try {
+            int start = pageArea.getLineStartOffset(lineIndex) + mappedFile.decode(matchLineStart, matchPosition).length();
+            int end = start + matchLength;
+            pageArea.getHighlighter().addHighlight(start, Math.min(end, pageArea.getDocument().getLength()),
+                    new DefaultHighlighter.DefaultHighlightPainter(Color.GREEN));
+        } catch (BadLocationException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // A method to show and highlight a match found elsewhere (e.g. by 'Find in Files'), given its byte offset and length
+    public void showMatch(long position, int length) {
+        matchPosition = position;
+        matchLength = length;
+        showPosition(mappedFile.lineStart(position));
+    }
+
+    // A method to handle the 'Go' action (e.g. show the line containing the entered byte offset)
+    private void goToOffset() {
+        try {
+            long offset = Long.parseLong(offsetField.getText().trim());
+            showPosition(mappedFile.lineStart(Math.max(0, Math.min(offset, mappedFile.size()))));
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid byte offset", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // A method to handle the 'Find Next' action (e.g. search the whole mapped file on a background thread)
+    private void findNext() {
+        String searchTerm = searchField.getText();
+        if (searchTerm.isEmpty()) {
+            return;
+        }
+        // Cancel a search that is still running, as only the latest one is of interest
+        if (searchWorker != null) {
+            searchWorker.cancel(true);
+        }
+        boolean matchCase = matchCaseBox.isSelected();
+        long from = (matchPosition >= 0) ? matchPosition + 1 : page.getStart();
+        statusLabel.setText(" Searching...");
+        searchWorker = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() {
+                // Search from the current position to the end of the file, then wrap around to the start
+                long position = mappedFile.find(searchTerm, from, mappedFile.size(), matchCase, this::isCancelled);
+                if (position < 0 && !isCancelled()) {
+                    position = mappedFile.find(searchTerm, 0, from, matchCase, this::isCancelled);
+                }
+                return position;
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    long position = get();
+                    if (position < 0) {
+                        statusLabel.setText(" '" + searchTerm + "' not found");
+                        return;
+                    }
+                    // Show the line containing the match and highlight it
+                    matchPosition = position;
+                    matchLength = searchTerm.length();
+                    showPosition(mappedFile.lineStart(position));
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(LargeFileViewer.this, "Error searching file: " + e.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        searchWorker.execute();
+    }
+
+    // A method to handle the 'Edit' action (e.g. close the viewer and open the file in a large file editor, once confirmed)
+    private void editFile() {
+        int choice = JOptionPane.showConfirmDialog(this,
+                "Editing loads the whole file into memory (about " + (mappedFile.size() * 2 / (1024 * 1024)) + " MB). Continue?",
+                "Edit Large File", JOptionPane.OK_CANCEL_OPTION);
+        if (choice == JOptionPane.OK_OPTION) {
+            // Close the viewer first, so that the mapped file does not prevent saving over it
+            File file = mappedFile.getFile();
+            dispose();
+            LargeFileEditor.open(file, null);
+        }
+    }
+
+    // A method to close the mapped file when the viewer is closed
+    private void closeMappedFile() {
+        if (searchWorker != null) {
+            searchWorker.cancel(true);
+        }
+        try {
+            mappedFile.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+// Import necessary packages/classes
+import java.util.concurrent.atomic.AtomicLong; // to count the recorded latencies from several threads
+import java.util.concurrent.atomic.AtomicLongArray; // to count the latencies in each bucket from several threads
+
+/**
+ * The LatencyHistogram class counts latencies in buckets whose bounds double from one microsecond to about 12 days.
+ * Recording a latency is a few atomic increments without locks or allocation, so a histogram can stay on for every operation.
+ * The percentiles are the upper bounds of the buckets they fall in, which is within a factor of two of the exact latency.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-24
+ */
+
+public class LatencyHistogram {
+
+    // === CONSTANTS ===
+    static final int BUCKET_COUNT = 41; // bucket 0 holds latencies under 1 µs, bucket i latencies under 2^i µs (the last one holds the rest)
+
+    // === ATTRIBUTES ===
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT); // the number of latencies in each bucket
+    private final AtomicLong count = new AtomicLong(); // the number of latencies recorded
+    private final AtomicLong totalNanos = new AtomicLong(); // the sum of the latencies recorded, in nanoseconds
+    private final AtomicLong maxNanos = new AtomicLong(); // the longest latency recorded, in nanoseconds
+
+    // === METHODS ===
+
+    // A method to record a latency in nanoseconds
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // A getter method to retrieve the number of latencies recorded
+    public long getCount() {
+        return count.get();
+    }
+
+    // A getter method to retrieve the mean latency in nanoseconds (or 0 if none has been recorded)
+    public long getMeanNanos() {
+        long recorded = count.get();
+        return (recorded == 0) ? 0 : totalNanos.get() / recorded;
+    }
+
+    // A getter method to retrieve the longest latency recorded in nanoseconds
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // A method to get the latency in nanoseconds that a fraction of the latencies (e.g. 0.99) do not exceed, to the precision of a bucket
+    public long getPercentileNanos(double fraction) {
+        long recorded = count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(getUpperBoundNanos(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    // A getter method to retrieve the number of latencies in a bucket
+    public long getBucketCount(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    // A static method to get the upper bound in nanoseconds of the latencies in a bucket (the last bucket has none)
+    public static long getUpperBoundNanos(int bucket) {
+        return (bucket == BUCKET_COUNT - 1) ? Long.MAX_VALUE : (1L << bucket) * 1000;
+    }
+
+    // A helper method to find the bucket of a latency in nanoseconds
+    private static int bucketOf(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+    }
+}
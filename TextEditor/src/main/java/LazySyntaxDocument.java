@@ -0,0 +1,362 @@
+// Import Java Swing classes for the idle slices and the viewport
+import javax.swing.JViewport; // to highlight the visible lines first when the text area is scrolled
+import javax.swing.Timer; // to tokenize the rest of the document one idle slice at a time
+import javax.swing.event.ChangeListener; // to react when the visible region changes
+import javax.swing.event.DocumentEvent; // to follow the lines added and removed by an edit
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Element; // to work with the lines of the document
+import javax.swing.text.Segment; // to read a line without copying it
+// Import other necessary packages/classes
+import java.awt.Point; // to find the lines at the top and bottom of the visible region
+import java.awt.Rectangle; // to work with the visible region of the text area
+import java.util.Set; // to list the supported syntax styles
+// Import RSyntaxTextArea classes for syntax highlighting
+import org.fife.ui.rsyntaxtextarea.OccurrenceMarker; // to delegate the marking of occurrences
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument; // to extend the document used by the text area
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to highlight the document shown in a text area
+import org.fife.ui.rsyntaxtextarea.Token; // to delegate the token lists
+import org.fife.ui.rsyntaxtextarea.TokenMaker; // to wrap the token maker of the document
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory; // to create the token makers of a syntax style
+import org.fife.ui.rsyntaxtextarea.TokenTypes; // to use the state of a line outside any multi-line token
+
+/**
+ * The LazySyntaxDocument class is a syntax highlighted document that shows a large source file before it has been tokenized.
+ * An RSyntaxDocument tokenizes every line of the file when it is loaded, and again when its syntax style is set, all on the Event Dispatch Thread.
+ * This document skips those passes: the visible lines are highlighted first, and the rest of the document is tokenized one idle slice at a time.
+ * Until a line has been reached, it is highlighted as if no multi-line token (e.g. a block comment) was open before it.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-19
+ */
+
+public class LazySyntaxDocument extends RSyntaxDocument {
+
+    // === CONSTANTS ===
+    public static final long SIZE_THRESHOLD = 1024 * 1024; // files of at least 1 MB are highlighted lazily
+    private static final int SLICE_DELAY_MS = 15; // the delay between two idle slices in milliseconds
+    private static final long SLICE_BUDGET_NANOS = 4_000_000; // the time an idle slice may spend tokenizing (4 ms)
+    private static final int EDIT_LINE_BUDGET = 1000; // the number of lines an edit may tokenize before the rest is left to the idle slices
+
+    // === ATTRIBUTES ===
+    private final BudgetTokenMakerFactory factory; // the factory of the token maker used by the document while it is edited
+    private final Segment scanSegment = new Segment(); // the segment the idle slices read the lines into
+    private TokenMaker scanner; // a separate token maker for the idle slices, so the token lists being painted are not reused
+    private int frontier = 0; // the number of lines from the start of the document whose states are exact
+    private RSyntaxTextArea textArea; // the text area showing the document (or null until highlighting starts)
+    private Timer idleTimer; // the timer running the idle slices
+    private ChangeListener viewportListener; // the listener highlighting the visible lines when the text area is scrolled
+    private EditorMetrics.HighlightEvent highlightEvent; // the event timing the idle slices until the frontier reaches the end (or null)
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new empty document with a syntax style
+    public LazySyntaxDocument(String syntaxStyle) {
+        this(new BudgetTokenMakerFactory(), syntaxStyle);
+    }
+
+    // A private constructor to keep a reference to the factory passed to the parent constructor
+    private LazySyntaxDocument(BudgetTokenMakerFactory factory, String syntaxStyle) {
+        super(factory, syntaxStyle);
+        this.factory = factory;
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A method to start highlighting the document once it is shown in a text area (on the Event Dispatch Thread)
+    public void startHighlighting(RSyntaxTextArea textArea) {
+        stopHighlighting();
+        this.textArea = textArea;
+        this.scanner = TokenMakerFactory.getDefaultInstance().getTokenMaker(getSyntaxStyle());
+        // Highlight the visible lines again whenever the text area is scrolled (e.g. by 'Go to' or 'Find in Files')
+        if (textArea.getParent() instanceof JViewport) {
+            viewportListener = e -> highlightVisibleLines();
+            ((JViewport) textArea.getParent()).addChangeListener(viewportListener);
+        }
+        idleTimer = new Timer(SLICE_DELAY_MS, e -> scanSlice());
+        idleTimer.setCoalesce(true);
+        // Highlight the visible lines at once, then tokenize the rest of the document in the idle slices
+        highlightVisibleLines();
+        idleTimer.start();
+    }
+
+    // A method to stop highlighting the document (e.g. once it has been replaced in the text area)
+    public void stopHighlighting() {
+        if (idleTimer != null) {
+            idleTimer.stop();
+            idleTimer = null;
+        }
+        highlightEvent = null; // An unfinished pass is not recorded
+        if (viewportListener != null && textArea.getParent() instanceof JViewport) {
+            ((JViewport) textArea.getParent()).removeChangeListener(viewportListener);
+        }
+        viewportListener = null;
+        textArea = null;
+    }
+
+    // A method to check whether every line of the document has been tokenized from the start of the document
+    public boolean isFullyHighlighted() {
+        return frontier >= lastTokensOnLines.getSize();
+    }
+
+    // A method to set the syntax style, leaving the tokenizing of the document to the idle slices
+    @Override
+    public void setSyntaxStyle(String styleKey) {
+        // The parent constructor sets the style of the empty document before the factory is assigned
+        if (factory == null) {
+            super.setSyntaxStyle(styleKey);
+            return;
+        }
+        // The text area sets the style of a new document again when it is shown, which must not rescan the whole document
+        if (styleKey.equals(getSyntaxStyle())) {
+            return;
+        }
+        factory.lineBudget = 0;
+        super.setSyntaxStyle(styleKey);
+        frontier = 0;
+        highlightEvent = null; // The pass starts again from the first line
+        if (textArea != null) {
+            scanner = TokenMakerFactory.getDefaultInstance().getTokenMaker(styleKey);
+            highlightVisibleLines();
+            idleTimer.start();
+        }
+    }
+
+    // A method to update the states of the lines changed by an insert, leaving long runs of changed lines to the idle slices
+    @Override
+    protected void fireInsertUpdate(DocumentEvent e) {
+        int line = getDefaultRootElement().getElementIndex(e.getOffset());
+        int lineDelta = getDefaultRootElement().getElementCount() - lastTokensOnLines.getSize();
+        factory.lineBudget = (textArea != null) ? EDIT_LINE_BUDGET : 0;
+        super.fireInsertUpdate(e);
+        updateFrontier(line, lineDelta);
+    }
+
+    // A method to update the states of the lines changed by a remove, leaving long runs of changed lines to the idle slices
+    @Override
+    protected void fireRemoveUpdate(DocumentEvent e) {
+        int line = getDefaultRootElement().getElementIndex(e.getOffset());
+        int lineDelta = getDefaultRootElement().getElementCount() - lastTokensOnLines.getSize();
+        factory.lineBudget = (textArea != null) ? EDIT_LINE_BUDGET : 0;
+        super.fireRemoveUpdate(e);
+        updateFrontier(line, lineDelta);
+    }
+
+    // A helper method to move the frontier after an edit at a line that added (or removed) a number of lines
+    private void updateFrontier(int line, int lineDelta) {
+        boolean exhausted = factory.lineBudget <= 0;
+        factory.lineBudget = 0;
+        if (line < frontier) {
+            // The lines below the edit keep their exact states, unless the edit ran out of budget before they were reached
+            frontier = exhausted ? line : Math.max(line, frontier + lineDelta);
+        }
+        if (idleTimer != null && !isFullyHighlighted()) {
+            idleTimer.start();
+        }
+    }
+
+    // A helper method to give the visible lines beyond the frontier provisional states, so they are highlighted at once
+    private void highlightVisibleLines() {
+        if (!isShownInTextArea()) {
+            return;
+        }
+        Rectangle visible = textArea.getVisibleRect();
+        Element root = getDefaultRootElement();
+        int first = root.getElementIndex(textArea.viewToModel2D(new Point(0, visible.y)));
+        int last = root.getElementIndex(textArea.viewToModel2D(new Point(0, visible.y + visible.height)));
+        if (last < frontier) {
+            return;
+        }
+        // Tokenize from the first visible line, carrying the states across the visible lines
+        boolean changed = false;
+        readLock();
+        try {
+            int line = Math.max(first, frontier);
+            int state = (line == 0) ? TokenTypes.NULL : lastTokensOnLines.get(line - 1);
+            for (; line <= last && line < lastTokensOnLines.getSize(); line++) {
+                changed |= scanLine(line, state);
+                state = lastTokensOnLines.get(line);
+            }
+        } finally {
+            readUnlock();
+        }
+        if (changed) {
+            textArea.repaint();
+        }
+    }
+
+    // A helper method to tokenize the lines after the frontier for one idle slice, repainting the text area if a state changed
+    private void scanSlice() {
+        if (!isShownInTextArea()) {
+            stopHighlighting();
+            return;
+        }
+        if (highlightEvent == null) {
+            highlightEvent = EditorMetrics.HighlightEvent.start(getSyntaxStyle(), getLength());
+        }
+        boolean changed = false;
+        int firstLine = frontier;
+        long sliceStart = System.nanoTime();
+        readLock();
+        try {
+            long deadline = sliceStart + SLICE_BUDGET_NANOS;
+            while (!isFullyHighlighted() && System.nanoTime() < deadline) {
+                changed |= scanLine(frontier, (frontier == 0) ? TokenTypes.NULL : lastTokensOnLines.get(frontier - 1));
+                frontier++;
+            }
+        } finally {
+            readUnlock();
+        }
+        highlightEvent.slices++;
+        highlightEvent.lines += frontier - firstLine;
+        highlightEvent.tokenizingNanos += System.nanoTime() - sliceStart;
+        if (changed) {
+            textArea.repaint();
+        }
+        // Stop until the next edit once the whole document has been tokenized
+        if (isFullyHighlighted()) {
+            idleTimer.stop();
+            highlightEvent.finish();
+            highlightEvent = null;
+        }
+    }
+
+    // A helper method to tokenize a line from the state of the line before it, returning whether its state changed
+    private boolean scanLine(int line, int previousState) {
+        Element element = getDefaultRootElement().getElement(line);
+        try {
+            // Read the line without its line separator, as the document does
+            getText(element.getStartOffset(), element.getEndOffset() - element.getStartOffset() - 1, scanSegment);
+        } catch (BadLocationException e) {
+            throw new IllegalStateException("The document changed while it was being tokenized", e);
+        }
+        int state = scanner.getLastTokenTypeOnLine(scanSegment, previousState);
+        if (state == lastTokensOnLines.get(line)) {
+            return false;
+        }
+        lastTokensOnLines.set(line, state);
+        return true;
+    }
+
+    // A helper method to check whether the document is still the one shown in the text area it is highlighted for
+    private boolean isShownInTextArea() {
+        return textArea != null && textArea.getDocument() == this;
+    }
+
+    /**
+     * The BudgetTokenMakerFactory class creates the token makers of the document, which share a budget of lines to tokenize.
+     * The budget is zero while the document is loaded, so the lines are added without being tokenized.
+     */
+    private static final class BudgetTokenMakerFactory extends TokenMakerFactory {
+
+        // === ATTRIBUTES ===
+        private int lineBudget = 0; // the number of lines the token makers may still tokenize
+
+        // === METHODS ===
+
+        // A method to create a token maker of a syntax style that respects the budget of the factory
+        @Override
+        protected TokenMaker getTokenMakerImpl(String key) {
+            return new BudgetTokenMaker(getDefaultInstance().getTokenMaker(key), this);
+        }
+
+        // A method to list the supported syntax styles
+        @Override
+        public Set<String> keySet() {
+            return getDefaultInstance().keySet();
+        }
+    }
+
+    /**
+     * The BudgetTokenMaker class delegates to the token maker of a syntax style, but only tokenizes the lines its budget allows.
+     * Past the budget, a line is given the state outside any multi-line token, and the idle slices compute its exact state later.
+     */
+    private static final class BudgetTokenMaker implements TokenMaker {
+
+        // === ATTRIBUTES ===
+        private final TokenMaker delegate; // the token maker of the syntax style
+        private final BudgetTokenMakerFactory factory; // the factory holding the budget of lines
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to wrap the token maker of a syntax style
+        BudgetTokenMaker(TokenMaker delegate, BudgetTokenMakerFactory factory) {
+            this.delegate = delegate;
+            this.factory = factory;
+        }
+
+        // === METHODS ===
+
+        // A method to compute the state at the end of a line, if the budget allows it
+        @Override
+        public int getLastTokenTypeOnLine(Segment text, int initialTokenType) {
+            if (factory.lineBudget <= 0) {
+                return TokenTypes.NULL;
+            }
+            factory.lineBudget--;
+            return delegate.getLastTokenTypeOnLine(text, initialTokenType);
+        }
+
+        // A method to tokenize a line for painting (always delegated, as only the visible lines are painted)
+        @Override
+        public Token getTokenList(Segment text, int initialTokenType, int startOffset) {
+            return delegate.getTokenList(text, initialTokenType, startOffset);
+        }
+
+        // The remaining methods are delegated to the token maker of the syntax style
+        @Override
+        public void addNullToken() {
+            delegate.addNullToken();
+        }
+
+        @Override
+        public void addToken(char[] array, int start, int end, int tokenType, int startOffset) {
+            delegate.addToken(array, start, end, tokenType, startOffset);
+        }
+
+        @Override
+        public int getClosestStandardTokenTypeForInternalType(int type) {
+            return delegate.getClosestStandardTokenTypeForInternalType(type);
+        }
+
+        @Override
+        public boolean getCurlyBracesDenoteCodeBlocks(int languageIndex) {
+            return delegate.getCurlyBracesDenoteCodeBlocks(languageIndex);
+        }
+
+        @Override
+        public String[] getLineCommentStartAndEnd(int languageIndex) {
+            return delegate.getLineCommentStartAndEnd(languageIndex);
+        }
+
+        @Override
+        public javax.swing.Action getInsertBreakAction() {
+            return delegate.getInsertBreakAction();
+        }
+
+        @Override
+        public boolean getMarkOccurrencesOfTokenType(int type) {
+            return delegate.getMarkOccurrencesOfTokenType(type);
+        }
+
+        @Override
+        public OccurrenceMarker getOccurrenceMarker() {
+            return delegate.getOccurrenceMarker();
+        }
+
+        @Override
+        public boolean getShouldIndentNextLineAfter(Token token) {
+            return delegate.getShouldIndentNextLineAfter(token);
+        }
+
+        @Override
+        public boolean isIdentifierChar(int languageIndex, char ch) {
+            return delegate.isIdentifierChar(languageIndex, ch);
+        }
+
+        @Override
+        public boolean isMarkupLanguage() {
+            return delegate.isMarkupLanguage();
+        }
+    }
+}
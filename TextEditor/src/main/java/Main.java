@@ -1,5 +1,10 @@
 // Import the SwingUtilities class to create a new thread for the Swing GUI
 import javax.swing.SwingUtilities; // to create a new thread for the Swing GUI
+import javax.swing.JOptionPane; // to offer to recover the unsaved changes of a previous session
+import java.io.IOException; // to handle an edit journal that cannot be replayed
+import java.nio.file.Path; // to work with the edit journals
+import java.util.List; // to work with the list of edit journals
+import java.util.concurrent.CompletableFuture; // to load the configuration while the theme is set up
 import com.formdev.flatlaf.intellijthemes.FlatCyanLightIJTheme; // to set and apply FlatLaf Theme
 
 /**
@@ -15,8 +20,20 @@ import com.formdev.flatlaf.intellijthemes.FlatCyanLightIJTheme; // to set and ap
 public class Main {
     // A main method to start the text editor application
     public static void main(String[] args) {
-        // Create a new configuration loader object to load the config.yaml file with the settings
-        ConfigLoader config = new ConfigLoader("config.yaml");
+        // Record when the main method started, to report the time to the first paint of the window
+        ColdStart.markStart();
+        // Convert files without a display if the batch mode is requested on the command line (e.g. on a build server)
+        if (args.length > 0 && BatchConverter.COMMAND.equals(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            System.exit(BatchConverter.run(args, new ConfigLoader("config.yaml"), System.out, System.err));
+        }
+        // Run the workload the build dumps into a class-data sharing archive if the training run is requested (see pom.xml)
+        if (args.length > 0 && ColdStart.TRAINING_COMMAND.equals(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            System.exit(ColdStart.train(new ConfigLoader("config.yaml"), System.out, System.err));
+        }
+        // Create a new configuration loader object to load the config.yaml file on another thread, as it is only needed once the window exists
+        CompletableFuture<ConfigLoader> config = CompletableFuture.supplyAsync(() -> new ConfigLoader("config.yaml"));
         // Set and Apply FlatLaf Theme
         FlatCyanLightIJTheme.setup();
         // Create a new text editor window to start the application: use invokeLater to run on the EDT to avoid threading issues
@@ -24,9 +41,49 @@ public class Main {
             // Create a new text editor instance
             TextEditor editor = new TextEditor();
             // Apply the configuration settings to the text editor from the configuration file (overrides any defaults specified in the editor constructor)
-            ConfigApplier configApplier = new ConfigApplier(config);
+            ConfigApplier configApplier = new ConfigApplier(config.join());
             // Apply the configuration settings to the text area in the editor
             configApplier.applyConfig(editor.getTextArea());
+            // Apply the configuration settings to the file handler in the editor
+            configApplier.applyConfig(editor.getFileHandler());
+            // Watch the Event Dispatch Thread for actions that freeze the editor, logging them with stack samples (unless turned off with 0)
+            int stallThreshold = config.join().getStallThreshold();
+            if (stallThreshold > 0) {
+                EdtWatchdog.install(stallThreshold, EdtWatchdog.DEFAULT_LOG_FILE);
+            }
+            // Offer to recover the unsaved changes of windows left open when the editor last stopped unexpectedly
+            recoverJournals(editor, configApplier);
         });
     }
+
+    // A helper method to replay the edit journals left behind by a crash into new windows, if the user chooses to recover them
+    private static void recoverJournals(TextEditor editor, ConfigApplier configApplier) {
+        List<Path> journals = EditJournal.findOrphanedJournals(EditJournal.DEFAULT_DIRECTORY);
+        if (journals.isEmpty()) {
+            return;
+        }
+        int choice = JOptionPane.showConfirmDialog(editor, "The editor did not close properly last time. Recover the unsaved changes of "
+                + journals.size() + " window(s)?", "Recover Unsaved Changes", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        for (Path journal : journals) {
+            try {
+                // Replay each journal into a new window, whose own journal records the recovered text in turn
+                if (choice == JOptionPane.YES_OPTION) {
+                    TextEditor recovered = new TextEditor();
+                    configApplier.applyConfig(recovered.getTextArea());
+                    configApplier.applyConfig(recovered.getFileHandler());
+                    Path file = EditJournal.replay(journal, recovered.getTextArea().getDocument());
+                    recovered.getTextArea().setCaretPosition(0);
+                    // Offer to save the recovered text to the file it was last saved to or read from
+                    if (file != null) {
+                        recovered.setTitle("Text Editor - " + file.getFileName() + " (recovered)");
+                        recovered.getFileChooser().setSelectedFile(file.toFile());
+                    }
+                }
+                EditJournal.delete(journal);
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(editor, "Error recovering unsaved changes from " + journal + ": " + e.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,354 @@
+// Import Java NIO classes for memory-mapped file access
+import java.nio.ByteBuffer; // to wrap the bytes of a chunk of the file
+import java.nio.CharBuffer; // to receive the decoded characters of a chunk
+import java.nio.MappedByteBuffer; // to access a region of the file mapped into memory
+import java.nio.channels.FileChannel; // to open and map the file
+import java.nio.charset.*; // to work with charsets, decoders, and coding errors
+import java.nio.file.StandardOpenOption; // to open the file for reading only
+// Import other necessary packages/classes
+import java.io.File; // to work with files
+import java.io.IOException; // to handle input/output exceptions
+import java.util.function.BooleanSupplier; // to check whether a long search has been cancelled
+
+/**
+ * The MappedTextFile class provides read-only access to a (potentially multi-gigabyte) text file through memory-mapped regions.
+ * The file content is never copied onto the heap as a whole: callers read small pages of lines and search the mapped bytes directly.
+ * Each region is mapped lazily by the operating system, so heap use stays bounded no matter how big the file is.
+ * The charset and byte order mark (BOM) are detected from the first bytes of the file as TextFileDecoder does, and lines are
+ * only ever cut at character boundaries, so UTF-8 and UTF-16 files are decoded correctly.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-02
+ */
+
+public class MappedTextFile implements AutoCloseable {
+
+    // === CONSTANTS ===
+    private static final int REGION_SHIFT = 28; // each mapped region covers 2^28 bytes (256 MB)
+    private static final long REGION_SIZE = 1L << REGION_SHIFT; // the size of a mapped region in bytes
+    private static final long REGION_MASK = REGION_SIZE - 1; // a mask to get the position within a region
+    public static final int MAX_LINE_BYTES = 4096; // the maximum number of bytes of a single line returned in a page
+    private static final int SEARCH_CHUNK_BYTES = 1 << 20; // the number of bytes decoded at a time by a search
+    private static final int MAX_BYTES_PER_CHAR = 4; // the maximum number of bytes of a character in the supported charsets
+
+    // === ATTRIBUTES ===
+    private final File file; // the file being viewed
+    private final FileChannel channel; // the channel used to map the file
+    private final MappedByteBuffer[] regions; // the mapped regions of the file
+    private final long size; // the size of the file in bytes
+    private final Charset charset; // the charset used to decode the file
+    private final int dataStart; // the position of the first character (e.g. after the byte order mark)
+    private final int unitBytes; // the number of bytes of a code unit (2 for UTF-16, 1 otherwise)
+    private final boolean bigEndian; // whether the UTF-16 code units store their high byte first
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to map a file, detecting its charset from the byte order mark or the content
+    public MappedTextFile(File file) throws IOException {
+        this(file, null);
+    }
+
+    // A parameterized constructor to map a file using a specific charset (or null to detect it)
+    public MappedTextFile(File file, Charset charset) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+        // Map the file region by region, as a single MappedByteBuffer cannot exceed 2 GB
+        int regionCount = (int) ((size + REGION_SIZE - 1) >>> REGION_SHIFT);
+        this.regions = new MappedByteBuffer[regionCount];
+        try {
+            for (int i = 0; i < regionCount; i++) {
+                long start = (long) i << REGION_SHIFT;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, size - start));
+            }
+        } catch (IOException e) {
+            // Close the channel if any region cannot be mapped, so the file handle is not leaked
+            channel.close();
+            throw e;
+        }
+        // Detect the charset from the first bytes as TextFileDecoder does, skipping a byte order mark of that charset
+        byte[] head = new byte[(int) Math.min(size, TextFileDecoder.SNIFF_LENGTH)];
+        readBytes(0, head, head.length);
+        int bomLength = TextFileDecoder.getBomLength(head, head.length);
+        Charset detected = (bomLength > 0) ? TextFileDecoder.getBomCharset(head) : TextFileDecoder.detectCharset(head, head.length);
+        // As the whole file is not decoded, content that is not valid UTF-8 is only recognised from its first bytes
+        if (bomLength == 0 && detected.equals(StandardCharsets.UTF_8) && !isValidStart(head, detected)) {
+            detected = StandardCharsets.ISO_8859_1;
+        }
+        this.charset = (charset != null) ? charset : detected;
+        this.dataStart = this.charset.equals(detected) ? bomLength : 0;
+        this.bigEndian = this.charset.equals(StandardCharsets.UTF_16BE);
+        this.unitBytes = (bigEndian || this.charset.equals(StandardCharsets.UTF_16LE)) ? 2 : 1;
+    }
+
+    // === METHODS ===
+
+    // A method to get the byte at an absolute position of the file
+    public byte byteAt(long position) {
+        return regions[(int) (position >>> REGION_SHIFT)].get((int) (position & REGION_MASK));
+    }
+
+    // A method to find the start of the line containing the given position (e.g. the character after the previous '\n')
+    public long lineStart(long position) {
+        position = charStart(position);
+        // Do not scan back further than the maximum line length to keep the cost bounded on files without line breaks
+        long limit = Math.max(dataStart, position - MAX_LINE_BYTES);
+        while (position > limit && !isLineFeed(position - unitBytes)) {
+            position -= unitBytes;
+        }
+        // A line cut at the maximum length starts at the first character boundary after the limit
+        return (position > dataStart && !isLineFeed(position - unitBytes)) ? nextCharStart(position) : position;
+    }
+
+    // A method to find the start of the line after the line containing the given position
+    public long nextLineStart(long position) {
+        long limit = Math.min(size, position + MAX_LINE_BYTES);
+        while (position + unitBytes <= limit) {
+            boolean lineFeed = isLineFeed(position);
+            position += unitBytes;
+            if (lineFeed) {
+                return position;
+            }
+        }
+        // A line longer than the maximum length is cut at the start of the character at the limit, so no character is split
+        return (limit == size) ? size : charStart(position);
+    }
+
+    // A method to find the start of the line before the line starting at the given position
+    public long previousLineStart(long lineStart) {
+        return (lineStart <= dataStart) ? dataStart : lineStart(lineStart - unitBytes);
+    }
+
+    // A method to read a page of up to 'maxLines' lines starting at the given position
+    public Page readPage(long start, int maxLines) {
+        start = charStart(start);
+        StringBuilder text = new StringBuilder(); // Create a string builder to store the decoded lines
+        long position = start;
+        // Read the page line by line until the line limit or the end of the file is reached
+        for (int line = 0; line < maxLines && position < size; line++) {
+            long end = nextLineStart(position);
+            text.append(decode(position, end));
+            position = end;
+            // If the line was cut off at the maximum line length, end it so the page stays readable
+            if (position < size && !isLineFeed(position - unitBytes)) {
+                text.append('\n');
+            }
+        }
+        return new Page(start, position, text.toString());
+    }
+
+    // A method to decode the bytes between two positions into a string
+    public String decode(long start, long end) {
+        int length = (int) (end - start);
+        // Copy the bytes out of the mapped regions (a line never exceeds MAX_LINE_BYTES)
+        byte[] bytes = new byte[length];
+        readBytes(start, bytes, length);
+        String text = new String(bytes, charset);
+        // Normalise a trailing '\r\n' to '\n' as the text area only uses '\n' internally
+        return text.endsWith("\r\n") ? text.substring(0, text.length() - 2) + "\n" : text;
+    }
+
+    // A method to search for a term from a given position, returning the position of the match or -1 if not found
+    public long find(String searchTerm, long from, boolean matchCase) {
+        return find(searchTerm, from, size, matchCase, null);
+    }
+
+    // A method to search for a term starting in [from, to), optionally ignoring case as the editor does; the search stops early if cancelled
+    public long find(String searchTerm, long from, long to, boolean matchCase, BooleanSupplier cancelled) {
+        if (searchTerm.isEmpty()) {
+            return -1;
+        }
+        String term = matchCase ? searchTerm : toLowerCase(searchTerm);
+        int overlap = term.length() * MAX_BYTES_PER_CHAR; // enough bytes after a chunk to hold a match starting in it
+        byte[] bytes = new byte[SEARCH_CHUNK_BYTES + overlap];
+        CharsetDecoder decoder = newDecoder();
+        to = Math.min(to, size);
+        long chunkStart = nextCharStart(from);
+        while (chunkStart < to) {
+            // Check for cancellation between chunks so that very long scans can be stopped
+            if (cancelled != null && cancelled.getAsBoolean()) {
+                return -1;
+            }
+            // Decode a chunk ending at a character boundary, plus the bytes after it that a match starting in the chunk may span
+            long chunkEnd = (to - chunkStart <= SEARCH_CHUNK_BYTES) ? to : charStart(chunkStart + SEARCH_CHUNK_BYTES);
+            int length = (int) (Math.min(size, chunkEnd + overlap) - chunkStart);
+            readBytes(chunkStart, bytes, length);
+            String text = decode(decoder, ByteBuffer.wrap(bytes, 0, length));
+            int index = (matchCase ? text : toLowerCase(text)).indexOf(term);
+            // A match starting after the chunk is found again (and checked against 'to') with the next chunk
+            if (index >= 0) {
+                long position = chunkStart + byteLength(decoder, bytes, length, index);
+                if (position < chunkEnd) {
+                    return position;
+                }
+            }
+            chunkStart = chunkEnd;
+        }
+        return -1;
+    }
+
+    // A method to get the position after a number of characters from a position (e.g. the end of a match found by 'find')
+    public long skipChars(long position, int count) {
+        int length = (int) Math.min(size - position, (long) count * MAX_BYTES_PER_CHAR);
+        byte[] bytes = new byte[length];
+        readBytes(position, bytes, length);
+        return position + byteLength(newDecoder(), bytes, length, count);
+    }
+
+    // A method to count the line feeds in the bytes in [from, to) (e.g. to get the line number of a match)
+    public long countLineBreaks(long from, long to) {
+        long count = 0;
+        for (long position = charStart(from); position + unitBytes <= Math.min(to, size); position += unitBytes) {
+            if (isLineFeed(position)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // A helper method to copy bytes out of the mapped regions into an array
+    private void readBytes(long position, byte[] target, int length) {
+        int copied = 0;
+        while (copied < length) {
+            MappedByteBuffer region = regions[(int) ((position + copied) >>> REGION_SHIFT)];
+            int offset = (int) ((position + copied) & REGION_MASK);
+            int count = Math.min(length - copied, region.limit() - offset);
+            region.get(offset, target, copied, count);
+            copied += count;
+        }
+    }
+
+    // A helper method to check whether the code unit at a position is a line feed
+    private boolean isLineFeed(long position) {
+        return (unitBytes == 1) ? byteAt(position) == '\n' : unitAt(position) == '\n';
+    }
+
+    // A helper method to get the UTF-16 code unit at a position
+    private char unitAt(long position) {
+        int first = byteAt(position) & 0xFF;
+        int second = byteAt(position + 1) & 0xFF;
+        return (char) (bigEndian ? (first << 8) | second : (second << 8) | first);
+    }
+
+    // A helper method to check whether a position is inside a character (e.g. on a UTF-8 continuation byte or a low surrogate)
+    private boolean isInsideChar(long position) {
+        if (position <= dataStart || position >= size) {
+            return false;
+        }
+        if (unitBytes == 2) {
+            return ((position - dataStart) & 1) != 0 || (position + 1 < size && Character.isLowSurrogate(unitAt(position)));
+        }
+        return charset.equals(StandardCharsets.UTF_8) && (byteAt(position) & 0xC0) == 0x80;
+    }
+
+    // A helper method to move a position back to the start of the character it is in
+    private long charStart(long position) {
+        position = Math.max(dataStart, Math.min(position, size));
+        for (int i = 0; i < MAX_BYTES_PER_CHAR && isInsideChar(position); i++) {
+            position--;
+        }
+        return position;
+    }
+
+    // A helper method to move a position forward to the start of the next character if it is inside one
+    private long nextCharStart(long position) {
+        position = Math.max(dataStart, Math.min(position, size));
+        for (int i = 0; i < MAX_BYTES_PER_CHAR && isInsideChar(position); i++) {
+            position++;
+        }
+        return position;
+    }
+
+    // A helper method to create a decoder for the charset of the file, replacing any invalid input as 'decode' does
+    private CharsetDecoder newDecoder() {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    // A helper method to count the bytes that decode to the first characters of a chunk (e.g. to get the position of a match)
+    private static int byteLength(CharsetDecoder decoder, byte[] bytes, int length, int chars) {
+        ByteBuffer input = ByteBuffer.wrap(bytes, 0, length);
+        decoder.reset();
+        decoder.decode(input, CharBuffer.allocate(chars), false); // Stops once the characters have been decoded
+        return input.position();
+    }
+
+    // A helper method to decode bytes, replacing any invalid input
+    private static String decode(CharsetDecoder decoder, ByteBuffer input) {
+        try {
+            return decoder.decode(input).toString();
+        } catch (CharacterCodingException e) {
+            // This cannot happen, as invalid input is replaced rather than reported
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A helper method to check whether bytes are valid in a charset, ignoring a character cut off at the end
+    private static boolean isValidStart(byte[] bytes, Charset charset) {
+        CharBuffer output = CharBuffer.allocate(bytes.length);
+        return !charset.newDecoder().decode(ByteBuffer.wrap(bytes), output, false).isError();
+    }
+
+    // A static method to convert a text to lowercase character by character, so that offsets are preserved (as the editor's searches do)
+    static String toLowerCase(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    // A getter method to retrieve the size of the file in bytes
+    public long size() {
+        return size;
+    }
+
+    // A getter method to retrieve the file being viewed
+    public File getFile() {
+        return file;
+    }
+
+    // A getter method to retrieve the charset used to decode the file
+    public Charset getCharset() {
+        return charset;
+    }
+
+    // A method to close the channel of the mapped file (the mapped regions are released by the garbage collector)
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * The Page class stores a window of decoded lines read from the mapped file, along with its byte range in the file.
+     */
+    public static final class Page {
+        private final long start; // the position of the first byte of the page
+        private final long end; // the position after the last byte of the page
+        private final String text; // the decoded text of the page
+
+        // A parameterized constructor to initialize a new page
+        Page(long start, long end, String text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+
+        // A getter method to retrieve the position of the first byte of the page
+        public long getStart() {
+            return start;
+        }
+
+        // A getter method to retrieve the position after the last byte of the page
+        public long getEnd() {
+            return end;
+        }
+
+        // A getter method to retrieve the decoded text of the page
+        public String getText() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+// Import Java Swing classes for highlighting
+import javax.swing.event.DocumentEvent; // to receive insert and remove events
+import javax.swing.event.DocumentListener; // to keep the match positions in step with edits
+import javax.swing.text.*; // to work with highlighters, documents, and text components
+// Import other necessary packages/classes
+import java.awt.*; // to work with graphics, colors, and shapes
+import java.awt.geom.Point2D; // to convert view coordinates to document offsets
+import java.beans.PropertyChangeListener; // to follow the document of the text component
+import java.util.Arrays; // to search the sorted match positions
+
+/**
+ * The MatchHighlightLayer class highlights the matches of a search, however many there are.
+ * Instead of adding one highlight object per match, the match positions are stored in a primitive int array,
+ * and a single highlight painter only paints the matches that fall inside the area being painted (e.g. the visible viewport).
+ * Setting or clearing the matches does not allocate per match, and clearing is O(1).
+ * Matches of a plain search share a single length, while matches of a regular expression also store their end positions.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-10
+ */
+
+public class MatchHighlightLayer implements Highlighter.HighlightPainter, DocumentListener {
+
+    // === ATTRIBUTES ===
+    private final JTextComponent textComponent; // the text component the matches are painted on
+    private final Highlighter.HighlightPainter matchPainter; // the painter used to paint a single match
+    private final PropertyChangeListener documentChangeListener = e -> attach((Document) e.getOldValue(), (Document) e.getNewValue());
+    private int[] starts = new int[0]; // the start positions of the matches, in ascending order
+    private int count = 0; // the number of matches in the array
+    private int[] ends; // the end positions of the matches, in ascending order (or null if every match has the same length)
+    private int matchLength = 0; // the length of every match (or the length of the longest match if the ends are stored)
+    private Object tag; // the tag of the single highlight that paints this layer
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new layer for a text component, painting matches in the given color
+    public MatchHighlightLayer(JTextComponent textComponent, Color color) {
+        this.textComponent = textComponent;
+        this.matchPainter = new DefaultHighlighter.DefaultHighlightPainter(color);
+        textComponent.addPropertyChangeListener("document", documentChangeListener);
+        attach(null, textComponent.getDocument());
+    }
+
+    // === METHODS ===
+
+    // A method to move the layer to a new document (the matches of the old document no longer apply)
+    private void attach(Document oldDocument, Document newDocument) {
+        if (oldDocument != null) {
+            oldDocument.removeDocumentListener(this);
+        }
+        newDocument.addDocumentListener(this);
+        count = 0;
+        installHighlight();
+    }
+
+    // A helper method to add the single highlight that paints this layer, if it is not already installed
+    private void installHighlight() {
+        Highlighter highlighter = textComponent.getHighlighter();
+        if (tag != null && Arrays.stream(highlighter.getHighlights()).anyMatch(h -> h == tag)) {
+            return;
+        }
+        try {
+            tag = highlighter.addHighlight(0, 0, this);
+        } catch (BadLocationException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // A method to replace the matches with a new sorted array of start positions, all of the same length
+    public void setMatches(int[] matchStarts, int length) {
+        installHighlight(); // Re-install the highlight in case all highlights were removed by another component
+        this.starts = matchStarts;
+        this.ends = null;
+        this.count = matchStarts.length;
+        this.matchLength = length;
+        textComponent.repaint();
+    }
+
+    // A method to replace the matches with new sorted arrays of start and end positions (e.g. matches of a regular expression)
+    public void setMatches(int[] matchStarts, int[] matchEnds) {
+        installHighlight(); // Re-install the highlight in case all highlights were removed by another component
+        int longest = 0;
+        for (int i = 0; i < matchStarts.length; i++) {
+            longest = Math.max(longest, matchEnds[i] - matchStarts[i]);
+        }
+        this.starts = matchStarts;
+        this.ends = matchEnds;
+        this.count = matchStarts.length;
+        this.matchLength = longest;
+        textComponent.repaint();
+    }
+
+    // A method to remove all matches (in constant time, as the array is simply marked as empty)
+    public void clear() {
+        count = 0;
+        textComponent.repaint();
+    }
+
+    // A getter method to retrieve the number of matches
+    public int getMatchCount() {
+        return count;
+    }
+
+    // A method to get the start position of a match
+    public int getMatchStart(int index) {
+        return starts[index];
+    }
+
+    // A method to get the end position of a match
+    public int getMatchEnd(int index) {
+        return (ends == null) ? starts[index] + matchLength : ends[index];
+    }
+
+    // A method to get the index of the first match starting at or after a position (or the number of matches if there is none)
+    public int indexOfMatchAtOrAfter(int position) {
+        int index = Arrays.binarySearch(starts, 0, count, position);
+        return (index < 0) ? -index - 1 : index;
+    }
+
+    // A method to paint the matches that intersect the area being painted
+    @Override
+    public void paint(Graphics g, int p0, int p1, Shape bounds, JTextComponent c) {
+        if (count == 0) {
+            return;
+        }
+        // Convert the clip rectangle (e.g. the visible viewport) to a range of document offsets
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = bounds.getBounds();
+        }
+        int firstVisible = c.viewToModel2D(new Point2D.Double(clip.x, clip.y));
+        int lastVisible = c.viewToModel2D(new Point2D.Double(clip.x + clip.width, clip.y + clip.height));
+        // Find the first match that ends after the first visible offset, then paint matches until the last visible offset
+        int index = Arrays.binarySearch(starts, 0, count, firstVisible - matchLength + 1);
+        index = (index < 0) ? -index - 1 : index;
+        int documentLength = c.getDocument().getLength();
+        for (; index < count && starts[index] <= lastVisible; index++) {
+            int end = Math.min(getMatchEnd(index), documentLength);
+            if (starts[index] < end) {
+                matchPainter.paint(g, starts[index], end, bounds, c);
+            }
+        }
+    }
+
+    // A method to move the matches after an insertion, dropping a match the text was inserted into
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        shift(e.getOffset(), 0, e.getLength());
+    }
+
+    // A method to move the matches after a removal, dropping the matches that overlapped the removed text
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        shift(e.getOffset(), e.getLength(), -e.getLength());
+    }
+
+    // A method that ignores attribute changes, as they do not move the text
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    // A helper method to drop the matches overlapping [offset, offset + removed) or containing an insert, and shift the later ones
+    private void shift(int offset, int removed, int delta) {
+        if (count == 0) {
+            return;
+        }
+        // Skip the matches that end before the edit, as they are not affected by it
+        int first = Arrays.binarySearch(starts, 0, count, offset - matchLength + 1);
+        first = (first < 0) ? -first - 1 : first;
+        int target = first;
+        for (int i = first; i < count; i++) {
+            int start = starts[i];
+            int end = getMatchEnd(i);
+            if (end <= offset) {
+                keep(target++, start, end); // The match is before the edit, so it is kept as is
+            } else if (start >= offset + removed) {
+                keep(target++, start + delta, end + delta); // The match is after the edit, so it moves with the text
+            }
+            // Otherwise the edit changed the text of the match, so the match is dropped
+        }
+        count = target;
+    }
+
+    // A helper method to store a match at an index of the arrays
+    private void keep(int index, int start, int end) {
+        starts[index] = start;
+        if (ends != null) {
+            ends[index] = end;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 // Import necessary packages
 import javax.swing.JMenu; // to create a menu
 import javax.swing.JMenuBar; // to create a menu bar
+import java.awt.BorderLayout; // to place the find bar below the text area
 
 /**
  * The `MenuHandler` class is responsible for creating and managing the menu bar in the text editor application.
@@ -24,7 +25,9 @@ public class MenuHandler {
     public MenuHandler(TextEditor textEditor, FileHandler fileHandler) {
         this.fileMenuHandler = new FileMenuHandler(textEditor, fileHandler);
         this.editMenuHandler = new EditMenuHandler(new EditHandler(textEditor.getTextArea()));
-        this.searchMenuHandler = new SearchMenuHandler(new SearchHandler(textEditor.getTextArea()));
+        SearchHandler searchHandler = new SearchHandler(textEditor.getTextArea());
+        textEditor.add(searchHandler.getFindBar(), BorderLayout.SOUTH); // Place the (initially hidden) find bar below the text area
+        this.searchMenuHandler = new SearchMenuHandler(searchHandler);
         this.viewMenuHandler = new ViewMenuHandler(new TimeDateHandler(textEditor.getTextArea()));
         this.helpMenuHandler = new HelpMenuHandler(new AboutHandler());
     }
@@ -53,6 +56,8 @@ public class MenuHandler {
         JMenu helpMenu = new JMenu("Help");
         menuBar.add(helpMenu);
         helpMenuHandler.addHelpMenuItems(helpMenu);
+        // Name the menu actions, so that a stall of the Event Dispatch Thread is logged with the action that triggered it
+        EdtWatchdog.watchMenuActions(menuBar);
         // Return the menu bar with all the menus and menu items
         return menuBar;
     }
@@ -0,0 +1,169 @@
+// Import Java StAX classes to stream the XML content
+import javax.xml.stream.XMLInputFactory; // to create the streaming XML parser
+import javax.xml.stream.XMLStreamConstants; // to identify the events of the parser
+import javax.xml.stream.XMLStreamException; // to handle malformed XML content
+import javax.xml.stream.XMLStreamReader; // to read the XML content event by event
+// Import other necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read the ODT file
+import java.util.zip.ZipEntry; // to find the content entry of the ODT file
+import java.util.zip.ZipInputStream; // to read the ODT file as a zip archive
+
+/**
+ * The OdtTextReader class extracts the text of an ODT file without building a DOM of the document.
+ * It streams content.xml straight out of the zip archive with a StAX parser and writes the headings, paragraphs, and list items
+ * in document order to a TextSink, in chunks of a reused buffer. Spaces, tabs, and line breaks are expanded as the editor shows them,
+ * while annotations and the bodies of notes are skipped.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-15
+ */
+
+public class OdtTextReader {
+
+    // === CONSTANTS ===
+    private static final String TEXT_NAMESPACE = "urn:oasis:names:tc:opendocument:xmlns:text:1.0"; // the namespace of text elements
+    private static final String OFFICE_NAMESPACE = "urn:oasis:names:tc:opendocument:xmlns:office:1.0"; // the namespace of office elements
+    private static final String CONTENT_ENTRY = "content.xml"; // the zip entry holding the body of the document
+    private static final String LIST_INDENT = "  "; // the indentation of a nested list item per level
+    private static final String LIST_BULLET = "• "; // the bullet marking the first paragraph of a list item
+    private static final int CHUNK_SIZE = 64 * 1024; // the number of characters written to the sink at a time
+    private static final XMLInputFactory FACTORY = createFactory(); // the factory of the streaming parsers
+
+    // === CONSTRUCTORS ===
+
+    // A private constructor, as this class only provides static methods
+    private OdtTextReader() {
+    }
+
+    // === METHODS ===
+
+    // A static method to extract the text of an ODT file from an input stream of the given length (or -1 if unknown)
+    public static String extractText(InputStream inputStream, long length) throws IOException {
+        // Size the buffer from the length of the file, as the compressed markup is about as long as the text it holds
+        StringBuilder text = new StringBuilder((int) Math.min(Math.max(length, 16), Integer.MAX_VALUE - 8));
+        read(inputStream, length, TextSink.toBuilder(text));
+        return text.toString();
+    }
+
+    // A static method to read the text of an ODT file from an input stream of the given length (or -1 if unknown) into a sink
+    public static void read(InputStream inputStream, long length, TextSink sink) throws IOException {
+        ZipInputStream zipStream = new ZipInputStream(inputStream);
+        ZipEntry entry;
+        // Skip the entries before content.xml (e.g. the mimetype and the manifest) without unpacking them
+        while ((entry = zipStream.getNextEntry()) != null) {
+            if (entry.getName().equals(CONTENT_ENTRY)) {
+                readContent(zipStream, sink);
+                return;
+            }
+        }
+        throw new IOException("The ODT file has no " + CONTENT_ENTRY);
+    }
+
+    // A helper method to stream the text of content.xml into a sink, one chunk at a time
+    private static void readContent(InputStream contentStream, TextSink sink) throws IOException {
+        StringBuilder content = new StringBuilder(CHUNK_SIZE + 1024);
+        char[] chunk = new char[CHUNK_SIZE + 1024];
+        try {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(contentStream, "UTF-8");
+            try {
+                int paragraphDepth = 0; // the number of paragraphs and headings the parser is inside
+                int listDepth = 0; // the number of list items the parser is inside
+                boolean listItemStarted = false; // whether the next paragraph is the first of a list item
+                int skipDepth = 0; // the depth inside an element whose text is skipped (e.g. an annotation)
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String namespace = reader.getNamespaceURI();
+                        String name = reader.getLocalName();
+                        if (skipDepth > 0 || isSkipped(namespace, name)) {
+                            skipDepth++;
+                        } else if (TEXT_NAMESPACE.equals(namespace)) {
+                            switch (name) {
+                                case "p", "h" -> {
+                                    // Start a nested paragraph (e.g. in a text box) on its own line
+                                    if (paragraphDepth > 0) {
+                                        content.append('\n');
+                                    }
+                                    paragraphDepth++;
+                                    if (listItemStarted) {
+                                        content.append(LIST_INDENT.repeat(listDepth - 1)).append(LIST_BULLET);
+                                        listItemStarted = false;
+                                    }
+                                }
+                                case "list-item" -> {
+                                    listDepth++;
+                                    listItemStarted = true;
+                                }
+                                case "s" -> {
+                                    String count = reader.getAttributeValue(TEXT_NAMESPACE, "c");
+                                    content.append(" ".repeat((count == null) ? 1 : Integer.parseInt(count)));
+                                }
+                                case "tab" -> content.append('\t');
+                                case "line-break" -> content.append('\n');
+                                default -> { }
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (skipDepth > 0) {
+                            skipDepth--;
+                        } else if (TEXT_NAMESPACE.equals(reader.getNamespaceURI())) {
+                            switch (reader.getLocalName()) {
+                                case "p", "h" -> {
+                                    paragraphDepth--;
+                                    if (paragraphDepth == 0) {
+                                        content.append('\n');
+                                    }
+                                }
+                                case "list-item" -> {
+                                    listDepth--;
+                                    listItemStarted = false;
+                                }
+                                default -> { }
+                            }
+                        }
+                    } else if ((event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)
+                            && paragraphDepth > 0 && skipDepth == 0) {
+                        // Append the characters straight from the buffer of the parser
+                        content.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    // Write the chunk to the sink once it is full
+                    if (content.length() >= CHUNK_SIZE) {
+                        flush(content, chunk, sink);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Invalid ODT content: " + e.getMessage(), e);
+        }
+        flush(content, chunk, sink);
+    }
+
+    // A helper method to write the characters of the chunk to the sink and empty it
+    private static void flush(StringBuilder content, char[] chunk, TextSink sink) throws IOException {
+        if (content.length() > chunk.length) {
+            chunk = new char[content.length()]; // A single text event longer than the chunk
+        }
+        content.getChars(0, content.length(), chunk, 0);
+        sink.append(chunk, 0, content.length());
+        content.setLength(0);
+    }
+
+    // A helper method to check whether the text of an element is skipped, as it is not part of the body text
+    private static boolean isSkipped(String namespace, String name) {
+        return (OFFICE_NAMESPACE.equals(namespace) && name.equals("annotation"))
+                || (TEXT_NAMESPACE.equals(namespace) && (name.equals("note-body") || name.equals("tracked-changes")));
+    }
+
+    // A helper method to create a parser factory that ignores DTDs and external entities
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
@@ -1,19 +1,63 @@
 // Import Apache PDFBox classes for PDF handling
+import org.apache.fontbox.ttf.CmapLookup; // to map a character to its glyph in a TrueType font
+import org.apache.fontbox.ttf.OS2WindowsMetricsTable; // to check whether a TrueType font may be embedded
+import org.apache.fontbox.ttf.TrueTypeFont; // to work with the TrueType font program of the configured font
+import org.apache.pdfbox.cos.COSName; // to name the compression filter of a content stream
+import org.apache.pdfbox.cos.COSStream; // to store the compressed content of a page
+import org.apache.pdfbox.io.IOUtils; // to keep the content of finished pages in a temporary file instead of the heap
 import org.apache.pdfbox.pdmodel.PDDocument; // to work with PDF documents
 import org.apache.pdfbox.pdmodel.PDPage; // to work with PDF pages
-import org.apache.pdfbox.pdmodel.PDPageContentStream; // to work with PDF page content streams
+import org.apache.pdfbox.pdmodel.PDResources; // to share the font resource between the pages
+import org.apache.pdfbox.pdmodel.common.PDRectangle; // to get the size of a page
+import org.apache.pdfbox.pdmodel.common.PDStream; // to set the content stream of a page
+import org.apache.pdfbox.pdmodel.font.FontMapping; // to tell whether a system font was found or substituted
+import org.apache.pdfbox.pdmodel.font.FontMappers; // to find the TrueType font program of a font on the system
+import org.apache.pdfbox.pdmodel.font.PDFont; // to measure and write text with a font
+import org.apache.pdfbox.pdmodel.font.PDType0Font; // to embed a subset of a TrueType font
 import org.apache.pdfbox.pdmodel.font.PDType1Font; // to work with PDF fonts
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts; // to use the new constructor for PDType1Font per https://pdfbox.apache.org/3.0/migration.html
+// Import RSyntaxTextArea classes for syntax colours
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to get the syntax style and colours of the text area
+import org.fife.ui.rsyntaxtextarea.Style; // to get the colour of a token type
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to check whether the text area has syntax highlighting
+import org.fife.ui.rsyntaxtextarea.SyntaxScheme; // to map the token types to colours
+import org.fife.ui.rsyntaxtextarea.Token; // to read the tokens of a line
+import org.fife.ui.rsyntaxtextarea.TokenMaker; // to split a line into tokens
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory; // to create a token maker for a syntax style
+import org.fife.ui.rsyntaxtextarea.TokenTypes; // to start the first line outside any token
+// Import Java Swing classes for the document model
+import javax.swing.text.Document; // to export the text of a document
+import javax.swing.text.Segment; // to pass a line to the token maker
 // Import other necessary packages/classes
-import javax.swing.*; // to work with Swing components
+import java.awt.Color; // to work with the colours of the tokens
+import java.io.ByteArrayOutputStream; // to compose the content stream of a page in memory
 import java.io.File; // to work with input/output files
 import java.io.IOException; // to handle input/output exceptions
+import java.io.OutputStream; // to write the content stream of a page
+import java.io.UncheckedIOException; // to report an input/output exception from a parallel stream
+import java.nio.charset.StandardCharsets; // to encode the operators of a content stream
+import java.util.ArrayDeque; // to queue the wrapped parts of a line that continue on the next page
+import java.util.ArrayList; // to store the lines of a page
+import java.util.Arrays; // to fill and grow the colour arrays
+import java.util.BitSet; // to record the characters used by the pages
+import java.util.List; // to work with lists
+import java.util.Map; // to map the logical font families to TrueType fonts
+import java.util.concurrent.ConcurrentHashMap; // to cache the fonts across exports
+import java.util.concurrent.CancellationException; // to stop an export that has been cancelled
+import java.util.function.BooleanSupplier; // to check whether the export has been cancelled
+import java.util.function.IntConsumer; // to report the progress of the export
+import java.util.zip.DeflaterOutputStream; // to compress the content stream of a page
 
 /**
  * The PDFExporter class is responsible for exporting the text content to a PDF file.
  * This class uses Apache PDFBox to create and write content to PDF documents.
- * It ensures the file is saved with a .pdf extension and handles any exceptions that occur during the export process.
- * It also displays appropriate messages for success or error conditions.
+ * The lines are read one page at a time from the text (e.g. a copy of the document), long lines are wrapped to the page width, and a new page is
+ * started whenever a page is full. Each finished page is written to a temporary file, so memory use stays flat.
+ * The pages are laid out in batches, and the content streams of a batch are composed and compressed in parallel across cores.
+ * The text is written in the editor font (the 'textFormat' of config.yaml), embedded as a subset of its TrueType program.
+ * The font programs and glyph widths are cached across exports; Helvetica is used if no TrueType font can be found.
+ * Source code can be exported with the syntax colours of the editor, where adjacent tokens of the same colour share one text run.
+ * It ensures the file is saved with a .pdf extension; the export itself runs on a PdfExportWorker.
 
  * @author Esdras Luna
  * @version 1.0
@@ -23,49 +67,575 @@ import java.io.IOException; // to handle input/output exceptions
 // A class to encapsulate the attributes and methods of the PDF exporter object
 public class PDFExporter {
 
+    // === CONSTANTS ===
+    private static final float FONT_SIZE = 12; // the font size of the text
+    private static final float LEADING = 15; // the distance between two lines
+    private static final float MARGIN_LEFT = 25; // the distance between the left edge of the page and the text
+    private static final float TOP_Y = 750; // the baseline of the first line of a page
+    private static final float MARGIN_BOTTOM = 42; // the minimum distance between the bottom edge of the page and the text
+    private static final int TAB_SIZE = 4; // the number of columns between tab stops
+    private static final int PAGES_PER_BATCH_PER_CORE = 8; // the number of pages laid out per core before they are composed
+    static final String DEFAULT_FONT_FAMILY = "monospaced"; // the font family used if none is given (as in config.yaml)
+    // The TrueType fonts tried, in order, for each logical font family of Java
+    private static final Map<String, List<String>> LOGICAL_FONTS = Map.of(
+            "monospaced", List.of("DejaVuSansMono", "Menlo-Regular", "Consolas", "LiberationMono", "CourierNewPSMT"),
+            "dialoginput", List.of("DejaVuSansMono", "Menlo-Regular", "Consolas", "LiberationMono", "CourierNewPSMT"),
+            "sansserif", List.of("DejaVuSans", "LiberationSans", "ArialMT", "Helvetica"),
+            "dialog", List.of("DejaVuSans", "LiberationSans", "ArialMT", "Helvetica"),
+            "serif", List.of("DejaVuSerif", "LiberationSerif", "TimesNewRomanPSMT"));
+    private static final Map<String, ExportFont> FONT_CACHE = new ConcurrentHashMap<>(); // the fonts resolved so far, by family
+
     // === METHODS ===
-    // A static method (i.e. called without creating an instance of the class) to export the text content to a PDF file
-    public static void exportToPdf(File file, String text) {
+    // A static method (i.e. called without creating an instance of the class) to write the text content of a document to a PDF file, returning the number of pages written
+    // The document is read in place, so it must not be edited during the export
+    static int writePdf(File file, Document textDocument) throws IOException {
+        return writePdf(file, new DocumentCharSequence(textDocument), DEFAULT_FONT_FAMILY, null, () -> false, percent -> { });
+    }
+
+    // A static method to write a text to a PDF file in a font family (and in syntax colours if a colorizer is given),
+    // reporting its progress and stopping if cancelled (the text must not change during the export, e.g. a copy of the document)
+    static int writePdf(File file, CharSequence text, String fontFamily, TokenColorizer colorizer,
+                        BooleanSupplier cancelled, IntConsumer progress) throws IOException {
         // Check if the file name ends with .pdf, if not, append .pdf to ensure it is recognized as a PDF file
         if (!file.getName().toLowerCase().endsWith(".pdf")) {
             file = new File(file.getAbsolutePath() + ".pdf");
         }
-        // Use a try-with-resources block to create a new PDF document and write the text content to it
-        try (PDDocument document = new PDDocument()) {
-            PDPage page = new PDPage(); // Create a new PDF page
-            document.addPage(page); // Add the page to the document
-            PDPageContentStream contentStream = createContentStream(document, page, text); // Create and set up the content stream
-            contentStream.close();
+        EditorMetrics.PdfExportEvent event = EditorMetrics.PdfExportEvent.start(file, fontFamily, text.length(), colorizer != null);
+        try {
+            event.pages = writePages(file, text, fontFamily, colorizer, cancelled, progress);
+            event.fileSize = file.length();
+            return event.pages;
+        } finally {
+            event.finish();
+        }
+    }
+
+    // A helper method to write the pages of a text to a PDF file, returning the number of pages written
+    private static int writePages(File file, CharSequence text, String fontFamily, TokenColorizer colorizer,
+                                  BooleanSupplier cancelled, IntConsumer progress) throws IOException {
+        // Use a try-with-resources block to create a new PDF document whose page content is buffered in a temporary file
+        try (PDDocument document = new PDDocument(IOUtils.createTempFileOnlyStreamCache())) {
+            ExportFont exportFont = ExportFont.forFamily(fontFamily); // Get the cached font of the family
+            PDFont font = exportFont.load(document); // Embed the font in the document
+            PDResources resources = new PDResources(); // Create the resources shared by every page
+            String fontName = resources.add(font).getName();
+            float maxWidth = PDRectangle.LETTER.getWidth() - 2 * MARGIN_LEFT;
+            int linesPerPage = (int) ((TOP_Y - MARGIN_BOTTOM) / LEADING) + 1;
+            GlyphTable glyphs = exportFont.getGlyphs();
+            Paginator paginator = new Paginator(text, glyphs, colorizer, maxWidth, linesPerPage);
+            int pagesPerBatch = PAGES_PER_BATCH_PER_CORE * Runtime.getRuntime().availableProcessors();
+            int pageCount = 0;
+            boolean done = false;
+            while (!done) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException();
+                }
+                // Lay out a batch of pages (this also measures and encodes every character they use)
+                List<List<Line>> batch = paginator.nextPages(pagesPerBatch);
+                done = batch.size() < pagesPerBatch;
+                // Compose and compress the content streams of the batch in parallel, keeping them in page order
+                List<byte[]> contents = batch.parallelStream().map(lines -> composePage(lines, glyphs, fontName)).toList();
+                // Add the pages to the document in order, so that only the current batch is held in memory
+                for (byte[] content : contents) {
+                    addPage(document, resources, content);
+                }
+                pageCount += batch.size();
+                progress.accept(paginator.getProgress());
+            }
+            // Embed the subset of the font with the characters used, as the content streams are not written through showText
+            exportFont.embedSubset(font, paginator.getUsedCharacters());
             // Call the save method on the document to save the PDF file
             document.save(file);
-            // Show a success message if the file is exported successfully
-            JOptionPane.showMessageDialog(null, "File exported successfully", "Success", JOptionPane.INFORMATION_MESSAGE);
+            return pageCount;
+        }
+    }
 
-            // If an exception occurs during the export process, show an error message
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(null, "Error exporting file", "Error", JOptionPane.ERROR_MESSAGE);
+    // A static method to compose the content stream of a page and compress it (this only reads the glyph table, so pages can be composed in parallel)
+    private static byte[] composePage(List<Line> lines, GlyphTable glyphs, String fontName) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream(lines.size() * 64);
+        // Set up the text object with the font, the leading, and the position of the first line
+        writeAscii(content, "BT\n/" + fontName + " " + (int) FONT_SIZE + " Tf\n" + (int) LEADING + " TL\n"
+                + (int) MARGIN_LEFT + " " + (int) TOP_Y + " Td\n");
+        int currentColor = 0; // the fill colour starts as black
+        // Write each line as encoded strings followed by a move to the next line
+        for (Line line : lines) {
+            if (line.runs == null) {
+                writeString(content, line.text, 0, line.text.length(), glyphs);
+                writeAscii(content, " Tj\n");
+            } else {
+                // Write each run of the same colour as a single string, only setting the colour when it changes
+                int runStart = 0;
+                for (int i = 0; i < line.runs.length; i += 2) {
+                    if (line.runs[i + 1] != currentColor) {
+                        currentColor = line.runs[i + 1];
+                        writeAscii(content, colorComponent(currentColor >> 16) + " " + colorComponent(currentColor >> 8) + " "
+                                + colorComponent(currentColor) + " rg\n");
+                    }
+                    writeString(content, line.text, runStart, line.runs[i], glyphs);
+                    writeAscii(content, " Tj\n");
+                    runStart = line.runs[i];
+                }
+            }
+            writeAscii(content, "T*\n");
+        }
+        writeAscii(content, "ET\n");
+        // Compress the content stream, as the PDF writer would
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.size() / 3 + 64);
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+            content.writeTo(deflater);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // A byte array stream does not throw
         }
+        return compressed.toByteArray();
     }
 
-    // A method to create and set up the content stream for writing text to the PDF file
-    private static PDPageContentStream createContentStream(PDDocument document, PDPage page, String text) throws IOException {
-        PDPageContentStream contentStream = new PDPageContentStream(document, page); // Create a new content stream
-        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA); // Create a new font
-        // Set up the content stream to write the content from the text area to the PDF file
-        contentStream.beginText();
-        contentStream.setFont(font, 12);
-        contentStream.newLineAtOffset(25, 750);
-        // Split the text content into lines based on newline character delimiter
-        String[] lines = text.split("\n");
-        // Iterate over the lines and write each line to the PDF file
-        for (String line : lines) {
-            contentStream.showText(line);
-            contentStream.newLineAtOffset(0, -15);
-        }
-        // Once all lines are written, end the text
-        contentStream.endText();
-        // Return the content stream
-        return contentStream;
+    // A helper method to write part of a line as a literal string of encoded characters
+    private static void writeString(ByteArrayOutputStream content, String text, int start, int end, GlyphTable glyphs) {
+        content.write('(');
+        for (int i = start; i < end; i++) {
+            for (byte b : glyphs.code(text.charAt(i))) {
+                // Escape the characters that have a special meaning in a literal string
+                if (b == '(' || b == ')' || b == '\\') {
+                    content.write('\\');
+                    content.write(b);
+                } else if (b == '\r' || b == '\n') {
+                    writeAscii(content, (b == '\r') ? "\\r" : "\\n"); // A raw line break would be changed by a reader
+                } else {
+                    content.write(b);
+                }
+            }
+        }
+        content.write(')');
     }
-}
 
+    // A helper method to format a colour component (the lowest 8 bits) as a number between 0 and 1
+    private static String colorComponent(int component) {
+        component &= 0xFF;
+        return (component == 0 || component == 255) ? String.valueOf(component / 255) : String.valueOf(Math.round(component / 0.255f) / 1000f);
+    }
+
+    // A helper method to write an ASCII string to a content stream
+    private static void writeAscii(ByteArrayOutputStream content, String text) {
+        content.writeBytes(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // A static method to add a page with a compressed content stream to the document
+    private static void addPage(PDDocument document, PDResources resources, byte[] content) throws IOException {
+        COSStream stream = document.getDocument().createCOSStream();
+        try (OutputStream outputStream = stream.createRawOutputStream()) {
+            outputStream.write(content);
+        }
+        stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+        PDPage page = new PDPage(PDRectangle.LETTER); // Create a new PDF page
+        page.setResources(resources);
+        page.setContents(new PDStream(stream));
+        document.addPage(page); // Add the page to the document
+    }
+
+    /**
+     * The ExportFont class holds the TrueType font program found for a font family, with the glyph table measured from it.
+     * Both are cached across exports, while a new subset of the font is embedded in each exported document.
+     */
+    static final class ExportFont {
+        private final TrueTypeFont program; // the TrueType font program (or null to use the standard Helvetica font)
+        private final GlyphTable glyphs; // the widths and codes of the characters in the font
+
+        // A parameterized constructor to initialize a new font from a TrueType font program (or null for Helvetica)
+        private ExportFont(TrueTypeFont program) throws IOException {
+            this.program = program;
+            this.glyphs = (program != null) ? new GlyphTable(program) : new GlyphTable(new PDType1Font(Standard14Fonts.FontName.HELVETICA));
+        }
+
+        // A static method to get the font of a family, finding and parsing its TrueType program on first use
+        static ExportFont forFamily(String family) {
+            return FONT_CACHE.computeIfAbsent(family.toLowerCase(), ExportFont::find);
+        }
+
+        // A helper method to find the first TrueType font on the system that matches a family and may be embedded
+        private static ExportFont find(String family) {
+            List<String> candidates = LOGICAL_FONTS.getOrDefault(family, List.of(family.replace(" ", "")));
+            for (String name : candidates) {
+                try {
+                    FontMapping<TrueTypeFont> mapping = FontMappers.instance().getTrueTypeFont(name, null);
+                    if (!mapping.isFallback() && isEmbeddable(mapping.getFont())) {
+                        return new ExportFont(mapping.getFont());
+                    }
+                } catch (IOException e) {
+                    // Skip a font that cannot be read
+                }
+            }
+            try {
+                return new ExportFont(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // The standard Helvetica font is always available
+            }
+        }
+
+        // A helper method to check whether the licence of a TrueType font allows it to be embedded as a subset
+        private static boolean isEmbeddable(TrueTypeFont program) throws IOException {
+            OS2WindowsMetricsTable os2 = program.getOS2Windows();
+            if (os2 == null) {
+                return true;
+            }
+            int fsType = os2.getFsType();
+            return (fsType & 0x000F) != 0x0002 && (fsType & 0x0300) == 0; // not restricted, subsetting allowed, not bitmap only
+        }
+
+        // A method to create the font of a document, embedding a subset of the TrueType program if there is one
+        PDFont load(PDDocument document) throws IOException {
+            return (program != null) ? PDType0Font.load(document, program, true) : new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        }
+
+        // A method to embed the subset of the font of a document with the characters it uses
+        void embedSubset(PDFont font, BitSet characters) throws IOException {
+            if (font.willBeSubset()) {
+                characters.stream().forEach(font::addToSubset);
+                font.subset();
+            }
+        }
+
+        // A method to check whether no TrueType font was found, so that Helvetica is used instead
+        boolean isFallback() {
+            return program == null;
+        }
+
+        // A getter method to retrieve the glyph table of the font
+        GlyphTable getGlyphs() {
+            return glyphs;
+        }
+    }
+
+    /**
+     * The GlyphTable class caches the width and encoded bytes of each character in a font, and whether the font can encode it.
+     * A character is measured the first time it is laid out, and only read while the pages are composed in parallel.
+     */
+    static final class GlyphTable {
+        private static final Glyph MISSING = new Glyph(-1, null); // the glyph of a character that the font cannot encode
+        private final PDFont font; // the standard font being measured (or null for a TrueType font)
+        private final TrueTypeFont program; // the TrueType font program being measured (or null for a standard font)
+        private final CmapLookup cmap; // the map from characters to glyphs of the TrueType font
+        private final float scale; // the factor from font units to the font size
+        private final Glyph[] glyphs = new Glyph[Character.MAX_VALUE + 1]; // the glyph of each character measured so far
+
+        // A parameterized constructor to initialize a new table for a standard font
+        GlyphTable(PDFont font) {
+            this.font = font;
+            this.program = null;
+            this.cmap = null;
+            this.scale = FONT_SIZE / 1000;
+        }
+
+        // A parameterized constructor to initialize a new table for a TrueType font program
+        GlyphTable(TrueTypeFont program) throws IOException {
+            this.font = null;
+            this.program = program;
+            this.cmap = program.getUnicodeCmapLookup();
+            this.scale = FONT_SIZE / program.getUnitsPerEm();
+        }
+
+        // A method to get the width of a character at the font size (or a negative value if the font cannot encode it)
+        float width(char c) {
+            Glyph glyph = glyphs[c];
+            return (glyph != null) ? glyph.width : measure(c).width;
+        }
+
+        // A method to get the encoded bytes of a character that has already been measured (safe to call from several threads)
+        byte[] code(char c) {
+            return glyphs[c].code;
+        }
+
+        // A helper method to measure and encode a character once (the table is shared by exports running at the same time)
+        private synchronized Glyph measure(char c) {
+            if (glyphs[c] == null) {
+                try {
+                    if (program != null) {
+                        // Embedded TrueType fonts use the glyph ids of the full font as their two-byte codes
+                        int glyphId = cmap.getGlyphId(c);
+                        glyphs[c] = (glyphId == 0) ? MISSING
+                                : new Glyph(program.getAdvanceWidth(glyphId) * scale, new byte[] {(byte) (glyphId >> 8), (byte) glyphId});
+                    } else {
+                        glyphs[c] = new Glyph(font.getStringWidth(String.valueOf(c)) * scale, font.encode(String.valueOf(c)));
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    glyphs[c] = MISSING; // The character is not in the encoding of the font
+                }
+            }
+            return glyphs[c];
+        }
+
+        /**
+         * The Glyph class stores the width and encoded bytes of a character (its fields are final, so it can be shared between threads).
+         */
+        private static final class Glyph {
+            private final float width; // the width of the character at the font size
+            private final byte[] code; // the encoded bytes of the character
+
+            // A parameterized constructor to initialize a new glyph
+            Glyph(float width, byte[] code) {
+                this.width = width;
+                this.code = code;
+            }
+        }
+    }
+
+    /**
+     * The TokenColorizer class gives each character of a line the colour of its syntax token, as the text area paints it.
+     * It splits the lines with its own TokenMaker, so the export never touches the token lists the text area paints from.
+     */
+    static final class TokenColorizer {
+        private final TokenMaker tokenMaker; // the token maker of the syntax style
+        private final SyntaxScheme scheme; // the colours of the token types
+        private final int foreground; // the colour of text without a token colour
+        private int lastTokenType = TokenTypes.NULL; // the token type the previous line ended in (e.g. inside a comment)
+        private int[] colors = new int[256]; // the colour of each character of the current line
+
+        // A parameterized constructor to initialize a new colorizer for a syntax style and colour scheme
+        TokenColorizer(String syntaxStyle, SyntaxScheme scheme, Color foreground) {
+            this.tokenMaker = TokenMakerFactory.getDefaultInstance().getTokenMaker(syntaxStyle);
+            this.scheme = scheme;
+            this.foreground = foreground.getRGB() & 0xFFFFFF;
+        }
+
+        // A static method to create a colorizer with the syntax style and colours of a text area (or null if it has no syntax highlighting)
+        static TokenColorizer forTextArea(RSyntaxTextArea textArea) {
+            if (SyntaxConstants.SYNTAX_STYLE_NONE.equals(textArea.getSyntaxEditingStyle())) {
+                return null;
+            }
+            return new TokenColorizer(textArea.getSyntaxEditingStyle(), (SyntaxScheme) textArea.getSyntaxScheme().clone(),
+                    textArea.getForeground());
+        }
+
+        // A method to get the colour of each character of a line (the line must be passed without its line break, in document order)
+        int[] colorLine(Segment line) {
+            if (colors.length < line.count) {
+                colors = new int[Math.max(line.count, colors.length * 2)];
+            }
+            Arrays.fill(colors, 0, line.count, foreground);
+            int type = TokenTypes.NULL;
+            for (Token token = tokenMaker.getTokenList(line, lastTokenType, 0); token != null; token = token.getNextToken()) {
+                type = token.getType();
+                if (token.isPaintable()) {
+                    int start = token.getTextOffset() - line.offset;
+                    Arrays.fill(colors, start, start + token.length(), colorOf(type));
+                }
+            }
+            lastTokenType = type; // The last token tells whether the next line continues inside a token
+            return colors;
+        }
+
+        // A helper method to get the colour of a token type
+        private int colorOf(int type) {
+            Style style = (type >= 0 && type < scheme.getStyleCount()) ? scheme.getStyle(type) : null;
+            return (style != null && style.foreground != null) ? style.foreground.getRGB() & 0xFFFFFF : foreground;
+        }
+    }
+
+    /**
+     * The Line class stores a wrapped line of a page, with the colour runs of its text when it is exported in syntax colours.
+     */
+    static final class Line {
+        private final String text; // the text of the line
+        private final int[] runs; // the end and RGB colour of each run of the same colour, in pairs (or null for plain text)
+
+        // A parameterized constructor to initialize a new line
+        Line(String text, int[] runs) {
+            this.text = text;
+            this.runs = runs;
+        }
+
+        // A getter method to retrieve the text of the line
+        String getText() {
+            return text;
+        }
+
+        // A method to get the number of colour runs of the line (0 for plain text)
+        int getRunCount() {
+            return (runs == null) ? 0 : runs.length / 2;
+        }
+
+        // A method to get the RGB colour of a run of the line
+        int getRunColor(int run) {
+            return runs[2 * run + 1];
+        }
+    }
+
+    /**
+     * The Paginator class reads the lines of a text lazily and splits them into pages of wrapped lines.
+     * A line that is wider than the page is wrapped at its last space (or anywhere if it has none).
+     * With a colorizer, the colour of each character is kept, and each wrapped line gets its runs of the same colour.
+     */
+    static final class Paginator {
+        private final CharSequence text; // the text being exported
+        private final GlyphTable glyphs; // the widths of the characters in the font
+        private final TokenColorizer colorizer; // the colorizer of the syntax colours (or null for plain text)
+        private final float maxWidth; // the maximum width of a line
+        private final int linesPerPage; // the number of lines that fit on a page
+        private final Segment lineText = new Segment(); // the text of the line read, without its line break
+        private char[] line = new char[256]; // the characters of the line read
+        private final BitSet used = new BitSet(); // the characters placed on the pages so far
+        private final ArrayDeque<Line> pending = new ArrayDeque<>(); // the wrapped parts of a line not yet placed on a page
+        private final StringBuilder part = new StringBuilder(); // the part of the current line being wrapped
+        private int[] partColors = new int[256]; // the colour of each character of the part (with a colorizer)
+        private int[] runs = new int[16]; // the runs of the wrapped line being built (with a colorizer)
+        private float partWidth = 0; // the width of the part being wrapped
+        private int lastSpace = -1; // the length of the part up to its last space (or -1 if it has none)
+        private int nextLine = 0; // the offset of the next line of the text to read
+        private boolean lastLineRead = false; // whether the last line (the one without a line break) has been read
+        private boolean started = false; // whether the first page has been returned
+
+        // A parameterized constructor to initialize a new paginator for a text
+        Paginator(CharSequence text, GlyphTable glyphs, TokenColorizer colorizer, float maxWidth, int linesPerPage) {
+            this.text = text;
+            this.glyphs = glyphs;
+            this.colorizer = colorizer;
+            this.maxWidth = maxWidth;
+            this.linesPerPage = linesPerPage;
+        }
+
+        // A method to lay out up to the given number of pages
+        List<List<Line>> nextPages(int maxPages) {
+            List<List<Line>> pages = new ArrayList<>(maxPages);
+            List<Line> page;
+            while (pages.size() < maxPages && (page = nextPage()) != null) {
+                pages.add(page);
+            }
+            return pages;
+        }
+
+        // A method to get the percentage of the text laid out so far
+        int getProgress() {
+            return (int) Math.min(100, (long) nextLine * 100 / Math.max(1, text.length()));
+        }
+
+        // A getter method to retrieve the characters placed on the pages so far
+        BitSet getUsedCharacters() {
+            return used;
+        }
+
+        // A method to get the lines of the next page (or null if every line has been placed)
+        List<Line> nextPage() {
+            List<Line> page = new ArrayList<>(linesPerPage);
+            while (page.size() < linesPerPage) {
+                if (pending.isEmpty()) {
+                    if (lastLineRead) {
+                        break;
+                    }
+                    wrapLine(readLine());
+                }
+                page.add(pending.poll());
+            }
+            // Always return at least one page, even for an empty document
+            if (page.isEmpty() && started) {
+                return null;
+            }
+            started = true;
+            return page;
+        }
+
+        // A helper method to copy the next line of the text (without its line break) into the line array, returning its length
+        private int readLine() {
+            int length = 0;
+            int end = text.length();
+            while (nextLine < end) {
+                char c = text.charAt(nextLine++);
+                if (c == '\n') {
+                    return length;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = c;
+            }
+            lastLineRead = true; // The text ends without a line break, so this is the last line (which may be empty)
+            return length;
+        }
+
+        // A helper method to queue the wrapped parts of the line read
+        private void wrapLine(int length) {
+            // Get the colour of each character of the line from its tokens (the token maker expects the line without its line break)
+            int[] colors = null;
+            if (colorizer != null) {
+                int tokenLength = length;
+                while (tokenLength > 0 && line[tokenLength - 1] == '\r') {
+                    tokenLength--;
+                }
+                lineText.array = line;
+                lineText.offset = 0;
+                lineText.count = tokenLength;
+                colors = colorizer.colorLine(lineText);
+            }
+            part.setLength(0);
+            partWidth = 0;
+            lastSpace = -1;
+            for (int i = 0; i < length; i++) {
+                char c = line[i];
+                if (c == '\r') {
+                    continue;
+                }
+                int color = (colors != null) ? colors[i] : 0;
+                if (c == '\t') {
+                    // Expand a tab to the next tab stop, as the font has no glyph for it
+                    int spaces = TAB_SIZE - part.length() % TAB_SIZE;
+                    for (int s = 0; s < spaces; s++) {
+                        place(' ', color);
+                    }
+                } else {
+                    place((glyphs.width(c) < 0) ? '?' : c, color); // Replace a character the font cannot encode
+                }
+            }
+            pending.add(cutLine(part.length()));
+        }
+
+        // A helper method to add a character to the current part of a line, wrapping the part first if the character does not fit
+        private void place(char c, int color) {
+            float width = glyphs.width(c);
+            if (partWidth + width > maxWidth && part.length() > 0) {
+                // Break after the last space of the part if it has one, otherwise break right before the character
+                int breakAt = (lastSpace > 0) ? lastSpace : part.length();
+                pending.add(cutLine(breakAt));
+                partWidth = 0;
+                for (int i = 0; i < part.length(); i++) {
+                    partWidth += glyphs.width(part.charAt(i));
+                }
+                lastSpace = -1;
+            }
+            if (colorizer != null) {
+                if (part.length() == partColors.length) {
+                    partColors = Arrays.copyOf(partColors, partColors.length * 2);
+                }
+                partColors[part.length()] = color;
+            }
+            part.append(c);
+            used.set(c);
+            partWidth += width;
+            if (c == ' ') {
+                lastSpace = part.length();
+            }
+        }
+
+        // A helper method to remove the first characters of the part as a wrapped line, merging them into runs of the same colour
+        private Line cutLine(int length) {
+            String text = part.substring(0, length);
+            int[] lineRuns = null;
+            if (colorizer != null) {
+                int runCount = 0;
+                for (int i = 0; i < length; i++) {
+                    // A space takes the colour of the run before it, so that whitespace between tokens does not split a run
+                    boolean sameColor = runCount > 0 && (text.charAt(i) == ' ' || partColors[i] == runs[2 * runCount - 1]);
+                    if (!sameColor) {
+                        if (2 * runCount == runs.length) {
+                            runs = Arrays.copyOf(runs, runs.length * 2);
+                        }
+                        runs[2 * runCount + 1] = partColors[i];
+                        runCount++;
+                    }
+                    runs[2 * runCount - 2] = i + 1;
+                }
+                lineRuns = Arrays.copyOf(runs, 2 * runCount);
+                System.arraycopy(partColors, length, partColors, 0, part.length() - length);
+            }
+            part.delete(0, length);
+            return new Line(text, lineRuns);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+// Import necessary packages/classes
+import java.util.LinkedHashMap; // to keep the patterns in least recently used order
+import java.util.Map; // to work with maps
+import java.util.regex.Pattern; // to compile regular expression patterns
+
+/**
+ * The PatternCache class is a bounded cache of compiled regular expression patterns.
+ * Compiling a pattern is much more expensive than matching a short document, and incremental searches compile the same
+ * patterns again and again, so the most recently used patterns are kept and the least recently used one is evicted when full.
+ * The cache is shared by the search threads, so its methods are synchronized.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-12
+ */
+
+public class PatternCache {
+
+    // === ATTRIBUTES ===
+    private final Map<String, Pattern> patterns; // the cached patterns, keyed by their flags and regular expression
+    private long hits = 0; // the number of lookups answered from the cache
+    private long misses = 0; // the number of lookups that compiled a new pattern
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new cache holding at most the given number of patterns
+    public PatternCache(int capacity) {
+        // Use an access-ordered map, which evicts the least recently used pattern once the capacity is exceeded
+        this.patterns = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // === METHODS ===
+
+    // A method to get the compiled pattern of a regular expression, compiling and caching it if needed
+    public synchronized Pattern get(String regex, int flags) {
+        String key = flags + ":" + regex;
+        Pattern pattern = patterns.get(key);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex, flags); // Invalid expressions throw a PatternSyntaxException and are not cached
+            patterns.put(key, pattern);
+            misses++;
+        } else {
+            hits++;
+        }
+        return pattern;
+    }
+
+    // A getter method to retrieve the number of patterns in the cache
+    public synchronized int size() {
+        return patterns.size();
+    }
+
+    // A getter method to retrieve the number of lookups answered from the cache
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    // A getter method to retrieve the number of lookups that compiled a new pattern
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
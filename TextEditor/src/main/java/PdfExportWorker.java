@@ -0,0 +1,99 @@
+// Import Java Swing classes for background work
+import javax.swing.JOptionPane; // to display dialog messages
+import javax.swing.SwingWorker; // to export the document on a background thread
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Document; // to copy the text of the exported document
+import javax.swing.text.Segment; // to read the text of the document without an intermediate string
+// Import other necessary packages/classes
+import java.awt.Window; // to own the progress dialog
+import java.io.File; // to work with the exported file
+import java.nio.CharBuffer; // to write the copied text without another copy
+import java.util.Arrays; // to copy the text of the document
+import java.util.concurrent.CancellationException; // to handle a cancelled worker
+import java.util.concurrent.ExecutionException; // to handle an exception thrown by the worker
+
+/**
+ * The PdfExportWorker class exports the document of the text area to a PDF file on a background thread.
+ * The file is written by the codec of PDF files (as the batch mode writes it) in the font (and optionally the syntax colours) of the text area,
+ * while a progress dialog with a Cancel button is shown; the progress and the cancellation are passed to the codec in its WriteOptions.
+ * The text is copied under the read lock of the document when the export starts (a single array copy), and the pages are laid out from
+ * that copy, so the text area stays editable and later edits (typed, or inserted by the 'Time/Date' action) never change the exported
+ * document. Several exports can run at the same time.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-14
+ */
+
+public class PdfExportWorker extends SwingWorker<Void, Void> {
+
+    // === ATTRIBUTES ===
+    private final FileHandler fileHandler; // the file handler of the text area being exported
+    private final File file; // the PDF file to write
+    private final WriteOptions options = new WriteOptions(); // the font, colours, progress, and cancellation of the export
+    private final char[] text; // the text of the document when the export started
+    private final ProgressDialog progressDialog; // the dialog showing the progress of the worker
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new worker that exports the text area of a file handler to a PDF file (optionally in syntax colours)
+    public PdfExportWorker(FileHandler fileHandler, File file, boolean syntaxColors, Window owner) {
+        this.fileHandler = fileHandler;
+        this.file = file;
+        options.setFontFamily(fileHandler.getTextArea().getFont().getName());
+        options.setColorizer(syntaxColors ? PDFExporter.TokenColorizer.forTextArea(fileHandler.getTextArea()) : null);
+        options.setCancelled(this::isCancelled);
+        options.setProgress(this::setProgress);
+        this.text = copyText(fileHandler.getTextArea().getDocument());
+        this.progressDialog = new ProgressDialog(owner, "Export", "Exporting " + file.getName() + "...", () -> cancel(true));
+        // Update the progress bar whenever the progress of the worker changes
+        addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressDialog.setProgress((Integer) e.getNewValue());
+            }
+        });
+        progressDialog.start();
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A method to write the PDF file on a background thread with the codec of PDF files
+    @Override
+    protected Void doInBackground() throws Exception {
+        CodecRegistry.getDefault().forExtension("pdf").getWriter().write(CharBuffer.wrap(text), file.toPath(), options);
+        return null;
+    }
+
+    // A static method to copy the text of a document under its read lock, without building an intermediate string
+    static char[] copyText(Document document) {
+        char[][] text = new char[1][];
+        document.render(() -> {
+            Segment segment = new Segment();
+            try {
+                document.getText(0, document.getLength(), segment);
+            } catch (BadLocationException e) {
+                throw new IllegalStateException(e); // Not reached, as the whole length is read under the lock
+            }
+            text[0] = Arrays.copyOfRange(segment.array, segment.offset, segment.offset + segment.count);
+        });
+        return text[0];
+    }
+
+    // A method to show the outcome of the export on the Event Dispatch Thread
+    @Override
+    protected void done() {
+        progressDialog.finish();
+        try {
+            get();
+            fileHandler.handleMessage("File exported successfully", "Success", JOptionPane.INFORMATION_MESSAGE, null);
+        } catch (CancellationException e) {
+            // The export was cancelled by the user, so there is nothing to show
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            fileHandler.handleMessage("Error exporting file: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE,
+                    (cause instanceof Exception) ? (Exception) cause : e);
+        }
+    }
+}
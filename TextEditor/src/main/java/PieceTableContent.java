@@ -0,0 +1,658 @@
+// Import Java Swing classes for the document model
+import javax.swing.text.AbstractDocument; // to implement the content of a document
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Element; // to build the line map of a loaded document
+import javax.swing.text.PlainDocument; // to create a document backed by the piece table
+import javax.swing.text.Position; // to track offsets that move as the text is edited
+import javax.swing.text.Segment; // to return the text without copying it
+import javax.swing.undo.AbstractUndoableEdit; // to undo and redo the edits
+import javax.swing.undo.CannotRedoException; // to report an edit that cannot be redone
+import javax.swing.undo.CannotUndoException; // to report an edit that cannot be undone
+import javax.swing.undo.UndoableEdit; // to return the undoable edits
+// Import other necessary packages/classes
+import java.lang.ref.ReferenceQueue; // to find the positions that are no longer used
+import java.lang.ref.WeakReference; // to let unused positions be garbage collected
+import java.util.ArrayList; // to collect the lines of a loaded document
+import java.util.List; // to work with lists
+import java.util.SplittableRandom; // to choose the priorities of the tree nodes
+
+/**
+ * The PieceTableContent class stores the text of a document as a piece table, as an alternative to the default gap buffer.
+ * The text is a sequence of pieces, each a range of either the original characters (which are shared, never copied) or the
+ * characters added since, held in a randomized balanced tree (a treap) keyed by length. Inserts and removes split and join the
+ * tree in O(log n) wherever they happen, so edits far apart in a very large file never move the rest of the text.
+ * Positions are kept in a second tree whose offsets are shifted lazily, so updating them is O(log n) as well.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-18
+ */
+
+public class PieceTableContent implements AbstractDocument.Content {
+
+    // === CONSTANTS ===
+    public static final int SIZE_THRESHOLD = 4 * 1024 * 1024; // the number of characters from which a piece table is used
+    private static final int INITIAL_ADDED_CAPACITY = 1024; // the initial capacity of the buffer of added characters
+
+    // === ATTRIBUTES ===
+    private final char[] original; // the original characters (shared with the caller, never modified)
+    private char[] added = new char[INITIAL_ADDED_CAPACITY]; // the characters added since, in the order they were added
+    private int addedLength; // the number of characters in the added buffer
+    private Piece root; // the root of the tree of pieces
+    private Piece splitLeft; // the left tree of the last split of the pieces
+    private Piece splitRight; // the right tree of the last split of the pieces
+    private Mark markRoot; // the root of the tree of positions
+    private Mark markLeft; // the left tree of the last split of the positions
+    private Mark markRight; // the right tree of the last split of the positions
+    private final ReferenceQueue<Position> unusedPositions = new ReferenceQueue<>(); // the positions garbage collected
+    private final SplittableRandom random = new SplittableRandom(); // the source of the priorities of the tree nodes
+
+    // === CONSTRUCTORS ===
+
+    // A non-parameterized constructor to initialize a new empty content
+    public PieceTableContent() {
+        this(new char[0], 0);
+    }
+
+    // A parameterized constructor to initialize a new content holding the first 'length' characters of an array (without copying them)
+    public PieceTableContent(char[] original, int length) {
+        this.original = original;
+        // End the content with the implied newline of a document, as the default gap buffer does
+        added[0] = '\n';
+        addedLength = 1;
+        Piece text = (length > 0) ? new Piece(false, 0, length, random.nextInt()) : null;
+        root = merge(text, new Piece(true, 0, 1, random.nextInt()));
+    }
+
+    // === METHODS ===
+
+    // A static method to create a plain document holding the first 'length' characters of an array, sharing them with a piece table
+    public static PlainDocument createDocument(char[] chars, int length) {
+        return new LoadedDocument(new PieceTableContent(chars, length));
+    }
+
+    // A method to get the length of the content (including the implied newline at the end)
+    @Override
+    public int length() {
+        return size(root);
+    }
+
+    // A method to insert a string at an offset, appending its characters to the added buffer
+    @Override
+    public UndoableEdit insertString(int where, String str) throws BadLocationException {
+        if (where > length() || where < 0) {
+            throw new BadLocationException("Invalid insert", length());
+        }
+        int length = str.length();
+        if (length == 0) {
+            return null;
+        }
+        int start = append(str);
+        split(root, where);
+        Piece left = splitLeft;
+        Piece right = splitRight;
+        // Extend the piece before the insert if its characters end where the new ones start (e.g. when typing)
+        if (!extendLast(left, start, length)) {
+            left = merge(left, new Piece(true, start, length, random.nextInt()));
+        }
+        root = merge(left, right);
+        updateMarksForInsert(where, length);
+        return new InsertUndo(where, length);
+    }
+
+    // A method to remove a range of characters, keeping a copy of them to undo the remove
+    @Override
+    public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+        if (where < 0 || nitems < 0 || where + nitems >= length()) {
+            throw new BadLocationException("Invalid remove", length() + 1);
+        }
+        String removed = getString(where, nitems);
+        split(root, where);
+        Piece left = splitLeft;
+        split(splitRight, nitems);
+        root = merge(left, splitRight);
+        updateMarksForRemove(where, nitems);
+        return new RemoveUndo(where, removed);
+    }
+
+    // A method to get a range of characters as a string
+    @Override
+    public String getString(int where, int len) throws BadLocationException {
+        Segment segment = new Segment();
+        getChars(where, len, segment);
+        return new String(segment.array, segment.offset, segment.count);
+    }
+
+    // A method to get a range of characters, returning them in place if they are in one piece (or if a partial return is allowed)
+    @Override
+    public void getChars(int where, int len, Segment txt) throws BadLocationException {
+        if (where < 0 || len < 0 || where + len > length()) {
+            throw new BadLocationException("Invalid location", length() + 1);
+        }
+        if (len == 0) {
+            txt.array = added;
+            txt.offset = 0;
+            txt.count = 0;
+            return;
+        }
+        // Find the piece holding the first character
+        Piece piece = root;
+        int offset = where;
+        while (true) {
+            int leftSize = size(piece.left);
+            if (offset < leftSize) {
+                piece = piece.left;
+            } else if (offset < leftSize + piece.length) {
+                offset -= leftSize;
+                break;
+            } else {
+                offset -= leftSize + piece.length;
+                piece = piece.right;
+            }
+        }
+        int available = piece.length - offset;
+        if (len <= available || txt.isPartialReturn()) {
+            txt.array = getBuffer(piece);
+            txt.offset = piece.start + offset;
+            txt.count = Math.min(len, available);
+            return;
+        }
+        // Otherwise copy the characters of each piece in the range into a new array
+        char[] chars = new char[len];
+        int copied = 0;
+        Segment part = new Segment();
+        part.setPartialReturn(true);
+        while (copied < len) {
+            getChars(where + copied, len - copied, part);
+            System.arraycopy(part.array, part.offset, chars, copied, part.count);
+            copied += part.count;
+        }
+        txt.array = chars;
+        txt.offset = 0;
+        txt.count = len;
+    }
+
+    // A method to create a position that follows the edits made before it
+    @Override
+    public synchronized Position createPosition(int offset) throws BadLocationException {
+        if (offset < 0 || offset > length()) {
+            throw new BadLocationException("Invalid position", offset);
+        }
+        removeUnusedMarks();
+        Mark mark = new Mark(offset, random.nextInt());
+        splitMarks(markRoot, offset);
+        markRoot = detach(mergeMarks(mergeMarks(markLeft, mark), markRight));
+        MarkPosition position = new MarkPosition(mark);
+        mark.reference = new MarkReference(position, mark, unusedPositions);
+        return position;
+    }
+
+    // A method to get the number of pieces the text is stored in (e.g. to measure how fragmented it has become)
+    public int getPieceCount() {
+        return count(root);
+    }
+
+    // A helper method to append characters to the added buffer, returning the offset they start at
+    private int append(String str) {
+        int length = str.length();
+        if (addedLength + length > added.length) {
+            // Grow the buffer into a new array, leaving the old array (possibly returned in a Segment) unchanged
+            char[] grown = new char[Math.max(added.length * 2, addedLength + length)];
+            System.arraycopy(added, 0, grown, 0, addedLength);
+            added = grown;
+        }
+        str.getChars(0, length, added, addedLength);
+        addedLength += length;
+        return addedLength - length;
+    }
+
+    // A helper method to extend the last piece of a tree if it ends at the given offset of the added buffer
+    private boolean extendLast(Piece node, int start, int length) {
+        if (node == null) {
+            return false;
+        }
+        Piece last = node;
+        while (last.right != null) {
+            last = last.right;
+        }
+        if (!last.added || last.start + last.length != start) {
+            return false;
+        }
+        last.length += length;
+        for (Piece piece = node; piece != null; piece = piece.right) {
+            piece.size += length;
+        }
+        return true;
+    }
+
+    // A helper method to split a tree of pieces at an offset into 'splitLeft' and 'splitRight', splitting a piece if needed
+    private void split(Piece node, int offset) {
+        if (node == null) {
+            splitLeft = null;
+            splitRight = null;
+            return;
+        }
+        int leftSize = size(node.left);
+        if (offset <= leftSize) {
+            split(node.left, offset);
+            node.left = splitRight;
+            update(node);
+            splitRight = node;
+        } else if (offset >= leftSize + node.length) {
+            split(node.right, offset - leftSize - node.length);
+            node.right = splitLeft;
+            update(node);
+            splitLeft = node;
+        } else {
+            // Cut the piece in two: the tail keeps the priority of the piece, so it stays above the pieces after it
+            int cut = offset - leftSize;
+            Piece tail = new Piece(node.added, node.start + cut, node.length - cut, node.priority);
+            tail.right = node.right;
+            node.right = null;
+            node.length = cut;
+            update(tail);
+            update(node);
+            splitLeft = node;
+            splitRight = tail;
+        }
+    }
+
+    // A helper method to join two trees of pieces, keeping the pieces of the first before those of the second
+    private static Piece merge(Piece left, Piece right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    // A helper method to get the buffer holding the characters of a piece
+    private char[] getBuffer(Piece piece) {
+        return piece.added ? added : original;
+    }
+
+    // A helper method to shift the positions at or after an insert (a position at offset 0 stays at the start)
+    private synchronized void updateMarksForInsert(int where, int length) {
+        splitMarks(markRoot, Math.max(where, 1));
+        applyTag(markRight, 1, length);
+        markRoot = detach(mergeMarks(markLeft, markRight));
+    }
+
+    // A helper method to move the positions inside a removed range to its start, and shift the positions after it
+    private synchronized void updateMarksForRemove(int where, int length) {
+        splitMarks(markRoot, where);
+        Mark left = markLeft;
+        splitMarks(markRight, where + length);
+        applyTag(markLeft, 0, where);
+        applyTag(markRight, 1, -length);
+        markRoot = detach(mergeMarks(mergeMarks(left, markLeft), markRight));
+    }
+
+    // A helper method to get the current offset of a position, applying the shifts still pending on the nodes above it
+    private synchronized int getOffset(Mark mark) {
+        int offset = mark.offset;
+        for (Mark node = mark.parent; node != null; node = node.parent) {
+            offset = node.scale * offset + node.shift;
+        }
+        return offset;
+    }
+
+    // A helper method to remove the positions that have been garbage collected from the tree
+    private void removeUnusedMarks() {
+        MarkReference reference;
+        while ((reference = (MarkReference) unusedPositions.poll()) != null) {
+            Mark mark = reference.mark;
+            // Apply the shifts pending above the position first, so that no shift is lost when its children move up
+            pushPath(mark);
+            Mark replacement = mergeMarks(mark.left, mark.right);
+            Mark parent = mark.parent;
+            if (replacement != null) {
+                replacement.parent = parent;
+            }
+            if (parent == null) {
+                markRoot = replacement;
+            } else if (parent.left == mark) {
+                parent.left = replacement;
+            } else {
+                parent.right = replacement;
+            }
+        }
+    }
+
+    // A helper method to apply the pending shifts on the path from the root down to a position
+    private static void pushPath(Mark mark) {
+        if (mark.parent != null) {
+            pushPath(mark.parent);
+        }
+        pushDown(mark);
+    }
+
+    // A helper method to split the tree of positions into those before an offset ('markLeft') and the others ('markRight')
+    private void splitMarks(Mark node, int offset) {
+        if (node == null) {
+            markLeft = null;
+            markRight = null;
+            return;
+        }
+        pushDown(node);
+        if (node.offset < offset) {
+            splitMarks(node.right, offset);
+            node.right = markLeft;
+            setParent(markLeft, node);
+            markLeft = detach(node);
+            setParent(markRight, null);
+        } else {
+            splitMarks(node.left, offset);
+            node.left = markRight;
+            setParent(markRight, node);
+            markRight = detach(node);
+            setParent(markLeft, null);
+        }
+    }
+
+    // A helper method to join two trees of positions, keeping the positions of the first before those of the second
+    private static Mark mergeMarks(Mark left, Mark right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            pushDown(left);
+            left.right = mergeMarks(left.right, right);
+            left.right.parent = left;
+            return left;
+        }
+        pushDown(right);
+        right.left = mergeMarks(left, right.left);
+        right.left.parent = right;
+        return right;
+    }
+
+    // A helper method to map the offsets of every position in a tree to 'scale * offset + shift' (applied lazily to its children)
+    private static void applyTag(Mark node, int scale, int shift) {
+        if (node != null) {
+            node.offset = scale * node.offset + shift;
+            node.shift = scale * node.shift + shift;
+            node.scale *= scale;
+        }
+    }
+
+    // A helper method to pass the pending shift of a position on to its children
+    private static void pushDown(Mark node) {
+        if (node.scale != 1 || node.shift != 0) {
+            applyTag(node.left, node.scale, node.shift);
+            applyTag(node.right, node.scale, node.shift);
+            node.scale = 1;
+            node.shift = 0;
+        }
+    }
+
+    // A helper method to set the parent of a position (if there is one)
+    private static void setParent(Mark node, Mark parent) {
+        if (node != null) {
+            node.parent = parent;
+        }
+    }
+
+    // A helper method to make a position the root of its own tree
+    private static Mark detach(Mark node) {
+        setParent(node, null);
+        return node;
+    }
+
+    // A helper method to get the number of characters in a tree of pieces
+    private static int size(Piece node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    // A helper method to count the pieces in a tree
+    private static int count(Piece node) {
+        return (node == null) ? 0 : count(node.left) + 1 + count(node.right);
+    }
+
+    // A helper method to update the number of characters in a tree of pieces after its children changed
+    private static void update(Piece node) {
+        node.size = size(node.left) + node.length + size(node.right);
+    }
+
+    /**
+     * The Piece class holds a range of the original or the added characters, as a node of the tree of pieces.
+     */
+    private static final class Piece {
+
+        // === ATTRIBUTES ===
+        private final boolean added; // whether the characters are in the added buffer (rather than the original one)
+        private final int start; // the offset of the characters in their buffer
+        private final int priority; // the random priority of the node (higher nodes have higher priorities)
+        private int length; // the number of characters of the piece
+        private int size; // the number of characters of the pieces in the tree below this node (including this one)
+        private Piece left; // the tree of the pieces before this one
+        private Piece right; // the tree of the pieces after this one
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new piece of a buffer
+        private Piece(boolean added, int start, int length, int priority) {
+            this.added = added;
+            this.start = start;
+            this.length = length;
+            this.size = length;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * The Mark class holds the offset of a position, as a node of the tree of positions.
+     * A shift that applies to the whole tree below the node is stored on the node and passed on to its children lazily.
+     */
+    private static final class Mark {
+
+        // === ATTRIBUTES ===
+        private final int priority; // the random priority of the node (higher nodes have higher priorities)
+        private int offset; // the offset of the position (excluding the shifts pending on the nodes above it)
+        private int scale = 1; // the pending scale of the offsets below this node (0 to move them all to the same offset)
+        private int shift; // the pending shift of the offsets below this node
+        private Mark left; // the tree of the positions before this one
+        private Mark right; // the tree of the positions after this one
+        private Mark parent; // the node above this one (or null if it is the root)
+        private MarkReference reference; // the weak reference to the position, kept so that it is enqueued once unused
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new mark at an offset
+        private Mark(int offset, int priority) {
+            this.offset = offset;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * The MarkReference class refers weakly to a position, so that its mark can be removed once the position is no longer used.
+     */
+    private static final class MarkReference extends WeakReference<Position> {
+
+        // === ATTRIBUTES ===
+        private final Mark mark; // the mark of the position
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new reference to a position
+        private MarkReference(Position position, Mark mark, ReferenceQueue<Position> queue) {
+            super(position, queue);
+            this.mark = mark;
+        }
+    }
+
+    /**
+     * The MarkPosition class is a position in the content, whose offset is read from its mark.
+     */
+    private final class MarkPosition implements Position {
+
+        // === ATTRIBUTES ===
+        private final Mark mark; // the mark of the position
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new position for a mark
+        private MarkPosition(Mark mark) {
+            this.mark = mark;
+        }
+
+        // === METHODS ===
+
+        // A method to get the current offset of the position
+        @Override
+        public int getOffset() {
+            return PieceTableContent.this.getOffset(mark);
+        }
+
+        // A method to describe the position (e.g. when debugging)
+        @Override
+        public String toString() {
+            return Integer.toString(getOffset());
+        }
+    }
+
+    /**
+     * The InsertUndo class undoes an insert by removing the inserted characters again.
+     */
+    private final class InsertUndo extends AbstractUndoableEdit {
+
+        // === ATTRIBUTES ===
+        private final int offset; // the offset of the insert
+        private final int length; // the number of characters inserted
+        private String text; // the characters removed when the insert was undone
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new undoable insert
+        private InsertUndo(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        // === METHODS ===
+
+        // A method to undo the insert
+        @Override
+        public void undo() {
+            super.undo();
+            try {
+                text = getString(offset, length);
+                remove(offset, length);
+            } catch (BadLocationException e) {
+                throw new CannotUndoException();
+            }
+        }
+
+        // A method to redo the insert
+        @Override
+        public void redo() {
+            super.redo();
+            try {
+                insertString(offset, text);
+            } catch (BadLocationException e) {
+                throw new CannotRedoException();
+            }
+        }
+    }
+
+    /**
+     * The RemoveUndo class undoes a remove by inserting the removed characters again.
+     */
+    private final class RemoveUndo extends AbstractUndoableEdit {
+
+        // === ATTRIBUTES ===
+        private final int offset; // the offset of the remove
+        private final String text; // the characters removed
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new undoable remove
+        private RemoveUndo(int offset, String text) {
+            this.offset = offset;
+            this.text = text;
+        }
+
+        // === METHODS ===
+
+        // A method to undo the remove
+        @Override
+        public void undo() {
+            super.undo();
+            try {
+                insertString(offset, text);
+            } catch (BadLocationException e) {
+                throw new CannotUndoException();
+            }
+        }
+
+        // A method to redo the remove
+        @Override
+        public void redo() {
+            super.redo();
+            try {
+                remove(offset, text.length());
+            } catch (BadLocationException e) {
+                throw new CannotRedoException();
+            }
+        }
+    }
+
+    /**
+     * The LoadedDocument class is a plain document created around a content that already holds text.
+     * Its line map is built once from the shared characters, instead of inserting (and so copying) the text.
+     */
+    private static final class LoadedDocument extends PlainDocument {
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new document around a content that already holds text
+        private LoadedDocument(PieceTableContent content) {
+            super(content);
+            writeLock();
+            try {
+                buildLineMap(content);
+            } catch (BadLocationException e) {
+                throw new IllegalStateException(e); // Not reached, as only the text of the content is read
+            } finally {
+                writeUnlock();
+            }
+        }
+
+        // === METHODS ===
+
+        // A helper method to replace the single line of a new document with one line element per line of the content
+        private void buildLineMap(PieceTableContent content) throws BadLocationException {
+            BranchElement lineMap = (BranchElement) getDefaultRootElement();
+            List<Element> lines = new ArrayList<>();
+            Segment segment = new Segment();
+            segment.setPartialReturn(true);
+            int length = content.length();
+            int lineStart = 0;
+            int offset = 0;
+            while (offset < length) {
+                content.getChars(offset, length - offset, segment);
+                for (int i = 0; i < segment.count; i++) {
+                    if (segment.array[segment.offset + i] == '\n') {
+                        lines.add(createLeafElement(lineMap, null, lineStart, offset + i + 1));
+                        lineStart = offset + i + 1;
+                    }
+                }
+                offset += segment.count;
+            }
+            lineMap.replace(0, lineMap.getElementCount(), lines.toArray(new Element[0]));
+        }
+    }
+}
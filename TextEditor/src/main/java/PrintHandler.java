@@ -28,8 +28,11 @@ public class PrintHandler {
     // A method to handle the print operation
     public void print() {
         // Use a try-catch block to handle the print operation and any exceptions that may occur
+        EditorMetrics.PrintEvent event = EditorMetrics.PrintEvent.start(textArea.getDocument().getLength());
         try {
             boolean complete = textArea.print(); // To verify if the printing successfully completed
+            event.completed = complete;
+            event.finish(); // Record the printing before the message dialog, which waits for the user
             // Show a message dialog based on the printing status outcome
             if (complete) {
                 JOptionPane.showMessageDialog(null, "Printing Complete", "Print", JOptionPane.INFORMATION_MESSAGE);
@@ -37,6 +40,7 @@ public class PrintHandler {
                 JOptionPane.showMessageDialog(null, "Printing Cancelled", "Print", JOptionPane.INFORMATION_MESSAGE);
             }
         } catch (PrinterException e) {
+            event.finish();
             JOptionPane.showMessageDialog(null, "Printing Failed: " + e.getMessage(), "Print", JOptionPane.ERROR_MESSAGE);
         }
     }
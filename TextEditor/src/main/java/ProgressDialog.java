@@ -0,0 +1,71 @@
+// Import Java Swing classes to create the GUI
+import javax.swing.*; // to work with Swing components
+// Import Java AWT classes for layouts
+import java.awt.*; // to work with layouts and windows
+
+/**
+ * The ProgressDialog class displays the progress of a long-running background operation (e.g. opening a large file).
+ * The dialog is modeless, so the editor stays responsive, and provides a Cancel button to stop the operation.
+ * To avoid flickering on fast operations, the dialog is only shown if the operation is still running after a short delay.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-03
+ */
+
+public class ProgressDialog extends JDialog {
+
+    // === CONSTANTS ===
+    private static final int SHOW_DELAY_MS = 300; // the delay before the dialog is shown, in milliseconds
+
+    // === ATTRIBUTES ===
+    private final JProgressBar progressBar = new JProgressBar(0, 100); // a progress bar to show the percentage completed
+    private final Timer showTimer; // a timer to show the dialog after a short delay
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to initialize a new progress dialog with a message and an action to run when cancelled
+    public ProgressDialog(Window owner, String title, String message, Runnable cancelAction) {
+        super(owner, title, ModalityType.MODELESS);
+        setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+
+        // Create the panel with the message, the progress bar, and the Cancel button
+        JPanel panel = new JPanel(new BorderLayout(8, 8));
+        panel.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+        panel.add(new JLabel(message), BorderLayout.NORTH);
+        progressBar.setIndeterminate(true); // Show an indeterminate progress until the first update
+        panel.add(progressBar, BorderLayout.CENTER);
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> cancelAction.run());
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(cancelButton);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        add(panel);
+        pack();
+        setSize(Math.max(getWidth(), 360), getHeight());
+        setLocationRelativeTo(owner);
+
+        // Only show the dialog if the operation has not finished after a short delay
+        showTimer = new Timer(SHOW_DELAY_MS, e -> setVisible(true));
+        showTimer.setRepeats(false);
+    } // end of constructor
+
+    // === METHODS ===
+
+    // A method to start the timer that shows the dialog
+    public void start() {
+        showTimer.start();
+    }
+
+    // A method to update the percentage shown by the progress bar
+    public void setProgress(int percent) {
+        progressBar.setIndeterminate(false);
+        progressBar.setValue(percent);
+    }
+
+    // A method to stop the timer and close the dialog once the operation has finished
+    public void finish() {
+        showTimer.stop();
+        dispose();
+    }
+}
@@ -0,0 +1,336 @@
+// Import Java Swing classes for the document model
+import javax.swing.text.Document; // to append the text to a document
+// Import other necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read the RTF file
+import java.nio.ByteBuffer; // to decode the bytes of hexadecimal escapes
+import java.nio.CharBuffer; // to receive the decoded characters
+import java.nio.charset.CharacterCodingException; // to handle bytes that cannot be decoded
+import java.nio.charset.Charset; // to decode the code page of the file
+import java.nio.charset.CharsetDecoder; // to decode the code page of the file
+import java.nio.charset.CodingErrorAction; // to replace bytes the code page cannot decode
+import java.util.Arrays; // to grow the state of nested groups
+import java.util.Map; // to map the control words to the characters they stand for
+import java.util.Set; // to store the destinations that are not part of the text
+
+/**
+ * The RtfTextReader class extracts the plain text of an RTF file with a streaming tokenizer, without any Swing components.
+ * It reads the control words, control symbols, and groups of the file in a single pass, skipping the destinations that are not
+ * part of the text (e.g. the font table or pictures), decoding unicode and hexadecimal escapes, and writing the text in chunks
+ * straight into a TextSink (e.g. a document).
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-15
+ */
+
+public class RtfTextReader {
+
+    // === CONSTANTS ===
+    private static final int READ_BUFFER_SIZE = 64 * 1024; // the number of bytes read from the stream at a time
+    private static final int CHUNK_SIZE = 64 * 1024; // the number of characters written to the document at a time
+    private static final int MAX_WORD_LENGTH = 32; // the maximum length of a control word kept (longer names are truncated)
+    // The destinations whose groups hold no text of the document
+    private static final Set<String> SKIPPED_DESTINATIONS = Set.of("fonttbl", "colortbl", "stylesheet", "info", "pict", "object",
+            "header", "headerl", "headerr", "headerf", "footer", "footerl", "footerr", "footerf", "footnote", "annotation",
+            "fldinst", "themedata", "colorschememapping", "datastore", "latentstyles", "listtable", "listoverridetable",
+            "rsidtbl", "generator", "xmlnstbl", "filetbl", "revtbl", "pgdsctbl", "listtext", "pntext", "nonshppict", "bkmkstart", "bkmkend");
+    // The control words that stand for a single character of text
+    private static final Map<String, Character> SPECIAL_CHARACTERS = Map.ofEntries(
+            Map.entry("par", '\n'), Map.entry("line", '\n'), Map.entry("sect", '\n'), Map.entry("row", '\n'),
+            Map.entry("tab", '\t'), Map.entry("cell", '\t'), Map.entry("emdash", '—'), Map.entry("endash", '–'),
+            Map.entry("bullet", '•'), Map.entry("lquote", '‘'), Map.entry("rquote", '’'),
+            Map.entry("ldblquote", '“'), Map.entry("rdblquote", '”'), Map.entry("emspace", ' '), Map.entry("enspace", ' '),
+            Map.entry("qmspace", ' '));
+
+    // === ATTRIBUTES ===
+    private final InputStream inputStream; // the stream of the RTF file
+    private final TextSink sink; // the target of the extracted text
+    private final byte[] buffer = new byte[READ_BUFFER_SIZE]; // the bytes read from the stream
+    private int position = 0; // the position of the next byte in the buffer
+    private int limit = 0; // the number of bytes in the buffer
+    private final char[] chunk = new char[CHUNK_SIZE]; // the text extracted but not yet written to the sink
+    private int chunkLength = 0; // the number of characters in the chunk
+    private final StringBuilder word = new StringBuilder(MAX_WORD_LENGTH); // the name of the control word being read
+    private byte[] pendingBytes = new byte[16]; // the bytes of hexadecimal escapes waiting to be decoded together
+    private int pendingCount = 0; // the number of pending bytes
+    private CharsetDecoder decoder = createDecoder(Charset.forName("windows-1252")); // the decoder of the code page of the file
+    private boolean[] skipped = new boolean[32]; // whether the text of each open group is skipped
+    private int[] unicodeSkip = new int[32]; // the number of fallback characters after a unicode escape in each open group
+    private int depth = 0; // the number of open groups
+    private int fallbackToSkip = 0; // the number of fallback characters still to skip after a unicode escape
+    private boolean ignorable = false; // whether the next destination was marked with \* (and is skipped if unknown)
+
+    // === CONSTRUCTORS ===
+
+    // A private constructor to initialize a new reader of a stream into a sink
+    private RtfTextReader(InputStream inputStream, TextSink sink) {
+        this.inputStream = inputStream;
+        this.sink = sink;
+        unicodeSkip[0] = 1;
+    }
+
+    // === METHODS ===
+
+    // A static method to read the text of an RTF file and append it to a document
+    public static void read(InputStream inputStream, Document document) throws IOException {
+        read(inputStream, TextSink.toDocument(document));
+    }
+
+    // A static method to read the text of an RTF file into a sink
+    public static void read(InputStream inputStream, TextSink sink) throws IOException {
+        new RtfTextReader(inputStream, sink).parse();
+    }
+
+    // A static method to extract the text of an RTF file as a string
+    public static String extractText(InputStream inputStream) throws IOException {
+        StringBuilder text = new StringBuilder();
+        read(inputStream, TextSink.toBuilder(text));
+        return text.toString();
+    }
+
+    // A helper method to read the whole stream, writing the text of the document to the sink
+    private void parse() throws IOException {
+        int b;
+        while ((b = next()) >= 0) {
+            switch (b) {
+                case '{' -> openGroup();
+                case '}' -> closeGroup();
+                case '\\' -> readControl();
+                case '\r', '\n' -> { } // Line breaks in the file are not part of the text
+                default -> text(b);
+            }
+        }
+        flushBytes();
+        flushChunk();
+    }
+
+    // A helper method to open a group, which starts with the state of the group around it
+    private void openGroup() throws IOException {
+        flushBytes();
+        fallbackToSkip = 0;
+        if (depth + 1 == skipped.length) {
+            skipped = Arrays.copyOf(skipped, skipped.length * 2);
+            unicodeSkip = Arrays.copyOf(unicodeSkip, unicodeSkip.length * 2);
+        }
+        skipped[depth + 1] = skipped[depth];
+        unicodeSkip[depth + 1] = unicodeSkip[depth];
+        depth++;
+    }
+
+    // A helper method to close a group, restoring the state of the group around it
+    private void closeGroup() throws IOException {
+        flushBytes();
+        fallbackToSkip = 0;
+        ignorable = false;
+        if (depth > 0) {
+            depth--;
+        }
+    }
+
+    // A helper method to read a control word or control symbol after a backslash
+    private void readControl() throws IOException {
+        int b = next();
+        if (b < 0) {
+            return;
+        }
+        if (!isLetter(b)) {
+            readControlSymbol(b);
+            return;
+        }
+        // Read the name of the control word and its optional (signed) numeric parameter
+        word.setLength(0);
+        while (isLetter(b)) {
+            if (word.length() < MAX_WORD_LENGTH) {
+                word.append((char) b);
+            }
+            b = next();
+        }
+        boolean negative = b == '-';
+        if (negative) {
+            b = next();
+        }
+        boolean hasParameter = b >= '0' && b <= '9';
+        long parameter = 0;
+        while (b >= '0' && b <= '9') {
+            parameter = Math.min(parameter * 10 + (b - '0'), Integer.MAX_VALUE);
+            b = next();
+        }
+        if (negative) {
+            parameter = -parameter;
+        }
+        // A space after a control word only delimits it, any other character belongs to the text
+        if (b != ' ' && b >= 0) {
+            position--;
+        }
+        controlWord(word.toString(), hasParameter, (int) parameter);
+    }
+
+    // A helper method to handle a control symbol (a backslash followed by a character that is not a letter)
+    private void readControlSymbol(int symbol) throws IOException {
+        switch (symbol) {
+            case '\\', '{', '}' -> text(symbol);
+            case '\'' -> {
+                // A hexadecimal escape is a byte in the code page of the file
+                int value = (Character.digit(next(), 16) << 4) | Character.digit(next(), 16);
+                if (value >= 0 && !countFallback()) {
+                    addByte(value);
+                }
+            }
+            case '*' -> ignorable = true;
+            case '~' -> character('\u00A0'); // A non-breaking space
+            case '_' -> character('\u2011'); // A non-breaking hyphen
+            case '\r', '\n' -> character('\n'); // A backslash before a line break is a paragraph mark
+            default -> { } // Other symbols (e.g. an optional hyphen) have no text
+        }
+    }
+
+    // A helper method to handle a control word with its parameter
+    private void controlWord(String name, boolean hasParameter, int parameter) throws IOException {
+        // Skip the group of a destination that holds no text (or an unknown one marked as ignorable)
+        boolean destination = SKIPPED_DESTINATIONS.contains(name);
+        if (destination || ignorable) {
+            ignorable = false;
+            if (destination || !isKnownWord(name)) {
+                flushBytes();
+                skipped[depth] = true;
+                return;
+            }
+        }
+        switch (name) {
+            case "u" -> {
+                // A unicode escape is a signed 16-bit value, followed by fallback characters for readers without unicode support
+                flushBytes();
+                character((char) (parameter < 0 ? parameter + 65536 : parameter));
+                fallbackToSkip = unicodeSkip[depth];
+            }
+            case "uc" -> unicodeSkip[depth] = Math.max(0, parameter);
+            case "ansicpg" -> decoder = createDecoder(codePage("windows-" + parameter, "Cp" + parameter));
+            case "mac" -> decoder = createDecoder(codePage("x-MacRoman", "windows-1252"));
+            case "pc" -> decoder = createDecoder(codePage("IBM437", "windows-1252"));
+            case "pca" -> decoder = createDecoder(codePage("IBM850", "windows-1252"));
+            case "bin" -> skipBytes(hasParameter ? parameter : 0); // Binary data is never text
+            default -> {
+                Character special = SPECIAL_CHARACTERS.get(name);
+                if (special != null) {
+                    character(special);
+                } else {
+                    fallbackToSkip = 0; // Any other control word ends the fallback of a unicode escape
+                }
+            }
+        }
+    }
+
+    // A helper method to check whether a control word is one the reader handles (an ignorable destination is only read if it is)
+    private static boolean isKnownWord(String name) {
+        return SPECIAL_CHARACTERS.containsKey(name) || name.equals("u") || name.equals("uc");
+    }
+
+    // A helper method to handle a byte of text, which is decoded in the code page of the file
+    private void text(int b) throws IOException {
+        if (countFallback()) {
+            return;
+        }
+        if (b < 0x80) {
+            character((char) b);
+        } else {
+            addByte(b);
+        }
+    }
+
+    // A helper method to count a character against the fallback of a unicode escape, returning true if it is skipped
+    private boolean countFallback() {
+        if (fallbackToSkip > 0) {
+            fallbackToSkip--;
+            return true;
+        }
+        return false;
+    }
+
+    // A helper method to add a character to the chunk, unless the current group is skipped
+    private void character(char c) throws IOException {
+        if (skipped[depth]) {
+            return;
+        }
+        flushBytes();
+        if (chunkLength == chunk.length) {
+            flushChunk();
+        }
+        chunk[chunkLength++] = c;
+    }
+
+    // A helper method to add a byte in the code page of the file, so that multi-byte characters are decoded together
+    private void addByte(int b) {
+        if (skipped[depth]) {
+            return;
+        }
+        if (pendingCount == pendingBytes.length) {
+            pendingBytes = Arrays.copyOf(pendingBytes, pendingBytes.length * 2);
+        }
+        pendingBytes[pendingCount++] = (byte) b;
+    }
+
+    // A helper method to decode the pending bytes into the chunk
+    private void flushBytes() throws IOException {
+        if (pendingCount == 0) {
+            return;
+        }
+        CharBuffer decoded;
+        try {
+            decoded = decoder.decode(ByteBuffer.wrap(pendingBytes, 0, pendingCount));
+        } catch (CharacterCodingException e) {
+            decoded = CharBuffer.wrap("�"); // Not thrown, as the decoder replaces malformed input
+        }
+        pendingCount = 0;
+        for (int i = 0; i < decoded.length(); i++) {
+            character(decoded.charAt(i));
+        }
+    }
+
+    // A helper method to write the chunk to the sink
+    private void flushChunk() throws IOException {
+        if (chunkLength > 0) {
+            sink.append(chunk, 0, chunkLength);
+            chunkLength = 0;
+        }
+    }
+
+    // A helper method to skip a number of bytes of the stream
+    private void skipBytes(int count) throws IOException {
+        for (int i = 0; i < count && next() >= 0; i++) {
+            // Skip the byte
+        }
+    }
+
+    // A helper method to get the next byte of the stream (or -1 at the end)
+    private int next() throws IOException {
+        if (position == limit) {
+            limit = inputStream.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    // A helper method to check whether a byte is an ASCII letter (which make up the names of control words)
+    private static boolean isLetter(int b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    // A helper method to get a code page by name, or a fallback if it is not supported
+    private static Charset codePage(String name, String fallback) {
+        try {
+            return Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+            return Charset.isSupported(fallback) ? Charset.forName(fallback) : Charset.forName("windows-1252");
+        }
+    }
+
+    // A helper method to create a decoder that replaces bytes the code page cannot decode
+    private static CharsetDecoder createDecoder(Charset charset) {
+        return charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+}
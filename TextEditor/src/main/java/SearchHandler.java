@@ -1,7 +1,15 @@
 // Import necessary packages/classes
 import javax.swing.*; // to use Swing components
+import javax.swing.event.DocumentEvent; // to receive the edits made during a regular expression search
+import javax.swing.event.DocumentListener; // to count the edits made during a regular expression search
 import javax.swing.text.*; // to use text-related classes
 import java.awt.*; // to use AWT components
+import java.util.Arrays; // to trim the array of match positions
+import java.util.ConcurrentModificationException; // to stop a regular expression search when the document is edited
+import java.util.concurrent.CancellationException; // to stop a search that has been cancelled
+import java.util.concurrent.ForkJoinPool; // to run large searches on the common fork/join pool
+import java.util.concurrent.RecursiveTask; // to split large searches into segments
+import java.util.function.BooleanSupplier; // to check whether a search has been cancelled
 import java.util.regex.Matcher; // to use regular expression matching
 import java.util.regex.Pattern; // to use regular expression patterns
 
@@ -9,6 +17,10 @@ import java.util.regex.Pattern; // to use regular expression patterns
  * The SearchHandler class provides functionality to search for text within a JTextArea.
  * It includes methods to find and highlight occurrences of a search term.
  * The search can be performed with or without case sensitivity and with or without full word matching.
+ * An optional trigram index can be enabled so that repeated searches only scan the parts of the document that may contain a match.
+ * Large documents are split into segments that are scanned in parallel on the common fork/join pool.
+ * A regular expression mode matches cached compiled patterns directly against the document, a window at a time, within a time budget.
+ * Interactive searches use an inline FindBar, and the matches are stored in a MatchHighlightLayer, which only paints the matches inside the visible part of the text area.
 
  * @author Esdras Luna
  * @version 1.0
@@ -17,86 +29,468 @@ import java.util.regex.Pattern; // to use regular expression patterns
 
 public class SearchHandler {
 
+    // === CONSTANTS ===
+    static final int PARALLEL_THRESHOLD = 1 << 20; // documents of at least this many characters are searched in parallel
+    private static final int SEGMENT_SIZE = 1 << 18; // the maximum number of characters scanned by a single parallel task
+    static final long REGEX_TIME_BUDGET_MS = 2000; // the time after which a regular expression search is stopped, in milliseconds
+    static final int REGEX_WINDOW_SIZE = 1 << 16; // the number of characters a regular expression match reads at first (documents up to this size are copied)
+    private static final long REGEX_LOCK_SLICE_MS = 20; // the time a regular expression match may hold the read lock of the document, in milliseconds
+    private static final int REGEX_CONTEXT = 256; // the number of characters copied around a window, for lookbehinds and lookaheads
+    static final int REGEX_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE; // the flags of regular expression searches
+    static final PatternCache PATTERN_CACHE = new PatternCache(64); // a cache of the most recently used compiled patterns
+
     // === ATTRIBUTES ===
     private final JTextArea textArea; // a text area for editing text
-    private final Highlighter highlighter; // a highlighter object to store and manage highlights
-    private final Highlighter.HighlightPainter painter; // a highlight painter object to specify the color of highlights
+    private final MatchHighlightLayer matchLayer; // a highlight layer that stores and paints the matches of a search
+    private final FindBar findBar; // an inline find bar that searches as the user types
+    private TrigramIndex searchIndex; // an optional index of the document to speed up searches (or null if disabled)
 
     // === CONSTRUCTORS ===
     // A parameterized constructor to initialize a new search handler instance with a text area
     public SearchHandler(JTextArea textArea) {
         // Initialize the text area from the parameter
         this.textArea = textArea;
-        // Initialize the highlighter from the text area
-        this.highlighter = textArea.getHighlighter();
-        // Initialize the highlight painter with a default color
-        this.painter = new DefaultHighlighter.DefaultHighlightPainter(Color.GREEN);
+        // Initialize the highlight layer of the text area with a default color
+        this.matchLayer = new MatchHighlightLayer(textArea, Color.GREEN);
+        // Initialize the find bar, which shares the highlight layer
+        this.findBar = new FindBar(textArea, matchLayer);
     }
 
     // === METHODS ===
-    // A method to show a search dialog and display the number of occurrences found
-    public void showSearchDialog(boolean fullWord) {
-        // Use a JOptionPane to prompt the user for a search term
-        String searchTerm = JOptionPane.showInputDialog(textArea, "Enter search term:");
-        // If the search term is not null or empty, search for the term and store the number of occurrences
-        if (searchTerm != null && !searchTerm.isEmpty()) {
-            // Call the appropriate search method based on whether full word search is enabled
-            int occurrences = fullWord ? searchFullWord(searchTerm) : search(searchTerm);
-            // Display a message dialog with the number of occurrences found
-            JOptionPane.showMessageDialog(textArea,
-                    "Found " + occurrences + " occurrence(s) of '" + searchTerm + "'");
-        }
+    // A method to show the find bar, which searches as the user types
+    public void showFindBar(boolean fullWord) {
+        findBar.open(fullWord, false);
+    }
+
+    // A method to show the find bar in regular expression mode
+    public void showRegexFindBar() {
+        findBar.open(false, true);
+    }
+
+    // A getter method to retrieve the find bar, so that it can be added below the text area
+    public FindBar getFindBar() {
+        return findBar;
     }
 
     // A method to search for text within the text area
     public int search(String searchText) {
-        highlighter.removeAllHighlights(); // Clear any highlights from previous searches
+        EditorMetrics.SearchEvent event = EditorMetrics.SearchEvent.start("Substring", textArea.getDocument().getLength(), searchText.length());
+        return event.finish(searchSubstring(searchText));
+    }
+
+    // A helper method to find and highlight every occurrence of a search term, returning the number found
+    private int searchSubstring(String searchText) {
+        matchLayer.clear(); // Clear any highlights from previous searches
+        // If the search index is enabled and built, only scan the parts of the document that may contain a match
+        if (isIndexReady()) {
+            return highlightMatches(findIndexedMatches(searchText, false), searchText.length());
+        }
         String textContent = textArea.getText().toLowerCase(); // Convert the text from the content area to lowercase
         String searchLower = searchText.toLowerCase(); // Convert text from search term to lowercase
+        // If the document is large, scan segments of the text in parallel instead
+        if (textContent.length() >= PARALLEL_THRESHOLD) {
+            return highlightMatches(findMatchesInParallel(textContent, searchLower, null), searchText.length());
+        }
         int index = 0; // to keep track of the index of the search term
-        int count = 0; // to keep track of the number of occurrences found
+        MatchList matches = new MatchList(); // to store the positions of the occurrences found
         // Find all occurrences of the search term using a while loop that runs until the search term is not found (e.g. indexOf returns -1)
         while ((index = textContent.indexOf(searchLower, index)) != -1) {
-            // Use a try-catch block to try to highlight any occurrences of the search term and catch any exceptions (e.g. BadLocationException)
-            try {
-                // Highlight the text from the current index to the end of the search term
-                highlighter.addHighlight(index, index + searchText.length(), painter);
-                index += searchText.length();// Move the index to the end of the search term
-                count++; // Increment the count of occurrences found
-                // If an exception occurs, print the stack trace
-            } catch (BadLocationException e) {
-                e.printStackTrace();
-            }
+            matches.add(index); // Store the position of the occurrence found
+            index += searchText.length();// Move the index to the end of the search term
         }
-        return count; // Return the number of occurrences found
+        // Highlight the occurrences from their index to the end of the search term and return the number found
+        return highlightMatches(matches.toArray(), searchText.length());
     }
 
     // A method to search for a full word within the text area
     public int searchFullWord(String searchText) {
-        highlighter.removeAllHighlights(); // Clear previous highlights
+        EditorMetrics.SearchEvent event = EditorMetrics.SearchEvent.start("Whole word", textArea.getDocument().getLength(), searchText.length());
+        return event.finish(searchWholeWord(searchText));
+    }
+
+    // A helper method to find and highlight every occurrence of a search term as a full word, returning the number found
+    private int searchWholeWord(String searchText) {
+        matchLayer.clear(); // Clear previous highlights
+        // If the search index is enabled and built, only scan the parts of the document that may contain a match
+        if (isIndexReady()) {
+            return highlightMatches(findIndexedMatches(searchText, true), searchText.length());
+        }
         String textContent = textArea.getText().toLowerCase(); // Convert text content to lowercase
         String searchLower = searchText.toLowerCase(); // Convert search text to lowercase
-        int count = 0; // to keep track of the number of occurrences found
-        Pattern pattern = Pattern.compile("\\b" + Pattern.quote(searchLower) + "\\b"); // Create a pattern for full word matches
+        MatchList matches = new MatchList(); // to store the positions of the occurrences found
+        Pattern pattern = wholeWordPattern(searchLower); // Get the (cached) pattern for full word matches
+        // If the document is large, scan segments of the text in parallel instead
+        if (textContent.length() >= PARALLEL_THRESHOLD) {
+            return highlightMatches(findMatchesInParallel(textContent, searchLower, pattern), searchLower.length());
+        }
         Matcher matcher = pattern.matcher(textContent); // Find matches in the text content and store them in a matcher object
         // Use a while loop to find all occurrences of a match
         while (matcher.find()) {
-            // Use a try-catch block to try to highlight any occurrences of the search term and catch any exceptions (e.g. BadLocationException)
+            matches.add(matcher.start()); // Store the position of the matched text
+        }
+        // Highlight the matched text and return the number of occurrences found
+        return highlightMatches(matches.toArray(), searchLower.length());
+    }
+
+    // A method to search for the matches of a regular expression within the text area (case-insensitive, like the other searches)
+    // The expression is matched by the worker of the find bar, as it may take up to its time budget, and the matches are highlighted once it finishes
+    public void searchRegex(String regex) {
+        findBar.open(regex, false, true);
+    }
+
+    // A static method to collect the start and end positions of the (non-empty) matches of a pattern in a document
+    // A ConcurrentModificationException is thrown if the document is edited before the search has finished
+    static void findRegexMatches(Document document, Pattern pattern, long deadline, BooleanSupplier cancelled,
+                                 MatchList starts, MatchList ends) {
+        if (document.getLength() <= REGEX_WINDOW_SIZE) {
+            // Match a snapshot of a small document (a copy of one window), so that an edit never waits for a slow pattern
+            Matcher matcher = pattern.matcher(DocumentCharSequence.snapshot(document, deadline));
+            while (matcher.find()) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException();
+                }
+                // Skip empty matches (e.g. of "a*"), as there is nothing to highlight
+                if (matcher.end() > matcher.start()) {
+                    starts.add(matcher.start());
+                    ends.add(matcher.end());
+                }
+            }
+        } else {
+            new RegexSearch(document, pattern, deadline).findAll(cancelled, starts, ends);
+        }
+    }
+
+    // A static method to get the (cached) pattern that matches a lowercase search term as a whole word
+    static Pattern wholeWordPattern(String searchLower) {
+        return PATTERN_CACHE.get("\\b" + Pattern.quote(searchLower) + "\\b", 0);
+    }
+
+    // A method to find the matches of a search term using the search index, scanning only the candidate ranges
+    private int[] findIndexedMatches(String searchText, boolean fullWord) {
+        String searchLower = searchText.toLowerCase();
+        Pattern pattern = fullWord ? wholeWordPattern(searchLower) : null;
+        Document document = textArea.getDocument();
+        MatchList matches = new MatchList();
+        // Scan each candidate range, reading one character before and the search term length after it as context
+        for (int[] range : searchIndex.getCandidateRanges(searchLower)) {
+            int readStart = Math.max(0, range[0] - 1);
+            int readEnd = Math.min(document.getLength(), range[1] + searchLower.length());
             try {
-                highlighter.addHighlight(matcher.start(), matcher.end(), painter); // Highlight the matched text
-                count++; // Increment the count of occurrences found
-                // If an exception occurs, print the stack trace
+                String text = toLowerCase(document.getText(readStart, readEnd - readStart));
+                collectMatchStarts(text, searchLower, pattern, range[0] - readStart, range[1] - readStart, readStart, matches);
             } catch (BadLocationException e) {
                 e.printStackTrace();
             }
         }
-        // Return the number of occurrences found
-        return count;
+        return matches.selectNonOverlapping(fullWord ? searchLower.length() : searchText.length());
+    }
+
+    // A method to find the matches of a search term by scanning overlapping segments of a lowercase text in parallel
+    private static int[] findMatchesInParallel(String text, String searchLower, Pattern pattern) {
+        // Each segment reports every match that starts in it (reading past its end as needed), and the results are merged in order
+        MatchList matches = ForkJoinPool.commonPool().invoke(new SegmentSearchTask(text, searchLower, pattern, 0, text.length()));
+        // Apply the left-to-right rule of the sequential search, so the matches are identical to it
+        return matches.selectNonOverlapping(searchLower.length());
+    }
+
+    // A static method to collect the start of every (possibly overlapping) match that starts in [from, to) of a lowercase text
+    static void collectMatchStarts(String text, String searchLower, Pattern pattern, int from, int to, int offset, MatchList matches) {
+        if (pattern == null) {
+            // Find every occurrence of the search term, moving one character at a time so overlapping matches are included
+            int index = from;
+            int end = Math.min(text.length(), to - 1 + searchLower.length()); // a match starting before 'to' ends before this
+            while ((index = text.indexOf(searchLower, index, end)) != -1) {
+                matches.add(offset + index);
+                index++;
+            }
+        } else {
+            // Use transparent bounds so that word boundaries can see the characters around the region
+            Matcher matcher = pattern.matcher(text).useTransparentBounds(true).useAnchoringBounds(false);
+            int index = from;
+            int end = Math.min(text.length(), to - 1 + searchLower.length()); // a match starting before 'to' ends before this
+            while (index < to && matcher.region(index, end).find()) {
+                matches.add(offset + matcher.start());
+                index = matcher.start() + 1;
+            }
+        }
+    }
+
+    // A helper method to convert a text to lowercase character by character, so that offsets are preserved
+    private static String toLowerCase(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    // A helper method to highlight the matches found and return their number
+    private int highlightMatches(int[] matches, int length) {
+        // Hand the positions to the highlight layer, which only paints the matches that are visible
+        matchLayer.setMatches(matches, length);
+        return matches.length;
     }
 
     // A method to clear all highlights from the text area
     public void clearHighlights() {
-        highlighter.removeAllHighlights();
+        matchLayer.clear();
+    }
+
+    // A getter method to retrieve the highlight layer that stores the matches of the last search
+    public MatchHighlightLayer getMatchLayer() {
+        return matchLayer;
+    }
+
+    // A method to enable or disable the search index
+    public void setIndexEnabled(boolean enabled) {
+        if (enabled && searchIndex == null) {
+            searchIndex = new TrigramIndex(textArea);
+        } else if (!enabled && searchIndex != null) {
+            searchIndex.dispose();
+            searchIndex = null;
+        }
+    }
+
+    // A method to check whether the search index is enabled
+    public boolean isIndexEnabled() {
+        return searchIndex != null;
     }
 
-}
\ No newline at end of file
+    // A method to check whether the search index is enabled and has finished building (on the Event Dispatch Thread)
+    public boolean isIndexReady() {
+        return searchIndex != null && searchIndex.isReady();
+    }
+
+    // A method to show the memory use and update cost of the search index in a dialog
+    public void showIndexStatistics() {
+        String message;
+        if (searchIndex == null) {
+            message = "The search index is disabled.";
+        } else if (!searchIndex.isReady()) {
+            message = "The search index is being built.";
+        } else {
+            message = "Blocks: " + searchIndex.getBlockCount()
+                    + "\nMemory use: " + (searchIndex.getMemoryUsage() / 1024) + " KB"
+                    + "\nAverage update per edit: " + (searchIndex.getAverageUpdateNanos() / 1000.0) + " µs"
+                    + "\nLast update: " + (searchIndex.getLastUpdateNanos() / 1000.0) + " µs";
+        }
+        JOptionPane.showMessageDialog(textArea, message, "Search Index", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * The MatchList class is a growable array of match positions that avoids boxing every position into an Integer.
+     */
+    static final class MatchList {
+        private int[] starts = new int[16]; // the start positions of the matches, in ascending order
+        private int size = 0; // the number of matches in the list
+
+        // A method to add the start position of a match
+        void add(int start) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+            }
+            starts[size++] = start;
+        }
+
+        // A method to get the first match at or after a position, wrapping around to the first match (or -1 if there is none)
+        int firstFrom(int position) {
+            int index = Arrays.binarySearch(starts, 0, size, position);
+            index = (index < 0) ? -index - 1 : index;
+            return (size == 0) ? -1 : starts[index % size];
+        }
+
+        // A method to get the number of matches in the list
+        int size() {
+            return size;
+        }
+
+        // A method to get the matches as an array
+        int[] toArray() {
+            return Arrays.copyOf(starts, size);
+        }
+
+        // A method to add all the matches of another list, which must start after the matches of this list
+        void addAll(MatchList other) {
+            if (size + other.size > starts.length) {
+                starts = Arrays.copyOf(starts, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.starts, 0, starts, size, other.size);
+            size += other.size;
+        }
+
+        // A method to select the matches a left-to-right search would find, skipping those that overlap the previous match
+        int[] selectNonOverlapping(int length) {
+            int[] selected = new int[size];
+            int count = 0;
+            int end = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                if (starts[i] >= end) {
+                    selected[count++] = starts[i];
+                    end = starts[i] + length;
+                }
+            }
+            return Arrays.copyOf(selected, count);
+        }
+    }
+
+    /**
+     * The SegmentSearchTask class searches a range of a lowercase text, splitting it in half until the segments are small
+     * enough to scan directly. The segments overlap by the length of the search term, so matches crossing a boundary are found.
+     */
+    private static final class SegmentSearchTask extends RecursiveTask<MatchList> {
+        private final String text; // the lowercase text to search
+        private final String searchLower; // the lowercase search term
+        private final Pattern pattern; // the pattern of a full word search (or null for a partial word search)
+        private final int from; // the start of the range in which matches may start
+        private final int to; // the end of the range in which matches may start
+
+        // A parameterized constructor to initialize a new task for the range [from, to) of the text
+        SegmentSearchTask(String text, String searchLower, Pattern pattern, int from, int to) {
+            this.text = text;
+            this.searchLower = searchLower;
+            this.pattern = pattern;
+            this.from = from;
+            this.to = to;
+        }
+
+        // A method to search the range, in parallel if it is larger than a segment
+        @Override
+        protected MatchList compute() {
+            if (to - from <= SEGMENT_SIZE) {
+                MatchList matches = new MatchList();
+                collectMatchStarts(text, searchLower, pattern, from, to, 0, matches);
+                return matches;
+            }
+            // Split the range in half, search the first half in another task and the second half in this one
+            int middle = from + (to - from) / 2;
+            SegmentSearchTask first = new SegmentSearchTask(text, searchLower, pattern, from, middle);
+            first.fork();
+            MatchList secondMatches = new SegmentSearchTask(text, searchLower, pattern, middle, to).compute();
+            // Merge the results in order
+            MatchList matches = first.join();
+            matches.addAll(secondMatches);
+            return matches;
+        }
+    }
+
+    /**
+     * The RegexSearch class finds the matches of a pattern in a large document without copying it. Each find() call matches the
+     * document in place under its read lock, within a window after the end of the previous match that is doubled whenever the match
+     * reads up to its end (so the matches are those of the whole document), and the lock is released between the calls.
+     * A call that holds the lock longer than a time slice (e.g. a backtracking pattern) is repeated without it, on a snapshot of its window.
+     */
+    private static final class RegexSearch implements DocumentListener {
+        private final Document document; // the document being searched
+        private final Pattern pattern; // the pattern being matched
+        private final long deadline; // the System.nanoTime() value after which the search fails
+        private volatile int edits = 0; // the number of edits made to the document since the search started
+        private int position = 0; // the offset the next match starts from
+        private int windowEnd = 0; // the offset after the last character the current match may read
+        private int matchStart = -1; // the start of the match found by the last call (or -1 if there was none)
+        private int matchEnd = -1; // the end of the match found by the last call
+        private boolean hitEnd = false; // whether the last call read up to the end of its window
+        private boolean slow = false; // whether the last call ran out of its time slice before it finished
+
+        // A parameterized constructor to initialize a new search of a pattern in a document, failing after a deadline
+        RegexSearch(Document document, Pattern pattern, long deadline) {
+            this.document = document;
+            this.pattern = pattern;
+            this.deadline = deadline;
+        }
+
+        // A method to collect the start and end positions of the (non-empty) matches, a find() call at a time
+        void findAll(BooleanSupplier cancelled, MatchList starts, MatchList ends) {
+            document.addDocumentListener(this);
+            try {
+                int windowSize = REGEX_WINDOW_SIZE;
+                int length = document.getLength();
+                while (position < length) {
+                    if (cancelled.getAsBoolean()) {
+                        throw new CancellationException();
+                    }
+                    windowEnd = (int) Math.min(length, (long) position + windowSize);
+                    document.render(this::findInPlace);
+                    if (slow) {
+                        findInSnapshot();
+                    }
+                    // A match that read up to the end of its window may be longer (or start earlier) with more text, so match a larger window
+                    if (hitEnd && windowEnd < length) {
+                        windowSize = (int) Math.min(Integer.MAX_VALUE, 2L * windowSize);
+                        continue;
+                    }
+                    windowSize = REGEX_WINDOW_SIZE;
+                    if (matchStart < 0) {
+                        position = windowEnd; // No match starts in the window
+                    } else {
+                        // Skip empty matches (e.g. of "a*"), as there is nothing to highlight, and move past them like Matcher.find()
+                        if (matchEnd > matchStart) {
+                            starts.add(matchStart);
+                            ends.add(matchEnd);
+                        }
+                        position = (matchEnd > matchStart) ? matchEnd : matchEnd + 1;
+                    }
+                }
+            } finally {
+                document.removeDocumentListener(this);
+            }
+        }
+
+        // A helper method to find the next match in the window under the read lock, giving up once the time slice has passed
+        private void findInPlace() {
+            checkEdits();
+            long sliceDeadline = Math.min(deadline, System.nanoTime() + REGEX_LOCK_SLICE_MS * 1_000_000L);
+            DocumentCharSequence text = new DocumentCharSequence(document, 0, document.getLength(), sliceDeadline);
+            try {
+                find(text, 0);
+                slow = false;
+            } catch (DocumentCharSequence.TimeBudgetExceededException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                slow = true; // Release the lock and match the window again on a snapshot
+            }
+        }
+
+        // A helper method to find the next match in a snapshot of the window (and the context around it), without the read lock
+        private void findInSnapshot() {
+            int snapshotStart = Math.max(0, position - REGEX_CONTEXT);
+            DocumentCharSequence text = DocumentCharSequence.snapshot(document, snapshotStart, windowEnd + REGEX_CONTEXT, deadline);
+            checkEdits(); // The snapshot may have been copied after an edit
+            find(text, snapshotStart);
+        }
+
+        // A helper method to find the next match in [position, windowEnd) of a text that starts at an offset of the document
+        private void find(CharSequence text, int offset) {
+            Matcher matcher = pattern.matcher(text).region(position - offset, windowEnd - offset)
+                    .useTransparentBounds(true).useAnchoringBounds(false);
+            boolean found = matcher.find();
+            matchStart = found ? offset + matcher.start() : -1;
+            matchEnd = found ? offset + matcher.end() : -1;
+            hitEnd = matcher.hitEnd();
+        }
+
+        // A helper method to stop the search if the document was edited, as the offsets of its matches no longer apply
+        private void checkEdits() {
+            if (edits != 0) {
+                throw new ConcurrentModificationException("The document was edited during the search");
+            }
+        }
+
+        // A method to count an insert into the document
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            edits++;
+        }
+
+        // A method to count a removal from the document
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            edits++;
+        }
+
+        // A method to ignore attribute changes, as they do not move the text
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+        }
+    }
+}
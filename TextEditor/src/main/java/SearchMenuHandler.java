@@ -1,10 +1,14 @@
 // Importing necessary packages
+import javax.swing.JCheckBoxMenuItem; // to create a menu item that can be toggled
 import javax.swing.JMenu; // to create a menu
 import javax.swing.JMenuItem; // to create a menu item
+import javax.swing.KeyStroke; // to assign a keyboard shortcut to a menu item
+import java.awt.event.InputEvent; // to use the Ctrl modifier in a keyboard shortcut
+import java.awt.event.KeyEvent; // to use key codes in a keyboard shortcut
 
 /**
  * The `SearchMenuHandler` class is responsible for adding search-related menu items to the search menu in the text editor application.
- * It interacts with the `SearchHandler` class to perform search operations such as partial word match, exact word match, and clearing highlights.
+ * It interacts with the `SearchHandler` class to perform search operations such as partial word match, exact word match, regular expression match, and clearing highlights.
 
  * \@author Esdras Luna
  * \@version 1.0
@@ -29,23 +33,46 @@ public class SearchMenuHandler {
     public void addSearchMenuItems(JMenu searchMenu) {
         // Create a menu item for  'Partial Word Match'
         JMenuItem findMenuItem = new JMenuItem("Partial Word Match");
-        // Add an action listener to the menu item that shows the search dialog when clicked
-        findMenuItem.addActionListener(e -> searchHandler.showSearchDialog(false));
+        // Add an action listener to the menu item that shows the find bar when clicked (or when Ctrl+F is pressed)
+        findMenuItem.addActionListener(e -> searchHandler.showFindBar(false));
+        findMenuItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F, InputEvent.CTRL_DOWN_MASK));
         // Add the menu item to the search menu
         searchMenu.add(findMenuItem);
 
         // Create a menu item for 'Exact Word Match'
         JMenuItem searchFullWordMenuItem = new JMenuItem("Exact Word Match");
-        // Add an action listener to the menu item that shows the search dialog when clicked
-        searchFullWordMenuItem.addActionListener(e -> searchHandler.showSearchDialog(true));
+        // Add an action listener to the menu item that shows the find bar with whole word matching when clicked
+        searchFullWordMenuItem.addActionListener(e -> searchHandler.showFindBar(true));
         // Add the menu item to the search menu
         searchMenu.add(searchFullWordMenuItem);
 
+        // Create a menu item for 'Regular Expression Match'
+        JMenuItem regexMenuItem = new JMenuItem("Regular Expression Match");
+        // Add an action listener to the menu item that shows the find bar in regular expression mode when clicked
+        regexMenuItem.addActionListener(e -> searchHandler.showRegexFindBar());
+        // Add the menu item to the search menu
+        searchMenu.add(regexMenuItem);
+
         // Create a menu item for 'Clear Highlights'
         JMenuItem clearHighlightsMenuItem = new JMenuItem("Clear Highlights");
         // Add an action listener to the menu item that clears the highlights when clicked
         clearHighlightsMenuItem.addActionListener(e -> searchHandler.clearHighlights());
         // Add the menu item to the search menu
         searchMenu.add(clearHighlightsMenuItem);
+        searchMenu.addSeparator();
+
+        // Create a check box menu item for 'Use Search Index' that enables or disables the trigram index
+        JCheckBoxMenuItem useIndexMenuItem = new JCheckBoxMenuItem("Use Search Index", searchHandler.isIndexEnabled());
+        // Add an action listener to the menu item that toggles the search index when clicked
+        useIndexMenuItem.addActionListener(e -> searchHandler.setIndexEnabled(useIndexMenuItem.isSelected()));
+        // Add the menu item to the search menu
+        searchMenu.add(useIndexMenuItem);
+
+        // Create a menu item for 'Search Index Statistics'
+        JMenuItem indexStatisticsMenuItem = new JMenuItem("Search Index Statistics");
+        // Add an action listener to the menu item that shows the memory use and update cost of the index when clicked
+        indexStatisticsMenuItem.addActionListener(e -> searchHandler.showIndexStatistics());
+        // Add the menu item to the search menu
+        searchMenu.add(indexStatisticsMenuItem);
     }
 }
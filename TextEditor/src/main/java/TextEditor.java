@@ -2,7 +2,11 @@
 import javax.swing.JFrame; // to create a window
 import javax.swing.JFileChooser; // to create a file chooser
 import java.awt.Font; // to set the font type and size
+import java.awt.Graphics; // to report the first paint of the window
 import java.awt.*; // to work with layouts
+import java.awt.event.WindowAdapter; // to close the edit journal when the window is closed
+import java.awt.event.WindowEvent; // to handle the window events
+import java.io.IOException; // to handle an edit journal that cannot be opened
 // Import RSyntaxTextArea classes for syntax highlighting
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to create a text area with syntax highlighting
 import org.fife.ui.rtextarea.RTextScrollPane; // to create a scrollable text area
@@ -20,7 +24,8 @@ import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to set syntax highlightin
 public class TextEditor extends JFrame {
 
     // === ATTRIBUTES ===
-    private final JFileChooser fileChooser; // a file chooser for opening/saving files
+    private JFileChooser fileChooser; // a file chooser for opening/saving files (created when it is first needed, as it is slow to build)
+    private final FileHandler fileHandler; // a file handler for opening/saving files
     private final RSyntaxTextArea textArea = new RSyntaxTextArea(); // a text area for editing text with syntax highlighting
 
     // === CONSTRUCTORS ===
@@ -39,11 +44,22 @@ public class TextEditor extends JFrame {
         textArea.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_NONE); // Default to no syntax highlighting
         add(new RTextScrollPane(textArea), BorderLayout.CENTER); // Add the text area to the center of the frame
 
-        // Initialize a new file chooser, file handler, and menu handler
-        fileChooser = new JFileChooser();
-        FileHandler fileHandler = new FileHandler(textArea, fileChooser);
+        // Initialize a new file handler and menu handler (the file chooser is only created when a file is first opened or saved)
+        fileHandler = new FileHandler(textArea);
         MenuHandler menuHandler = new MenuHandler(this, fileHandler);
 
+        // Record every edit in a journal, so that the unsaved changes can be recovered if the editor stops unexpectedly
+        EditJournal journal = openJournal();
+        if (journal != null) {
+            fileHandler.setEditJournal(journal);
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    journal.close(); // The window was closed on purpose, so its unsaved changes are discarded
+                }
+            });
+        }
+
         // Set the menu bar created by the menu handler to the frame and make it visible
         setJMenuBar(menuHandler.createMenuBar());
         setVisible(true);
@@ -52,11 +68,36 @@ public class TextEditor extends JFrame {
 
     // ===  METHODS ===
 
-    // A public method to access the file chooser object from other classes (e.g. MenuHandler)
+    // A helper method to open the edit journal of the text area (or return null, so that the editor still works without one)
+    private EditJournal openJournal() {
+        try {
+            return EditJournal.open(textArea, EditJournal.DEFAULT_DIRECTORY);
+        } catch (IOException e) {
+            System.err.println("Error opening edit journal: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // A method to paint the window, reporting the time to the first paint once the editable window has been painted
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        ColdStart.firstPaint(System.out);
+    }
+
+    // A public method to access the file chooser object from other classes (e.g. MenuHandler), creating it when it is first needed
     public JFileChooser getFileChooser() {
+        if (fileChooser == null) {
+            fileChooser = new JFileChooser();
+        }
         return fileChooser;
     }
 
+    // A public method to access the file handler object from other classes (e.g. Main)
+    public FileHandler getFileHandler() {
+        return fileHandler;
+    }
+
     // A public method to access the text area object from other classes (e.g. MenuHandler)
     public RSyntaxTextArea getTextArea() {
         return textArea;
@@ -0,0 +1,246 @@
+// Import Java NIO classes for bulk decoding
+import java.nio.ByteBuffer; // to wrap the bytes of the file
+import java.nio.CharBuffer; // to receive the decoded characters
+import java.nio.charset.*; // to work with charsets, decoders, and coding errors
+// Import other necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to read the bytes of the file
+import java.util.Arrays; // to grow the byte array if the stream is longer than expected
+import javax.swing.text.DefaultEditorKit; // to use the standard document property for the line separator
+import javax.swing.text.Document; // to store the decoding details on a document
+
+/**
+ * The TextFileDecoder class loads plain text and source code files in a single pass.
+ * It reads the file into a buffer sized from the file length, detects the charset from a byte order mark (BOM) or the content,
+ * decodes all bytes in bulk with a CharsetDecoder, and normalises the line separators to '\n' in place.
+ * The original charset, BOM, and line separator are recorded so that the file can be saved back in the same form.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-04
+ */
+
+public class TextFileDecoder {
+
+    // === CONSTANTS ===
+    public static final String CHARSET_PROPERTY = "charset"; // the document property storing the charset of the file
+    public static final String BOM_PROPERTY = "byteOrderMark"; // the document property storing whether the file had a BOM
+    static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8; // the largest array the virtual machine can allocate
+    static final int SNIFF_LENGTH = 4096; // the number of bytes inspected to detect UTF-16 without a BOM
+
+    // === CONSTRUCTORS ===
+
+    // A private constructor, as this class only provides static methods
+    private TextFileDecoder() {
+    }
+
+    // === METHODS ===
+
+    // A static method to read and decode a text file from an input stream of the given length
+    public static DecodedText decode(InputStream inputStream, long length) throws IOException {
+        // Read the whole stream into a byte array sized from the file length
+        byte[] bytes = new byte[(int) Math.min(Math.max(length, 0), MAX_ARRAY_LENGTH)];
+        int count = 0;
+        while (true) {
+            // Grow the array if the stream turns out to be longer than the length given
+            if (count == bytes.length) {
+                int next = inputStream.read();
+                if (next < 0) {
+                    break;
+                }
+                bytes = Arrays.copyOf(bytes, grow(bytes.length));
+                bytes[count++] = (byte) next;
+            }
+            int read = inputStream.read(bytes, count, bytes.length - count);
+            if (read < 0) {
+                break;
+            }
+            count += read;
+        }
+        return decode(bytes, count);
+    }
+
+    // A helper method to get the next size of the byte array, doubling it up to the largest array (past which the file cannot be loaded)
+    static int grow(int length) throws IOException {
+        if (length >= MAX_ARRAY_LENGTH) {
+            throw new IOException("The file is too large to load (more than " + MAX_ARRAY_LENGTH + " bytes)");
+        }
+        return (int) Math.min(Math.max(16L, length * 2L), MAX_ARRAY_LENGTH);
+    }
+
+    // A static method to decode the first 'length' bytes of a byte array
+    public static DecodedText decode(byte[] bytes, int length) {
+        // Detect the charset and skip the byte order mark (if any)
+        int bomLength = getBomLength(bytes, length);
+        Charset charset = (bomLength > 0) ? getBomCharset(bytes) : detectCharset(bytes, length);
+        ByteBuffer input = ByteBuffer.wrap(bytes, bomLength, length - bomLength);
+        CharBuffer output;
+        try {
+            output = decode(input, charset, CodingErrorAction.REPORT);
+        } catch (CharacterCodingException e) {
+            // If the bytes are not valid in the detected charset, fall back to a single-byte charset that accepts any byte
+            charset = StandardCharsets.ISO_8859_1;
+            output = decode(ByteBuffer.wrap(bytes, bomLength, length - bomLength), charset);
+        }
+        // Normalise the line separators to '\n' in place and record the original separator
+        char[] chars = output.array();
+        int charCount = output.position();
+        String lineSeparator = null;
+        int target = 0;
+        for (int i = 0; i < charCount; i++) {
+            char c = chars[i];
+            if (c == '\r') {
+                boolean crlf = (i + 1 < charCount) && chars[i + 1] == '\n';
+                if (lineSeparator == null) {
+                    lineSeparator = crlf ? "\r\n" : "\r";
+                }
+                if (crlf) {
+                    i++;
+                }
+                c = '\n';
+            } else if (c == '\n' && lineSeparator == null) {
+                lineSeparator = "\n";
+            }
+            chars[target++] = c;
+        }
+        return new DecodedText(chars, target, charset, bomLength > 0, (lineSeparator == null) ? "\n" : lineSeparator);
+    }
+
+    // A helper method to decode a byte buffer in bulk into a character buffer sized for the charset
+    private static CharBuffer decode(ByteBuffer input, Charset charset, CodingErrorAction errorAction) throws CharacterCodingException {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(errorAction)
+                .onUnmappableCharacter(errorAction);
+        // Size the output exactly: a byte never decodes to more than one char in the supported charsets
+        CharBuffer output = CharBuffer.allocate((int) Math.ceil(input.remaining() * (double) decoder.maxCharsPerByte()));
+        CoderResult result = decoder.decode(input, output, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+        decoder.flush(output);
+        return output;
+    }
+
+    // A helper method to decode a byte buffer, replacing any invalid input
+    private static CharBuffer decode(ByteBuffer input, Charset charset) {
+        try {
+            return decode(input, charset, CodingErrorAction.REPLACE);
+        } catch (CharacterCodingException e) {
+            // This cannot happen, as invalid input is replaced rather than reported
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A helper method to get the length of the byte order mark at the start of the bytes (or 0 if there is none)
+    static int getBomLength(byte[] bytes, int length) {
+        if (length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
+            return 3;
+        }
+        if (length >= 2 && (((bytes[0] & 0xFF) == 0xFE && (bytes[1] & 0xFF) == 0xFF)
+                || ((bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xFE))) {
+            return 2;
+        }
+        return 0;
+    }
+
+    // A helper method to get the charset indicated by the byte order mark at the start of the bytes
+    static Charset getBomCharset(byte[] bytes) {
+        if ((bytes[0] & 0xFF) == 0xEF) {
+            return StandardCharsets.UTF_8;
+        }
+        return ((bytes[0] & 0xFF) == 0xFE) ? StandardCharsets.UTF_16BE : StandardCharsets.UTF_16LE;
+    }
+
+    // A helper method to detect the charset of bytes without a byte order mark
+    static Charset detectCharset(byte[] bytes, int length) {
+        // Count the zero bytes at even and odd positions: UTF-16 text (mostly ASCII) has one zero byte per character
+        int sniffLength = Math.min(length, SNIFF_LENGTH) & ~1;
+        int evenZeros = 0;
+        int oddZeros = 0;
+        for (int i = 0; i < sniffLength; i += 2) {
+            evenZeros += (bytes[i] == 0) ? 1 : 0;
+            oddZeros += (bytes[i + 1] == 0) ? 1 : 0;
+        }
+        int pairs = sniffLength / 2;
+        if (pairs > 0 && oddZeros > pairs * 0.4 && evenZeros < pairs * 0.1) {
+            return StandardCharsets.UTF_16LE;
+        }
+        if (pairs > 0 && evenZeros > pairs * 0.4 && oddZeros < pairs * 0.1) {
+            return StandardCharsets.UTF_16BE;
+        }
+        // Otherwise assume UTF-8 (ASCII is a subset of it); invalid UTF-8 falls back to ISO-8859-1 when decoding
+        return StandardCharsets.UTF_8;
+    }
+
+    // A static method to get the line separator recorded on a document (or '\n' if none was recorded)
+    public static String getLineSeparator(Document document) {
+        Object lineSeparator = document.getProperty(DefaultEditorKit.EndOfLineStringProperty);
+        return (lineSeparator instanceof String) ? (String) lineSeparator : "\n";
+    }
+
+    // A static method to get the charset recorded on a document (or the platform charset if none was recorded)
+    public static Charset getCharset(Document document) {
+        Object charset = document.getProperty(CHARSET_PROPERTY);
+        return (charset instanceof Charset) ? (Charset) charset : Charset.defaultCharset();
+    }
+
+    // A static method to check whether the file of a document started with a byte order mark
+    public static boolean hasBom(Document document) {
+        return Boolean.TRUE.equals(document.getProperty(BOM_PROPERTY));
+    }
+
+    /**
+     * The DecodedText class stores the characters of a decoded file, along with the details needed to save it back in the same form.
+     */
+    public static final class DecodedText {
+        private final char[] chars; // the decoded characters, with line separators normalised to '\n'
+        private final int length; // the number of valid characters in the array
+        private final Charset charset; // the charset the file was decoded with
+        private final boolean bom; // whether the file started with a byte order mark
+        private final String lineSeparator; // the original line separator of the file
+
+        // A parameterized constructor to initialize a new decoded text
+        DecodedText(char[] chars, int length, Charset charset, boolean bom, String lineSeparator) {
+            this.chars = chars;
+            this.length = length;
+            this.charset = charset;
+            this.bom = bom;
+            this.lineSeparator = lineSeparator;
+        }
+
+        // A method to get the decoded text as a string
+        public String getText() {
+            return new String(chars, 0, length);
+        }
+
+        // A method to write the text to a sink, after the charset, BOM, and line separator of the file (the characters are never modified, so they are shared)
+        public void writeTo(TextSink sink) throws IOException {
+            sink.putProperty(DefaultEditorKit.EndOfLineStringProperty, lineSeparator);
+            sink.putProperty(CHARSET_PROPERTY, charset);
+            sink.putProperty(BOM_PROPERTY, bom);
+            sink.appendShared(chars, length);
+        }
+
+        // A method to record the charset, BOM, and line separator of the file on the document it was loaded into
+        public void applyTo(Document document) {
+            document.putProperty(DefaultEditorKit.EndOfLineStringProperty, lineSeparator);
+            document.putProperty(CHARSET_PROPERTY, charset);
+            document.putProperty(BOM_PROPERTY, bom);
+        }
+
+        // A getter method to retrieve the charset the file was decoded with
+        public Charset getCharset() {
+            return charset;
+        }
+
+        // A getter method to check whether the file started with a byte order mark
+        public boolean hasBom() {
+            return bom;
+        }
+
+        // A getter method to retrieve the original line separator of the file
+        public String getLineSeparator() {
+            return lineSeparator;
+        }
+    }
+}
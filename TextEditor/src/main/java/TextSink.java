@@ -0,0 +1,129 @@
+// Import Java Swing classes for the document model (no Swing components are created)
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Document; // to append the text to a document
+import javax.swing.text.PlainDocument; // to build a document from the text
+// Import other necessary packages/classes
+import java.io.IOException; // to handle input/output exceptions
+import java.util.Arrays; // to grow the buffer of a document builder
+import java.util.LinkedHashMap; // to keep the properties of a document builder in order
+import java.util.Map; // to store the properties of a document builder
+
+/**
+ * The TextSink interface receives the text read by a FormatCodec, one chunk of characters at a time.
+ * A reader may reuse its array once append returns, so a sink that keeps the characters must copy them.
+ * The sinks for a document, a string builder, and a new plain document are provided, so the readers never see a Swing component.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-21
+ */
+
+@FunctionalInterface
+public interface TextSink {
+
+    // A method to append a chunk of characters to the sink
+    void append(char[] chars, int start, int count) throws IOException;
+
+    // A method to append characters from an array that is never modified afterwards, so a sink may keep the array instead of copying it
+    default void appendShared(char[] chars, int count) throws IOException {
+        append(chars, 0, count);
+    }
+
+    // A method to record a property of the file being read (e.g. its charset or line separator), ignored by default
+    default void putProperty(Object key, Object value) {
+    }
+
+    // A static method to create a sink that appends to the end of a document and records the properties on it
+    static TextSink toDocument(Document document) {
+        return new TextSink() {
+            // A method to insert the characters at the end of the document
+            @Override
+            public void append(char[] chars, int start, int count) {
+                try {
+                    document.insertString(document.getLength(), new String(chars, start, count), null);
+                } catch (BadLocationException e) {
+                    throw new IllegalStateException("The end of the document is always a valid location", e);
+                }
+            }
+
+            // A method to record a property on the document
+            @Override
+            public void putProperty(Object key, Object value) {
+                document.putProperty(key, value);
+            }
+        };
+    }
+
+    // A static method to create a sink that appends to a string builder
+    static TextSink toBuilder(StringBuilder builder) {
+        return (chars, start, count) -> builder.append(chars, start, count);
+    }
+
+    /**
+     * The PlainDocumentBuilder class collects the text into a single array and creates a plain document from it once it is complete.
+     * Above the size threshold of PieceTableContent, the document shares the array instead of copying the text into a gap buffer
+     * (and a shared array, such as the one decoded by TextFileDecoder, is not copied at all).
+     */
+    final class PlainDocumentBuilder implements TextSink {
+
+        // === ATTRIBUTES ===
+        private final int capacity; // the estimated number of characters, used for the first array
+        private char[] chars; // the characters collected so far (or null until the first chunk arrives)
+        private int length = 0; // the number of characters collected
+        private boolean shared = false; // whether the array is shared by the reader, so it is copied before it is appended to
+        private final Map<Object, Object> properties = new LinkedHashMap<>(); // the properties recorded for the document
+
+        // === CONSTRUCTORS ===
+
+        // A parameterized constructor to initialize a new builder with an estimate of the number of characters
+        public PlainDocumentBuilder(long capacity) {
+            this.capacity = (int) Math.min(Math.max(capacity, 16), Integer.MAX_VALUE - 8);
+        }
+
+        // === METHODS ===
+
+        // A method to copy the characters to the end of the array, growing (or unsharing) it if needed
+        @Override
+        public void append(char[] source, int start, int count) {
+            if (chars == null) {
+                chars = new char[Math.max(capacity, count)];
+            } else if (shared || length + count > chars.length) {
+                chars = Arrays.copyOf(chars, (int) Math.min(Math.max((long) chars.length * 2, (long) length + count), Integer.MAX_VALUE - 8));
+                shared = false;
+            }
+            System.arraycopy(source, start, chars, length, count);
+            length += count;
+        }
+
+        // A method to keep an array that is never modified afterwards as the text, if nothing has been collected yet
+        @Override
+        public void appendShared(char[] source, int count) {
+            if (length == 0) {
+                chars = source;
+                length = count;
+                shared = true;
+            } else {
+                append(source, 0, count);
+            }
+        }
+
+        // A method to record a property for the document
+        @Override
+        public void putProperty(Object key, Object value) {
+            properties.put(key, value);
+        }
+
+        // A method to create the document holding the text and the properties collected
+        public PlainDocument createDocument() throws BadLocationException {
+            PlainDocument document;
+            if (length >= PieceTableContent.SIZE_THRESHOLD) {
+                document = PieceTableContent.createDocument(chars, length);
+            } else {
+                document = new PlainDocument();
+                document.insertString(0, (length == 0) ? "" : new String(chars, 0, length), null);
+            }
+            properties.forEach(document::putProperty);
+            return document;
+        }
+    }
+}
@@ -0,0 +1,437 @@
+// Import Java Swing classes for the document model
+import javax.swing.SwingWorker; // to build the index on a background thread
+import javax.swing.event.DocumentEvent; // to receive insert and remove events
+import javax.swing.event.DocumentListener; // to keep the index up to date with the document
+import javax.swing.text.BadLocationException; // to handle bad location exceptions
+import javax.swing.text.Document; // to read the indexed text
+import javax.swing.text.JTextComponent; // to follow the document of the text area
+import javax.swing.text.Segment; // to read the document without copying it into strings
+// Import other necessary packages/classes
+import java.beans.PropertyChangeListener; // to rebuild the index when the text area gets a new document
+import java.util.ArrayList; // to store the blocks of the index
+import java.util.Arrays; // to clear the bit set of a block
+import java.util.List; // to work with lists
+
+/**
+ * The TrigramIndex class maintains an optional search index over the document of a text area.
+ * The document is divided into blocks of about 4096 characters, and each block stores a bit set (a Bloom filter) of the
+ * lowercase trigrams (e.g. three-character sequences) that start in it. A search only has to scan the blocks whose bit sets
+ * contain every trigram of the query, instead of the whole document.
+ * A DocumentListener keeps the index up to date: each insert or remove only re-indexes the one or two blocks it touches,
+ * and finds them through a Fenwick tree of the block lengths in O(log blocks) time, so typing stays fast however large the file is.
+ * The index of a new document is built on a background thread, and searches scan the whole document until it is ready.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-06
+ */
+
+public class TrigramIndex implements DocumentListener {
+
+    // === CONSTANTS ===
+    private static final int BLOCK_SIZE = 4096; // the target number of characters in a block
+    private static final int BLOOM_BITS = 16384; // the number of bits in the trigram bit set of a block
+    private static final int BLOOM_WORDS = BLOOM_BITS / 64; // the number of longs in the trigram bit set of a block
+    private static final int BLOCK_OVERHEAD_BYTES = 48; // the approximate memory used by a block besides its bit set
+
+    // === ATTRIBUTES ===
+    private final JTextComponent textComponent; // the text component whose document is indexed
+    private final PropertyChangeListener documentChangeListener = e -> attach((Document) e.getNewValue());
+    private final List<Block> blocks = new ArrayList<>(); // the blocks of the index, in document order
+    private final Segment segment = new Segment(); // a shared segment used to read the document
+    private Document document; // the document currently indexed
+    private int[] offsets = new int[1]; // a Fenwick tree of the block lengths, to find the block at an offset and its start
+    private volatile int generation = 0; // a counter incremented on every edit, so that a build of an edited document is restarted
+    private boolean ready = false; // whether the blocks index the current document (false while a build is running)
+    private BuildWorker builder; // the worker building the index of the document (or null if none is running)
+    private long updateCount = 0; // the number of incremental updates performed
+    private long totalUpdateNanos = 0; // the total time spent on incremental updates, in nanoseconds
+    private long lastUpdateNanos = 0; // the time spent on the last incremental update, in nanoseconds
+
+    // === CONSTRUCTORS ===
+
+    // A parameterized constructor to build the index for the document of a text component
+    public TrigramIndex(JTextComponent textComponent) {
+        this.textComponent = textComponent;
+        textComponent.addPropertyChangeListener("document", documentChangeListener);
+        attach(textComponent.getDocument());
+    }
+
+    // === METHODS ===
+
+    // A method to stop maintaining the index (e.g. when the index is disabled)
+    public void dispose() {
+        textComponent.removePropertyChangeListener("document", documentChangeListener);
+        if (document != null) {
+            document.removeDocumentListener(this);
+        }
+        if (builder != null) {
+            builder.cancel(true);
+            builder = null;
+        }
+        ready = false;
+        blocks.clear();
+    }
+
+    // A method to index a new document, replacing the index of the previous one
+    private void attach(Document newDocument) {
+        if (document != null) {
+            document.removeDocumentListener(this);
+        }
+        document = newDocument;
+        document.addDocumentListener(this);
+        rebuild();
+    }
+
+    // A method to rebuild the whole index from the document on a background thread (on the Event Dispatch Thread)
+    public void rebuild() {
+        if (builder != null) {
+            builder.cancel(true);
+        }
+        ready = false;
+        blocks.clear();
+        builder = new BuildWorker(document);
+        builder.execute();
+    }
+
+    // A method to check whether the index is ready to be searched (on the Event Dispatch Thread)
+    public boolean isReady() {
+        return ready;
+    }
+
+    // A method to update the index after text has been inserted into the document
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        generation++;
+        if (!ready) {
+            return; // The running build will be restarted
+        }
+        long startTime = System.nanoTime();
+        int offset = e.getOffset();
+        if (blocks.isEmpty()) {
+            blocks.add(new Block(0));
+            buildOffsets();
+        }
+        // Find the block containing the offset (an insert at the end of a block extends that block)
+        int[] found = findBlock(offset, true);
+        int blockIndex = found[0];
+        int blockStart = found[1];
+        reindexPrevious(blockIndex, blockStart, offset);
+        Block block = blocks.get(blockIndex);
+        block.length += e.getLength();
+        addOffset(blockIndex, e.getLength());
+        // Split the block if it has grown too large, so that re-indexing a block stays cheap
+        boolean split = false;
+        while (block.length > 2 * BLOCK_SIZE) {
+            Block rest = new Block(block.length - BLOCK_SIZE);
+            block.length = BLOCK_SIZE;
+            indexBlock(block, blockStart);
+            blocks.add(++blockIndex, rest);
+            blockStart += BLOCK_SIZE;
+            block = rest;
+            split = true;
+        }
+        // A split, which happens at most once per few thousand characters inserted, rebuilds the tree of the block lengths
+        if (split) {
+            buildOffsets();
+        }
+        indexBlock(block, blockStart);
+        recordUpdate(startTime);
+    }
+
+    // A method to update the index after text has been removed from the document
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        generation++;
+        if (!ready || blocks.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        int offset = e.getOffset();
+        int remaining = e.getLength();
+        // Find the block containing the offset
+        int[] found = findBlock(offset, false);
+        int blockIndex = found[0];
+        int blockStart = found[1];
+        // Remove the characters from this block and the following ones, dropping the following blocks that become empty
+        int index = blockIndex;
+        int removeFrom = offset - blockStart;
+        boolean merged = false;
+        while (remaining > 0 && index < blocks.size()) {
+            Block block = blocks.get(index);
+            int removed = Math.min(remaining, block.length - removeFrom);
+            block.length -= removed;
+            remaining -= removed;
+            removeFrom = 0;
+            if (block.length == 0 && index != blockIndex) {
+                blocks.remove(index);
+                merged = true;
+            } else {
+                addOffset(index, -removed);
+                index++;
+            }
+        }
+        // Merge the block with the next one if it has become small, so that removals do not leave many tiny blocks
+        Block block = blocks.get(blockIndex);
+        if (blockIndex + 1 < blocks.size() && block.length + blocks.get(blockIndex + 1).length <= BLOCK_SIZE) {
+            block.length += blocks.remove(blockIndex + 1).length;
+            merged = true;
+        }
+        // Dropping or merging blocks, which a single keystroke rarely does, rebuilds the tree of the block lengths
+        if (merged) {
+            buildOffsets();
+        }
+        reindexPrevious(blockIndex, blockStart, offset);
+        indexBlock(block, blockStart);
+        recordUpdate(startTime);
+    }
+
+    // A method that ignores attribute changes, as they do not change the text
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    // A helper method to re-index the block before the edited one if the trigrams at its end run into the edit
+    private void reindexPrevious(int blockIndex, int blockStart, int offset) {
+        if (blockIndex > 0 && offset - blockStart < 2) {
+            Block previous = blocks.get(blockIndex - 1);
+            indexBlock(previous, blockStart - previous.length);
+        }
+    }
+
+    // A helper method to find the block containing an offset and its start, in O(log blocks) time through the tree of the block lengths
+    // (an offset at the end of a block belongs to that block if atEnd is true, and to the next block otherwise)
+    private int[] findBlock(int offset, boolean atEnd) {
+        int count = blocks.size();
+        int index = 0; // the number of blocks known to end before the offset
+        int start = 0; // the total length of those blocks
+        for (int step = Integer.highestOneBit(count); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= count && (atEnd ? start + offsets[next] < offset : start + offsets[next] <= offset)) {
+                index = next;
+                start += offsets[next];
+            }
+        }
+        // An offset past the last block (e.g. an insert at the end of the document) belongs to the last block
+        if (index == count) {
+            index = count - 1;
+            start -= blocks.get(index).length;
+        }
+        return new int[]{index, start};
+    }
+
+    // A helper method to add to the length of a block in the tree of the block lengths, in O(log blocks) time
+    private void addOffset(int blockIndex, int delta) {
+        for (int i = blockIndex + 1; i < offsets.length; i += i & -i) {
+            offsets[i] += delta;
+        }
+    }
+
+    // A helper method to build the tree of the block lengths from the blocks, in O(blocks) time
+    private void buildOffsets() {
+        offsets = new int[blocks.size() + 1];
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += blocks.get(i - 1).length;
+            int parent = i + (i & -i);
+            if (parent < offsets.length) {
+                offsets[parent] += offsets[i];
+            }
+        }
+    }
+
+    // A helper method to record the time spent on an incremental update
+    private void recordUpdate(long startTime) {
+        lastUpdateNanos = System.nanoTime() - startTime;
+        totalUpdateNanos += lastUpdateNanos;
+        updateCount++;
+    }
+
+    // A helper method to rebuild the trigram bit set of a block that starts at the given offset
+    private void indexBlock(Block block, int blockStart) {
+        try {
+            indexBlock(document, segment, block, blockStart);
+        } catch (BadLocationException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // A static method to rebuild the trigram bit set of a block of a document that starts at the given offset
+    private static void indexBlock(Document document, Segment segment, Block block, int blockStart) throws BadLocationException {
+        Arrays.fill(block.bloom, 0L);
+        // Read the block plus the two characters after it, so the trigrams starting at its end are included
+        int length = Math.min(block.length + 2, document.getLength() - blockStart);
+        if (length < 3) {
+            return;
+        }
+        document.getText(blockStart, length, segment);
+        char[] chars = segment.array;
+        int base = segment.offset;
+        char c0 = Character.toLowerCase(chars[base]);
+        char c1 = Character.toLowerCase(chars[base + 1]);
+        for (int i = 2; i < length; i++) {
+            char c2 = Character.toLowerCase(chars[base + i]);
+            int bit = hash(c0, c1, c2);
+            block.bloom[bit >>> 6] |= 1L << bit;
+            c0 = c1;
+            c1 = c2;
+        }
+    }
+
+    // A helper method to hash a lowercase trigram to a bit of the bit set
+    private static int hash(char c0, char c1, char c2) {
+        int h = (c0 * 31 + c1) * 31 + c2;
+        h ^= (h >>> 15);
+        h *= 0x2C1B3C6D;
+        h ^= (h >>> 12);
+        return h & (BLOOM_BITS - 1);
+    }
+
+    // A method to get the ranges [start, end) of the document where a match of the (lowercase) search term may start
+    public List<int[]> getCandidateRanges(String lowerSearchTerm) {
+        List<int[]> ranges = new ArrayList<>();
+        int documentLength = document.getLength();
+        // Terms shorter than a trigram cannot be filtered (nor any term while the index is being built), so the whole document is a candidate
+        if (lowerSearchTerm.length() < 3 || !ready) {
+            ranges.add(new int[]{0, documentLength});
+            return ranges;
+        }
+        // Compute the bits of the trigrams of the search term
+        int trigramCount = lowerSearchTerm.length() - 2;
+        int[] bits = new int[trigramCount];
+        for (int i = 0; i < trigramCount; i++) {
+            bits[i] = hash(lowerSearchTerm.charAt(i), lowerSearchTerm.charAt(i + 1), lowerSearchTerm.charAt(i + 2));
+        }
+        int blockStart = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            int blockEnd = blockStart + blocks.get(i).length;
+            if (mayContainMatch(i, blockStart, lowerSearchTerm.length(), bits)) {
+                // Merge adjacent candidate blocks into a single range
+                int[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+                if (last != null && last[1] == blockStart) {
+                    last[1] = blockEnd;
+                } else {
+                    ranges.add(new int[]{blockStart, blockEnd});
+                }
+            }
+            blockStart = blockEnd;
+        }
+        return ranges;
+    }
+
+    // A helper method to check whether a match of the search term may start in a block
+    private boolean mayContainMatch(int blockIndex, int blockStart, int termLength, int[] bits) {
+        // A match starting in the block may run into the following blocks, so its trigrams can start in any of them
+        int spanEnd = blockStart + blocks.get(blockIndex).length + termLength - 3;
+        for (int bit : bits) {
+            boolean found = false;
+            int start = blockStart;
+            for (int i = blockIndex; i < blocks.size() && start <= spanEnd && !found; i++) {
+                found = (blocks.get(i).bloom[bit >>> 6] & (1L << bit)) != 0;
+                start += blocks.get(i).length;
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A getter method to retrieve the approximate memory used by the index, in bytes
+    public long getMemoryUsage() {
+        return (long) blocks.size() * (BLOOM_WORDS * 8L + BLOCK_OVERHEAD_BYTES);
+    }
+
+    // A getter method to retrieve the number of blocks in the index
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    // A getter method to retrieve the average time spent updating the index per edit (e.g. per keystroke), in nanoseconds
+    public long getAverageUpdateNanos() {
+        return (updateCount == 0) ? 0 : totalUpdateNanos / updateCount;
+    }
+
+    // A getter method to retrieve the time spent on the last update of the index, in nanoseconds
+    public long getLastUpdateNanos() {
+        return lastUpdateNanos;
+    }
+
+    /**
+     * The BuildWorker class builds the blocks of a document on a background thread, one block at a time under the read lock of the document,
+     * and starts again if the document is edited in the meantime.
+     */
+    private final class BuildWorker extends SwingWorker<List<Block>, Void> {
+        private final Document builtDocument; // the document being indexed
+        private final int builtGeneration = generation; // the edit counter of the document when the build started
+
+        // A parameterized constructor to initialize a new build of the index of a document
+        BuildWorker(Document builtDocument) {
+            this.builtDocument = builtDocument;
+        }
+
+        // A method to index the blocks of the document, stopping (with null) as soon as the document is edited
+        @Override
+        protected List<Block> doInBackground() {
+            List<Block> built = new ArrayList<>();
+            Segment buildSegment = new Segment();
+            boolean[] edited = new boolean[1];
+            int[] length = {1};
+            for (int start = 0; start < length[0] && !edited[0] && !isCancelled(); start += BLOCK_SIZE) {
+                int blockStart = start;
+                // Hold the read lock for one block only, so that an edit waits at most for the indexing of a block
+                builtDocument.render(() -> {
+                    length[0] = builtDocument.getLength();
+                    edited[0] = generation != builtGeneration;
+                    if (edited[0] || blockStart >= length[0]) {
+                        return;
+                    }
+                    Block block = new Block(Math.min(BLOCK_SIZE, length[0] - blockStart));
+                    try {
+                        indexBlock(builtDocument, buildSegment, block, blockStart);
+                    } catch (BadLocationException e) {
+                        edited[0] = true; // Not reached, as the length is read under the same lock
+                    }
+                    built.add(block);
+                });
+            }
+            return edited[0] ? null : built;
+        }
+
+        // A method to replace the blocks with the new index on the Event Dispatch Thread, or build it again if the document was edited
+        @Override
+        protected void done() {
+            if (isCancelled() || builder != this || builtDocument != document) {
+                return;
+            }
+            builder = null;
+            List<Block> built;
+            try {
+                built = get();
+            } catch (Exception e) {
+                e.printStackTrace();
+                return;
+            }
+            if (built == null || generation != builtGeneration) {
+                rebuild();
+                return;
+            }
+            blocks.clear();
+            blocks.addAll(built);
+            buildOffsets();
+            ready = true;
+        }
+    }
+
+    /**
+     * The Block class stores the length of a block of the document and the bit set of the trigrams that start in it.
+     */
+    private static final class Block {
+        private int length; // the number of characters in the block
+        private final long[] bloom = new long[BLOOM_WORDS]; // the bit set of the trigrams starting in the block
+
+        // A parameterized constructor to initialize a new block of the given length
+        Block(int length) {
+            this.length = length;
+        }
+    }
+}
@@ -30,5 +30,9 @@ public class ViewMenuHandler {
         timeDateMenuItem.addActionListener(e -> timeDateHandler.insertCurrentTimeDate());
         // Add the menu item to the view menu
         viewMenu.add(timeDateMenuItem);
+        // Create a menu item for 'Performance Metrics', showing the latencies of the operations of the editor so far
+        JMenuItem metricsMenuItem = new JMenuItem("Performance Metrics");
+        metricsMenuItem.addActionListener(e -> EditorMetrics.showMetrics(viewMenu.getTopLevelAncestor()));
+        viewMenu.add(metricsMenuItem);
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+// Import Java Swing classes for the document model (no Swing components are created)
+import javax.swing.text.Document; // to copy the charset, byte order mark, and line separator a document was read with
+// Import other necessary packages/classes
+import java.nio.charset.Charset; // to work with the charset of a text file
+import java.util.function.BooleanSupplier; // to check whether a write has been cancelled
+import java.util.function.IntConsumer; // to report the progress of a write
+
+/**
+ * The WriteOptions class holds the options a FormatCodec writes a file with. Each codec uses the options of its format and ignores
+ * the others: a text file is written in a charset, with an optional byte order mark and a line separator, while a PDF file is
+ * written in a font family and optionally in syntax colours. Every codec may be cancelled, reports its progress, and forces the
+ * file to disk if sync is set.
+
+ * @author Esdras Luna
+ * @version 1.0
+ * @since 2024-09-21
+ */
+
+public class WriteOptions {
+
+    // === ATTRIBUTES ===
+    private Charset charset = Charset.defaultCharset(); // the charset of a text file
+    private boolean byteOrderMark = false; // whether a text file starts with a byte order mark
+    private String lineSeparator = "\n"; // the line separator of a text file
+    private String fontFamily = PDFExporter.DEFAULT_FONT_FAMILY; // the font family of a page format (the 'textFormat' of config.yaml)
+    private PDFExporter.TokenColorizer colorizer; // the colorizer of the syntax colours of a page format (or null for plain text)
+    private boolean sync = false; // whether the file is forced to disk once it is written (the 'syncOnSave' of config.yaml)
+    private BooleanSupplier cancelled = () -> false; // the check of whether the write has been cancelled
+    private IntConsumer progress = percent -> { }; // the receiver of the percentage of the text written so far
+
+    // === METHODS ===
+
+    // A method to write a text file in the charset, byte order mark, and line separator a document was read with
+    public void setTextFormatOf(Document document) {
+        charset = TextFileDecoder.getCharset(document);
+        byteOrderMark = TextFileDecoder.hasBom(document);
+        lineSeparator = TextFileDecoder.getLineSeparator(document);
+    }
+
+    // A getter method to retrieve the charset of a text file
+    public Charset getCharset() {
+        return charset;
+    }
+
+    // A getter method to check whether a text file starts with a byte order mark
+    public boolean hasByteOrderMark() {
+        return byteOrderMark;
+    }
+
+    // A getter method to retrieve the line separator of a text file
+    public String getLineSeparator() {
+        return lineSeparator;
+    }
+
+    // A setter method to set the font family of a page format
+    public void setFontFamily(String fontFamily) {
+        this.fontFamily = fontFamily;
+    }
+
+    // A getter method to retrieve the font family of a page format
+    public String getFontFamily() {
+        return fontFamily;
+    }
+
+    // A setter method to set the colorizer of the syntax colours of a page format (or null for plain text)
+    public void setColorizer(PDFExporter.TokenColorizer colorizer) {
+        this.colorizer = colorizer;
+    }
+
+    // A getter method to retrieve the colorizer of the syntax colours of a page format (or null for plain text)
+    public PDFExporter.TokenColorizer getColorizer() {
+        return colorizer;
+    }
+
+    // A setter method to set whether the file is forced to disk once it is written
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    // A getter method to check whether the file is forced to disk once it is written
+    public boolean isSync() {
+        return sync;
+    }
+
+    // A setter method to set the check of whether the write has been cancelled
+    public void setCancelled(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    // A getter method to retrieve the check of whether the write has been cancelled
+    public BooleanSupplier getCancelled() {
+        return cancelled;
+    }
+
+    // A setter method to set the receiver of the progress of the write
+    public void setProgress(IntConsumer progress) {
+        this.progress = progress;
+    }
+
+    // A getter method to retrieve the receiver of the progress of the write
+    public IntConsumer getProgress() {
+        return progress;
+    }
+}
@@ -0,0 +1,63 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create temporary directories for the input and output files
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import org.apache.pdfbox.Loader; // to load the converted PDF files
+import org.apache.pdfbox.pdmodel.PDDocument; // to inspect the converted PDF files
+import org.apache.pdfbox.text.PDFTextStripper; // to extract the text of the converted PDF files
+import java.io.ByteArrayOutputStream; // to capture the output of the converter
+import java.io.PrintStream; // to capture the output of the converter
+import java.nio.charset.StandardCharsets; // to decode the output of the converter
+import java.nio.file.Files; // to create and inspect the files
+import java.nio.file.Path; // to work with the temporary directories
+
+/**
+ * A class to test the functionality of the BatchConverter class.
+ */
+public class BatchConverterTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+    private final ConfigLoader config = new ConfigLoader("config.yaml");
+
+    // === TEST CASES ===
+
+    // A test case to test that the files matched by a glob are converted to plain text, keeping their relative paths
+    @Test
+    public void testConvertToText(@TempDir Path input, @TempDir Path output) throws Exception {
+        // Arrange: copy the test files into a directory tree
+        Files.createDirectories(input.resolve("sub"));
+        Files.copy(Path.of("src/test/resources/testFile.odt"), input.resolve("testFile.odt"));
+        Files.copy(Path.of("src/test/resources/testFile.rtf"), input.resolve("sub/testFile.rtf"));
+        Files.copy(Path.of("src/test/resources/testFile.txt"), input.resolve("sub/notes.txt"));
+        // Act: convert every supported file of the tree
+        int exitCode = BatchConverter.run(new String[] {"--convert", "--to", "txt", "--out", output.toString(), "--threads", "2",
+                input + "/**"}, config, new PrintStream(new ByteArrayOutputStream()), System.err);
+        // Assert: each file is converted under its relative path
+        assertEquals(0, exitCode);
+        assertEquals(testContent, Files.readString(output.resolve("sub/testFile.txt")).trim());
+        assertEquals(testContent, Files.readString(output.resolve("sub/notes.txt")).trim());
+        assertTrue(Files.readString(output.resolve("testFile.txt")).contains(testContent));
+    }
+
+    // A test case to test that a file that cannot be read is reported without stopping the conversion of the others to PDF
+    @Test
+    public void testConvertToPdfReportsFailedFiles(@TempDir Path input, @TempDir Path output) throws Exception {
+        // Arrange: write a valid text file and an ODT file that is not a zip archive
+        Files.writeString(input.resolve("good.txt"), testContent);
+        Files.writeString(input.resolve("broken.odt"), testContent);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        // Act: convert both files to PDF
+        int exitCode = BatchConverter.run(new String[] {"--convert", "--to", "pdf", "--out", output.toString(), input + "/*.{txt,odt}"},
+                config, new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+        // Assert: the valid file is converted, the broken one is reported, and the statistics count both
+        assertEquals(1, exitCode);
+        try (PDDocument document = Loader.loadPDF(output.resolve("good.pdf").toFile())) {
+            assertTrue(new PDFTextStripper().getText(document).contains(testContent));
+        }
+        assertFalse(Files.exists(output.resolve("broken.pdf")));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("broken.odt"));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("1 of 2 file(s) converted, 1 failed"));
+    }
+}
@@ -0,0 +1,94 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory for the test files
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to check the syntax styles of the codecs
+import javax.swing.text.PlainDocument; // to read the files into
+import java.io.ByteArrayInputStream; // to read the text of a custom format
+import java.io.InputStream; // to read the test files
+import java.nio.charset.StandardCharsets; // to encode the test files
+import java.nio.file.Files; // to create the test files
+import java.nio.file.Path; // to work with the temporary directory
+import java.util.Set; // to list the extensions of a custom format
+
+/**
+ * A class to test the functionality of the CodecRegistry class and the built-in codecs.
+ */
+public class CodecRegistryTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+
+    // === TEST CASES ===
+
+    // A test case to test that files are found by extension, and by content when the extension is unknown
+    @Test
+    public void testFindByExtensionAndContent(@TempDir Path directory) throws Exception {
+        // Arrange: copy the test ODT and RTF files without their extensions, and write a text file and a binary file
+        CodecRegistry registry = CodecRegistry.getDefault();
+        Path odt = Files.copy(Path.of("src/test/resources/testFile.odt"), directory.resolve("document"));
+        Path rtf = Files.copy(Path.of("src/test/resources/testFile.rtf"), directory.resolve("letter.bak"));
+        Path text = Files.writeString(directory.resolve("README"), testContent);
+        Path binary = Files.write(directory.resolve("image.bin"), new byte[] {(byte) 0x89, 'P', 'N', 'G', 0, 0, 0, 13});
+        // Act & Assert: the extensions find their codecs
+        assertEquals(SyntaxConstants.SYNTAX_STYLE_JAVA, registry.forExtension("JAVA").getSyntaxStyle());
+        assertEquals("ODT", registry.forExtension("odt").getName());
+        assertFalse(registry.forExtension("pdf").canRead());
+        assertTrue(registry.getReadableExtensions().containsAll(Set.of("txt", "odt", "rtf", "java", "py", "cpp", "js")));
+        // Act & Assert: the files without a known extension are recognised by their content
+        assertEquals("ODT", registry.forFile(odt).getName());
+        assertEquals("RTF", registry.forFile(rtf).getName());
+        assertEquals("Text", registry.forFile(text).getName());
+        assertNull(registry.forFile(binary));
+        // Act & Assert: a file recognised by its content is read by its codec
+        PlainDocument document = new PlainDocument();
+        try (InputStream inputStream = Files.newInputStream(odt)) {
+            registry.forFile(odt).getReader().read(inputStream, Files.size(odt), TextSink.toDocument(document));
+        }
+        assertEquals(testContent, document.getText(0, document.getLength()).trim());
+    }
+
+    // A test case to test that a registered codec takes precedence, and that a large text file is loaded into a plain document
+    @Test
+    public void testRegisteredCodecAndLargeText() throws Exception {
+        // Arrange: register a codec of upper case text for the 'txt' extension in a new registry
+        CodecRegistry registry = new CodecRegistry();
+        registry.register(CodecRegistry.getDefault().forExtension("txt"));
+        registry.register(new FormatCodec() {
+            @Override
+            public String getName() {
+                return "Upper case";
+            }
+
+            @Override
+            public Set<String> getExtensions() {
+                return Set.of("txt");
+            }
+
+            @Override
+            public boolean sniff(byte[] header, int length) {
+                return false;
+            }
+
+            @Override
+            public TextReader getReader() {
+                return (inputStream, length, sink) -> {
+                    char[] chars = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).toUpperCase().toCharArray();
+                    sink.append(chars, 0, chars.length);
+                };
+            }
+        });
+        // Act: read a text with the registered codec, and a large text with the default codec of text files
+        StringBuilder upper = new StringBuilder();
+        registry.forExtension("txt").getReader().read(new ByteArrayInputStream(testContent.getBytes(StandardCharsets.UTF_8)), -1, TextSink.toBuilder(upper));
+        byte[] large = (testContent + "\r\n").repeat(PieceTableContent.SIZE_THRESHOLD / testContent.length()).getBytes(StandardCharsets.UTF_8);
+        TextSink.PlainDocumentBuilder builder = new TextSink.PlainDocumentBuilder(large.length);
+        CodecRegistry.getDefault().forExtension("txt").getReader().read(new ByteArrayInputStream(large), large.length, builder);
+        PlainDocument document = builder.createDocument();
+        // Assert: the registered codec is used, and the large text is loaded with one line per line and its line separator recorded
+        assertEquals(testContent.toUpperCase(), upper.toString());
+        assertEquals(PieceTableContent.SIZE_THRESHOLD / testContent.length() + 1, document.getDefaultRootElement().getElementCount());
+        assertEquals("\r\n", TextFileDecoder.getLineSeparator(document));
+        assertEquals(testContent, document.getText(0, testContent.length()));
+    }
+}
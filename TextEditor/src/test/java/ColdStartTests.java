@@ -0,0 +1,41 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import java.io.ByteArrayOutputStream; // to capture the output of the training run
+import java.io.PrintStream; // to capture the output of the training run
+import java.nio.charset.StandardCharsets; // to decode the output of the training run
+
+/**
+ * A class to test the functionality of the ColdStart class.
+ */
+public class ColdStartTests {
+
+    // === ATTRIBUTES ===
+    private final ConfigLoader config = new ConfigLoader("config.yaml");
+
+    // === TEST CASES ===
+
+    // A test case to test that every class of the warm-up plan exists, so none is silently left to load on first use
+    @Test
+    public void testWarmUpFindsEveryClass() {
+        // Act: load the classes of the warm-up plan
+        int loaded = ColdStart.warmUp();
+        // Assert: every class was found, so the file chooser and the format libraries are loaded before they are first needed
+        assertEquals(ColdStart.WARM_UP_CLASSES.size(), loaded);
+    }
+
+    // A test case to test that the headless training run of the class-data sharing archive completes without a display
+    @Test
+    public void testTrainingRunIsHeadless() {
+        // Arrange: capture the output of the training run
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        // Act: run the training workload as the build does
+        int exitCode = ColdStart.train(config, new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+        // Assert: the workload succeeded and found every warm-up class
+        assertEquals(0, exitCode, err.toString(StandardCharsets.UTF_8));
+        String output = out.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("Trained the class-data sharing archive"));
+        assertTrue(output.contains("(" + ColdStart.WARM_UP_CLASSES.size() + " of " + ColdStart.WARM_UP_CLASSES.size() + " warm-up classes found)"));
+    }
+}
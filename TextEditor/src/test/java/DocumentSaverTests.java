@@ -0,0 +1,82 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory for the saved files
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import javax.swing.text.BadLocationException; // to make a document fail while it is saved
+import javax.swing.text.PlainDocument; // to create the saved document
+import javax.swing.text.Segment; // to read the document in pieces
+import java.io.IOException; // to check that a failed save is reported
+import java.nio.charset.StandardCharsets; // to choose the charset of the saved file
+import java.nio.file.Files; // to read the saved files
+import java.nio.file.Path; // to work with the temporary directory
+import java.util.Arrays; // to compare the saved bytes
+
+/**
+ * A class to test the functionality of the DocumentSaver class.
+ */
+public class DocumentSaverTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+
+    // === TEST CASES ===
+
+    // A test case to test that a document is saved with its byte order mark and line separator, replacing the original file
+    @Test
+    public void testSaveWithBomAndLineSeparator(@TempDir Path directory) throws Exception {
+        // Arrange: create a document of several lines and an existing file to replace
+        PlainDocument document = new PlainDocument();
+        document.insertString(0, (testContent + "\n").repeat(5000), null);
+        Path file = directory.resolve("saved.txt");
+        Files.writeString(file, "old content");
+        // Act: save the document as UTF-16LE with a byte order mark and Windows line separators
+        DocumentSaver.save(document, file, StandardCharsets.UTF_16LE, true, "\r\n", false);
+        // Assert: the file holds the byte order mark and the converted text, and no temporary file is left
+        byte[] bytes = Files.readAllBytes(file);
+        assertArrayEquals(new byte[] {(byte) 0xFF, (byte) 0xFE}, Arrays.copyOf(bytes, 2));
+        assertEquals((testContent + "\r\n").repeat(5000), new String(bytes, 2, bytes.length - 2, StandardCharsets.UTF_16LE));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    // A test case to test that a surrogate pair split between two pieces of the document content is saved intact
+    @Test
+    public void testSaveSurrogatePairAcrossGap(@TempDir Path directory) throws Exception {
+        // Arrange: move the gap of the content between the two halves of an emoji
+        PlainDocument document = new PlainDocument();
+        String text = "a😀b\n";
+        document.insertString(0, text, null);
+        document.insertString(2, "x", null);
+        document.remove(2, 1);
+        Path file = directory.resolve("emoji.txt");
+        // Act: save the document as UTF-8
+        DocumentSaver.save(document, file, StandardCharsets.UTF_8, false, "\n", true);
+        // Assert: the emoji is encoded as one character rather than two replaced halves
+        assertEquals(text, Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    // A test case to test that a save failing part way leaves the original file intact and removes the temporary file
+    @Test
+    public void testFailedSaveKeepsOriginal(@TempDir Path directory) throws Exception {
+        // Arrange: create a document that fails after the first piece of its content is read
+        PlainDocument document = new PlainDocument() {
+            @Override
+            public void getText(int offset, int length, Segment text) throws BadLocationException {
+                if (offset > 0) {
+                    throw new BadLocationException("Failed", offset);
+                }
+                super.getText(offset, Math.min(length, 1000), text);
+            }
+        };
+        document.insertString(0, testContent.repeat(100), null);
+        Path file = directory.resolve("original.txt");
+        Files.writeString(file, "original content");
+        // Act and Assert: the save fails, and the directory holds only the unchanged original file
+        assertThrows(IOException.class, () -> DocumentSaver.save(document, file, StandardCharsets.UTF_8, false, "\n", true));
+        assertEquals("original content", Files.readString(file));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory for the journals
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument; // to replace the document of the text area
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to create the text area whose edits are recorded
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to create a new document
+import javax.swing.text.Document; // to edit the document of the text area
+import javax.swing.text.PlainDocument; // to replay the journals into
+import java.nio.file.Files; // to inspect the journal files
+import java.nio.file.Path; // to work with the temporary directory
+import java.nio.file.StandardOpenOption; // to append a partly written record to a journal
+
+/**
+ * A class to test the functionality of the EditJournal class.
+ */
+public class EditJournalTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+
+    // === TEST CASES ===
+
+    // A test case to test that the inserts, removes, and a new document are replayed, and that recording an edit takes microseconds
+    @Test
+    public void testRecordAndReplay(@TempDir Path directory) throws Exception {
+        // Arrange: create a text area with some text and a journal recording its edits
+        RSyntaxTextArea textArea = new RSyntaxTextArea("Before the journal\n");
+        EditJournal journal = EditJournal.open(textArea, directory);
+        Document document = textArea.getDocument();
+        // Act: type many lines one character at a time, remove some of them, then replace the document and edit it
+        for (int i = 0; i < 10_000; i++) {
+            document.insertString(document.getLength(), (i % 80 == 79) ? "\n" : String.valueOf((char) ('a' + i % 26)), null);
+        }
+        document.remove(10, 5_000);
+        RSyntaxDocument newDocument = new RSyntaxDocument(SyntaxConstants.SYNTAX_STYLE_JAVA);
+        newDocument.insertString(0, testContent, null);
+        textArea.setDocument(newDocument);
+        newDocument.insertString(0, "é😀 ", null);
+        newDocument.remove(newDocument.getLength() - 1, 1);
+        journal.flush();
+        // Assert: the journal is not orphaned while it is open, and replaying it gives the text of the text area
+        assertTrue(EditJournal.findOrphanedJournals(directory).isEmpty());
+        PlainDocument replayed = new PlainDocument();
+        EditJournal.replay(journal.getJournalFile(), replayed);
+        assertEquals(textArea.getText(), replayed.getText(0, replayed.getLength()));
+        // Assert: recording an edit takes well under 50 µs on average (it only copies the text and queues it), and is in the editor metrics
+        assertTrue(journal.getAverageRecordNanos() < 50_000, "Recording an edit took " + journal.getAverageRecordNanos() + " ns");
+        assertTrue(EditorMetrics.getHistogram(EditorMetrics.Operation.JOURNAL).getCount() >= journal.getRecordCount());
+        // Assert: closing the journal deletes its files
+        journal.close();
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    // A test case to test that a journal that has grown well beyond its document is compacted into a snapshot
+    @Test
+    public void testCompaction(@TempDir Path directory) throws Exception {
+        // Arrange: create a text area and a journal recording its edits
+        RSyntaxTextArea textArea = new RSyntaxTextArea();
+        EditJournal journal = EditJournal.open(textArea, directory);
+        Document document = textArea.getDocument();
+        String block = (testContent + "\n").repeat(500);
+        // Act: insert and remove a large block many times, leaving a short text
+        for (int i = 0; i < 60; i++) {
+            document.insertString(0, block, null);
+            journal.flush();
+            document.remove(0, block.length());
+        }
+        document.insertString(0, testContent, null);
+        journal.flush();
+        // Assert: the journal is much smaller than the edits made, and still replays the text
+        assertTrue(Files.size(journal.getJournalFile()) < 1024 * 1024);
+        PlainDocument replayed = new PlainDocument();
+        EditJournal.replay(journal.getJournalFile(), replayed);
+        assertEquals(testContent, replayed.getText(0, replayed.getLength()));
+        journal.close();
+    }
+
+    // A test case to test that saving the document resets the journal to the saved file, so a crash right after a save has nothing to recover,
+    // and that the edits made after the save are recovered along with the name of the file
+    @Test
+    public void testSaveResetsJournal(@TempDir Path directory) throws Exception {
+        // Arrange: create a text area with a journal and a file handler that saves it
+        RSyntaxTextArea textArea = new RSyntaxTextArea();
+        EditJournal journal = EditJournal.open(textArea, directory.resolve("journal"));
+        FileHandler fileHandler = new FileHandler(textArea);
+        fileHandler.setEditJournal(journal);
+        Path file = directory.resolve("saved.txt");
+        textArea.getDocument().insertString(0, testContent.repeat(1000), null);
+        // Act: save the document, and copy the journal as a crash would leave it
+        fileHandler.saveTxtFile(file.toFile());
+        journal.flush();
+        Path orphan = directory.resolve("journal").resolve("journal-crashed.journal");
+        Files.copy(journal.getJournalFile(), orphan);
+        // Assert: the journal ends with the saved file, so it is deleted instead of being offered for recovery
+        assertTrue(EditJournal.findOrphanedJournals(directory.resolve("journal")).isEmpty());
+        assertFalse(Files.exists(orphan));
+        // Act: edit the document after the save, and copy the journal again
+        textArea.getDocument().insertString(0, "Edited ", null);
+        journal.flush();
+        Files.copy(journal.getJournalFile(), orphan);
+        journal.close();
+        // Assert: the journal is offered for recovery, and replays the saved text and the edit along with the saved file
+        assertEquals(1, EditJournal.findOrphanedJournals(directory.resolve("journal")).size());
+        PlainDocument replayed = new PlainDocument();
+        assertEquals(file.toAbsolutePath(), EditJournal.replay(orphan, replayed));
+        EditJournal.delete(orphan);
+        assertEquals("Edited " + testContent.repeat(1000), replayed.getText(0, replayed.getLength()));
+    }
+
+    // A test case to test that the records before a partly written record are recovered from a journal left by a crash
+    @Test
+    public void testRecoverTornJournal(@TempDir Path directory) throws Exception {
+        // Arrange: record some edits, then copy the journal as a crash would leave it, with a partly written record at the end
+        RSyntaxTextArea textArea = new RSyntaxTextArea();
+        EditJournal journal = EditJournal.open(textArea, directory);
+        textArea.getDocument().insertString(0, testContent, null);
+        journal.flush();
+        Path orphan = directory.resolve("journal-crashed.journal");
+        Files.copy(journal.getJournalFile(), orphan);
+        Files.write(orphan, new byte[] {1, 0, 0, 0, 0, 0, 0, 0, 5, 0, 'x'}, StandardOpenOption.APPEND);
+        journal.close();
+        // Act: find the orphaned journal and replay it
+        PlainDocument replayed = new PlainDocument();
+        assertEquals(1, EditJournal.findOrphanedJournals(directory).size());
+        EditJournal.replay(orphan, replayed);
+        EditJournal.delete(orphan);
+        // Assert: the complete records are replayed, the partly written one is ignored, and the journal is deleted
+        assertEquals(testContent, replayed.getText(0, replayed.getLength()));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory for the saved file and the recording
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import java.io.File; // to save the document to a file
+import java.nio.file.Path; // to work with the temporary directory
+import java.util.List; // to hold the events read from the recording
+// Import Java Flight Recorder classes for the recording
+import jdk.jfr.Recording; // to record the events of the editor
+import jdk.jfr.consumer.RecordedEvent; // to read an event of the recording
+import jdk.jfr.consumer.RecordingFile; // to read the recording as 'jfr print' does
+// Import RSyntaxTextArea classes for the text area
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to create the text area that is saved
+
+/**
+ * A class to test the functionality of the EditorMetrics and LatencyHistogram classes.
+ */
+public class EditorMetricsTests {
+
+    // === ATTRIBUTES ===
+    @TempDir
+    Path tempDir; // a temporary directory for the saved file and the recording
+
+    // === TEST CASES ===
+
+    // A test case to test that the percentiles of a histogram are the upper bounds of the buckets they fall in
+    @Test
+    public void testHistogramPercentiles() {
+        // Arrange: record 90 latencies of 3 µs and 10 of 5 ms
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(3_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(5_000_000);
+        }
+        // Act and Assert: the median falls in the bucket under 4 µs, and the 99th percentile is capped at the longest latency
+        assertEquals(100, histogram.getCount());
+        assertEquals(4_000, histogram.getPercentileNanos(0.5));
+        assertEquals(4_000, histogram.getPercentileNanos(0.9));
+        assertEquals(5_000_000, histogram.getPercentileNanos(0.99));
+        assertEquals(5_000_000, histogram.getMaxNanos());
+        assertEquals((90 * 3_000L + 10 * 5_000_000L) / 100, histogram.getMeanNanos());
+    }
+
+    // A test case to test that saving a file commits a save event to a running recording and counts its latency
+    @Test
+    public void testSaveIsRecorded() throws Exception {
+        // Arrange: a text area with some content and a recording of the save events only
+        RSyntaxTextArea textArea = new RSyntaxTextArea();
+        textArea.setText("Some content for the recording");
+        FileHandler fileHandler = new FileHandler(textArea);
+        fileHandler.setTestEnvironment(true);
+        File file = tempDir.resolve("saved.txt").toFile();
+        Path recordingPath = tempDir.resolve("editor.jfr");
+        long savesBefore = EditorMetrics.getHistogram(EditorMetrics.Operation.SAVE).getCount();
+        // Act: save the file while the recording runs
+        try (Recording recording = new Recording()) {
+            recording.enable("texteditor.Save");
+            recording.start();
+            fileHandler.saveTxtFile(file);
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+        // Assert: the recording holds one save event with the size of the file, and the histogram counted it
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingPath);
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("texteditor.Save", event.getEventType().getName());
+        assertEquals(file.getPath(), event.getString("path"));
+        assertEquals(file.length(), event.getLong("fileSize"));
+        assertEquals(textArea.getDocument().getLength(), event.getLong("characters"));
+        assertEquals(savesBefore + 1, EditorMetrics.getHistogram(EditorMetrics.Operation.SAVE).getCount());
+    }
+}
@@ -0,0 +1,96 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.AfterEach; // to uninstall the watchdog after each test case
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory for the log
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import java.awt.SecondaryLoop; // to wait for events as a modal dialog does
+import java.awt.Toolkit; // to create the secondary loop of the event queue
+import java.nio.file.Files; // to read the log
+import java.nio.file.Path; // to work with the log file
+import java.util.Map; // to hold the number of stalls of each action
+import javax.swing.JMenu; // to create the menu of the stalled action
+import javax.swing.JMenuBar; // to create the menu bar of the stalled action
+import javax.swing.JMenuItem; // to create the stalled action
+import javax.swing.SwingUtilities; // to run the actions on the Event Dispatch Thread
+import javax.swing.Timer; // to close the secondary loop
+
+/**
+ * A class to test the functionality of the EdtWatchdog class.
+ */
+public class EdtWatchdogTests {
+
+    // === ATTRIBUTES ===
+    @TempDir
+    Path tempDir; // a temporary directory for the log of the stalls
+
+    // === TEST CASES ===
+
+    // A test case to test that a menu action that blocks the Event Dispatch Thread is logged with its name and stack, and counted
+    @Test
+    public void testStallIsLoggedWithMenuAction() throws Exception {
+        // Arrange: a watchdog with a short threshold, and a menu item whose action sleeps past it
+        Path log = tempDir.resolve("stalls.log");
+        EdtWatchdog watchdog = EdtWatchdog.install(100, log);
+        JMenuBar menuBar = new JMenuBar();
+        JMenu menu = new JMenu("File");
+        JMenuItem slowItem = new JMenuItem("Slow Export");
+        slowItem.addActionListener(e -> sleep(400));
+        menu.add(slowItem);
+        menuBar.add(menu);
+        EdtWatchdog.watchMenuActions(menuBar);
+        // Act: click the menu item on the Event Dispatch Thread and wait for the watchdog to report the stall
+        SwingUtilities.invokeAndWait(() -> slowItem.doClick(0));
+        Map<String, Integer> counts = awaitStallCounts(watchdog);
+        // Assert: the stall is counted for the menu action, and its report holds the stack of the sleeping action
+        assertEquals(Map.of("File > Slow Export", 1), counts);
+        String report = Files.readString(log);
+        assertTrue(report.contains("stalled for"));
+        assertTrue(report.contains("on 'File > Slow Export' (stall 1 of this action"));
+        assertTrue(report.contains("EdtWatchdogTests.sleep"));
+    }
+
+    // A test case to test that waiting for events in a nested loop (as a modal dialog does) is not a stall
+    @Test
+    public void testModalWaitIsNotAStall() throws Exception {
+        // Arrange: a watchdog with a short threshold
+        EdtWatchdog watchdog = EdtWatchdog.install(100, tempDir.resolve("stalls.log"));
+        // Act: wait in a secondary loop on the Event Dispatch Thread until a timer closes it, past the threshold
+        SwingUtilities.invokeAndWait(() -> {
+            SecondaryLoop loop = Toolkit.getDefaultToolkit().getSystemEventQueue().createSecondaryLoop();
+            Timer timer = new Timer(400, e -> loop.exit());
+            timer.setRepeats(false);
+            timer.start();
+            loop.enter();
+        });
+        sleep(200);
+        // Assert: the Event Dispatch Thread stayed responsive, so there is no stall and no log
+        assertTrue(watchdog.getStallCounts().isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("stalls.log")));
+    }
+
+    // A method to uninstall the watchdog after each test case, restoring the event queue
+    @AfterEach
+    public void tearDown() {
+        EdtWatchdog watchdog = EdtWatchdog.getInstalled();
+        if (watchdog != null) {
+            watchdog.uninstall();
+        }
+    }
+
+    // A helper method to wait up to 5 seconds for the watchdog to count a stall
+    private static Map<String, Integer> awaitStallCounts(EdtWatchdog watchdog) {
+        for (int i = 0; i < 100 && watchdog.getStallCounts().isEmpty(); i++) {
+            sleep(50);
+        }
+        return watchdog.getStallCounts();
+    }
+
+    // A helper method to sleep without a checked exception
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,7 +2,6 @@
 import org.junit.jupiter.api.*; // to use JUnit 5 testing annotations
 import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
 import java.io.*; // to work with input/output streams (e.g. files)
-import javax.swing.*; // to work with Swing components (e.g. JTextArea, JFileChooser)
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to work with RSyntaxTextArea components
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to work with syntax highlighting constants
 
@@ -14,7 +13,6 @@ public class FileHandlerTests {
     // === ATTRIBUTES ===
     private FileHandler fileHandler;
     private RSyntaxTextArea textArea;
-    private JFileChooser fileChooser;
 
     // File paths for the test files stored in the resources directory of the test folder
     private final String testTxtFilePath = "src/test/resources/testFile.txt";
@@ -31,10 +29,9 @@ public class FileHandlerTests {
     // A method to set up the test environment before each test method
     @BeforeEach
     public void setUp() {
-        // New instances of RSyntaxTextArea, JFileChooser, and FileHandler
+        // New instances of RSyntaxTextArea and FileHandler
         textArea = new RSyntaxTextArea();
-        fileChooser = new JFileChooser();
-        fileHandler = new FileHandler(textArea, fileChooser);
+        fileHandler = new FileHandler(textArea);
         fileHandler.setTestEnvironment(true);
 
     }
@@ -119,6 +116,21 @@ public class FileHandlerTests {
         tempFile.delete(); // Delete the temporary file after the test
     }
 
+    // A test case to test that the saveTxtFile method writes back the line separator of the file that was read
+    @Test
+    public void testSaveTxtFilePreservesLineSeparator() throws IOException {
+        // Create a temporary file with CRLF line separators and read it into the text area
+        File tempFile = File.createTempFile("testFile", ".txt");
+        String crlfContent = testContent + "\r\nSecond line\r\n";
+        java.nio.file.Files.writeString(tempFile.toPath(), crlfContent);
+        fileHandler.readTxtFile(tempFile);
+        assertEquals(testContent + "\nSecond line\n", textArea.getText());
+        // Save the content back and compare the bytes of the file with the original content
+        fileHandler.saveTxtFile(tempFile);
+        assertEquals(crlfContent, java.nio.file.Files.readString(tempFile.toPath()));
+        tempFile.delete(); // Delete the temporary file after the test
+    }
+
     // A method to clean up the test environment after each test case
     @AfterEach
     public void tearDown() {
@@ -0,0 +1,92 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory tree
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import java.nio.charset.StandardCharsets; // to write a test file as UTF-16
+import java.nio.file.Files; // to write the test files
+import java.nio.file.Path; // to work with paths
+import java.util.ArrayList; // to collect the matches found
+import java.util.Collections; // to collect the matches from several threads
+import java.util.List; // to work with lists
+import java.util.Set; // to specify the extensions to search
+
+/**
+ * A class to test the functionality of the FileSearchEngine class.
+ */
+public class FileSearchEngineTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.\n";
+    private final Set<String> extensions = Set.of("txt", "java");
+
+    // === TEST CASES ===
+
+    // A test case to test that every supported file in the tree is searched, including memory-mapped ones
+    @Test
+    public void testSearchDirectoryTree(@TempDir Path root) throws Exception {
+        // Arrange: create small files, a file above the mapping threshold, and a file with an unsupported extension
+        Path nested = Files.createDirectories(root.resolve("src").resolve("main"));
+        Files.writeString(root.resolve("a.txt"), testContent);
+        Files.writeString(nested.resolve("B.java"), "class B {}\n" + testContent);
+        Files.writeString(nested.resolve("ignored.md"), testContent);
+        String large = "filler line\n".repeat((int) (FileSearchEngine.MAP_THRESHOLD / 12) + 1) + "  the TextEditor\n";
+        Files.writeString(root.resolve("large.txt"), large);
+        List<FileSearchEngine.Match> matches = Collections.synchronizedList(new ArrayList<>());
+        // Act: search the tree for a term
+        FileSearchEngine engine = new FileSearchEngine(root, "texteditor", false, extensions);
+        engine.search(matches::addAll, () -> false);
+        // Assert: the matches of the supported files are found with their line numbers and columns
+        assertEquals(3, matches.size());
+        assertEquals(3, engine.getFilesScanned());
+        FileSearchEngine.Match javaMatch = matches.stream().filter(m -> m.getFile().endsWith("B.java")).findFirst().orElseThrow();
+        assertEquals(2, javaMatch.getLine());
+        assertEquals(31, javaMatch.getColumn());
+        assertFalse(javaMatch.isMapped());
+        FileSearchEngine.Match largeMatch = matches.stream().filter(m -> m.getFile().endsWith("large.txt")).findFirst().orElseThrow();
+        assertTrue(largeMatch.isMapped());
+        assertEquals(large.length() - "TextEditor\n".length(), largeMatch.getOffset());
+        assertEquals(large.split("\n").length, largeMatch.getLine());
+        assertEquals(6, largeMatch.getColumn());
+    }
+
+    // A test case to test that large (memory-mapped) and small files are decoded and compared ignoring case in the same way
+    @Test
+    public void testLargeAndSmallFilesMatchAlike(@TempDir Path root) throws Exception {
+        // Arrange: write the same UTF-16 text with a byte order mark to a small file, and after filler lines to a large file
+        String text = "une \u00c9COLE et une \u00e9cole\n";
+        String filler = "filler line\n".repeat((int) (FileSearchEngine.MAP_THRESHOLD / 24) + 1);
+        Files.writeString(root.resolve("small.txt"), "\uFEFF" + text, StandardCharsets.UTF_16LE);
+        Files.writeString(root.resolve("large.txt"), "\uFEFF" + filler + text, StandardCharsets.UTF_16LE);
+        List<FileSearchEngine.Match> matches = Collections.synchronizedList(new ArrayList<>());
+        // Act: search the files for the word ignoring case
+        new FileSearchEngine(root, "\u00e9cole", false, extensions).search(matches::addAll, () -> false);
+        // Assert: both occurrences are found in each file, at the same columns and with the same line text
+        List<FileSearchEngine.Match> small = matches.stream().filter(m -> m.getFile().endsWith("small.txt")).toList();
+        List<FileSearchEngine.Match> large = matches.stream().filter(m -> m.getFile().endsWith("large.txt")).toList();
+        assertEquals(2, small.size());
+        assertEquals(2, large.size());
+        for (int i = 0; i < 2; i++) {
+            assertTrue(large.get(i).isMapped());
+            assertEquals(small.get(i).getColumn(), large.get(i).getColumn());
+            assertTrue(large.get(i).toString().endsWith(":  " + text.strip()));
+        }
+        assertEquals(filler.split("\n").length + 1, large.get(0).getLine());
+        // The offsets of a mapped file are byte offsets, after the two bytes of the byte order mark
+        assertEquals(2 + 2L * (filler.length() + text.indexOf("\u00c9")), large.get(0).getOffset());
+    }
+
+    // A test case to test that a cancelled search stops without scanning the files
+    @Test
+    public void testCancelledSearch(@TempDir Path root) throws Exception {
+        // Arrange: create a number of files
+        for (int i = 0; i < 50; i++) {
+            Files.writeString(root.resolve("file" + i + ".txt"), testContent);
+        }
+        List<FileSearchEngine.Match> matches = Collections.synchronizedList(new ArrayList<>());
+        // Act: run a search that is cancelled from the start
+        FileSearchEngine engine = new FileSearchEngine(root, "test", false, extensions);
+        engine.search(matches::addAll, () -> true);
+        // Assert: no matches are reported
+        assertTrue(matches.isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import javax.swing.JTextArea; // to search the document of a text area
+import java.util.ArrayList; // to record the first matches reported
+import java.util.List; // to work with lists
+
+/**
+ * A class to test the functionality of the FindBar class.
+ */
+public class FindBarTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor. Another test.\n";
+
+    // === TEST CASES ===
+
+    // A test case to test that the incremental search finds the same matches as SearchHandler, starting at the origin
+    @Test
+    public void testFindMatches() throws Exception {
+        // Arrange: create content spanning several chunks of the incremental search
+        JTextArea textArea = new JTextArea(testContent.repeat(5000));
+        SearchHandler searchHandler = new SearchHandler(textArea);
+        List<Integer> firstMatches = new ArrayList<>();
+        // Act: search from the middle of the document
+        FindBar.SearchResult result = FindBar.findMatches(textArea.getDocument(), "te", false, 100000, null,
+                () -> false, firstMatches::add);
+        FindBar.SearchResult fullWordResult = FindBar.findMatches(textArea.getDocument(), "test", true, 0, null,
+                () -> false, start -> { });
+        // Assert: the matches are the same as a full search, and the first match reported is the one after the origin
+        assertEquals(searchHandler.search("te"), result.getMatches().length);
+        assertEquals(searchHandler.searchFullWord("test"), fullWordResult.getMatches().length);
+        assertEquals(1, firstMatches.size());
+        assertEquals(textArea.getText().toLowerCase().indexOf("te", 100000), firstMatches.get(0));
+    }
+
+    // A test case to test that extending the query narrows the previous result to the same matches as a new search
+    @Test
+    public void testNarrowPreviousResult() throws Exception {
+        // Arrange: search for a prefix of the query
+        JTextArea textArea = new JTextArea(testContent.repeat(100));
+        FindBar.SearchResult previous = FindBar.findMatches(textArea.getDocument(), "te", false, 0, null, () -> false, start -> { });
+        // Act: extend the query, with and without whole word matching
+        FindBar.SearchResult narrowed = FindBar.findMatches(textArea.getDocument(), "tes", false, 0, previous, () -> false, start -> { });
+        FindBar.SearchResult narrowedFullWord = FindBar.findMatches(textArea.getDocument(), "test", true, 0, narrowed,
+                () -> false, start -> { });
+        // Assert: the narrowed results are the same as new searches
+        assertArrayEquals(FindBar.findMatches(textArea.getDocument(), "tes", false, 0, null, () -> false, start -> { }).getMatches(),
+                narrowed.getMatches());
+        assertEquals(200, narrowedFullWord.getMatches().length);
+    }
+}
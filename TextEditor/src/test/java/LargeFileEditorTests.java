@@ -0,0 +1,40 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory for the edited file
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import java.io.File; // to work with the edited file
+import java.nio.charset.StandardCharsets; // to write and read the file as UTF-16
+import java.nio.file.Files; // to write and read the edited file
+import java.nio.file.Path; // to work with the temporary directory
+import javax.swing.text.PlainDocument; // to edit the document read from the file
+
+/**
+ * A class to test the functionality of the LargeFileEditor class.
+ */
+public class LargeFileEditorTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+
+    // === TEST CASES ===
+
+    // A test case to test that a file above the piece table threshold is read, edited at both ends, and saved back in its own form
+    @Test
+    public void testEditAndSaveLargeFile(@TempDir Path directory) throws Exception {
+        // Arrange: write a UTF-16 file with a byte order mark and CRLF line separators, above the size threshold of the piece table
+        int lineCount = PieceTableContent.SIZE_THRESHOLD / testContent.length() + 1;
+        String lines = (testContent + "\r\n").repeat(lineCount);
+        File file = directory.resolve("large.txt").toFile();
+        Files.writeString(file.toPath(), "\uFEFF" + lines, StandardCharsets.UTF_16LE);
+        // Act: read the file, insert a line at the start and remove the last line
+        PlainDocument document = LargeFileEditor.readDocument(file);
+        int lineMapSize = document.getDefaultRootElement().getElementCount();
+        document.insertString(0, "12:00 01/01/2024\n", null);
+        document.remove(document.getLength() - testContent.length() - 1, testContent.length() + 1);
+        LargeFileEditor.saveDocument(document, file);
+        // Assert: the line map has one line per line, and the file keeps its charset, BOM, and line separators
+        assertEquals(lineCount + 1, lineMapSize);
+        String saved = Files.readString(file.toPath(), StandardCharsets.UTF_16LE);
+        assertEquals("\uFEFF12:00 01/01/2024\r\n" + (testContent + "\r\n").repeat(lineCount - 1), saved);
+    }
+}
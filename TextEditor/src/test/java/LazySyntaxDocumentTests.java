@@ -0,0 +1,107 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory for the source files
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument; // to compare the lazy states with those of a regular document
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea; // to show the documents
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to choose the syntax styles
+import javax.swing.JScrollPane; // to give the text area a viewport
+import javax.swing.JViewport; // to count the listeners of the viewport
+import javax.swing.SwingUtilities; // to check the document on the Event Dispatch Thread
+import java.io.File; // to work with the source files
+import java.nio.file.Files; // to write the source files
+import java.nio.file.Path; // to work with the temporary directory
+
+/**
+ * A class to test the functionality of the LazySyntaxDocument class.
+ */
+public class LazySyntaxDocumentTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+
+    // === TEST CASES ===
+
+    // A test case to test that the idle slices and the edits give every line the same state as a regular document
+    @Test
+    public void testIdleSlicesMatchRegularDocument() throws Exception {
+        // Arrange: load a source text with block comments into a lazy document and a regular document
+        String text = ("/* " + testContent + "\n * still a comment\n */\nint x = 1; // " + testContent + "\n").repeat(5000);
+        LazySyntaxDocument lazy = new LazySyntaxDocument(SyntaxConstants.SYNTAX_STYLE_JAVA);
+        RSyntaxDocument regular = new RSyntaxDocument(SyntaxConstants.SYNTAX_STYLE_JAVA);
+        lazy.insertString(0, text, null);
+        regular.insertString(0, text, null);
+        RSyntaxTextArea textArea = new RSyntaxTextArea();
+        // Act: show the lazy document and wait for the idle slices, then open a block comment at the top of both documents
+        SwingUtilities.invokeAndWait(() -> {
+            textArea.setDocument(lazy);
+            lazy.startHighlighting(textArea);
+        });
+        assertFalse(lazy.isFullyHighlighted());
+        waitUntilFullyHighlighted(lazy);
+        assertStatesEqual(regular, lazy);
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                lazy.insertString(0, "/*\n", null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        regular.insertString(0, "/*\n", null);
+        waitUntilFullyHighlighted(lazy);
+        // Assert: every line has the same state in both documents
+        assertStatesEqual(regular, lazy);
+        SwingUtilities.invokeAndWait(lazy::stopHighlighting);
+    }
+
+    // A test case to test that large files are highlighted lazily, that files past the limit are opened as plain text,
+    // and that the document being replaced stops listening to the viewport (so it can be garbage collected)
+    @Test
+    public void testLargeFilesAndHighlightLimit(@TempDir Path directory) throws Exception {
+        // Arrange: write a source file just over the size from which files are highlighted lazily
+        File file = directory.resolve("Large.java").toFile();
+        Files.writeString(file.toPath(), ("// " + testContent + "\n").repeat((int) (LazySyntaxDocument.SIZE_THRESHOLD / 40)));
+        RSyntaxTextArea textArea = new RSyntaxTextArea();
+        JViewport viewport = new JScrollPane(textArea).getViewport();
+        int viewportListeners = viewport.getChangeListeners().length;
+        FileHandler fileHandler = new FileHandler(textArea);
+        fileHandler.setTestEnvironment(true);
+        // Act: open the file, then open it again with a limit below its size (on the Event Dispatch Thread, as the idle slices run there)
+        boolean[] lazy = new boolean[1];
+        String[] style = new String[1];
+        SwingUtilities.invokeAndWait(() -> {
+            fileHandler.readSourceCodeFile(file, SyntaxConstants.SYNTAX_STYLE_JAVA);
+            lazy[0] = textArea.getDocument() instanceof LazySyntaxDocument;
+            style[0] = textArea.getSyntaxEditingStyle();
+            fileHandler.setSyntaxHighlightLimit(file.length() - 1);
+            fileHandler.readSourceCodeFile(file, SyntaxConstants.SYNTAX_STYLE_JAVA);
+        });
+        // Assert: the file is highlighted lazily as Java, then shown as plain text past the limit
+        assertTrue(lazy[0]);
+        assertEquals(SyntaxConstants.SYNTAX_STYLE_JAVA, style[0]);
+        assertEquals(SyntaxConstants.SYNTAX_STYLE_NONE, textArea.getSyntaxEditingStyle());
+        assertTrue(textArea.getText().startsWith("// " + testContent));
+        assertEquals(viewportListeners + 1, viewport.getChangeListeners().length);
+        SwingUtilities.invokeAndWait(((LazySyntaxDocument) textArea.getDocument())::stopHighlighting);
+    }
+
+    // A helper method to wait (for at most 30 seconds) until the idle slices have tokenized the whole document
+    private void waitUntilFullyHighlighted(LazySyntaxDocument document) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        boolean[] done = new boolean[1];
+        while (!done[0] && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            SwingUtilities.invokeAndWait(() -> done[0] = document.isFullyHighlighted());
+        }
+        assertTrue(done[0], "The idle slices did not tokenize the whole document");
+    }
+
+    // A helper method to check that two documents give every line the same state
+    private void assertStatesEqual(RSyntaxDocument expected, RSyntaxDocument actual) {
+        int lineCount = expected.getDefaultRootElement().getElementCount();
+        assertEquals(lineCount, actual.getDefaultRootElement().getElementCount());
+        for (int line = 0; line < lineCount; line++) {
+            assertEquals(expected.getLastTokenTypeOnLine(line), actual.getLastTokenTypeOnLine(line), "State of line " + line);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.*; // to use JUnit 5 testing annotations
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import java.io.File; // to work with files
+import java.io.IOException; // to handle input/output exceptions
+import java.nio.charset.StandardCharsets; // to write the test file as UTF-8
+import java.nio.file.Files; // to create the test file
+
+/**
+ * A class to test the functionality of the MappedTextFile class.
+ */
+public class MappedTextFileTests {
+
+    // === ATTRIBUTES ===
+    private File tempFile;
+    private MappedTextFile mappedFile;
+    private final String testContent = "first line\r\nThis is a test content for the TextEditor.\nthird line\n";
+
+    // === TEST METHODS ===
+
+    // A method to set up the test environment before each test method
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempFile = File.createTempFile("testFile", ".txt");
+        Files.write(tempFile.toPath(), testContent.getBytes(StandardCharsets.UTF_8));
+        mappedFile = new MappedTextFile(tempFile);
+    }
+
+    // === TEST CASES ===
+
+    // A test case to test reading a page of lines from the start of the file
+    @Test
+    public void testReadPage() {
+        MappedTextFile.Page page = mappedFile.readPage(0, 2);
+        assertEquals("first line\nThis is a test content for the TextEditor.\n", page.getText());
+        assertEquals(0, page.getStart());
+        assertEquals(testContent.indexOf("third"), page.getEnd());
+    }
+
+    // A test case to test finding the start of the line containing an offset
+    @Test
+    public void testLineStart() {
+        long offset = testContent.indexOf("test content");
+        assertEquals(testContent.indexOf("This"), mappedFile.lineStart(offset));
+        assertEquals(0, mappedFile.previousLineStart(mappedFile.lineStart(offset)));
+    }
+
+    // A test case to test searching the mapped file with and without case sensitivity
+    @Test
+    public void testFind() {
+        assertEquals(testContent.indexOf("TextEditor"), mappedFile.find("texteditor", 0, false));
+        assertEquals(-1, mappedFile.find("texteditor", 0, true));
+        assertEquals(testContent.indexOf("third"), mappedFile.find("line", testContent.indexOf("This"), true) - 6);
+    }
+
+    // A test case to test that a UTF-16 file with a byte order mark is detected, decoded, and searched in its charset
+    @Test
+    public void testUtf16WithBom() throws IOException {
+        // Arrange: write the test content as UTF-16LE after its byte order mark
+        File utf16File = File.createTempFile("testFile", ".txt");
+        Files.write(utf16File.toPath(), ("\uFEFF" + testContent).getBytes(StandardCharsets.UTF_16LE));
+        // Act: map the file and read its first page
+        try (MappedTextFile utf16 = new MappedTextFile(utf16File)) {
+            MappedTextFile.Page page = utf16.readPage(0, 2);
+            // Assert: the charset is detected, the BOM is skipped, and the positions are byte offsets of two bytes per character
+            assertEquals(StandardCharsets.UTF_16LE, utf16.getCharset());
+            assertEquals("first line\nThis is a test content for the TextEditor.\n", page.getText());
+            assertEquals(2, page.getStart());
+            assertEquals(2 + 2L * testContent.indexOf("third"), page.getEnd());
+            assertEquals(2 + 2L * testContent.indexOf("TextEditor"), utf16.find("texteditor", 0, false));
+            assertEquals(2 + 2L * testContent.indexOf("This"), utf16.lineStart(2 + 2L * testContent.indexOf("test")));
+        } finally {
+            utf16File.delete();
+        }
+    }
+
+    // A test case to test that a line longer than the maximum length is cut between characters, not inside one
+    @Test
+    public void testLongLineCutAtCharBoundary() throws IOException {
+        // Arrange: write a line of two-byte characters that does not start at an even offset, so the maximum length falls inside one
+        File longLineFile = File.createTempFile("testFile", ".txt");
+        Files.write(longLineFile.toPath(), ("a" + "\u00e9".repeat(MappedTextFile.MAX_LINE_BYTES) + "\n").getBytes(StandardCharsets.UTF_8));
+        try (MappedTextFile longLine = new MappedTextFile(longLineFile)) {
+            // Act: read the first two parts of the line
+            MappedTextFile.Page first = longLine.readPage(0, 1);
+            MappedTextFile.Page second = longLine.readPage(first.getEnd(), 1);
+            // Assert: the cut falls before the character at the maximum length, and both parts decode without replacement characters
+            assertEquals("a" + "\u00e9".repeat(MappedTextFile.MAX_LINE_BYTES / 2 - 1) + "\n", first.getText());
+            assertFalse(second.getText().contains("\uFFFD"));
+            assertEquals(MappedTextFile.MAX_LINE_BYTES - 1, first.getEnd());
+        } finally {
+            longLineFile.delete();
+        }
+    }
+
+    // A test case to test that a search ignoring case folds non-ASCII letters as the editor does
+    @Test
+    public void testFindIgnoresUnicodeCase() {
+        // Arrange: write a line with accented capital letters after the test content
+        assertDoesNotThrow(() -> Files.write(tempFile.toPath(), (testContent + "\u00c9COLE \u00e9cole\n").getBytes(StandardCharsets.UTF_8)));
+        try (MappedTextFile accented = assertDoesNotThrow(() -> new MappedTextFile(tempFile))) {
+            // Act and Assert: the capitalised word is found ignoring case, but not when matching case
+            assertEquals(testContent.length(), accented.find("\u00e9cole", 0, false));
+            assertEquals(testContent.length() + 7, accented.find("\u00e9cole", 0, true));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // A method to clean up the test environment after each test case
+    @AfterEach
+    public void tearDown() throws IOException {
+        mappedFile.close();
+        tempFile.delete();
+    }
+}
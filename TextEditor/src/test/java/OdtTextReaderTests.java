@@ -0,0 +1,77 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import java.io.ByteArrayInputStream; // to read the ODT file created in memory
+import java.io.ByteArrayOutputStream; // to create an ODT file in memory
+import java.io.FileInputStream; // to read the test ODT file
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to work with input streams
+import java.nio.charset.StandardCharsets; // to encode the XML content
+import java.util.zip.ZipEntry; // to add the entries of the ODT file
+import java.util.zip.ZipOutputStream; // to create the ODT file
+
+/**
+ * A class to test the functionality of the OdtTextReader class.
+ */
+public class OdtTextReaderTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+    private final String testOdtFilePath = "src/test/resources/testFile.odt";
+
+    // === TEST CASES ===
+
+    // A test case to test that the paragraphs of an ODT file are extracted
+    @Test
+    public void testExtractParagraphs() throws IOException {
+        // Arrange: open the test ODT file
+        try (InputStream inputStream = new FileInputStream(testOdtFilePath)) {
+            // Act: extract the text of the file
+            String text = OdtTextReader.extractText(inputStream, -1);
+            // Assert: the text is the single paragraph of the file
+            assertEquals(testContent + "\n", text);
+        }
+    }
+
+    // A test case to test that headings, list items, and spacing elements are extracted in order, without annotations or notes
+    @Test
+    public void testExtractHeadingsAndLists() throws IOException {
+        // Arrange: create an ODT file with a heading, a nested list, spacing elements, an annotation, and a footnote
+        String body = "<text:h text:outline-level=\"1\">Title</text:h>"
+                + "<text:p>a<text:s text:c=\"3\"/>b<text:tab/>c<text:line-break/>d"
+                + "<office:annotation><text:p>hidden comment</text:p></office:annotation>"
+                + "<text:note><text:note-citation>1</text:note-citation><text:note-body><text:p>hidden note</text:p></text:note-body></text:note>"
+                + "</text:p>"
+                + "<text:list><text:list-item><text:p>first</text:p>"
+                + "<text:list><text:list-item><text:p>nested</text:p></text:list-item></text:list></text:list-item>"
+                + "<text:list-item><text:p>second &amp; last</text:p></text:list-item></text:list>";
+        // Act: extract the text of the file
+        String text = OdtTextReader.extractText(new ByteArrayInputStream(createOdt(body)), -1);
+        // Assert: every block is on its own line in document order
+        assertEquals("Title\na   b\tc\nd1\n• first\n  • nested\n• second & last\n", text);
+    }
+
+    // A test case to test that a file without content.xml is reported as an error
+    @Test
+    public void testMissingContent() {
+        // Arrange and Act: extract the text of a zip file without content.xml
+        // Assert: an IOException is thrown
+        assertThrows(IOException.class, () -> OdtTextReader.extractText(new ByteArrayInputStream(new byte[0]), 0));
+    }
+
+    // A helper method to create an ODT file in memory with a body of text elements
+    private byte[] createOdt(String body) throws IOException {
+        String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<office:document-content xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\""
+                + " xmlns:text=\"urn:oasis:names:tc:opendocument:xmlns:text:1.0\">"
+                + "<office:body><office:text>" + body + "</office:text></office:body></office:document-content>";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(bytes)) {
+            zipStream.putNextEntry(new ZipEntry("mimetype"));
+            zipStream.write("application/vnd.oasis.opendocument.text".getBytes(StandardCharsets.US_ASCII));
+            zipStream.putNextEntry(new ZipEntry("content.xml"));
+            zipStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
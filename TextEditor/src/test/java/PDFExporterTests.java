@@ -0,0 +1,167 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import org.junit.jupiter.api.io.TempDir; // to create a temporary directory for the exported files
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import static org.junit.jupiter.api.Assumptions.assumeFalse; // to skip a test if no TrueType font is installed
+import org.apache.pdfbox.Loader; // to load the exported PDF file
+import org.apache.pdfbox.pdmodel.PDDocument; // to inspect the exported PDF file
+import org.apache.pdfbox.pdmodel.PDResources; // to find the font of an exported page
+import org.apache.pdfbox.pdmodel.font.PDFont; // to inspect the embedded font
+import org.apache.pdfbox.text.PDFTextStripper; // to extract the text of the exported pages
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants; // to choose the syntax style of the exported document
+import org.fife.ui.rsyntaxtextarea.SyntaxScheme; // to get the colours of the token types
+import org.fife.ui.rsyntaxtextarea.TokenTypes; // to get the token types of keywords and comments
+import javax.swing.text.PlainDocument; // to create the exported document
+import java.awt.Color; // to set the default text colour
+import java.io.File; // to work with files
+import java.nio.CharBuffer; // to export the copied text
+import java.nio.file.Path; // to work with the temporary directory
+import java.util.ArrayList; // to record the progress reported
+import java.util.List; // to work with lists
+import java.util.concurrent.CancellationException; // to check that a cancelled export stops
+
+/**
+ * A class to test the functionality of the PDFExporter class.
+ */
+public class PDFExporterTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+
+    // === TEST CASES ===
+
+    // A test case to test that a long document is split into pages, with every line on a page
+    @Test
+    public void testPaginatedExport(@TempDir Path directory) throws Exception {
+        // Arrange: create a document with many more lines than fit on a page
+        PlainDocument document = new PlainDocument();
+        StringBuilder content = new StringBuilder();
+        int lineCount = 10000;
+        for (int i = 1; i <= lineCount; i++) {
+            content.append("Line ").append(i).append(": ").append(testContent).append('\n');
+        }
+        document.insertString(0, content.toString(), null);
+        File file = directory.resolve("export").toFile();
+        // Act: export the document
+        int pageCount = PDFExporter.writePdf(file, document);
+        // Assert: the pages hold all the lines (plus the empty last line), and the file has the .pdf extension
+        try (PDDocument pdf = Loader.loadPDF(new File(file.getAbsolutePath() + ".pdf"))) {
+            assertEquals(pageCount, pdf.getNumberOfPages());
+            int linesPerPage = (lineCount + 1 + pageCount - 1) / pageCount;
+            assertTrue(pageCount > 100 && linesPerPage <= 48);
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(pageCount);
+            stripper.setEndPage(pageCount);
+            assertTrue(stripper.getText(pdf).contains("Line " + lineCount + ": "));
+        }
+    }
+
+    // A test case to test that an export laid out from a copy of the text ignores the edits made after the copy (e.g. while it runs)
+    @Test
+    public void testExportSnapshotIgnoresLaterEdits(@TempDir Path directory) throws Exception {
+        // Arrange: create a document and copy its text as the export worker does when it starts
+        PlainDocument document = new PlainDocument();
+        document.insertString(0, testContent + "\n", null);
+        char[] text = PdfExportWorker.copyText(document);
+        // Act: edit the document, then export the copy through the codec of PDF files
+        document.insertString(0, "12:00 01/01/2024\n", null);
+        File file = directory.resolve("snapshot").toFile();
+        CodecRegistry.getDefault().forExtension("pdf").getWriter().write(CharBuffer.wrap(text), file.toPath(), new WriteOptions());
+        // Assert: the exported page holds the text as it was when copied
+        try (PDDocument pdf = Loader.loadPDF(new File(file.getAbsolutePath() + ".pdf"))) {
+            String exported = new PDFTextStripper().getText(pdf);
+            assertTrue(exported.contains(testContent));
+            assertFalse(exported.contains("12:00"));
+        }
+    }
+
+    // A test case to test that long lines are wrapped, and that tabs and characters missing from the font are replaced
+    @Test
+    public void testWrapLongLines(@TempDir Path directory) throws Exception {
+        // Arrange: create a document with a line far wider than the page, a tab, and a character missing from the font
+        PlainDocument document = new PlainDocument();
+        document.insertString(0, "\t" + (testContent + " ").repeat(20) + "中", null);
+        File file = directory.resolve("wrapped.pdf").toFile();
+        // Act: export the document
+        PDFExporter.writePdf(file, document);
+        // Assert: the line is wrapped at spaces onto several lines of the same page
+        try (PDDocument pdf = Loader.loadPDF(file)) {
+            assertEquals(1, pdf.getNumberOfPages());
+            String[] lines = new PDFTextStripper().getText(pdf).strip().split("\\R");
+            assertTrue(lines.length > 5);
+            assertTrue(lines[0].startsWith("This is a test"));
+            assertTrue(lines[lines.length - 1].endsWith("?"));
+        }
+    }
+
+    // A test case to test that the progress is reported, that special characters survive, and that a cancelled export stops
+    @Test
+    public void testProgressAndCancel(@TempDir Path directory) throws Exception {
+        // Arrange: create a document of several batches of pages whose last line has characters escaped in a content stream
+        PlainDocument document = new PlainDocument();
+        document.insertString(0, (testContent + "\n").repeat(20000) + "(a\\b)", null);
+        File file = directory.resolve("progress.pdf").toFile();
+        File cancelledFile = directory.resolve("cancelled.pdf").toFile();
+        List<Integer> progress = new ArrayList<>();
+        // Act: export the document while recording the progress, then export it again cancelling straight away
+        int pageCount = PDFExporter.writePdf(file, new DocumentCharSequence(document), PDFExporter.DEFAULT_FONT_FAMILY, null, () -> false, progress::add);
+        // Assert: the progress rises to 100, the last line is intact, and the cancelled export writes no file
+        assertEquals(100, progress.get(progress.size() - 1));
+        try (PDDocument pdf = Loader.loadPDF(file)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(pageCount);
+            assertTrue(stripper.getText(pdf).strip().endsWith("(a\\b)"));
+        }
+        assertThrows(CancellationException.class, () -> PDFExporter.writePdf(cancelledFile, new DocumentCharSequence(document), "monospaced", null, () -> true, percent -> { }));
+        assertFalse(cancelledFile.exists());
+    }
+
+    // A test case to test that the configured monospaced font is embedded as a subset, and that the font is cached
+    @Test
+    public void testEmbeddedFontSubset(@TempDir Path directory) throws Exception {
+        // Arrange: create a document with characters outside the standard PDF encoding
+        PDFExporter.ExportFont exportFont = PDFExporter.ExportFont.forFamily("monospaced");
+        assumeFalse(exportFont.isFallback(), "No monospaced TrueType font is installed");
+        PlainDocument document = new PlainDocument();
+        document.insertString(0, "x → λ ≠ y (ok)\n" + testContent, null);
+        File file = directory.resolve("unicode.pdf").toFile();
+        // Act: export the document in the monospaced font
+        PDFExporter.writePdf(file, new DocumentCharSequence(document), "Monospaced", null, () -> false, percent -> { });
+        // Assert: the text survives, the font is an embedded subset, and the same cached font is used for the family
+        try (PDDocument pdf = Loader.loadPDF(file)) {
+            assertTrue(new PDFTextStripper().getText(pdf).contains("x → λ ≠ y (ok)"));
+            PDResources resources = pdf.getPage(0).getResources();
+            PDFont font = resources.getFont(resources.getFontNames().iterator().next());
+            assertTrue(font.isEmbedded());
+            assertTrue(font.getName().contains("+")); // A subset font has a tag before its name
+        }
+        assertTrue(file.length() < 50_000);
+        assertSame(exportFont, PDFExporter.ExportFont.forFamily("Monospaced"));
+    }
+
+    // A test case to test that adjacent tokens of the same colour are merged into runs, including across lines of a comment
+    @Test
+    public void testSyntaxColorRuns(@TempDir Path directory) throws Exception {
+        // Arrange: create a Java document with several keywords in a row and a comment spanning two lines
+        PlainDocument document = new PlainDocument();
+        document.insertString(0, "public static final\nint x = 1; /* a\nstill a comment */\n", null);
+        SyntaxScheme scheme = new SyntaxScheme(true);
+        PDFExporter.GlyphTable glyphs = PDFExporter.ExportFont.forFamily("monospaced").getGlyphs();
+        PDFExporter.TokenColorizer colorizer = new PDFExporter.TokenColorizer(SyntaxConstants.SYNTAX_STYLE_JAVA, scheme, Color.BLACK);
+        File file = directory.resolve("colored.pdf").toFile();
+        // Act: lay out the document in syntax colours, and export it
+        List<PDFExporter.Line> lines = new PDFExporter.Paginator(new DocumentCharSequence(document), glyphs, colorizer, 500, 48).nextPage();
+        PDFExporter.writePdf(file, new DocumentCharSequence(document), "monospaced", new PDFExporter.TokenColorizer(SyntaxConstants.SYNTAX_STYLE_JAVA,
+                scheme, Color.BLACK), () -> false, percent -> { });
+        // Assert: the keywords form one run, the comment keeps its colour on its second line, and the text is exported
+        int keywordColor = scheme.getStyle(TokenTypes.RESERVED_WORD).foreground.getRGB() & 0xFFFFFF;
+        int commentColor = scheme.getStyle(TokenTypes.COMMENT_MULTILINE).foreground.getRGB() & 0xFFFFFF;
+        assertEquals(1, lines.get(0).getRunCount());
+        assertEquals(keywordColor, lines.get(0).getRunColor(0));
+        assertEquals(1, lines.get(2).getRunCount());
+        assertEquals(commentColor, lines.get(2).getRunColor(0));
+        try (PDDocument pdf = Loader.loadPDF(file)) {
+            assertTrue(new PDFTextStripper().getText(pdf).contains("still a comment */"));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import javax.swing.text.Element; // to inspect the line map of a document
+import javax.swing.text.PlainDocument; // to create documents around the contents
+import javax.swing.text.Position; // to check that the positions follow the edits
+import javax.swing.text.Segment; // to read the text without copying it
+import javax.swing.text.StringContent; // to compare the piece table with a simple content
+import javax.swing.undo.UndoManager; // to undo the edits
+import java.util.ArrayList; // to store the positions
+import java.util.List; // to work with lists
+import java.util.Random; // to make random edits
+
+/**
+ * A class to test the functionality of the PieceTableContent class.
+ */
+public class PieceTableContentTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+
+    // === TEST CASES ===
+
+    // A test case to test that random inserts and removes give the same text, lines, and positions as a simple content
+    @Test
+    public void testRandomEditsMatchStringContent() throws Exception {
+        // Arrange: create a document around each content, with positions spread over the text
+        PlainDocument expected = new PlainDocument(new StringContent());
+        PlainDocument actual = new PlainDocument(new PieceTableContent());
+        String text = (testContent + "\n").repeat(50);
+        expected.insertString(0, text, null);
+        actual.insertString(0, text, null);
+        List<Position> expectedPositions = new ArrayList<>();
+        List<Position> actualPositions = new ArrayList<>();
+        Random random = new Random(42);
+        // Act: make many random edits, creating a position after some of them
+        for (int i = 0; i < 5000; i++) {
+            int length = expected.getLength();
+            if (random.nextInt(3) > 0 || length < 10) {
+                int offset = random.nextInt(length + 1);
+                String insert = random.nextBoolean() ? "\n" : testContent.substring(0, random.nextInt(10) + 1);
+                expected.insertString(offset, insert, null);
+                actual.insertString(offset, insert, null);
+            } else {
+                int offset = random.nextInt(length);
+                int count = Math.min(random.nextInt(40) + 1, length - offset);
+                expected.remove(offset, count);
+                actual.remove(offset, count);
+            }
+            if (i % 10 == 0) {
+                int offset = random.nextInt(expected.getLength() + 1);
+                expectedPositions.add(expected.createPosition(offset));
+                actualPositions.add(actual.createPosition(offset));
+            }
+        }
+        // Assert: the text, the line map, and every position are the same
+        assertEquals(expected.getText(0, expected.getLength()), actual.getText(0, actual.getLength()));
+        assertEquals(expected.getDefaultRootElement().getElementCount(), actual.getDefaultRootElement().getElementCount());
+        for (int i = 0; i < expectedPositions.size(); i++) {
+            assertEquals(expectedPositions.get(i).getOffset(), actualPositions.get(i).getOffset());
+        }
+    }
+
+    // A test case to test that a loaded document shares the original characters, builds its lines, and undoes its edits
+    @Test
+    public void testLoadedDocumentSharesCharacters() throws Exception {
+        // Arrange: create a document around an array of several lines
+        char[] chars = (testContent + "\n").repeat(1000).toCharArray();
+        PlainDocument document = PieceTableContent.createDocument(chars, chars.length - 1);
+        UndoManager undoManager = new UndoManager();
+        document.addUndoableEditListener(undoManager);
+        // Act: read the start of the text, then edit both ends of the document
+        Segment segment = new Segment();
+        document.getText(0, 10, segment);
+        document.insertString(0, "First ", null);
+        document.insertString(document.getLength(), " last", null);
+        document.remove(6, 5);
+        // Assert: the text is read in place from the original array, with one line element per line
+        assertSame(chars, segment.array);
+        assertEquals(1000, document.getDefaultRootElement().getElementCount());
+        Element lastLine = document.getDefaultRootElement().getElement(999);
+        assertEquals(testContent + " last", document.getText(lastLine.getStartOffset(), lastLine.getEndOffset() - lastLine.getStartOffset() - 1));
+        assertTrue(document.getText(0, 20).startsWith("First is a test"));
+        // Assert: undoing the edits restores the original text
+        while (undoManager.canUndo()) {
+            undoManager.undo();
+        }
+        assertEquals(new String(chars, 0, chars.length - 1), document.getText(0, document.getLength()));
+    }
+}
@@ -0,0 +1,47 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import javax.swing.text.PlainDocument; // to read the text into a document
+import java.io.ByteArrayInputStream; // to read the RTF content from memory
+import java.io.FileInputStream; // to read the test RTF file
+import java.io.IOException; // to handle input/output exceptions
+import java.io.InputStream; // to work with input streams
+import java.nio.charset.StandardCharsets; // to encode the RTF content
+
+/**
+ * A class to test the functionality of the RtfTextReader class.
+ */
+public class RtfTextReaderTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+    private final String testRtfFilePath = "src/test/resources/testFile.rtf";
+
+    // === TEST CASES ===
+
+    // A test case to test that the text of an RTF file is read into a document, without its font table or other destinations
+    @Test
+    public void testReadIntoDocument() throws Exception {
+        // Arrange: open the test RTF file and create an empty document
+        PlainDocument document = new PlainDocument();
+        try (InputStream inputStream = new FileInputStream(testRtfFilePath)) {
+            // Act: read the text of the file into the document
+            RtfTextReader.read(inputStream, document);
+        }
+        // Assert: the document holds only the text of the file
+        assertEquals(testContent, document.getText(0, document.getLength()).trim());
+    }
+
+    // A test case to test control symbols, unicode and hexadecimal escapes, and ignorable destinations
+    @Test
+    public void testEscapesAndDestinations() throws IOException {
+        // Arrange: create RTF content with escapes, a skipped group, an unknown ignorable destination, and a paragraph mark
+        String rtf = "{\\rtf1\\ansi\\ansicpg1252{\\fonttbl{\\f0 Arial;}}{\\*\\unknown hidden}"
+                + "caf\\'e9 \\{x\\} a\\\\b\\tab c\\uc1\\u8364?\\u-10179?\\u-8704? {\\b bold}\\par\r\n"
+                + "next\\line line{\\*\\bkmkstart mark}\\~end}";
+        // Act: extract the text of the content
+        String text = RtfTextReader.extractText(new ByteArrayInputStream(rtf.getBytes(StandardCharsets.US_ASCII)));
+        // Assert: the escapes are decoded, the fallback characters and destinations are skipped, and the breaks are kept
+        assertEquals("café {x} a\\b\tc€😀 bold\nnext\nline\u00A0end", text);
+    }
+}
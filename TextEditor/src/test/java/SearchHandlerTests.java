@@ -3,6 +3,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * A class to test the functionality of the TimeDateHandler class.
@@ -47,4 +54,210 @@ public class SearchHandlerTests {
         // Assert: specify the expected number of occurrences
         assertEquals(0, occurrences);
     }
+
+    // A test method to test that the search index finds the same matches as a full scan, before and after edits
+    @Test
+    public void testIndexedSearch() throws Exception {
+        // Arrange: create content larger than a block of the index and enable the index
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append(i % 100 == 0 ? "A test content for the TextEditor.\n" : "Some other line " + i + "\n");
+        }
+        textArea.setText(content.toString());
+        int expected = searchHandler.search("texteditor");
+        int expectedFullWord = searchHandler.searchFullWord("test");
+        searchHandler.setIndexEnabled(true);
+        // Act: wait for the index to be built in the background (a search scans the whole document until then)
+        assertEquals(expected, searchHandler.search("texteditor"));
+        long deadline = System.currentTimeMillis() + 5000;
+        boolean[] ready = new boolean[1];
+        while (!ready[0] && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            SwingUtilities.invokeAndWait(() -> ready[0] = searchHandler.isIndexReady());
+        }
+        assertTrue(ready[0]);
+        // Act and Assert: the indexed searches find the same number of matches
+        assertEquals(expected, searchHandler.search("texteditor"));
+        assertEquals(expectedFullWord, searchHandler.searchFullWord("test"));
+        // Act: edit the document so that the index is updated incrementally
+        textArea.getDocument().insertString(5000, "TextEditor", null);
+        textArea.getDocument().remove(0, 30);
+        assertTrue(searchHandler.isIndexReady());
+        // Assert: the indexed search still matches a full scan
+        int indexed = searchHandler.search("texteditor");
+        searchHandler.setIndexEnabled(false);
+        assertEquals(searchHandler.search("texteditor"), indexed);
+    }
+
+    // A test method to test that a search of a large document (searched in parallel) finds the same matches as a sequential search
+    @Test
+    public void testParallelSearch() {
+        // Arrange: create content above the parallel search threshold, with matches that may cross segment boundaries
+        StringBuilder content = new StringBuilder();
+        int repetitions = SearchHandler.PARALLEL_THRESHOLD / 7 + 1;
+        for (int i = 0; i < repetitions; i++) {
+            content.append("aaa te ");
+        }
+        textArea.setText(content.toString());
+        // Act and Assert: overlapping candidates ("aa" in "aaa") and full words are counted exactly once per repetition
+        assertEquals(repetitions, searchHandler.search("aa"));
+        assertEquals(repetitions, searchHandler.searchFullWord("te"));
+        assertEquals(repetitions * 3, searchHandler.search("a"));
+    }
+
+    // A test method to test that the matches are stored in a single highlight layer that follows edits and clears at once
+    @Test
+    public void testMatchHighlightLayer() throws Exception {
+        // Arrange: search a text with several matches
+        textArea.setText("one two one two one");
+        int occurrences = searchHandler.search("one");
+        MatchHighlightLayer layer = searchHandler.getMatchLayer();
+        // Assert: every match is stored in the layer, behind a single highlight of the text area
+        assertEquals(3, occurrences);
+        assertEquals(3, layer.getMatchCount());
+        assertEquals(1, textArea.getHighlighter().getHighlights().length);
+        // Act: insert text before the second match and into the third match
+        textArea.getDocument().insertString(0, "xx", null);
+        textArea.getDocument().insertString(19, "y", null);
+        // Assert: the matches after the insert are moved, and the edited match is dropped
+        assertEquals(2, layer.getMatchCount());
+        assertEquals(2, layer.getMatchStart(0));
+        assertEquals(10, layer.getMatchStart(1));
+        // Act and Assert: clearing the highlights removes every match
+        searchHandler.clearHighlights();
+        assertEquals(0, layer.getMatchCount());
+    }
+
+    // A test method to test the regular expression search, including matches of different lengths and invalid expressions
+    @Test
+    public void testSearchRegex() throws Exception {
+        // Arrange: specify the test content
+        textArea.setText("This is a test content for the TextEditor. Another test, tested 42 times.");
+        // Act and Assert: the matches are case-insensitive and store their own end positions
+        FindBar.SearchResult result = FindBar.findRegexMatches(textArea.getDocument(), "test\\w*", false, () -> false);
+        assertArrayEquals(new int[]{10, 51, 57}, result.getMatches());
+        assertArrayEquals(new int[]{14, 55, 63}, result.getEnds());
+        assertEquals(1, FindBar.findRegexMatches(textArea.getDocument(), "\\d+", false, () -> false).getMatches().length);
+        // Assert: empty matches are ignored, and an invalid expression is reported
+        assertEquals(0, FindBar.findRegexMatches(textArea.getDocument(), "q*", false, () -> false).getMatches().length);
+        assertThrows(PatternSyntaxException.class, () -> FindBar.findRegexMatches(textArea.getDocument(), "(unclosed", false, () -> false));
+        // Act: search through the find bar, whose worker highlights the matches once it finishes
+        SwingUtilities.invokeAndWait(() -> searchHandler.searchRegex("test\\w*"));
+        MatchHighlightLayer layer = searchHandler.getMatchLayer();
+        long deadline = System.currentTimeMillis() + 5000;
+        int[] count = new int[1];
+        while (count[0] != 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            SwingUtilities.invokeAndWait(() -> count[0] = layer.getMatchCount());
+        }
+        // Assert: the matches of the find bar are those of the expression
+        assertEquals(3, count[0]);
+        assertEquals(10, layer.getMatchStart(0));
+        assertEquals(63, layer.getMatchEnd(2));
+    }
+
+    // A test method to test that a regular expression with catastrophic backtracking is stopped by the time budget,
+    // and that the document can be edited while it runs
+    @Test
+    public void testSearchRegexTimeBudget() throws Exception {
+        // Arrange: create content on which a repeated greedy group backtracks through every way of splitting the text
+        textArea.setText("a".repeat(30) + "!");
+        CompletableFuture<Long> edited = new CompletableFuture<>();
+        // Act: edit the document while the search runs
+        long start = System.nanoTime();
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+                long editStart = System.nanoTime();
+                textArea.getDocument().insertString(0, "b", null);
+                edited.complete(System.nanoTime() - editStart);
+            } catch (Exception e) {
+                edited.completeExceptionally(e);
+            }
+        }).start();
+        // Assert: the search is stopped instead of hanging, and the edit did not wait for it
+        assertThrows(DocumentCharSequence.TimeBudgetExceededException.class,
+                () -> FindBar.findRegexMatches(textArea.getDocument(), "(.*a){12}!!", false, () -> false));
+        assertTrue(System.nanoTime() - start < (SearchHandler.REGEX_TIME_BUDGET_MS + 1000) * 1_000_000L);
+        assertTrue(edited.get(5, TimeUnit.SECONDS) < SearchHandler.REGEX_TIME_BUDGET_MS * 1_000_000L / 4);
+    }
+
+    // A test method to test that a slow regular expression on a document larger than a window does not hold its read lock,
+    // so an edit does not wait for it either
+    @Test
+    public void testSearchRegexTimeBudgetLargeDocument() throws Exception {
+        // Arrange: create content of several windows on which the pattern backtracks
+        textArea.setText("a".repeat(2 * SearchHandler.REGEX_WINDOW_SIZE) + "!");
+        CompletableFuture<Long> edited = new CompletableFuture<>();
+        // Act: edit the document while the search runs
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+                long editStart = System.nanoTime();
+                textArea.getDocument().insertString(0, "b", null);
+                edited.complete(System.nanoTime() - editStart);
+            } catch (Exception e) {
+                edited.completeExceptionally(e);
+            }
+        }).start();
+        // Assert: the search is stopped by its time budget or by the edit, and the edit did not wait for it
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> FindBar.findRegexMatches(textArea.getDocument(), "(.*a){12}!!", false, () -> false));
+        assertTrue(e instanceof DocumentCharSequence.TimeBudgetExceededException || e instanceof ConcurrentModificationException);
+        assertTrue(edited.get(5, TimeUnit.SECONDS) < SearchHandler.REGEX_TIME_BUDGET_MS * 1_000_000L / 4);
+    }
+
+    // A test method to test that a large document is matched a window at a time with the same matches as the whole text,
+    // including matches crossing windows and a match longer than a window, and that an edit stops the search
+    @Test
+    public void testSearchRegexWindows() throws Exception {
+        // Arrange: create a document of several windows, with a match that spans more than a window
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 3 * SearchHandler.REGEX_WINDOW_SIZE) {
+            text.append("test").append(text.length() % 97).append(' ');
+        }
+        text.append('<').append("x".repeat(2 * SearchHandler.REGEX_WINDOW_SIZE)).append("> end");
+        textArea.setText(text.toString());
+        for (String regex : new String[]{"test\\d+", "(?<=t)\\d+ t", "<x*>", "\\bend$", "\\d*"}) {
+            // Act: search the document
+            FindBar.SearchResult result = FindBar.findRegexMatches(textArea.getDocument(), regex, false, () -> false);
+            // Assert: the matches are those of a matcher over the whole text
+            SearchHandler.MatchList starts = new SearchHandler.MatchList();
+            SearchHandler.MatchList ends = new SearchHandler.MatchList();
+            Matcher matcher = Pattern.compile(regex, SearchHandler.REGEX_FLAGS).matcher(text);
+            while (matcher.find()) {
+                if (matcher.end() > matcher.start()) {
+                    starts.add(matcher.start());
+                    ends.add(matcher.end());
+                }
+            }
+            assertArrayEquals(starts.toArray(), result.getMatches(), regex);
+            assertArrayEquals(ends.toArray(), result.getEnds(), regex);
+        }
+        // Act and Assert: an edit made between two matches stops the search, as the offsets no longer apply
+        int[] calls = new int[1];
+        assertThrows(ConcurrentModificationException.class, () -> FindBar.findRegexMatches(textArea.getDocument(), "test", false, () -> {
+            if (++calls[0] == 2) {
+                textArea.insert("test ", 0);
+            }
+            return false;
+        }));
+    }
+
+    // A test method to test that compiled patterns are reused from the cache
+    @Test
+    public void testPatternCache() {
+        // Arrange: create a small cache
+        PatternCache cache = new PatternCache(2);
+        // Act: look up patterns, so that the least recently used one is evicted
+        cache.get("a", 0);
+        cache.get("b", 0);
+        cache.get("a", 0);
+        cache.get("c", 0);
+        cache.get("a", 0);
+        // Assert: only the two most recently used patterns are kept, and repeated lookups are cache hits
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
 }
@@ -0,0 +1,71 @@
+// Import necessary packages/classes
+import org.junit.jupiter.api.Test; // to use the @Test annotation
+import static org.junit.jupiter.api.Assertions.*; // to use JUnit 5 assertions
+import java.io.ByteArrayInputStream; // to read the test content as a stream of unknown length
+import java.io.IOException; // to handle input/output exceptions
+import java.nio.charset.StandardCharsets; // to encode the test content
+import javax.swing.text.PlainDocument; // to check the properties recorded on a document
+
+/**
+ * A class to test the functionality of the TextFileDecoder class.
+ */
+public class TextFileDecoderTests {
+
+    // === ATTRIBUTES ===
+    private final String testContent = "This is a test content for the TextEditor.";
+
+    // === TEST CASES ===
+
+    // A test case to test that CRLF line separators are normalised and recorded
+    @Test
+    public void testDecodeCrlf() {
+        byte[] bytes = (testContent + "\r\nsecond line\r\n").getBytes(StandardCharsets.UTF_8);
+        TextFileDecoder.DecodedText decoded = TextFileDecoder.decode(bytes, bytes.length);
+        assertEquals(testContent + "\nsecond line\n", decoded.getText());
+        assertEquals("\r\n", decoded.getLineSeparator());
+        assertEquals(StandardCharsets.UTF_8, decoded.getCharset());
+        assertFalse(decoded.hasBom());
+    }
+
+    // A test case to test that a UTF-16 byte order mark is detected and skipped
+    @Test
+    public void testDecodeUtf16Bom() {
+        byte[] bytes = ("\uFEFF" + testContent + "\n").getBytes(StandardCharsets.UTF_16LE);
+        TextFileDecoder.DecodedText decoded = TextFileDecoder.decode(bytes, bytes.length);
+        assertEquals(testContent + "\n", decoded.getText());
+        assertEquals(StandardCharsets.UTF_16LE, decoded.getCharset());
+        assertTrue(decoded.hasBom());
+    }
+
+    // A test case to test that invalid UTF-8 falls back to a single-byte charset
+    @Test
+    public void testDecodeLatin1Fallback() {
+        byte[] bytes = "café\n".getBytes(StandardCharsets.ISO_8859_1);
+        TextFileDecoder.DecodedText decoded = TextFileDecoder.decode(bytes, bytes.length);
+        assertEquals("café\n", decoded.getText());
+        assertEquals(StandardCharsets.ISO_8859_1, decoded.getCharset());
+    }
+
+    // A test case to test that the buffer of a stream longer than its given length doubles without overflowing, up to the largest array
+    @Test
+    public void testGrowCapped() throws IOException {
+        assertEquals(16, TextFileDecoder.grow(0));
+        assertEquals(1 << 30, TextFileDecoder.grow(1 << 29));
+        assertEquals(TextFileDecoder.MAX_ARRAY_LENGTH, TextFileDecoder.grow((1 << 30) + 1));
+        assertThrows(IOException.class, () -> TextFileDecoder.grow(TextFileDecoder.MAX_ARRAY_LENGTH));
+        // A stream of unknown length is still read completely
+        byte[] bytes = (testContent + "\n").repeat(100).getBytes(StandardCharsets.UTF_8);
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), TextFileDecoder.decode(new ByteArrayInputStream(bytes), -1).getText());
+    }
+
+    // A test case to test that the decoding details are recorded on a document
+    @Test
+    public void testApplyTo() {
+        byte[] bytes = "one\rtwo".getBytes(StandardCharsets.UTF_8);
+        PlainDocument document = new PlainDocument();
+        TextFileDecoder.decode(bytes, bytes.length).applyTo(document);
+        assertEquals("\r", TextFileDecoder.getLineSeparator(document));
+        assertEquals(StandardCharsets.UTF_8, TextFileDecoder.getCharset(document));
+        assertFalse(TextFileDecoder.hasBom(document));
+    }
+}